@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.connectors.jdbc.internal;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Operation;
+
+/**
+ * Measures how many batches of write-behind rows an embedded Derby database takes per second,
+ * written one statement at a time the way {@link SqlHandler#write} does, with an update and then
+ * an insert if the update found no row, or with JDBC batches in one transaction the way
+ * {@link SqlBatchWriter} does. Half of the rows of each batch exist already.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SqlBatchWriterBenchmark {
+
+  private static final String URL = "jdbc:derby:memory:SqlBatchWriterBenchmark;create=true";
+
+  @Param({"10", "100", "1000"})
+  public int batchSize;
+
+  private Connection connection;
+  private TableMetaDataView tableMetaData;
+  private SqlStatementFactory statementFactory;
+  private SqlBatchWriter batchWriter;
+  private int nextId;
+
+  @Setup(Level.Trial)
+  public void setup() throws SQLException {
+    connection = DriverManager.getConnection(URL);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(
+          "CREATE TABLE employees (id INT PRIMARY KEY, name VARCHAR(64), age INT)");
+    }
+    HashMap<String, TableMetaData.ColumnMetaData> columns = new HashMap<>();
+    columns.put("ID", new TableMetaData.ColumnMetaData(JDBCType.INTEGER, false));
+    columns.put("NAME", new TableMetaData.ColumnMetaData(JDBCType.VARCHAR, true));
+    columns.put("AGE", new TableMetaData.ColumnMetaData(JDBCType.INTEGER, true));
+    tableMetaData = new TableMetaData(null, null, "EMPLOYEES", Collections.singletonList("ID"),
+        true, "\"", columns);
+    statementFactory = new SqlStatementFactory(tableMetaData.getIdentifierQuoteString());
+    batchWriter = new SqlBatchWriter(tableMetaData,
+        connection.getMetaData().getDatabaseProductName());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE employees");
+    }
+    connection.close();
+  }
+
+  /**
+   * @return a batch of rows, half of which update the rows of the previous batch
+   */
+  private List<EntryColumnData> nextBatch() {
+    List<EntryColumnData> rows = new ArrayList<>(batchSize);
+    int first = Math.max(0, nextId - batchSize / 2);
+    for (int id = first; id < first + batchSize; id++) {
+      List<ColumnData> values = new ArrayList<>(2);
+      values.add(new ColumnData("NAME", "employee-" + id, JDBCType.VARCHAR));
+      values.add(new ColumnData("AGE", id % 70, JDBCType.INTEGER));
+      rows.add(new EntryColumnData(
+          Collections.singletonList(new ColumnData("ID", id, JDBCType.INTEGER)), values));
+    }
+    nextId = first + batchSize;
+    return rows;
+  }
+
+  @Benchmark
+  public void oneStatementPerRow() throws SQLException {
+    String tablePath = tableMetaData.getQuotedTablePath();
+    for (EntryColumnData row : nextBatch()) {
+      int updated;
+      try (PreparedStatement update =
+          connection.prepareStatement(statementFactory.createUpdateSqlString(tablePath, row))) {
+        SqlHandler.setValuesInStatement(update, row, Operation.UPDATE);
+        updated = update.executeUpdate();
+      }
+      if (updated == 0) {
+        try (PreparedStatement insert =
+            connection.prepareStatement(statementFactory.createInsertSqlString(tablePath, row))) {
+          SqlHandler.setValuesInStatement(insert, row, Operation.CREATE);
+          insert.executeUpdate();
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void batched() throws SQLException {
+    batchWriter.write(connection, nextBatch(), Collections.emptyList());
+  }
+}
@@ -15,7 +15,14 @@
 package org.apache.geode.connectors.jdbc;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.logging.log4j.Logger;
@@ -27,8 +34,10 @@ import org.apache.geode.cache.asyncqueue.AsyncEventListener;
 import org.apache.geode.connectors.jdbc.internal.AbstractJdbcCallback;
 import org.apache.geode.connectors.jdbc.internal.SqlHandler;
 import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.util.internal.GeodeGlossary;
 
 /**
  * This class provides write behind cache semantics for a JDBC data source using AsyncEventListener.
@@ -39,6 +48,24 @@ import org.apache.geode.pdx.PdxInstance;
 public class JdbcAsyncWriter extends AbstractJdbcCallback implements AsyncEventListener {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * Whether the events of a batch are written with JDBC batches, in one transaction per
+   * connection, instead of with one statement per event
+   */
+  static final boolean BATCH_WRITES =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "JdbcAsyncWriter.BATCH_WRITES");
+
+  /**
+   * The number of connections the events of a batch are written over at the same time when they
+   * are written with JDBC batches
+   */
+  static final int WRITE_THREADS =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "JdbcAsyncWriter.WRITE_THREADS", 1);
+
+  private final boolean batchWrites;
+  private final int writeThreads;
+  private ExecutorService writeExecutor;
+
   private final LongAdder totalEvents = new LongAdder();
   private final LongAdder successfulEvents = new LongAdder();
   private final LongAdder failedEvents = new LongAdder();
@@ -47,11 +74,21 @@ public class JdbcAsyncWriter extends AbstractJdbcCallback implements AsyncEventL
   @SuppressWarnings("unused")
   public JdbcAsyncWriter() {
     super();
+    this.batchWrites = BATCH_WRITES;
+    this.writeThreads = Math.max(1, WRITE_THREADS);
   }
 
   // Constructor for test purposes only
   JdbcAsyncWriter(SqlHandler sqlHandler, InternalCache cache) {
+    this(sqlHandler, cache, false, 1);
+  }
+
+  // Constructor for test purposes only
+  JdbcAsyncWriter(SqlHandler sqlHandler, InternalCache cache, boolean batchWrites,
+      int writeThreads) {
     super(sqlHandler, cache);
+    this.batchWrites = batchWrites;
+    this.writeThreads = Math.max(1, writeThreads);
   }
 
   @Override
@@ -71,7 +108,11 @@ public class JdbcAsyncWriter extends AbstractJdbcCallback implements AsyncEventL
     Boolean initialPdxReadSerialized = cache.getPdxReadSerializedOverride();
     cache.setPdxReadSerializedOverride(true);
     try {
-      processEventsList(events);
+      if (batchWrites) {
+        processEventsInBatches(events);
+      } else {
+        processEventsList(events);
+      }
     } finally {
       cache.setPdxReadSerializedOverride(initialPdxReadSerialized);
     }
@@ -96,6 +137,131 @@ public class JdbcAsyncWriter extends AbstractJdbcCallback implements AsyncEventL
     }
   }
 
+  /**
+   * Writes the events with JDBC batches. Every write replaces or deletes a whole row, so only the
+   * last event on each key is written. The remaining events are split over the write threads,
+   * which is safe because no two of them have the same key. If a batch fails its events are
+   * written one at a time, so that only the events that fail are counted as failed.
+   */
+  @SuppressWarnings("rawtypes")
+  private void processEventsInBatches(List<AsyncEvent> events) {
+    Map<Object, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    for (AsyncEvent event : events) {
+      if (eventCanBeIgnored(event.getOperation())) {
+        changeIgnoredEvents(1);
+        continue;
+      }
+      PendingWrite replaced = pendingWrites.remove(event.getKey());
+      PendingWrite pendingWrite = new PendingWrite(event);
+      if (replaced != null) {
+        pendingWrite.eventCount += replaced.eventCount;
+      }
+      pendingWrites.put(event.getKey(), pendingWrite);
+    }
+
+    List<List<PendingWrite>> chunks = new ArrayList<>(writeThreads);
+    for (int i = 0; i < writeThreads; i++) {
+      chunks.add(new ArrayList<>());
+    }
+    int next = 0;
+    for (PendingWrite pendingWrite : pendingWrites.values()) {
+      try {
+        if (!pendingWrite.event.getOperation().isDestroy()) {
+          // read on this thread, for which PDX values are read serialized
+          pendingWrite.value = getPdxInstance(pendingWrite.event);
+        }
+      } catch (RuntimeException ex) {
+        changeFailedEvents(pendingWrite.eventCount);
+        logger.error("Exception processing event {}", pendingWrite.event, ex);
+        continue;
+      }
+      chunks.get(next++ % writeThreads).add(pendingWrite);
+    }
+
+    Map<Future<?>, List<PendingWrite>> futures = new LinkedHashMap<>();
+    for (int i = 1; i < writeThreads; i++) {
+      List<PendingWrite> chunk = chunks.get(i);
+      if (!chunk.isEmpty()) {
+        futures.put(getWriteExecutor().submit(() -> writeChunk(chunk)), chunk);
+      }
+    }
+    writeChunk(chunks.get(0));
+    for (Map.Entry<Future<?>, List<PendingWrite>> future : futures.entrySet()) {
+      try {
+        future.getKey().get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        int eventCount = 0;
+        for (PendingWrite pendingWrite : future.getValue()) {
+          eventCount += pendingWrite.eventCount;
+        }
+        changeFailedEvents(eventCount);
+        logger.error("Exception writing a batch of {} events", eventCount, e.getCause());
+      }
+    }
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private void writeChunk(List<PendingWrite> chunk) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    Map<Object, PdxInstance> upserts = new HashMap<>();
+    List<Object> destroys = new ArrayList<>();
+    int eventCount = 0;
+    for (PendingWrite pendingWrite : chunk) {
+      if (pendingWrite.event.getOperation().isDestroy()) {
+        destroys.add(pendingWrite.event.getKey());
+      } else {
+        upserts.put(pendingWrite.event.getKey(), pendingWrite.value);
+      }
+      eventCount += pendingWrite.eventCount;
+    }
+
+    Boolean initialPdxReadSerialized = cache.getPdxReadSerializedOverride();
+    cache.setPdxReadSerializedOverride(true);
+    try {
+      getSqlHandler().writeBatch(upserts, destroys);
+      changeSuccessfulEvents(eventCount);
+      return;
+    } catch (SQLException | RuntimeException ex) {
+      logger.warn("Exception writing a batch of {} events, writing them one at a time",
+          chunk.size(), ex);
+    } finally {
+      cache.setPdxReadSerializedOverride(initialPdxReadSerialized);
+    }
+
+    for (PendingWrite pendingWrite : chunk) {
+      AsyncEvent event = pendingWrite.event;
+      try {
+        getSqlHandler().write(event.getRegion(), event.getOperation(), event.getKey(),
+            pendingWrite.value);
+        changeSuccessfulEvents(pendingWrite.eventCount);
+      } catch (SQLException | RuntimeException ex) {
+        changeFailedEvents(pendingWrite.eventCount);
+        logger.error("Exception processing event {}", event, ex);
+      }
+    }
+  }
+
+  private synchronized ExecutorService getWriteExecutor() {
+    if (writeExecutor == null) {
+      writeExecutor =
+          LoggingExecutors.newFixedThreadPool(writeThreads - 1, "JdbcAsyncWriter Thread ", true);
+    }
+    return writeExecutor;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (writeExecutor != null) {
+      writeExecutor.shutdown();
+      writeExecutor = null;
+    }
+  }
+
   long getTotalEvents() {
     return totalEvents.longValue();
   }
@@ -128,6 +294,20 @@ public class JdbcAsyncWriter extends AbstractJdbcCallback implements AsyncEventL
     ignoredEvents.add(delta);
   }
 
+  /**
+   * The last event on a key in a batch, which is written for all the events on that key
+   */
+  @SuppressWarnings("rawtypes")
+  private static class PendingWrite {
+    private final AsyncEvent event;
+    private PdxInstance value;
+    private int eventCount = 1;
+
+    PendingWrite(AsyncEvent event) {
+      this.event = event;
+    }
+  }
+
   /**
    * precondition: DefaultQuery.setPdxReadSerialized(true)
    */
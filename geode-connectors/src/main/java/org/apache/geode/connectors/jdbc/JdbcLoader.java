@@ -20,9 +20,14 @@ import org.apache.geode.annotations.Experimental;
 import org.apache.geode.cache.CacheLoader;
 import org.apache.geode.cache.CacheLoaderException;
 import org.apache.geode.cache.LoaderHelper;
+import org.apache.geode.cache.Region;
 import org.apache.geode.connectors.jdbc.internal.AbstractJdbcCallback;
+import org.apache.geode.connectors.jdbc.internal.JdbcLoaderStats;
 import org.apache.geode.connectors.jdbc.internal.SqlHandler;
+import org.apache.geode.connectors.jdbc.internal.SqlReadBatcher;
 import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.util.internal.GeodeGlossary;
 
 /**
  * This class provides loading from a data source using JDBC.
@@ -32,14 +37,51 @@ import org.apache.geode.internal.cache.InternalCache;
 @Experimental
 public class JdbcLoader<K, V> extends AbstractJdbcCallback implements CacheLoader<K, V> {
 
+  /**
+   * How long, in milliseconds, a load waits for the loads of other keys to join it in one batch
+   * query. Zero disables batching.
+   */
+  static final long BATCH_WINDOW_MILLIS =
+      Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "JdbcLoader.BATCH_WINDOW_MILLIS", 0);
+
+  /** The most keys read by one batch query */
+  static final int MAX_BATCH_SIZE =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "JdbcLoader.MAX_BATCH_SIZE", 100);
+
+  /**
+   * How long, in milliseconds, a key that has no row is remembered, so that loads of it return
+   * null without a query. Zero disables remembering keys that were not found.
+   */
+  static final long NOT_FOUND_TTL_MILLIS =
+      Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "JdbcLoader.NOT_FOUND_TTL_MILLIS", 0);
+
+  private final long batchWindowMillis;
+  private final int maxBatchSize;
+  private final long notFoundTimeToLiveMillis;
+
+  private volatile JdbcLoaderStats stats;
+  private volatile SqlReadBatcher<K> readBatcher;
+
   @SuppressWarnings("unused")
   public JdbcLoader() {
     super();
+    this.batchWindowMillis = BATCH_WINDOW_MILLIS;
+    this.maxBatchSize = MAX_BATCH_SIZE;
+    this.notFoundTimeToLiveMillis = NOT_FOUND_TTL_MILLIS;
   }
 
   // Constructor for test purposes only
   JdbcLoader(SqlHandler sqlHandler, InternalCache cache) {
+    this(sqlHandler, cache, 0, MAX_BATCH_SIZE, 0);
+  }
+
+  // Constructor for test purposes only
+  JdbcLoader(SqlHandler sqlHandler, InternalCache cache, long batchWindowMillis,
+      int maxBatchSize, long notFoundTimeToLiveMillis) {
     super(sqlHandler, cache);
+    this.batchWindowMillis = batchWindowMillis;
+    this.maxBatchSize = maxBatchSize;
+    this.notFoundTimeToLiveMillis = notFoundTimeToLiveMillis;
   }
 
   /**
@@ -49,13 +91,70 @@ public class JdbcLoader<K, V> extends AbstractJdbcCallback implements CacheLoade
   @Override
   @SuppressWarnings("unchecked")
   public V load(LoaderHelper<K, V> helper) throws CacheLoaderException {
-    checkInitialized(helper.getRegion());
+    Region<K, V> region = helper.getRegion();
+    checkInitialized(region);
+    JdbcLoaderStats loaderStats = getStats(region);
+    long start = System.nanoTime();
+    PdxInstance result;
     try {
-      // The following cast to V is to keep the compiler happy
-      // but is erased at runtime and no actual cast happens.
-      return (V) getSqlHandler().read(helper.getRegion(), helper.getKey());
+      if (batchWindowMillis > 0 || notFoundTimeToLiveMillis > 0) {
+        result = getReadBatcher(loaderStats).read(region, helper.getKey());
+      } else {
+        result = getSqlHandler().read(region, helper.getKey());
+      }
     } catch (SQLException e) {
       throw JdbcConnectorException.createException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CacheLoaderException("Interrupted while loading " + helper.getKey(), e);
+    }
+    loaderStats.endLoad(start, result != null);
+    // The following cast to V is to keep the compiler happy
+    // but is erased at runtime and no actual cast happens.
+    return (V) result;
+  }
+
+  @Override
+  public void close() {
+    JdbcLoaderStats loaderStats = stats;
+    if (loaderStats != null) {
+      loaderStats.close();
+    }
+  }
+
+  private JdbcLoaderStats getStats(Region<K, V> region) {
+    JdbcLoaderStats result = stats;
+    if (result == null) {
+      result = createStats(region);
     }
+    return result;
+  }
+
+  private synchronized JdbcLoaderStats createStats(Region<K, V> region) {
+    if (stats == null) {
+      stats = new JdbcLoaderStats(cache.getDistributedSystem(), region.getName());
+    }
+    return stats;
+  }
+
+  private SqlReadBatcher<K> getReadBatcher(JdbcLoaderStats loaderStats) {
+    SqlReadBatcher<K> result = readBatcher;
+    if (result == null) {
+      result = createReadBatcher(loaderStats);
+    }
+    return result;
+  }
+
+  private synchronized SqlReadBatcher<K> createReadBatcher(JdbcLoaderStats loaderStats) {
+    if (readBatcher == null) {
+      readBatcher = new SqlReadBatcher<>(getSqlHandler(), loaderStats, batchWindowMillis,
+          maxBatchSize, notFoundTimeToLiveMillis);
+    }
+    return readBatcher;
+  }
+
+  // for unit testing
+  JdbcLoaderStats getStats() {
+    return stats;
   }
 }
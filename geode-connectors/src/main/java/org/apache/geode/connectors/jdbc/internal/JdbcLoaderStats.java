@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.connectors.jdbc.internal;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.annotations.Immutable;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * The statistics of the loads a {@link org.apache.geode.connectors.jdbc.JdbcLoader} does for a
+ * region. The average number of keys of a batch query is batchQueryKeys / batchQueries.
+ *
+ * @since Geode 1.15
+ */
+public class JdbcLoaderStats {
+
+  @Immutable
+  private static final StatisticsType type;
+
+  private static final String LOADS = "loads";
+  private static final String LOAD_TIME = "loadTime";
+  private static final String LOADS_NOT_FOUND = "loadsNotFound";
+  private static final String NOT_FOUND_CACHE_HITS = "notFoundCacheHits";
+  private static final String LOADS_JOINED = "loadsJoined";
+  private static final String BATCH_QUERIES = "batchQueries";
+  private static final String BATCH_QUERY_KEYS = "batchQueryKeys";
+  private static final String BATCH_QUERY_TIME = "batchQueryTime";
+
+  private static final int loadsId;
+  private static final int loadTimeId;
+  private static final int loadsNotFoundId;
+  private static final int notFoundCacheHitsId;
+  private static final int loadsJoinedId;
+  private static final int batchQueriesId;
+  private static final int batchQueryKeysId;
+  private static final int batchQueryTimeId;
+
+  static {
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+    type = f.createType("JdbcLoaderStats", "Statistics of the loads of a JDBC loader",
+        new StatisticDescriptor[] {
+            f.createLongCounter(LOADS, "Number of loads completed.", "operations"),
+            f.createLongCounter(LOAD_TIME,
+                "Total time spent in loads, including the time waiting for a batch query.",
+                "nanoseconds"),
+            f.createLongCounter(LOADS_NOT_FOUND,
+                "Number of loads of keys that have no row in the table.", "operations"),
+            f.createLongCounter(NOT_FOUND_CACHE_HITS,
+                "Number of loads answered from the cache of keys recently not found, without a query.",
+                "operations"),
+            f.createLongCounter(LOADS_JOINED,
+                "Number of loads that waited for the load of the same key already in progress.",
+                "operations"),
+            f.createLongCounter(BATCH_QUERIES,
+                "Number of queries that read the rows of a batch of keys.", "operations"),
+            f.createLongCounter(BATCH_QUERY_KEYS,
+                "Total number of keys read by batch queries.", "keys"),
+            f.createLongCounter(BATCH_QUERY_TIME, "Total time spent in batch queries.",
+                "nanoseconds")});
+
+    loadsId = type.nameToId(LOADS);
+    loadTimeId = type.nameToId(LOAD_TIME);
+    loadsNotFoundId = type.nameToId(LOADS_NOT_FOUND);
+    notFoundCacheHitsId = type.nameToId(NOT_FOUND_CACHE_HITS);
+    loadsJoinedId = type.nameToId(LOADS_JOINED);
+    batchQueriesId = type.nameToId(BATCH_QUERIES);
+    batchQueryKeysId = type.nameToId(BATCH_QUERY_KEYS);
+    batchQueryTimeId = type.nameToId(BATCH_QUERY_TIME);
+  }
+
+  private final Statistics stats;
+
+  public JdbcLoaderStats(StatisticsFactory factory, String regionName) {
+    this.stats = factory.createAtomicStatistics(type, "JdbcLoaderStats-" + regionName);
+  }
+
+  public void close() {
+    stats.close();
+  }
+
+  public void endLoad(long startTime, boolean found) {
+    stats.incLong(loadsId, 1);
+    stats.incLong(loadTimeId, System.nanoTime() - startTime);
+    if (!found) {
+      stats.incLong(loadsNotFoundId, 1);
+    }
+  }
+
+  public void incNotFoundCacheHits() {
+    stats.incLong(notFoundCacheHitsId, 1);
+  }
+
+  public void incLoadsJoined() {
+    stats.incLong(loadsJoinedId, 1);
+  }
+
+  public void endBatchQuery(long startTime, int keys) {
+    stats.incLong(batchQueriesId, 1);
+    stats.incLong(batchQueryKeysId, keys);
+    stats.incLong(batchQueryTimeId, System.nanoTime() - startTime);
+  }
+
+  public long getLoads() {
+    return stats.getLong(loadsId);
+  }
+
+  public long getLoadsNotFound() {
+    return stats.getLong(loadsNotFoundId);
+  }
+
+  public long getNotFoundCacheHits() {
+    return stats.getLong(notFoundCacheHitsId);
+  }
+
+  public long getLoadsJoined() {
+    return stats.getLong(loadsJoinedId);
+  }
+
+  public long getBatchQueries() {
+    return stats.getLong(batchQueriesId);
+  }
+
+  public long getBatchQueryKeys() {
+    return stats.getLong(batchQueryKeysId);
+  }
+}
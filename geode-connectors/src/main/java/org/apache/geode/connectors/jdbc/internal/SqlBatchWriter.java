@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.connectors.jdbc.internal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.Operation;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * Writes the rows of a batch of entries to a table with JDBC batches, in one transaction. Rows that
+ * are created or updated are upserted. If the key columns are unique in the table and
+ * {@link SqlStatementFactory} knows the upsert statement of the database it is used, otherwise a
+ * batch of updates is followed by a batch of inserts of the rows that did not exist.
+ *
+ * @since Geode 1.15
+ */
+class SqlBatchWriter {
+  private static final Logger logger = LogService.getLogger();
+
+  private final TableMetaDataView tableMetaData;
+  private final SqlStatementFactory statementFactory;
+  private final String databaseProductName;
+
+  SqlBatchWriter(TableMetaDataView tableMetaData, String databaseProductName) {
+    this.tableMetaData = tableMetaData;
+    this.statementFactory = new SqlStatementFactory(tableMetaData.getIdentifierQuoteString());
+    this.databaseProductName = databaseProductName;
+  }
+
+  /**
+   * Writes the rows in one transaction, which is rolled back if any of them fails.
+   *
+   * @param upserts the rows to create or update
+   * @param destroys the keys of the rows to delete
+   */
+  void write(Connection connection, List<EntryColumnData> upserts,
+      List<EntryColumnData> destroys) throws SQLException {
+    boolean autoCommit = connection.getAutoCommit();
+    if (autoCommit) {
+      connection.setAutoCommit(false);
+    }
+    boolean committed = false;
+    try {
+      for (List<EntryColumnData> rows : groupByColumns(destroys).values()) {
+        executeBatch(connection,
+            statementFactory.createDestroySqlString(tableMetaData.getQuotedTablePath(),
+                rows.get(0)),
+            rows, Operation.DESTROY);
+      }
+      for (List<EntryColumnData> rows : groupByColumns(upserts).values()) {
+        upsert(connection, rows);
+      }
+      connection.commit();
+      committed = true;
+    } finally {
+      if (!committed) {
+        rollback(connection);
+      }
+      if (autoCommit) {
+        connection.setAutoCommit(true);
+      }
+    }
+  }
+
+  /**
+   * Rows with different columns, such as values of different versions of a PDX type, need
+   * different statements
+   */
+  private static Map<List<String>, List<EntryColumnData>> groupByColumns(
+      List<EntryColumnData> rows) {
+    Map<List<String>, List<EntryColumnData>> groups = new LinkedHashMap<>();
+    for (EntryColumnData row : rows) {
+      List<String> columnNames = new ArrayList<>();
+      for (ColumnData column : row.getEntryValueColumnData()) {
+        columnNames.add(column.getColumnName());
+      }
+      for (ColumnData column : row.getEntryKeyColumnData()) {
+        columnNames.add(column.getColumnName());
+      }
+      groups.computeIfAbsent(columnNames, k -> new ArrayList<>()).add(row);
+    }
+    return groups;
+  }
+
+  private void upsert(Connection connection, List<EntryColumnData> rows) throws SQLException {
+    String tablePath = tableMetaData.getQuotedTablePath();
+    EntryColumnData first = rows.get(0);
+    // the upsert statements detect an existing row through a unique constraint on the key
+    String upsertSql = tableMetaData.isKeyUnique()
+        ? statementFactory.createUpsertSqlString(tablePath, first, databaseProductName) : null;
+    if (upsertSql != null) {
+      executeBatch(connection, upsertSql, rows, Operation.CREATE);
+      return;
+    }
+
+    int[] updateCounts = executeBatch(connection,
+        statementFactory.createUpdateSqlString(tablePath, first), rows, Operation.UPDATE);
+    List<EntryColumnData> inserts = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i++) {
+      if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+        throw new SQLException(
+            "The database did not report which rows were updated, so the missing rows are unknown");
+      }
+      if (updateCounts[i] == 0) {
+        inserts.add(rows.get(i));
+      }
+    }
+    if (!inserts.isEmpty()) {
+      executeBatch(connection, statementFactory.createInsertSqlString(tablePath, first), inserts,
+          Operation.CREATE);
+    }
+  }
+
+  private int[] executeBatch(Connection connection, String sql, List<EntryColumnData> rows,
+      Operation operation) throws SQLException {
+    if (logger.isDebugEnabled()) {
+      logger.debug("Executing SQL string:{} for {} rows", sql, rows.size());
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (EntryColumnData row : rows) {
+        SqlHandler.setValuesInStatement(statement, row, operation);
+        statement.addBatch();
+      }
+      return statement.executeBatch();
+    }
+  }
+
+  private static void rollback(Connection connection) {
+    try {
+      connection.rollback();
+    } catch (SQLException e) {
+      logger.debug("Failed to roll back a batch write", e);
+    }
+  }
+}
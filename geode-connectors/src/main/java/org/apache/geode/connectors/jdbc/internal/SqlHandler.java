@@ -14,11 +14,13 @@
  */
 package org.apache.geode.connectors.jdbc.internal;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -49,6 +51,7 @@ public class SqlHandler {
   private final TableMetaDataView tableMetaData;
   private final Map<String, FieldMapping> pdxToFieldMappings = new HashMap<>();
   private volatile SqlToPdxInstance sqlToPdxInstance;
+  private volatile SqlBatchWriter batchWriter;
 
   public SqlHandler(InternalCache cache, String regionName,
       TableMetaDataManager tableMetaDataManager, JdbcConnectorService configService,
@@ -134,6 +137,122 @@ public class SqlHandler {
     return result;
   }
 
+  /**
+   * Reads the rows of many keys with one query.
+   *
+   * @return the PdxInstances of the keys that have a row; keys without a row are left out
+   */
+  public <K, V> Map<K, PdxInstance> readAll(Region<K, V> region, Collection<K> keys)
+      throws SQLException {
+    Map<K, PdxInstance> result = new HashMap<>();
+    if (keys.isEmpty()) {
+      return result;
+    }
+    List<String> keyColumnNames = tableMetaData.getKeyColumnNames();
+    Map<List<Object>, K> keysByColumnValues = new HashMap<>();
+    List<List<ColumnData>> keyColumnData = new ArrayList<>(keys.size());
+    for (K key : keys) {
+      if (key == null) {
+        throw new IllegalArgumentException("Key for query cannot be null");
+      }
+      List<ColumnData> columnData = orderByKeyColumnNames(keyColumnNames,
+          getEntryColumnData(tableMetaData, key, null, Operation.GET).getEntryKeyColumnData());
+      keyColumnData.add(columnData);
+      List<Object> columnValues = new ArrayList<>(columnData.size());
+      for (ColumnData column : columnData) {
+        columnValues.add(normalizeKeyColumnValue(column.getValue()));
+      }
+      keysByColumnValues.put(columnValues, key);
+    }
+
+    String sqlStr = new SqlStatementFactory(tableMetaData.getIdentifierQuoteString())
+        .createSelectAllQueryString(tableMetaData.getQuotedTablePath(), keyColumnNames,
+            keyColumnData.size());
+    if (logger.isDebugEnabled()) {
+      logger.debug("Got SQL string:{} for {} keys", sqlStr, keyColumnData.size());
+    }
+    boolean unmatchedRows = false;
+    try (Connection connection = getConnection();
+        PreparedStatement statement = connection.prepareStatement(sqlStr)) {
+      int index = 0;
+      for (List<ColumnData> columnData : keyColumnData) {
+        for (ColumnData column : columnData) {
+          index++;
+          setValueOnStatement(statement, index, column);
+        }
+      }
+      try (ResultSet resultSet = statement.executeQuery()) {
+        SqlToPdxInstance sqlToPdxInstance = getSqlToPdxInstance();
+        while (resultSet.next()) {
+          List<Object> columnValues = new ArrayList<>(keyColumnNames.size());
+          for (String keyColumnName : keyColumnNames) {
+            columnValues.add(normalizeKeyColumnValue(resultSet.getObject(keyColumnName)));
+          }
+          K key = keysByColumnValues.get(columnValues);
+          if (key == null) {
+            unmatchedRows = true;
+            continue;
+          }
+          if (result.put(key, sqlToPdxInstance.createFromCurrentRow(resultSet)) != null) {
+            throw new JdbcConnectorException(
+                "Multiple rows returned for query: " + sqlStr + " with key: " + key);
+          }
+        }
+      }
+    }
+
+    if (unmatchedRows) {
+      // The database returned key values that do not compare equal to the keys asked for, such as
+      // a string key of a numeric column, so the keys still missing are read one at a time
+      for (K key : keys) {
+        if (!result.containsKey(key)) {
+          PdxInstance value = read(region, key);
+          if (value != null) {
+            result.put(key, value);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private static List<ColumnData> orderByKeyColumnNames(List<String> keyColumnNames,
+      List<ColumnData> keyColumnData) {
+    if (keyColumnData.size() == 1) {
+      return keyColumnData;
+    }
+    List<ColumnData> result = new ArrayList<>(keyColumnData.size());
+    for (String keyColumnName : keyColumnNames) {
+      for (ColumnData column : keyColumnData) {
+        if (column.getColumnName().equals(keyColumnName)) {
+          result.add(column);
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The JDBC driver may return a key column value as a different type than the one of the key,
+   * such as a Long for an Integer key, so numbers are compared by value.
+   */
+  private static Object normalizeKeyColumnValue(Object value) {
+    if (value instanceof Number) {
+      try {
+        return new BigDecimal(value.toString()).stripTrailingZeros();
+      } catch (NumberFormatException e) {
+        // NaN or infinity
+        return value;
+      }
+    } else if (value instanceof Character) {
+      return value.toString();
+    } else if (value instanceof Date) {
+      return ((Date) value).getTime();
+    }
+    return value;
+  }
+
   private SqlToPdxInstance getSqlToPdxInstance() {
     SqlToPdxInstance result = this.sqlToPdxInstance;
     if (result == null) {
@@ -156,7 +275,7 @@ public class SqlHandler {
     return statement.executeQuery();
   }
 
-  private void setValuesInStatement(PreparedStatement statement, EntryColumnData entryColumnData,
+  static void setValuesInStatement(PreparedStatement statement, EntryColumnData entryColumnData,
       Operation operation)
       throws SQLException {
     int index = 0;
@@ -166,8 +285,8 @@ public class SqlHandler {
     setValuesFromColumnData(statement, entryColumnData.getEntryKeyColumnData(), index);
   }
 
-  private int setValuesFromColumnData(PreparedStatement statement, List<ColumnData> columnDataList,
-      int index) throws SQLException {
+  private static int setValuesFromColumnData(PreparedStatement statement,
+      List<ColumnData> columnDataList, int index) throws SQLException {
     for (ColumnData columnData : columnDataList) {
       index++;
       setValueOnStatement(statement, index, columnData);
@@ -175,8 +294,8 @@ public class SqlHandler {
     return index;
   }
 
-  private void setValueOnStatement(PreparedStatement statement, int index, ColumnData columnData)
-      throws SQLException {
+  private static void setValueOnStatement(PreparedStatement statement, int index,
+      ColumnData columnData) throws SQLException {
     Object value = columnData.getValue();
     if (value instanceof Character) {
       Character character = ((Character) value);
@@ -250,6 +369,46 @@ public class SqlHandler {
     }
   }
 
+  /**
+   * Writes the given entries in one transaction, with as few round trips to the database as it
+   * allows. If any entry fails the whole transaction is rolled back. Unlike
+   * {@link #write(Region, Operation, Object, PdxInstance)} this does not preserve the order of the
+   * operations, so each key may only be given once.
+   *
+   * @param upserts the values of the entries to create or update, by key
+   * @param destroys the keys of the entries to destroy
+   */
+  public <K> void writeBatch(Map<K, PdxInstance> upserts, Collection<K> destroys)
+      throws SQLException {
+    List<EntryColumnData> upsertColumnData = new ArrayList<>(upserts.size());
+    for (Map.Entry<K, PdxInstance> upsert : upserts.entrySet()) {
+      if (upsert.getValue() == null) {
+        throw new IllegalArgumentException(
+            "PdxInstance cannot be null for non-destroy operations");
+      }
+      upsertColumnData.add(getEntryColumnData(tableMetaData, upsert.getKey(), upsert.getValue(),
+          Operation.UPDATE));
+    }
+    List<EntryColumnData> destroyColumnData = new ArrayList<>(destroys.size());
+    for (K key : destroys) {
+      destroyColumnData.add(getEntryColumnData(tableMetaData, key, null, Operation.DESTROY));
+    }
+
+    try (Connection connection = getConnection()) {
+      getBatchWriter(connection).write(connection, upsertColumnData, destroyColumnData);
+    }
+  }
+
+  private SqlBatchWriter getBatchWriter(Connection connection) throws SQLException {
+    SqlBatchWriter result = this.batchWriter;
+    if (result == null) {
+      result = new SqlBatchWriter(tableMetaData,
+          connection.getMetaData().getDatabaseProductName());
+      this.batchWriter = result;
+    }
+    return result;
+  }
+
   private Operation getOppositeOperation(Operation operation) {
     return operation.isUpdate() ? Operation.CREATE : Operation.UPDATE;
   }
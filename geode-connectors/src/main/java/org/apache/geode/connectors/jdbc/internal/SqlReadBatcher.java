@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.connectors.jdbc.internal;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.connectors.jdbc.JdbcConnectorException;
+import org.apache.geode.pdx.PdxInstance;
+
+/**
+ * Coalesces the reads of a region's loader into batch queries. The first read that misses opens a
+ * batch and waits up to the batch window for other reads to join it, then reads all of their rows
+ * with one query. Reads of a key already being read wait for that read instead of querying again.
+ * Keys that have no row can be remembered for a time to live, during which they are not queried
+ * again; a row inserted into the table in that time is not seen by the loader until it passes.
+ *
+ * @since Geode 1.15
+ */
+public class SqlReadBatcher<K> {
+
+  /** The most keys remembered as not found, so that misses on random keys do not grow it forever */
+  static final int MAX_NOT_FOUND_KEYS = 100_000;
+
+  private final SqlHandler sqlHandler;
+  private final JdbcLoaderStats stats;
+  private final long batchWindowNanos;
+  private final int maxBatchSize;
+  private final long notFoundTimeToLiveNanos;
+
+  private final ConcurrentMap<K, CompletableFuture<PdxInstance>> readsInProgress =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<K, Long> notFoundExpirations = new ConcurrentHashMap<>();
+
+  private final Object batchLock = new Object();
+  /** The batch new reads join, guarded by batchLock */
+  private List<K> openBatch;
+
+  public SqlReadBatcher(SqlHandler sqlHandler, JdbcLoaderStats stats, long batchWindowMillis,
+      int maxBatchSize, long notFoundTimeToLiveMillis) {
+    this.sqlHandler = sqlHandler;
+    this.stats = stats;
+    this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.notFoundTimeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(notFoundTimeToLiveMillis);
+  }
+
+  /**
+   * @return the PdxInstance of the key's row, or null if it has none
+   */
+  public PdxInstance read(Region<K, ?> region, K key) throws SQLException, InterruptedException {
+    if (notFoundTimeToLiveNanos > 0) {
+      Long expiration = notFoundExpirations.get(key);
+      if (expiration != null) {
+        if (System.nanoTime() - expiration < 0) {
+          stats.incNotFoundCacheHits();
+          return null;
+        }
+        notFoundExpirations.remove(key, expiration);
+      }
+    }
+
+    CompletableFuture<PdxInstance> result = new CompletableFuture<>();
+    CompletableFuture<PdxInstance> readInProgress = readsInProgress.putIfAbsent(key, result);
+    if (readInProgress != null) {
+      stats.incLoadsJoined();
+      return waitFor(readInProgress);
+    }
+
+    List<K> batch;
+    boolean leader;
+    synchronized (batchLock) {
+      leader = openBatch == null;
+      if (leader) {
+        openBatch = new ArrayList<>();
+      }
+      batch = openBatch;
+      batch.add(key);
+      if (batch.size() >= maxBatchSize) {
+        openBatch = null;
+        batchLock.notifyAll();
+      }
+    }
+    if (leader) {
+      boolean interrupted = false;
+      try {
+        waitForBatchToFill(batch);
+      } catch (InterruptedException e) {
+        // the reads that joined the batch still need it to be read
+        interrupted = true;
+        closeBatch(batch);
+      }
+      readBatch(region, batch);
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return waitFor(result);
+  }
+
+  private void waitForBatchToFill(List<K> batch) throws InterruptedException {
+    synchronized (batchLock) {
+      long deadline = System.nanoTime() + batchWindowNanos;
+      long remaining = batchWindowNanos;
+      while (openBatch == batch && remaining > 0) {
+        TimeUnit.NANOSECONDS.timedWait(batchLock, remaining);
+        remaining = deadline - System.nanoTime();
+      }
+      if (openBatch == batch) {
+        openBatch = null;
+      }
+    }
+  }
+
+  private void closeBatch(List<K> batch) {
+    synchronized (batchLock) {
+      if (openBatch == batch) {
+        openBatch = null;
+      }
+    }
+  }
+
+  private void readBatch(Region<K, ?> region, List<K> keys) {
+    Map<K, PdxInstance> values;
+    try {
+      if (keys.size() == 1) {
+        K key = keys.get(0);
+        PdxInstance value = sqlHandler.read(region, key);
+        values = value == null ? Collections.emptyMap() : Collections.singletonMap(key, value);
+      } else {
+        long start = System.nanoTime();
+        values = sqlHandler.readAll(region, keys);
+        stats.endBatchQuery(start, keys.size());
+      }
+    } catch (SQLException | RuntimeException | Error e) {
+      for (K key : keys) {
+        readsInProgress.remove(key).completeExceptionally(e);
+      }
+      return;
+    }
+    long notFoundExpiration = System.nanoTime() + notFoundTimeToLiveNanos;
+    for (K key : keys) {
+      PdxInstance value = values.get(key);
+      if (value == null && notFoundTimeToLiveNanos > 0) {
+        rememberNotFound(key, notFoundExpiration);
+      }
+      readsInProgress.remove(key).complete(value);
+    }
+  }
+
+  private void rememberNotFound(K key, long expiration) {
+    if (notFoundExpirations.size() >= MAX_NOT_FOUND_KEYS) {
+      long now = System.nanoTime();
+      notFoundExpirations.values().removeIf(keyExpiration -> now - keyExpiration >= 0);
+      if (notFoundExpirations.size() >= MAX_NOT_FOUND_KEYS) {
+        return;
+      }
+    }
+    notFoundExpirations.put(key, expiration);
+  }
+
+  private static PdxInstance waitFor(CompletableFuture<PdxInstance> read)
+      throws SQLException, InterruptedException {
+    try {
+      return read.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw JdbcConnectorException.createException(e);
+    }
+  }
+}
@@ -15,6 +15,8 @@
 package org.apache.geode.connectors.jdbc.internal;
 
 import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.stream.Stream;
 
 class SqlStatementFactory {
@@ -29,6 +31,40 @@ class SqlStatementFactory {
         new StringBuilder("SELECT * FROM ").append(quotedTablePath));
   }
 
+  /**
+   * @return a query for the rows of keyCount keys, whose key column values are bound in the order
+   *         of keyColumnNames, key after key
+   */
+  String createSelectAllQueryString(String quotedTablePath, List<String> keyColumnNames,
+      int keyCount) {
+    StringBuilder query =
+        new StringBuilder("SELECT * FROM ").append(quotedTablePath).append(" WHERE ");
+    if (keyColumnNames.size() == 1) {
+      query.append(quote).append(keyColumnNames.get(0)).append(quote).append(" IN (");
+      for (int i = 0; i < keyCount; i++) {
+        if (i > 0) {
+          query.append(',');
+        }
+        query.append('?');
+      }
+      return query.append(')').toString();
+    }
+    for (int i = 0; i < keyCount; i++) {
+      if (i > 0) {
+        query.append(" OR ");
+      }
+      query.append('(');
+      for (int j = 0; j < keyColumnNames.size(); j++) {
+        if (j > 0) {
+          query.append(" AND ");
+        }
+        query.append(quote).append(keyColumnNames.get(j)).append(quote).append(" = ?");
+      }
+      query.append(')');
+    }
+    return query.toString();
+  }
+
   String createDestroySqlString(String quotedTablePath, EntryColumnData entryColumnData) {
     return addKeyColumnsToQuery(entryColumnData,
         new StringBuilder("DELETE FROM ").append(quotedTablePath));
@@ -75,6 +111,84 @@ class SqlStatementFactory {
     return columnNames.append(columnValues).toString();
   }
 
+  /**
+   * Creates an insert that updates the value columns of the row with the same key instead if there
+   * is one. Its parameters are in the same order as those of the insert. The database finds the
+   * existing row through a unique constraint, so this may only be used when the key columns are
+   * the primary key or a unique index of the table.
+   *
+   * @return the upsert, or null if the database is not one whose upsert statement is known
+   */
+  String createUpsertSqlString(String quotedTablePath, EntryColumnData entryColumnData,
+      String databaseProductName) {
+    if (databaseProductName == null) {
+      return null;
+    }
+    String product = databaseProductName.toLowerCase(Locale.ROOT);
+    List<ColumnData> valueColumns = entryColumnData.getEntryValueColumnData();
+    if (product.contains("mysql") || product.contains("mariadb")) {
+      StringBuilder query =
+          new StringBuilder(createInsertSqlString(quotedTablePath, entryColumnData))
+              .append(" ON DUPLICATE KEY UPDATE ");
+      if (valueColumns.isEmpty()) {
+        String keyColumn = quote(entryColumnData.getEntryKeyColumnData().get(0));
+        return query.append(keyColumn).append(" = ").append(keyColumn).toString();
+      }
+      int idx = 0;
+      for (ColumnData column : valueColumns) {
+        if (idx++ > 0) {
+          query.append(", ");
+        }
+        query.append(quote(column)).append(" = VALUES(").append(quote(column)).append(')');
+      }
+      return query.toString();
+    } else if (product.contains("postgresql")) {
+      StringBuilder query =
+          new StringBuilder(createInsertSqlString(quotedTablePath, entryColumnData))
+              .append(" ON CONFLICT (");
+      appendKeyColumnNames(entryColumnData, query);
+      query.append(')');
+      if (valueColumns.isEmpty()) {
+        return query.append(" DO NOTHING").toString();
+      }
+      query.append(" DO UPDATE SET ");
+      int idx = 0;
+      for (ColumnData column : valueColumns) {
+        if (idx++ > 0) {
+          query.append(", ");
+        }
+        query.append(quote(column)).append(" = EXCLUDED.").append(quote(column));
+      }
+      return query.toString();
+    } else if (product.equals("h2")) {
+      StringBuilder columnNames = new StringBuilder("MERGE INTO ")
+          .append(quotedTablePath)
+          .append(" (");
+      StringBuilder columnValues = new StringBuilder(" VALUES (");
+      addColumnDataToSqlString(entryColumnData, columnNames, columnValues);
+      columnNames.append(") KEY (");
+      appendKeyColumnNames(entryColumnData, columnNames);
+      columnNames.append(')');
+      columnValues.append(')');
+      return columnNames.append(columnValues).toString();
+    }
+    return null;
+  }
+
+  private void appendKeyColumnNames(EntryColumnData entryColumnData, StringBuilder query) {
+    int idx = 0;
+    for (ColumnData keyColumn : entryColumnData.getEntryKeyColumnData()) {
+      if (idx++ > 0) {
+        query.append(", ");
+      }
+      query.append(quote(keyColumn));
+    }
+  }
+
+  private String quote(ColumnData column) {
+    return quote + column.getColumnName() + quote;
+  }
+
   private void addColumnDataToSqlString(EntryColumnData entryColumnData, StringBuilder columnNames,
       StringBuilder columnValues) {
     Stream<ColumnData> values = entryColumnData.getEntryValueColumnData().stream();
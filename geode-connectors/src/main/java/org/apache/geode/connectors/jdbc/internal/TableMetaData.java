@@ -25,17 +25,19 @@ public class TableMetaData implements TableMetaDataView {
 
   private final String quotedTablePath;
   private final List<String> keyColumnNames;
+  private final boolean keyUnique;
   private final Map<String, ColumnMetaData> columnMetaDataMap;
   private final String identifierQuoteString;
 
   public TableMetaData(String catalogName, String schemaName, String tableName,
-      List<String> keyColumnNames, String quoteString,
+      List<String> keyColumnNames, boolean keyUnique, String quoteString,
       Map<String, ColumnMetaData> columnMetaDataMap) {
     if (quoteString == null) {
       quoteString = "";
     }
     this.quotedTablePath = createQuotedTablePath(catalogName, schemaName, tableName, quoteString);
     this.keyColumnNames = keyColumnNames;
+    this.keyUnique = keyUnique;
     this.columnMetaDataMap = columnMetaDataMap;
     this.identifierQuoteString = quoteString;
   }
@@ -65,6 +67,11 @@ public class TableMetaData implements TableMetaDataView {
     return this.keyColumnNames;
   }
 
+  @Override
+  public boolean isKeyUnique() {
+    return this.keyUnique;
+  }
+
   @Override
   public JDBCType getColumnDataType(String columnName) {
     ColumnMetaData columnMetaData = this.columnMetaDataMap.get(columnName);
@@ -22,8 +22,11 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -73,11 +76,13 @@ public class TableMetaDataManager {
           getTableNameFromMetaData(metaData, realCatalogName, realSchemaName, tableName);
       List<String> keys = getPrimaryKeyColumnNamesFromMetaData(metaData, realCatalogName,
           realSchemaName, realTableName, regionMapping.getIds());
+      boolean keyUnique = isKeyUnique(metaData, realCatalogName, realSchemaName, realTableName,
+          regionMapping.getIds(), keys);
       String quoteString = metaData.getIdentifierQuoteString();
       Map<String, ColumnMetaData> columnMetaDataMap =
           createColumnMetaDataMap(metaData, realCatalogName, realSchemaName, realTableName);
-      return new TableMetaData(realCatalogName, realSchemaName, realTableName, keys, quoteString,
-          columnMetaDataMap);
+      return new TableMetaData(realCatalogName, realSchemaName, realTableName, keys, keyUnique,
+          quoteString, columnMetaDataMap);
     } catch (SQLException e) {
       throw JdbcConnectorException.createException(e);
     }
@@ -177,6 +182,48 @@ public class TableMetaDataManager {
     return keys;
   }
 
+  /**
+   * Keys read from the primary key are unique. Keys given as the ids of the region mapping are
+   * unique if they are the columns of the primary key or of a unique index.
+   */
+  private boolean isKeyUnique(DatabaseMetaData metaData, String catalogFilter,
+      String schemaFilter, String tableName, String ids, List<String> keys) throws SQLException {
+    if (ids == null || ids.isEmpty()) {
+      return true;
+    }
+    Set<String> keyColumns = new HashSet<>();
+    for (String key : keys) {
+      keyColumns.add(key.toUpperCase(Locale.ROOT));
+    }
+
+    Set<String> primaryKeyColumns = new HashSet<>();
+    try (ResultSet primaryKeys =
+        metaData.getPrimaryKeys(catalogFilter, schemaFilter, tableName)) {
+      while (primaryKeys != null && primaryKeys.next()) {
+        primaryKeyColumns.add(primaryKeys.getString("COLUMN_NAME").toUpperCase(Locale.ROOT));
+      }
+    }
+    if (keyColumns.equals(primaryKeyColumns)) {
+      return true;
+    }
+
+    Map<String, Set<String>> uniqueIndexColumns = new HashMap<>();
+    try (ResultSet indexes =
+        metaData.getIndexInfo(catalogFilter, schemaFilter, tableName, true, true)) {
+      while (indexes != null && indexes.next()) {
+        String indexName = indexes.getString("INDEX_NAME");
+        String columnName = indexes.getString("COLUMN_NAME");
+        if (indexName == null || columnName == null || indexes.getBoolean("NON_UNIQUE")) {
+          // table statistics have no index, and some drivers ignore the unique filter
+          continue;
+        }
+        uniqueIndexColumns.computeIfAbsent(indexName, k -> new HashSet<>())
+            .add(columnName.toUpperCase(Locale.ROOT));
+      }
+    }
+    return uniqueIndexColumns.containsValue(keyColumns);
+  }
+
   private Map<String, ColumnMetaData> createColumnMetaDataMap(DatabaseMetaData metaData,
       String catalogFilter,
       String schemaFilter, String tableName) throws SQLException {
@@ -31,6 +31,12 @@ public interface TableMetaDataView {
 
   List<String> getKeyColumnNames();
 
+  /**
+   * @return whether the key columns are the primary key of the table, or the columns of one of its
+   *         unique indexes, so that the database rejects a second row with the same key
+   */
+  boolean isKeyUnique();
+
   JDBCType getColumnDataType(String columnName);
 
   boolean isColumnNullable(String columnName);
@@ -17,18 +17,25 @@ package org.apache.geode.connectors.jdbc;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import org.apache.geode.cache.Operation;
 import org.apache.geode.cache.asyncqueue.AsyncEvent;
@@ -103,6 +110,98 @@ public class JdbcAsyncWriterTest {
     assertThat(writer.getTotalEvents()).isEqualTo(3);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void batchWritesOnlyTheLastEventOnEachKey() throws Exception {
+    writer = new JdbcAsyncWriter(sqlHandler, cache, true, 1);
+    List<AsyncEvent> events = Arrays.asList(createMockEvent(Operation.CREATE, "key1"),
+        createMockEvent(Operation.UPDATE, "key2"), createMockEvent(Operation.UPDATE, "key1"),
+        createMockEvent(Operation.DESTROY, "key2"));
+
+    writer.processEvents(events);
+
+    ArgumentCaptor<Map<Object, ?>> upserts = ArgumentCaptor.forClass(Map.class);
+    ArgumentCaptor<List<Object>> destroys = ArgumentCaptor.forClass(List.class);
+    verify(sqlHandler).writeBatch(upserts.capture(), destroys.capture());
+    verify(sqlHandler, times(0)).write(any(), any(), any(), any());
+    assertThat(upserts.getValue()).containsOnlyKeys("key1");
+    assertThat(destroys.getValue()).containsExactly("key2");
+    assertThat(writer.getSuccessfulEvents()).isEqualTo(4);
+    assertThat(writer.getTotalEvents()).isEqualTo(4);
+  }
+
+  @Test
+  public void failedBatchIsWrittenOneEventAtATime() throws Exception {
+    writer = new JdbcAsyncWriter(sqlHandler, cache, true, 1);
+    doThrow(new SQLException("batch failed")).when(sqlHandler).writeBatch(anyMap(), any());
+    doThrow(new SQLException("event failed")).when(sqlHandler).write(any(), any(), any(), any());
+    List<AsyncEvent> events = Arrays.asList(createMockEvent(Operation.DESTROY, "key1"),
+        createMockEvent(Operation.DESTROY, "key1"), createMockEvent(Operation.DESTROY, "key2"));
+
+    writer.processEvents(events);
+
+    verify(sqlHandler, times(2)).write(any(), any(), any(), any());
+    assertThat(writer.getFailedEvents()).isEqualTo(3);
+    assertThat(writer.getSuccessfulEvents()).isZero();
+  }
+
+  @Test
+  public void batchIsSplitOverTheWriteThreads() throws Exception {
+    writer = new JdbcAsyncWriter(sqlHandler, cache, true, 2);
+    List<AsyncEvent> events = Arrays.asList(createMockEvent(Operation.DESTROY, "key1"),
+        createMockEvent(Operation.DESTROY, "key2"));
+
+    try {
+      writer.processEvents(events);
+    } finally {
+      writer.close();
+    }
+
+    verify(sqlHandler, times(2)).writeBatch(anyMap(), any());
+    assertThat(writer.getSuccessfulEvents()).isEqualTo(2);
+  }
+
+  @Test
+  public void batchIsWrittenOnTheCallingThreadWithoutWriteThreads() throws Exception {
+    writer = new JdbcAsyncWriter(sqlHandler, cache, true, 0);
+    List<AsyncEvent> events = Arrays.asList(createMockEvent(Operation.DESTROY, "key1"),
+        createMockEvent(Operation.DESTROY, "key2"));
+
+    writer.processEvents(events);
+
+    verify(sqlHandler).writeBatch(anyMap(), any());
+    assertThat(writer.getSuccessfulEvents()).isEqualTo(2);
+  }
+
+  @Test
+  public void eventsOfAChunkThatFailsOnAWriteThreadAreCountedAsFailed() throws Exception {
+    writer = new JdbcAsyncWriter(sqlHandler, cache, true, 2);
+    Thread callingThread = Thread.currentThread();
+    doAnswer(invocation -> {
+      if (Thread.currentThread() != callingThread) {
+        throw new NoClassDefFoundError("failed on a write thread");
+      }
+      return null;
+    }).when(sqlHandler).writeBatch(anyMap(), any());
+    List<AsyncEvent> events = Arrays.asList(createMockEvent(Operation.DESTROY, "key1"),
+        createMockEvent(Operation.DESTROY, "key2"), createMockEvent(Operation.DESTROY, "key2"));
+
+    try {
+      writer.processEvents(events);
+    } finally {
+      writer.close();
+    }
+
+    assertThat(writer.getSuccessfulEvents()).isEqualTo(1);
+    assertThat(writer.getFailedEvents()).isEqualTo(2);
+  }
+
+  private AsyncEvent createMockEvent(Operation op, Object key) {
+    AsyncEvent event = createMockEvent(op);
+    when(event.getKey()).thenReturn(key);
+    return event;
+  }
+
   private AsyncEvent createMockEvent(Operation op) {
     AsyncEvent event = mock(AsyncEvent.class);
     when(event.getOperation()).thenReturn(op);
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.connectors.jdbc;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -31,6 +32,7 @@ import org.apache.geode.test.fake.Fakes;
 
 public class JdbcLoaderTest {
 
+  private InternalCache cache;
   private SqlHandler sqlHandler;
   private LoaderHelper<Object, Object> loaderHelper;
 
@@ -39,7 +41,7 @@ public class JdbcLoaderTest {
   @SuppressWarnings("unchecked")
   @Before
   public void setUp() {
-    InternalCache cache = Fakes.cache();
+    cache = Fakes.cache();
     sqlHandler = mock(SqlHandler.class);
     loaderHelper = mock(LoaderHelper.class);
 
@@ -54,4 +56,16 @@ public class JdbcLoaderTest {
 
     verify(sqlHandler, times(1)).read(any(), any());
   }
+
+  @Test
+  public void loadOfAKeyNotFoundIsNotReadAgainWithinTheTimeToLive() throws Exception {
+    loader = new JdbcLoader<>(sqlHandler, cache, 0, 100, 60_000);
+    when(loaderHelper.getKey()).thenReturn("key");
+
+    assertThat(loader.load(loaderHelper)).isNull();
+    assertThat(loader.load(loaderHelper)).isNull();
+
+    verify(sqlHandler, times(1)).read(any(), any());
+    assertThat(loader.getStats()).isNotNull();
+  }
 }
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.connectors.jdbc.internal;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SqlBatchWriterTest {
+
+  private final Connection connection = mock(Connection.class);
+  private final TableMetaDataView tableMetaData = mock(TableMetaDataView.class);
+  private final PreparedStatement updateStatement = mock(PreparedStatement.class);
+  private final PreparedStatement insertStatement = mock(PreparedStatement.class);
+
+  @Before
+  public void setUp() throws Exception {
+    when(tableMetaData.getQuotedTablePath()).thenReturn("t");
+    when(tableMetaData.getIdentifierQuoteString()).thenReturn("");
+    when(tableMetaData.isKeyUnique()).thenReturn(true);
+    when(connection.getAutoCommit()).thenReturn(true);
+    when(connection.prepareStatement(startsWith("UPDATE"))).thenReturn(updateStatement);
+    when(connection.prepareStatement(startsWith("INSERT"))).thenReturn(insertStatement);
+  }
+
+  private static EntryColumnData row(int id) {
+    return new EntryColumnData(
+        Collections.singletonList(new ColumnData("id", id, JDBCType.INTEGER)),
+        Collections.singletonList(new ColumnData("name", "name" + id, JDBCType.VARCHAR)));
+  }
+
+  @Test
+  public void rowsAreUpsertedWithTheUpsertStatementOfTheDatabase() throws Exception {
+    when(insertStatement.executeBatch()).thenReturn(new int[] {1, 1});
+    SqlBatchWriter writer = new SqlBatchWriter(tableMetaData, "MySQL");
+
+    writer.write(connection, Arrays.asList(row(1), row(2)), Collections.emptyList());
+
+    verify(connection).prepareStatement(
+        "INSERT INTO t (name,id) VALUES (?,?) ON DUPLICATE KEY UPDATE name = VALUES(name)");
+    verify(insertStatement, times(2)).addBatch();
+    verify(connection, never()).prepareStatement(startsWith("UPDATE"));
+    verify(connection).commit();
+    verify(connection).setAutoCommit(true);
+  }
+
+  @Test
+  public void rowsTheUpdatesMissedAreInserted() throws Exception {
+    when(updateStatement.executeBatch()).thenReturn(new int[] {1, 0, 1});
+    when(insertStatement.executeBatch()).thenReturn(new int[] {1});
+    SqlBatchWriter writer = new SqlBatchWriter(tableMetaData, "Apache Derby");
+
+    writer.write(connection, Arrays.asList(row(1), row(2), row(3)), Collections.emptyList());
+
+    verify(updateStatement, times(3)).addBatch();
+    verify(insertStatement, times(1)).addBatch();
+    verify(insertStatement).setObject(1, "name2");
+    verify(insertStatement).setObject(2, 2);
+    verify(connection).commit();
+  }
+
+  @Test
+  public void rowsWithKeysThatAreNotUniqueAreUpdatedAndInsertedEvenIfTheDatabaseHasAnUpsert()
+      throws Exception {
+    when(tableMetaData.isKeyUnique()).thenReturn(false);
+    when(updateStatement.executeBatch()).thenReturn(new int[] {1, 0});
+    when(insertStatement.executeBatch()).thenReturn(new int[] {1});
+    SqlBatchWriter writer = new SqlBatchWriter(tableMetaData, "MySQL");
+
+    writer.write(connection, Arrays.asList(row(1), row(2)), Collections.emptyList());
+
+    verify(connection).prepareStatement("INSERT INTO t (name,id) VALUES (?,?)");
+    verify(updateStatement, times(2)).addBatch();
+    verify(insertStatement, times(1)).addBatch();
+    verify(connection).commit();
+  }
+
+  @Test
+  public void destroysAreBatched() throws Exception {
+    PreparedStatement deleteStatement = mock(PreparedStatement.class);
+    when(connection.prepareStatement("DELETE FROM t WHERE id = ?")).thenReturn(deleteStatement);
+    when(deleteStatement.executeBatch()).thenReturn(new int[] {1, 1});
+    SqlBatchWriter writer = new SqlBatchWriter(tableMetaData, "Apache Derby");
+    List<EntryColumnData> destroys = Arrays.asList(
+        new EntryColumnData(Collections.singletonList(new ColumnData("id", 1, JDBCType.INTEGER)),
+            null),
+        new EntryColumnData(Collections.singletonList(new ColumnData("id", 2, JDBCType.INTEGER)),
+            null));
+
+    writer.write(connection, Collections.emptyList(), destroys);
+
+    verify(deleteStatement, times(2)).addBatch();
+    verify(connection).commit();
+  }
+
+  @Test
+  public void failedBatchIsRolledBack() throws Exception {
+    when(updateStatement.executeBatch()).thenThrow(new SQLException("failed"));
+    SqlBatchWriter writer = new SqlBatchWriter(tableMetaData, "Apache Derby");
+
+    assertThatThrownBy(
+        () -> writer.write(connection, Arrays.asList(row(1), row(2)), Collections.emptyList()))
+            .isInstanceOf(SQLException.class);
+
+    verify(connection).rollback();
+    verify(connection, never()).commit();
+    verify(connection).setAutoCommit(true);
+  }
+
+  @Test
+  public void unknownUpdateCountsFailTheBatch() throws Exception {
+    when(updateStatement.executeBatch())
+        .thenReturn(new int[] {Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+    SqlBatchWriter writer = new SqlBatchWriter(tableMetaData, "Oracle");
+
+    assertThatThrownBy(
+        () -> writer.write(connection, Arrays.asList(row(1), row(2)), Collections.emptyList()))
+            .isInstanceOf(SQLException.class);
+
+    verify(insertStatement, never()).executeBatch();
+    verify(connection).rollback();
+  }
+}
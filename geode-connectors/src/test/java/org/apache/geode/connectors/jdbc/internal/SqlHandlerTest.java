@@ -33,6 +33,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import javax.sql.DataSource;
@@ -191,6 +192,28 @@ public class SqlHandlerTest {
     verify(statement).close();
   }
 
+  @Test
+  public void readAllReadsAllKeysWithOneQuery() throws Exception {
+    setupEmptyResultSet();
+    when(tableMetaDataView.getIdentifierQuoteString()).thenReturn("");
+
+    Map<Object, PdxInstance> result = handler.readAll(region, Arrays.asList("key1", "key2"));
+
+    assertThat(result).isEmpty();
+    verify(connection)
+        .prepareStatement("SELECT * FROM " + TABLE_NAME + " WHERE " + KEY_COLUMN + " IN (?,?)");
+    verify(statement).setObject(1, "key1");
+    verify(statement).setObject(2, "key2");
+    verify(statement).executeQuery();
+    verify(statement).close();
+  }
+
+  @Test
+  public void readAllThrowsIfAKeyIsNull() {
+    assertThatThrownBy(() -> handler.readAll(region, Arrays.asList("key1", null)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
   @Test
   public void throwsExceptionIfQueryFails() throws Exception {
     when(statement.executeQuery()).thenThrow(SQLException.class);
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.connectors.jdbc.internal;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.getTimeout;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.test.junit.rules.ExecutorServiceRule;
+
+public class SqlReadBatcherTest {
+
+  private static final long LONG_WINDOW_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  @Rule
+  public ExecutorServiceRule executorServiceRule = new ExecutorServiceRule();
+
+  @SuppressWarnings("unchecked")
+  private final Region<Object, ?> region = mock(Region.class);
+  private final SqlHandler sqlHandler = mock(SqlHandler.class);
+  private final JdbcLoaderStats stats = mock(JdbcLoaderStats.class);
+  private final PdxInstance value = mock(PdxInstance.class);
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void concurrentReadsAreReadWithOneQuery() throws Exception {
+    when(sqlHandler.readAll(any(), anyCollection()))
+        .thenReturn(Collections.singletonMap("key1", value));
+    SqlReadBatcher<Object> batcher =
+        new SqlReadBatcher<>(sqlHandler, stats, LONG_WINDOW_MILLIS, 2, 0);
+
+    Future<PdxInstance> read1 = executorServiceRule.submit(() -> batcher.read(region, "key1"));
+    PdxInstance read2 = batcher.read(region, "key2");
+
+    assertThat(read1.get(getTimeout().toMillis(), TimeUnit.MILLISECONDS)).isSameAs(value);
+    assertThat(read2).isNull();
+    ArgumentCaptor<Collection<Object>> keys = ArgumentCaptor.forClass(Collection.class);
+    verify(sqlHandler).readAll(any(), keys.capture());
+    assertThat(keys.getValue()).containsExactlyInAnyOrder("key1", "key2");
+    verify(sqlHandler, never()).read(any(), any());
+    verify(stats).endBatchQuery(anyLong(), eq(2));
+  }
+
+  @Test
+  public void readAloneInItsWindowIsReadWithoutABatchQuery() throws Exception {
+    when(sqlHandler.read(region, "key")).thenReturn(value);
+    SqlReadBatcher<Object> batcher = new SqlReadBatcher<>(sqlHandler, stats, 1, 100, 0);
+
+    assertThat(batcher.read(region, "key")).isSameAs(value);
+
+    verify(sqlHandler, never()).readAll(any(), anyCollection());
+  }
+
+  @Test
+  public void readOfAKeyInProgressWaitsForIt() throws Exception {
+    CountDownLatch readStarted = new CountDownLatch(1);
+    CountDownLatch finishRead = new CountDownLatch(1);
+    when(sqlHandler.read(region, "key")).thenAnswer(invocation -> {
+      readStarted.countDown();
+      finishRead.await();
+      return value;
+    });
+    SqlReadBatcher<Object> batcher = new SqlReadBatcher<>(sqlHandler, stats, 0, 100, 0);
+
+    Future<PdxInstance> read1 = executorServiceRule.submit(() -> batcher.read(region, "key"));
+    readStarted.await(getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    Future<PdxInstance> read2 = executorServiceRule.submit(() -> batcher.read(region, "key"));
+    await().untilAsserted(() -> verify(stats).incLoadsJoined());
+    finishRead.countDown();
+
+    assertThat(read1.get(getTimeout().toMillis(), TimeUnit.MILLISECONDS)).isSameAs(value);
+    assertThat(read2.get(getTimeout().toMillis(), TimeUnit.MILLISECONDS)).isSameAs(value);
+    verify(sqlHandler, times(1)).read(region, "key");
+  }
+
+  @Test
+  public void keysNotFoundAreNotReadAgainWithinTheirTimeToLive() throws Exception {
+    SqlReadBatcher<Object> batcher =
+        new SqlReadBatcher<>(sqlHandler, stats, 0, 100, LONG_WINDOW_MILLIS);
+
+    assertThat(batcher.read(region, "key")).isNull();
+    assertThat(batcher.read(region, "key")).isNull();
+
+    verify(sqlHandler, times(1)).read(region, "key");
+    verify(stats).incNotFoundCacheHits();
+  }
+
+  @Test
+  public void keysNotFoundAreReadAgainWithoutATimeToLive() throws Exception {
+    SqlReadBatcher<Object> batcher = new SqlReadBatcher<>(sqlHandler, stats, 0, 100, 0);
+
+    batcher.read(region, "key");
+    batcher.read(region, "key");
+
+    verify(sqlHandler, times(2)).read(region, "key");
+  }
+
+  @Test
+  public void failedBatchQueryFailsAllOfItsReads() throws Exception {
+    when(sqlHandler.readAll(any(), anyCollection())).thenThrow(new SQLException("failed"));
+    SqlReadBatcher<Object> batcher =
+        new SqlReadBatcher<>(sqlHandler, stats, LONG_WINDOW_MILLIS, 2, LONG_WINDOW_MILLIS);
+
+    Future<PdxInstance> read1 = executorServiceRule.submit(() -> batcher.read(region, "key1"));
+    assertThatThrownBy(() -> batcher.read(region, "key2")).isInstanceOf(SQLException.class);
+
+    assertThatThrownBy(() -> read1.get(getTimeout().toMillis(), TimeUnit.MILLISECONDS))
+        .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(SQLException.class);
+    when(sqlHandler.read(region, "key1")).thenReturn(value);
+    assertThat(batcher.read(region, "key1")).isSameAs(value);
+  }
+}
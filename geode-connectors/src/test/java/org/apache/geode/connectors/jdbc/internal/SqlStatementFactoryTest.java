@@ -18,6 +18,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.sql.JDBCType;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Before;
@@ -154,4 +156,75 @@ public class SqlStatementFactoryTest {
     assertThat(statement).isEqualTo(expectedStatement);
   }
 
+  @Test
+  public void getUpsertSqlStringForMySql() {
+    String expectedStatement = String.format(
+        "INSERT INTO %s (%s,%s,%s) VALUES (?,?,?) ON DUPLICATE KEY UPDATE %s = VALUES(%s), %s = VALUES(%s)",
+        QUOTED_TABLE_PATH, quoted(VALUE_COLUMN_1_NAME), quoted(VALUE_COLUMN_2_NAME),
+        quoted(KEY_COLUMN_1_NAME), quoted(VALUE_COLUMN_1_NAME), quoted(VALUE_COLUMN_1_NAME),
+        quoted(VALUE_COLUMN_2_NAME), quoted(VALUE_COLUMN_2_NAME));
+
+    String statement =
+        factory.createUpsertSqlString(QUOTED_TABLE_PATH, entryColumnData, "MySQL");
+
+    assertThat(statement).isEqualTo(expectedStatement);
+  }
+
+  @Test
+  public void getUpsertSqlStringForPostgreSql() {
+    keyColumnData.add(new ColumnData(KEY_COLUMN_2_NAME, null, JDBCType.NULL));
+    String expectedStatement = String.format(
+        "INSERT INTO %s (%s,%s,%s,%s) VALUES (?,?,?,?) ON CONFLICT (%s, %s) DO UPDATE SET %s = EXCLUDED.%s, %s = EXCLUDED.%s",
+        QUOTED_TABLE_PATH, quoted(VALUE_COLUMN_1_NAME), quoted(VALUE_COLUMN_2_NAME),
+        quoted(KEY_COLUMN_1_NAME), quoted(KEY_COLUMN_2_NAME), quoted(KEY_COLUMN_1_NAME),
+        quoted(KEY_COLUMN_2_NAME), quoted(VALUE_COLUMN_1_NAME), quoted(VALUE_COLUMN_1_NAME),
+        quoted(VALUE_COLUMN_2_NAME), quoted(VALUE_COLUMN_2_NAME));
+
+    String statement =
+        factory.createUpsertSqlString(QUOTED_TABLE_PATH, entryColumnData, "PostgreSQL");
+
+    assertThat(statement).isEqualTo(expectedStatement);
+  }
+
+  @Test
+  public void getUpsertSqlStringForH2() {
+    String expectedStatement = String.format("MERGE INTO %s (%s,%s,%s) KEY (%s) VALUES (?,?,?)",
+        QUOTED_TABLE_PATH, quoted(VALUE_COLUMN_1_NAME), quoted(VALUE_COLUMN_2_NAME),
+        quoted(KEY_COLUMN_1_NAME), quoted(KEY_COLUMN_1_NAME));
+
+    String statement = factory.createUpsertSqlString(QUOTED_TABLE_PATH, entryColumnData, "H2");
+
+    assertThat(statement).isEqualTo(expectedStatement);
+  }
+
+  @Test
+  public void getUpsertSqlStringForOtherDatabasesIsNull() {
+    assertThat(factory.createUpsertSqlString(QUOTED_TABLE_PATH, entryColumnData, "Apache Derby"))
+        .isNull();
+    assertThat(factory.createUpsertSqlString(QUOTED_TABLE_PATH, entryColumnData, null)).isNull();
+  }
+
+  @Test
+  public void getSelectAllQueryStringForOneKeyColumn() {
+    String expectedStatement = String.format("SELECT * FROM %s WHERE %s IN (?,?,?)",
+        QUOTED_TABLE_PATH, quoted(KEY_COLUMN_1_NAME));
+
+    String statement = factory.createSelectAllQueryString(QUOTED_TABLE_PATH,
+        Collections.singletonList(KEY_COLUMN_1_NAME), 3);
+
+    assertThat(statement).isEqualTo(expectedStatement);
+  }
+
+  @Test
+  public void getSelectAllQueryStringForCompositeKey() {
+    String keyCondition = String.format("(%s = ? AND %s = ?)", quoted(KEY_COLUMN_1_NAME),
+        quoted(KEY_COLUMN_2_NAME));
+    String expectedStatement = String.format("SELECT * FROM %s WHERE %s OR %s",
+        QUOTED_TABLE_PATH, keyCondition, keyCondition);
+
+    String statement = factory.createSelectAllQueryString(QUOTED_TABLE_PATH,
+        Arrays.asList(KEY_COLUMN_1_NAME, KEY_COLUMN_2_NAME), 2);
+
+    assertThat(statement).isEqualTo(expectedStatement);
+  }
 }
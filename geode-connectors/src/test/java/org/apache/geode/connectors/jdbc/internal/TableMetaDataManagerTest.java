@@ -183,6 +183,54 @@ public class TableMetaDataManagerTest {
     assertThat(data.getKeyColumnNames()).isEqualTo(Arrays.asList(KEY_COLUMN, KEY_COLUMN2));
   }
 
+  @Test
+  public void primaryKeyIsUnique() throws Exception {
+    setupPrimaryKeysMetaData();
+    when(primaryKeysResultSet.next()).thenReturn(true).thenReturn(false);
+    when(regionMapping.getIds()).thenReturn("");
+
+    TableMetaDataView data = tableMetaDataManager.getTableMetaDataView(connection, regionMapping);
+
+    assertThat(data.isKeyUnique()).isTrue();
+  }
+
+  @Test
+  public void idsThatAreThePrimaryKeyAreUnique() throws Exception {
+    setupIdsMetaData();
+    when(primaryKeysResultSet.next()).thenReturn(true).thenReturn(false);
+    when(primaryKeysResultSet.getString("COLUMN_NAME")).thenReturn("KEYCOLUMN");
+
+    TableMetaDataView data = tableMetaDataManager.getTableMetaDataView(connection, regionMapping);
+
+    assertThat(data.isKeyUnique()).isTrue();
+  }
+
+  @Test
+  public void idsThatAreAUniqueIndexAreUnique() throws Exception {
+    setupIdsMetaData();
+    ResultSet indexes = mock(ResultSet.class);
+    when(databaseMetaData.getIndexInfo(any(), any(), eq(TABLE_NAME), eq(true), eq(true)))
+        .thenReturn(indexes);
+    when(indexes.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+    when(indexes.getString("INDEX_NAME")).thenReturn("otherIndex").thenReturn("keyIndex");
+    when(indexes.getString("COLUMN_NAME")).thenReturn("otherColumn").thenReturn(KEY_COLUMN);
+
+    TableMetaDataView data = tableMetaDataManager.getTableMetaDataView(connection, regionMapping);
+
+    assertThat(data.isKeyUnique()).isTrue();
+  }
+
+  @Test
+  public void idsThatAreNeitherThePrimaryKeyNorAUniqueIndexAreNotUnique() throws Exception {
+    setupIdsMetaData();
+    when(primaryKeysResultSet.next()).thenReturn(true).thenReturn(false);
+    when(primaryKeysResultSet.getString("COLUMN_NAME")).thenReturn("otherColumn");
+
+    TableMetaDataView data = tableMetaDataManager.getTableMetaDataView(connection, regionMapping);
+
+    assertThat(data.isKeyUnique()).isFalse();
+  }
+
   @Test
   public void givenColumnAndNonNullIdsThatDoesInexactlyMatchThenKeyColumnNameIsReturned()
       throws Exception {
@@ -443,6 +491,13 @@ public class TableMetaDataManagerTest {
     setupTableMetaData();
   }
 
+  private void setupIdsMetaData() throws SQLException {
+    setupTableMetaData();
+    when(columnResultSet.next()).thenReturn(true).thenReturn(false);
+    when(columnResultSet.getString("COLUMN_NAME")).thenReturn(KEY_COLUMN);
+    when(regionMapping.getIds()).thenReturn(KEY_COLUMN);
+  }
+
   private void setupTableMetaData() throws SQLException {
     when(tablesResultSet.next()).thenReturn(true).thenReturn(false);
     when(tablesResultSet.getString("TABLE_NAME")).thenReturn(TABLE_NAME);
@@ -37,7 +37,7 @@ public class TableMetaDataTest {
   private TableMetaData tableMetaData;
 
   private void createTableMetaData() {
-    tableMetaData = new TableMetaData(catalogName, schemaName, tableName, keyColumnNames,
+    tableMetaData = new TableMetaData(catalogName, schemaName, tableName, keyColumnNames, true,
         quoteString, dataTypes);
   }
 
@@ -114,6 +114,7 @@ public class GIIDeltaDUnitTest extends JUnit4CacheTestCase {
     changeUnfinishedOperationLimit(R, 10000);
     changeForceFullGII(R, false, false);
     changeForceFullGII(P, false, false);
+    changeUseImageDigests(R, false);
     P = null;
     R = null;
   }
@@ -630,6 +631,45 @@ public class GIIDeltaDUnitTest extends JUnit4CacheTestCase {
     verifyDeltaSizeFromStats(R, 3, 0);
   }
 
+  /**
+   * vm0 and vm1 are peers, each holds a DR. Let provider to have higher RVVGC than requester's RVV
+   * while the requester is offline, which triggers fullGII. The requester compares image digests
+   * with the provider first, so the fullGII leaves out the keys it recovered unchanged from disk.
+   */
+  @Test
+  public void testFullGIIWithImageDigestsLeavesOutUnchangedKeys() throws Throwable {
+    prepareForEachTest();
+    final DiskStoreID memberP = getMemberID(P);
+    final DiskStoreID memberR = getMemberID(R);
+
+    assertEquals(0, DistributedCacheOperation.SLOW_DISTRIBUTION_MS);
+    prepareCommonTestData(3);
+    waitForToVerifyRVV(P, memberP, 3, null, 0); // P's rvv=p3, gc=0
+    waitForToVerifyRVV(R, memberP, 3, null, 0); // R's rvv=p3, gc=0
+
+    closeCache(R);
+
+    // p4-7 only apply at P
+    doOneDestroy(P, 4, "key2");
+    doOnePut(P, 5, "key1");
+    doOnePut(P, 6, "key3");
+    doOnePut(P, 7, "key1");
+    // force tombstone GC to let RVVGC to become P4:R0
+    forceGC(P, 2);
+
+    changeUseImageDigests(R, true);
+    createDistributedRegion(R);
+
+    waitForToVerifyRVV(R, memberP, 7, null, 4); // R's rvv=p7, gc=4
+    waitForToVerifyRVV(R, memberR, 3, null, 0); // R's rvv=r3, gc=0
+
+    // A fullGII would send key1,key3,key5. key5 did not change while R was offline, so only
+    // key1,key3 are in the gii chunk. key2 is GCed.
+    verifyDeltaSizeFromStats(R, 2, 0);
+    verifyTombstoneExist(R, "key2", false, false);
+    R.invoke(() -> assertTrue(getCache().getRegion(REGION_NAME).containsKey("key5")));
+  }
+
   /**
    * vm0(P), vm1(R), vm2(T) are peers, each holds a DR. shutdown vm1(R), vm2(T) Let provider to have
    * higher RVVGC than requester's RVV when vm1 and vm2 are offline Restart R, It should trigger
@@ -2352,6 +2392,10 @@ public class GIIDeltaDUnitTest extends JUnit4CacheTestCase {
     vm.invoke(change);
   }
 
+  protected void changeUseImageDigests(VM vm, final boolean value) {
+    vm.invoke(() -> InitialImageOperation.USE_IMAGE_DIGESTS = value);
+  }
+
   protected void removeSystemPropertiesInVM(VM vm, final String prop) {
     SerializableRunnable change = new SerializableRunnable() {
       @Override
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.cache.RegionShortcut.REPLICATE;
+import static org.apache.geode.test.dunit.VM.getVM;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.rules.CacheRule;
+import org.apache.geode.test.dunit.rules.DistributedRule;
+
+/**
+ * A region is fully initialized from a provider that spreads its image over several series.
+ */
+@SuppressWarnings("serial")
+public class InitialImageParallelSeriesDistributedTest implements Serializable {
+
+  private static final int ENTRY_COUNT = 1000;
+  private static final int PARALLEL_SERIES = 4;
+  private static final String REGION_NAME = "region";
+
+  private VM provider;
+
+  @Rule
+  public DistributedRule distributedRule = new DistributedRule();
+
+  @Rule
+  public CacheRule cacheRule = new CacheRule();
+
+  @Before
+  public void setUp() {
+    provider = getVM(0);
+
+    provider.invoke(() -> {
+      InitialImageOperation.PARALLEL_SERIES = PARALLEL_SERIES;
+      // chunks of a few dozen entries, so that every series gets several of them
+      InitialImageOperation.CHUNK_SIZE_IN_BYTES = 1000;
+      Region<Integer, String> region =
+          cacheRule.getOrCreateCache().<Integer, String>createRegionFactory(REPLICATE)
+              .create(REGION_NAME);
+      for (int i = 0; i < ENTRY_COUNT; i++) {
+        region.put(i, "value" + i);
+      }
+    });
+  }
+
+  @After
+  public void tearDown() {
+    provider.invoke(() -> {
+      InitialImageOperation.PARALLEL_SERIES = 1;
+      InitialImageOperation.CHUNK_SIZE_IN_BYTES = 500 * 1024;
+    });
+  }
+
+  @Test
+  public void regionReceivesEveryEntryFromParallelSeries() {
+    Region<Integer, String> region =
+        cacheRule.getOrCreateCache().<Integer, String>createRegionFactory(REPLICATE)
+            .create(REGION_NAME);
+
+    assertThat(region).hasSize(ENTRY_COUNT);
+    for (int i = 0; i < ENTRY_COUNT; i++) {
+      assertThat(region.get(i)).isEqualTo("value" + i);
+    }
+    CachePerfStats stats = ((LocalRegion) region).getCachePerfStats();
+    assertThat(stats.getGetInitialImageKeysReceived()).isEqualTo(ENTRY_COUNT);
+    assertThat(stats.getGetInitialImageChunksReceived()).isGreaterThan(PARALLEL_SERIES);
+  }
+}
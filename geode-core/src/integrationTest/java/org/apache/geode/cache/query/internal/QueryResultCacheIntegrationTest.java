@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.apache.geode.cache.Region.SEPARATOR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category(OQLQueryTest.class)
+public class QueryResultCacheIntegrationTest {
+  private static final String QUERY = "SELECT * FROM " + SEPARATOR + "region v WHERE v > $1";
+
+  @Rule
+  public ServerStarterRule server = new ServerStarterRule()
+      .withRegion(RegionShortcut.REPLICATE, "region")
+      .withRegion(RegionShortcut.PARTITION, "partitioned")
+      .withAutoStart();
+
+  private Region<Integer, Integer> region;
+  private DefaultQueryService queryService;
+
+  @Before
+  public void setUp() {
+    region = server.getCache().getRegion("region");
+    for (int i = 0; i < 10; i++) {
+      region.put(i, i);
+    }
+    queryService = (DefaultQueryService) server.getCache().getQueryService();
+    queryService.enableQueryResultCache(region, 10);
+  }
+
+  @Test
+  public void repeatedQueryIsAnsweredFromTheCache() throws Exception {
+    Query query = queryService.newQuery(QUERY);
+
+    SelectResults<?> first = (SelectResults<?>) query.execute(4);
+    SelectResults<?> second = (SelectResults<?>) query.execute(4);
+
+    assertThat(second).hasSize(5).containsExactlyInAnyOrderElementsOf(first);
+    QueryResultCache resultCache = ((LocalRegion) region).getQueryResultCache();
+    assertThat(resultCache.getHits()).isEqualTo(1);
+    assertThat(resultCache.getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  public void queryWithOtherParametersIsExecuted() throws Exception {
+    Query query = queryService.newQuery(QUERY);
+
+    query.execute(4);
+    SelectResults<?> results = (SelectResults<?>) query.execute(7);
+
+    assertThat(results).hasSize(2);
+    assertThat(((LocalRegion) region).getQueryResultCache().getMisses()).isEqualTo(2);
+  }
+
+  @Test
+  public void modificationOfTheRegionInvalidatesTheCachedResults() throws Exception {
+    Query query = queryService.newQuery(QUERY);
+    query.execute(4);
+
+    region.put(10, 10);
+    SelectResults<?> results = (SelectResults<?>) query.execute(4);
+
+    assertThat(results).hasSize(6).contains(10);
+    assertThat(((LocalRegion) region).getQueryResultCache().getHits()).isZero();
+  }
+
+  @Test
+  public void cachedResultsCannotBeModified() throws Exception {
+    Query query = queryService.newQuery(QUERY);
+    @SuppressWarnings("unchecked")
+    SelectResults<Object> results = (SelectResults<Object>) query.execute(4);
+
+    assertThatThrownBy(() -> results.add(100)).isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(results::clear).isInstanceOf(UnsupportedOperationException.class);
+    assertThat((SelectResults<?>) query.execute(4)).hasSize(5);
+  }
+
+  @Test
+  public void disablingTheCacheExecutesTheQueryAgain() throws Exception {
+    Query query = queryService.newQuery(QUERY);
+    query.execute(4);
+
+    queryService.disableQueryResultCache(region);
+    region.put(10, 10);
+
+    assertThat((SelectResults<?>) query.execute(4)).hasSize(6);
+    assertThat(((LocalRegion) region).getQueryResultCache()).isNull();
+  }
+
+  @Test
+  public void partitionedRegionIsRejected() {
+    Region<?, ?> partitioned = server.getCache().getRegion("partitioned");
+
+    assertThatThrownBy(() -> queryService.enableQueryResultCache(partitioned, 10))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan.asyncqueue;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.asyncqueue.AsyncEventListener;
+import org.apache.geode.cache.asyncqueue.AsyncEventQueue;
+import org.apache.geode.cache.asyncqueue.internal.AsyncEventQueueImpl;
+import org.apache.geode.test.junit.categories.AEQTest;
+
+/**
+ * Checks that the updates an async event queue with batch conflation removes from its queue, when a
+ * later update on the same key is queued, are counted by the eventsConflatedFromQueue statistic.
+ */
+@Category({AEQTest.class})
+public class AsyncEventQueueConflationIntegrationTest {
+
+  private Cache cache;
+
+  @Before
+  public void setUp() {
+    cache = new CacheFactory().set(MCAST_PORT, "0").create();
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  private AsyncEventQueueImpl createQueueAndUpdateOneKey(boolean parallel) {
+    AsyncEventQueue queue = cache.createAsyncEventQueueFactory().setParallel(parallel)
+        .setBatchConflationEnabled(true).pauseEventDispatching()
+        .create("queue", mock(AsyncEventListener.class));
+    Region<String, String> region =
+        cache.<String, String>createRegionFactory(
+            parallel ? RegionShortcut.PARTITION : RegionShortcut.REPLICATE)
+            .addAsyncEventQueueId(queue.getId()).create("region");
+
+    region.put("key", "created");
+    region.put("key", "first update");
+    region.put("key", "second update");
+    region.put("key", "third update");
+    return (AsyncEventQueueImpl) queue;
+  }
+
+  @Test
+  public void serialQueueCountsTheUpdatesItConflates() {
+    AsyncEventQueueImpl queue = createQueueAndUpdateOneKey(false);
+
+    // only updates are conflated, so the create and the last update stay queued
+    assertThat(queue.getStatistics().getEventsConflatedFromQueue()).isEqualTo(2);
+    assertThat(queue.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void parallelQueueCountsTheUpdatesItConflates() {
+    AsyncEventQueueImpl queue = createQueueAndUpdateOneKey(true);
+
+    // the parallel queue removes the replaced updates in the background
+    await().untilAsserted(
+        () -> assertThat(queue.getStatistics().getEventsConflatedFromQueue()).isEqualTo(2));
+    await().untilAsserted(() -> assertThat(queue.size()).isEqualTo(2));
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.pdx.internal.AutoSerializableManager.PdxFieldWrapper;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+/**
+ * Round trips every kind of field through the {@link ReflectionBasedAutoSerializer} while the
+ * fields are accessed through method handles.
+ */
+@Category({SerializationTest.class})
+public class AutoSerializableMethodHandleIntegrationTest {
+
+  private Cache cache;
+  private AutoSerializableManager manager;
+
+  @Before
+  public void setUp() {
+    System.setProperty(AutoSerializableManager.NO_HARDCODED_EXCLUDES_PARAM, "true");
+    AutoSerializableManager.setUseMethodHandles(true);
+    ReflectionBasedAutoSerializer serializer =
+        new ReflectionBasedAutoSerializer(Pattern.quote(AllFieldTypes.class.getName()));
+    manager = (AutoSerializableManager) serializer.getManager();
+    cache = new CacheFactory().set(MCAST_PORT, "0").setPdxReadSerialized(false)
+        .setPdxSerializer(serializer).create();
+  }
+
+  @After
+  public void tearDown() {
+    AutoSerializableManager.setUseMethodHandles(false);
+    System.clearProperty(AutoSerializableManager.NO_HARDCODED_EXCLUDES_PARAM);
+    cache.close();
+  }
+
+  @Test
+  public void nonFinalFieldsAreAccessedThroughMethodHandles() {
+    for (PdxFieldWrapper field : manager.getFields(AllFieldTypes.class)) {
+      assertThat(field.isAccessedThroughMethodHandle())
+          .as(field.getField().getName())
+          .isEqualTo(!field.getField().getName().equals("finalField"));
+    }
+  }
+
+  @Test
+  public void allFieldTypesRoundTrip() throws Exception {
+    AllFieldTypes original = AllFieldTypes.create();
+
+    assertThat(roundTrip(original)).isEqualTo(original);
+  }
+
+  @Test
+  public void defaultFieldValuesRoundTrip() throws Exception {
+    AllFieldTypes original = new AllFieldTypes();
+
+    assertThat(roundTrip(original)).isEqualTo(original);
+  }
+
+  private Object roundTrip(Object original) throws Exception {
+    HeapDataOutputStream out = new HeapDataOutputStream(KnownVersion.CURRENT);
+    DataSerializer.writeObject(original, out);
+    return DataSerializer
+        .readObject(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+  }
+
+  public enum Day {
+    MONDAY, FRIDAY
+  }
+
+  public static class AllFieldTypes {
+    private boolean booleanField;
+    private byte byteField;
+    private short shortField;
+    private char charField;
+    private int intField;
+    private long longField;
+    private float floatField;
+    private double doubleField;
+    private String stringField;
+    private Date dateField;
+    private Day enumField;
+    private Object objectField;
+    private Integer boxedField;
+    private boolean[] booleanArrayField;
+    private byte[] byteArrayField;
+    private short[] shortArrayField;
+    private char[] charArrayField;
+    private int[] intArrayField;
+    private long[] longArrayField;
+    private float[] floatArrayField;
+    private double[] doubleArrayField;
+    private String[] stringArrayField;
+    private byte[][] arrayOfByteArraysField;
+    private Object[] objectArrayField;
+    private final int finalField;
+
+    public AllFieldTypes() {
+      this(0);
+    }
+
+    private AllFieldTypes(int finalField) {
+      this.finalField = finalField;
+    }
+
+    static AllFieldTypes create() {
+      AllFieldTypes value = new AllFieldTypes(42);
+      value.booleanField = true;
+      value.byteField = Byte.MIN_VALUE;
+      value.shortField = Short.MAX_VALUE;
+      value.charField = 'g';
+      value.intField = Integer.MIN_VALUE;
+      value.longField = Long.MAX_VALUE;
+      value.floatField = 1.5f;
+      value.doubleField = -2.25d;
+      value.stringField = "geode";
+      value.dateField = new Date(1234567890L);
+      value.enumField = Day.FRIDAY;
+      List<String> list = new ArrayList<>();
+      list.add("one");
+      list.add("two");
+      value.objectField = list;
+      value.boxedField = 7;
+      value.booleanArrayField = new boolean[] {true, false};
+      value.byteArrayField = new byte[] {1, 2, 3};
+      value.shortArrayField = new short[] {4, 5};
+      value.charArrayField = new char[] {'a', 'b'};
+      value.intArrayField = new int[] {6, 7};
+      value.longArrayField = new long[] {8L, 9L};
+      value.floatArrayField = new float[] {1.0f, 2.0f};
+      value.doubleArrayField = new double[] {3.0d, 4.0d};
+      value.stringArrayField = new String[] {"x", null, "z"};
+      value.arrayOfByteArraysField = new byte[][] {{1}, {2, 3}};
+      value.objectArrayField = new Object[] {"object", 10L};
+      return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof AllFieldTypes)) {
+        return false;
+      }
+      AllFieldTypes that = (AllFieldTypes) o;
+      return booleanField == that.booleanField
+          && byteField == that.byteField
+          && shortField == that.shortField
+          && charField == that.charField
+          && intField == that.intField
+          && longField == that.longField
+          && Float.compare(floatField, that.floatField) == 0
+          && Double.compare(doubleField, that.doubleField) == 0
+          && Objects.equals(stringField, that.stringField)
+          && Objects.equals(dateField, that.dateField)
+          && enumField == that.enumField
+          && Objects.equals(objectField, that.objectField)
+          && Objects.equals(boxedField, that.boxedField)
+          && Arrays.equals(booleanArrayField, that.booleanArrayField)
+          && Arrays.equals(byteArrayField, that.byteArrayField)
+          && Arrays.equals(shortArrayField, that.shortArrayField)
+          && Arrays.equals(charArrayField, that.charArrayField)
+          && Arrays.equals(intArrayField, that.intArrayField)
+          && Arrays.equals(longArrayField, that.longArrayField)
+          && Arrays.equals(floatArrayField, that.floatArrayField)
+          && Arrays.equals(doubleArrayField, that.doubleArrayField)
+          && Arrays.equals(stringArrayField, that.stringArrayField)
+          && Arrays.deepEquals(arrayOfByteArraysField, that.arrayOfByteArraysField)
+          && Arrays.equals(objectArrayField, that.objectArrayField)
+          && finalField == that.finalField;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(intField, longField, stringField);
+    }
+
+    @Override
+    public String toString() {
+      return "AllFieldTypes{intField=" + intField + ", stringField=" + stringField + "}";
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.internal.util.concurrent.StoppableCountDownLatch;
+
+/**
+ * Measures the in-process cost of correlating replies with their processors. The roundTrip
+ * benchmark registers a processor, hands its id to a responder thread that looks it up and
+ * releases its latch, and waits for the latch, like a request and its reply. The keeper benchmark
+ * measures registering, looking up and removing processors from several threads at once.
+ * <p>
+ * A keeper with one slot keeps almost every processor in its overflow map, which is how all
+ * processors were kept before the slot table was added.
+ */
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 2)
+@State(Scope.Benchmark)
+public class ReplyRoundTripBenchmark {
+
+  @Param({"1", "4096"})
+  public int slots;
+
+  @Param({"0", "200"})
+  public int spins;
+
+  private ProcessorKeeper21 keeper;
+  private Thread responder;
+  private final AtomicInteger request = new AtomicInteger();
+  private volatile boolean running;
+
+  private static final CancelCriterion NEVER_CANCELLED = new CancelCriterion() {
+    @Override
+    public String cancelInProgress() {
+      return null;
+    }
+
+    @Override
+    public RuntimeException generateCancelledException(Throwable throwable) {
+      return null;
+    }
+  };
+
+  @Setup
+  public void setup() {
+    keeper = new ProcessorKeeper21(true, slots);
+    running = true;
+    responder = new Thread(this::respond, "benchmark responder");
+    responder.setDaemon(true);
+    responder.start();
+  }
+
+  @TearDown
+  public void tearDown() throws InterruptedException {
+    running = false;
+    responder.join();
+  }
+
+  private void respond() {
+    while (running) {
+      int id = request.getAndSet(0);
+      if (id == 0) {
+        continue;
+      }
+      Processor processor = (Processor) keeper.retrieve(id);
+      if (processor != null) {
+        processor.latch.countDown();
+      }
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Processor roundTrip() throws InterruptedException {
+    Processor processor = new Processor();
+    int id = keeper.put(processor);
+    request.set(id);
+    if (!processor.latch.spinAwait(spins)) {
+      processor.latch.await();
+    }
+    keeper.remove(id);
+    return processor;
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object keeper() {
+    Processor processor = new Processor();
+    int id = keeper.put(processor);
+    Object retrieved = keeper.retrieve(id);
+    keeper.remove(id);
+    return retrieved;
+  }
+
+  public static class Processor {
+    final StoppableCountDownLatch latch = new StoppableCountDownLatch(NEVER_CANCELLED, 1);
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.geode.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+
+/**
+ * Compares the throughput of ReflectionBasedAutoSerializer with each of its field access
+ * strategies: reflection, Unsafe (the default) and method handles. The strategy is chosen once per
+ * JVM so each benchmark runs in its own fork.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class AutoSerializerBenchmark {
+
+  private static final String SAFE = "-Dgemfire.AutoSerializer.SAFE=true";
+  private static final String METHOD_HANDLES = "-Dgemfire.AutoSerializer.METHOD_HANDLES=true";
+
+  private Cache cache;
+  private Trade trade;
+  private byte[] serializedTrade;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    cache = new CacheFactory().set(LOG_LEVEL, "warn")
+        .setPdxSerializer(new ReflectionBasedAutoSerializer(Trade.class.getName())).create();
+    trade = new Trade(42L, "GEODE", 101.25, 1_000, 'B', true);
+    serializedTrade = BlobHelper.serializeToBlob(trade);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = SAFE)
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] serializeWithReflection() throws IOException {
+    return BlobHelper.serializeToBlob(trade);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] serializeWithUnsafe() throws IOException {
+    return BlobHelper.serializeToBlob(trade);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = METHOD_HANDLES)
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] serializeWithMethodHandles() throws IOException {
+    return BlobHelper.serializeToBlob(trade);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = SAFE)
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object deserializeWithReflection() throws IOException, ClassNotFoundException {
+    return BlobHelper.deserializeBlob(serializedTrade);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object deserializeWithUnsafe() throws IOException, ClassNotFoundException {
+    return BlobHelper.deserializeBlob(serializedTrade);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = METHOD_HANDLES)
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Object deserializeWithMethodHandles() throws IOException, ClassNotFoundException {
+    return BlobHelper.deserializeBlob(serializedTrade);
+  }
+
+  public static class Trade {
+    private long id;
+    private String symbol;
+    private double price;
+    private int quantity;
+    private char side;
+    private boolean settled;
+
+    public Trade() {}
+
+    Trade(long id, String symbol, double price, int quantity, char side, boolean settled) {
+      this.id = id;
+      this.symbol = symbol;
+      this.price = price;
+      this.quantity = quantity;
+      this.side = side;
+      this.settled = settled;
+    }
+  }
+}
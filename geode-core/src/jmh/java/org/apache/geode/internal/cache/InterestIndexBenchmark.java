@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many keys per second find the clients interested in them when every client has
+ * registered one key and one regular expression, such as {@code client-17-.*}. The scan visits
+ * every registration the way FilterProfile does without an index, while the indexed lookup uses
+ * {@link InterestIndex}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InterestIndexBenchmark {
+
+  private static final int KEYS = 1024;
+
+  @Param({"10", "100", "1000", "10000"})
+  public int numberOfClients;
+
+  private Map<Object, Set> keysOfInterest;
+  private Map<Object, Map<Object, Pattern>> patternsOfInterest;
+  private InterestIndex index;
+  private String[] keys;
+  private int key;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    keysOfInterest = new HashMap<>();
+    patternsOfInterest = new HashMap<>();
+    for (long client = 0; client < numberOfClients; client++) {
+      keysOfInterest.put(client, Collections.singleton("key-" + client));
+      String regex = "client-" + client + "-.*";
+      patternsOfInterest.put(client, Collections.singletonMap(regex, Pattern.compile(regex)));
+    }
+    index = new InterestIndex(0, keysOfInterest, patternsOfInterest);
+
+    Random random = new Random(0);
+    keys = new String[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = "client-" + random.nextInt(numberOfClients) + "-" + i;
+    }
+  }
+
+  @Benchmark
+  public Set<Object> scan() {
+    String eventKey = nextKey();
+    Set<Object> clients = new HashSet<>();
+    for (Map.Entry<Object, Set> entry : keysOfInterest.entrySet()) {
+      if (entry.getValue().contains(eventKey)) {
+        clients.add(entry.getKey());
+      }
+    }
+    for (Map.Entry<Object, Map<Object, Pattern>> entry : patternsOfInterest.entrySet()) {
+      for (Pattern pattern : entry.getValue().values()) {
+        if (pattern.matcher(eventKey).matches()) {
+          clients.add(entry.getKey());
+          break;
+        }
+      }
+    }
+    return clients;
+  }
+
+  @Benchmark
+  public Set<Object> indexed() {
+    Set<Object> clients = new HashSet<>();
+    index.addInterestedClients(nextKey(), clients);
+    return clients;
+  }
+
+  private String nextKey() {
+    key = (key + 1) & (KEYS - 1);
+    return keys[key];
+  }
+}
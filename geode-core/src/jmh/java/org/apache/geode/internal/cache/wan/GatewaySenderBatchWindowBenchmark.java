@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many batches a gateway sender dispatcher gets acknowledged per second with a
+ * simulated link between two sites, depending on how many batches it may have in flight. The
+ * sending site dispatches batches through a {@link GatewaySenderBatchWindow}; a thread standing in
+ * for the receiving site acknowledges each batch when it arrives, and the sending site's ack reader
+ * completes it in the window when the ack arrives. Each direction of the link delays messages by
+ * the configured latency. With one batch in flight the rate is bounded by the round trip time;
+ * with a large enough window it is not.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GatewaySenderBatchWindowBenchmark {
+
+  @Param({"1", "4", "16", "64"})
+  public int maxInFlight;
+
+  @Param({"1", "20", "80"})
+  public int oneWayLatencyMillis;
+
+  private GatewaySenderBatchWindow window;
+  private DelayQueue<InTransit> toReceiver;
+  private DelayQueue<InTransit> toSender;
+  private Thread receiver;
+  private Thread ackReader;
+  private volatile boolean running;
+  private int batchId;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    window = new GatewaySenderBatchWindow(maxInFlight);
+    toReceiver = new DelayQueue<>();
+    toSender = new DelayQueue<>();
+    running = true;
+
+    receiver = new Thread(() -> {
+      while (running) {
+        try {
+          InTransit batch = toReceiver.poll(100, TimeUnit.MILLISECONDS);
+          if (batch != null) {
+            toSender.put(new InTransit(batch.batchId, oneWayLatencyMillis));
+          }
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }, "receiving site");
+    ackReader = new Thread(() -> {
+      while (running) {
+        try {
+          InTransit ack = toSender.poll(100, TimeUnit.MILLISECONDS);
+          if (ack != null) {
+            window.acknowledged(ack.batchId);
+          }
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }, "ack reader");
+    receiver.start();
+    ackReader.start();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    running = false;
+    window.clear();
+    receiver.join();
+    ackReader.join();
+  }
+
+  @Benchmark
+  public void dispatchBatch() throws InterruptedException {
+    window.awaitCapacity(() -> !running);
+    int id = batchId++;
+    window.dispatched(id);
+    toReceiver.put(new InTransit(id, oneWayLatencyMillis));
+  }
+
+  private static class InTransit implements Delayed {
+    private final int batchId;
+    private final long arrivalNanos;
+
+    InTransit(int batchId, long latencyMillis) {
+      this.batchId = batchId;
+      this.arrivalNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(arrivalNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(arrivalNanos, ((InTransit) other).arrivalNanos);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.LonerDistributionManager.DummyDMStats;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.serialization.KnownVersion;
+
+/**
+ * Compares serializing the values of typical client reply parts into a HeapDataOutputStream with
+ * serializing them into a PooledHeapDataOutputStream. Run with "-prof gc" to compare the
+ * allocation rate of each payload type.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class PooledHeapDataOutputStreamBenchmark {
+
+  @Param({"string", "bytes", "map"})
+  public String payloadType;
+
+  private final BufferPool bufferPool = new BufferPool(new DummyDMStats());
+  private Object payload;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    switch (payloadType) {
+      case "string":
+        payload = "a string value that is typical of a small region value";
+        break;
+      case "bytes":
+        payload = new byte[8192];
+        break;
+      case "map":
+        Map<String, Long> map = new HashMap<>();
+        for (long i = 0; i < 100; i++) {
+          map.put("key-" + i, i);
+        }
+        payload = map;
+        break;
+      default:
+        throw new IllegalArgumentException(payloadType);
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int serializeToHeapStream() throws IOException {
+    try (HeapDataOutputStream out = new HeapDataOutputStream(1024, KnownVersion.CURRENT)) {
+      DataSerializer.writeObject(payload, out);
+      return out.size();
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int serializeToPooledStream() throws IOException {
+    try (PooledHeapDataOutputStream out =
+        new PooledHeapDataOutputStream(bufferPool, 1024, KnownVersion.CURRENT)) {
+      DataSerializer.writeObject(payload, out);
+      return out.size();
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how quickly a burst of messages, one from each of a number of peers, is received by a
+ * reader thread per connection compared with a {@link SelectorReaderPool}. Each peer is simulated
+ * by a loopback socket.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class SelectorReaderPoolBenchmark {
+
+  private static final int MESSAGE_SIZE = 256;
+
+  @Param({"4", "32", "128"})
+  public int peerCount;
+
+  @Param({"threadPerConnection", "selector"})
+  public String readerMode;
+
+  private final AtomicLong bytesReceived = new AtomicLong();
+  private ServerSocketChannel serverChannel;
+  private SocketChannel[] senders;
+  private SocketChannel[] receivers;
+  private ExecutorService readerThreads;
+  private SelectorReaderPool selectorReaderPool;
+  private ByteBuffer message;
+  private long expectedBytes;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    senders = new SocketChannel[peerCount];
+    receivers = new SocketChannel[peerCount];
+    for (int i = 0; i < peerCount; i++) {
+      senders[i] = SocketChannel.open(serverChannel.getLocalAddress());
+      senders[i].socket().setTcpNoDelay(true);
+      receivers[i] = serverChannel.accept();
+    }
+    message = ByteBuffer.allocateDirect(MESSAGE_SIZE);
+
+    if (readerMode.equals("selector")) {
+      selectorReaderPool = new SelectorReaderPool(2, Executors.newCachedThreadPool());
+      for (SocketChannel receiver : receivers) {
+        receiver.configureBlocking(false);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        selectorReaderPool.register(() -> read(receiver, buffer) >= 0, receiver);
+      }
+    } else {
+      readerThreads = Executors.newFixedThreadPool(peerCount);
+      for (SocketChannel receiver : receivers) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        readerThreads.execute(() -> {
+          while (read(receiver, buffer) >= 0) {
+          }
+        });
+      }
+    }
+  }
+
+  private int read(SocketChannel receiver, ByteBuffer buffer) {
+    try {
+      buffer.clear();
+      int amountRead = receiver.read(buffer);
+      if (amountRead > 0) {
+        bytesReceived.addAndGet(amountRead);
+      }
+      return amountRead;
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    for (SocketChannel sender : senders) {
+      sender.close();
+    }
+    for (SocketChannel receiver : receivers) {
+      receiver.close();
+    }
+    serverChannel.close();
+    if (selectorReaderPool != null) {
+      selectorReaderPool.close();
+    }
+    if (readerThreads != null) {
+      readerThreads.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 5)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public long receiveOneMessageFromEachPeer() throws IOException {
+    for (SocketChannel sender : senders) {
+      message.clear();
+      while (message.hasRemaining()) {
+        sender.write(message);
+      }
+    }
+    expectedBytes += (long) MESSAGE_SIZE * peerCount;
+    while (bytesReceived.get() < expectedBytes) {
+      Thread.yield();
+    }
+    return expectedBytes;
+  }
+}
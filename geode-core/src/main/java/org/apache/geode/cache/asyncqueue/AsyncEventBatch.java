@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.asyncqueue;
+
+import java.util.List;
+
+import org.apache.geode.annotations.Experimental;
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.Region;
+import org.apache.geode.pdx.PdxInstance;
+
+/**
+ * A read-only view of a batch of events delivered to an <code>AsyncEventBatchListener</code>. The
+ * events are accessed by their index in the batch. Their values stay in serialized form until they
+ * are asked for, so a listener that passes the serialized values on, or that only reads some fields
+ * of PDX values, does not create the domain objects of the batch.
+ * <p>
+ * A batch is only valid until the listener returns from
+ * {@link AsyncEventBatchListener#processBatch(AsyncEventBatch)}.
+ *
+ * @since Geode 1.15
+ */
+@Experimental
+public interface AsyncEventBatch {
+
+  /**
+   * Returns the number of events in this batch.
+   */
+  int size();
+
+  /**
+   * Returns the region of the event at the given index.
+   */
+  Region<?, ?> getRegion(int index);
+
+  /**
+   * Returns the operation of the event at the given index.
+   */
+  Operation getOperation(int index);
+
+  /**
+   * Returns the key of the event at the given index.
+   */
+  Object getKey(int index);
+
+  /**
+   * Returns the callback argument of the event at the given index.
+   */
+  Object getCallbackArgument(int index);
+
+  /**
+   * Returns whether possibleDuplicate is set for the event at the given index.
+   */
+  boolean getPossibleDuplicate(int index);
+
+  /**
+   * Returns the serialized form of the value of the event at the given index, or null if the event
+   * has no value. The returned array is the one the queue holds, so it must not be modified.
+   */
+  byte[] getSerializedValue(int index);
+
+  /**
+   * Returns the deserialized value of the event at the given index.
+   */
+  Object getDeserializedValue(int index);
+
+  /**
+   * Returns the value of the event at the given index as a <code>PdxInstance</code>, whether or not
+   * the cache reads PDX values as serialized, or null if the value was not serialized with PDX.
+   * The domain object of the value is never created.
+   */
+  PdxInstance getPdxInstance(int index);
+
+  /**
+   * Returns the value of a field of the PDX value of the event at the given index, or null if the
+   * value was not serialized with PDX or has no such field.
+   */
+  Object getField(int index, String fieldName);
+
+  /**
+   * Returns the events of this batch, as they would be passed to
+   * {@link AsyncEventListener#processEvents(List)}.
+   */
+  List<AsyncEvent> getEvents();
+}
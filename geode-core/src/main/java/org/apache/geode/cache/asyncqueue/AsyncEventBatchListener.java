@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.asyncqueue;
+
+import java.util.List;
+
+import org.apache.geode.annotations.Experimental;
+
+/**
+ * An <code>AsyncEventListener</code> that processes each batch of events through an
+ * {@link AsyncEventBatch}, which keeps the values of the events serialized until they are asked
+ * for. This suits listeners that write batches somewhere else in bulk, such as write-behind to a
+ * database. An <code>AsyncEventQueue</code> calls {@link #processBatch(AsyncEventBatch)} instead of
+ * {@link #processEvents(List)} on the listeners that implement this interface.
+ *
+ * @since Geode 1.15
+ */
+@Experimental
+public interface AsyncEventBatchListener extends AsyncEventListener {
+
+  /**
+   * Process a batch of events. The batch is only valid until this method returns.
+   *
+   * @param batch The batch of events to process
+   *
+   * @return boolean True represents whether the events were successfully processed, false
+   *         otherwise.
+   */
+  boolean processBatch(AsyncEventBatch batch);
+
+  /**
+   * Not called by an <code>AsyncEventQueue</code>, which hands its batches to
+   * {@link #processBatch(AsyncEventBatch)} instead.
+   *
+   * @throws UnsupportedOperationException unless overridden
+   */
+  @Override
+  default boolean processEvents(List<AsyncEvent> events) {
+    throw new UnsupportedOperationException(
+        "An AsyncEventBatchListener processes its events through processBatch");
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.asyncqueue.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.asyncqueue.AsyncEvent;
+import org.apache.geode.cache.asyncqueue.AsyncEventBatch;
+import org.apache.geode.internal.cache.EntryEventImpl;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.serialization.DSCODE;
+import org.apache.geode.pdx.PdxInstance;
+
+/**
+ * An {@link AsyncEventBatch} over the {@link GatewaySenderEventImpl}s an async event queue
+ * dispatches. The events of the queue already hold their values in serialized form, which this
+ * hands out as they are. Only values the events hold as serialized objects are read as PDX
+ * instances, which are created on first use and kept for the life of the batch.
+ *
+ * @since Geode 1.15
+ */
+public class AsyncEventBatchImpl implements AsyncEventBatch {
+
+  private final List<GatewaySenderEventImpl> events;
+
+  private PdxInstance[] pdxInstances;
+
+  public AsyncEventBatchImpl(List<GatewaySenderEventImpl> events) {
+    this.events = events;
+  }
+
+  @Override
+  public int size() {
+    return events.size();
+  }
+
+  @Override
+  public Region<?, ?> getRegion(int index) {
+    return events.get(index).getRegion();
+  }
+
+  @Override
+  public Operation getOperation(int index) {
+    return events.get(index).getOperation();
+  }
+
+  @Override
+  public Object getKey(int index) {
+    return events.get(index).getKey();
+  }
+
+  @Override
+  public Object getCallbackArgument(int index) {
+    return events.get(index).getCallbackArgument();
+  }
+
+  @Override
+  public boolean getPossibleDuplicate(int index) {
+    return events.get(index).getPossibleDuplicate();
+  }
+
+  @Override
+  public byte[] getSerializedValue(int index) {
+    return events.get(index).getSerializedValue();
+  }
+
+  @Override
+  public Object getDeserializedValue(int index) {
+    return events.get(index).getDeserializedValue();
+  }
+
+  @Override
+  public PdxInstance getPdxInstance(int index) {
+    if (pdxInstances == null) {
+      pdxInstances = new PdxInstance[events.size()];
+    }
+    PdxInstance pdxInstance = pdxInstances[index];
+    if (pdxInstance == null) {
+      pdxInstance = readPdxInstance(events.get(index));
+      pdxInstances[index] = pdxInstance;
+    }
+    return pdxInstance;
+  }
+
+  @Override
+  public Object getField(int index, String fieldName) {
+    PdxInstance pdxInstance = getPdxInstance(index);
+    return pdxInstance == null ? null : pdxInstance.getField(fieldName);
+  }
+
+  @Override
+  public List<AsyncEvent> getEvents() {
+    return Collections.unmodifiableList(events);
+  }
+
+  private static PdxInstance readPdxInstance(GatewaySenderEventImpl event) {
+    if (event.getValueIsObject() == 0x00) {
+      // the value is a byte[] the application put as it is
+      return null;
+    }
+    byte[] serializedValue = event.getSerializedValue();
+    if (serializedValue == null || serializedValue.length == 0
+        || serializedValue[0] != DSCODE.PDX.toByte()) {
+      return null;
+    }
+    Region<?, ?> region = event.getRegion();
+    if (region == null || !(region.getRegionService() instanceof InternalCache)) {
+      // the region is gone, so only the cache settings decide what the value deserializes to
+      Object value = event.getDeserializedValue();
+      return value instanceof PdxInstance ? (PdxInstance) value : null;
+    }
+    InternalCache cache = (InternalCache) region.getRegionService();
+    Boolean initialPdxReadSerialized = cache.getPdxReadSerializedOverride();
+    cache.setPdxReadSerializedOverride(true);
+    try {
+      return (PdxInstance) EntryEventImpl.deserialize(serializedValue);
+    } finally {
+      cache.setPdxReadSerializedOverride(initialPdxReadSerialized);
+    }
+  }
+}
@@ -54,6 +54,7 @@ import org.apache.geode.internal.NanoTimer;
 import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalDataSet;
+import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.TXStateProxy;
@@ -261,7 +262,20 @@ public class DefaultQuery implements Query {
         queryMonitor.monitorQueryExecution(context);
       }
 
-      result = executeUsingContext(context);
+      QueryResultCache resultCache = getQueryResultCache(params);
+      QueryResultCache.CachedResult cachedResult =
+          resultCache == null ? null : resultCache.get(this.queryString, params);
+      if (cachedResult != null) {
+        result = cachedResult.getSelectResults();
+        context.setIndexUsed(cachedResult.isIndexUsed());
+      } else {
+        long resultVersion = resultCache == null ? 0L : resultCache.getVersion();
+        result = executeUsingContext(context);
+        if (resultCache != null && result instanceof SelectResults) {
+          result = resultCache.put(this.queryString, params, resultVersion,
+              (SelectResults) result, context.isIndexUsed());
+        }
+      }
       // Only wrap/copy results when copy on read is set and an index is used
       // This is because when an index is used, the results are actual references to values in the
       // cache
@@ -306,6 +320,26 @@ public class DefaultQuery implements Query {
     }
   }
 
+  /**
+   * Returns the result cache to use for this local query, or null if its results should not be
+   * cached. Results are only cached for queries that reference a single region that has result
+   * caching enabled.
+   */
+  private QueryResultCache getQueryResultCache(Object[] parameters) {
+    if (this.isCqQuery || this.isQueryWithFunctionContext) {
+      return null;
+    }
+    Set<String> regionPaths = getRegionsInQuery(parameters);
+    if (regionPaths.size() != 1) {
+      return null;
+    }
+    Region region = this.cache.getRegion(regionPaths.iterator().next());
+    if (!(region instanceof LocalRegion) || region instanceof PartitionedRegion) {
+      return null;
+    }
+    return ((LocalRegion) region).getQueryResultCache();
+  }
+
   /**
    * For Order by queries ,since they are already ordered by the comparator && it takes care of
    * conversion, we do not have to wrap it in a wrapper
@@ -515,6 +515,50 @@ public class DefaultQueryService implements InternalQueryService {
     indexManager.removeIndexes();
   }
 
+  /**
+   * Enables caching of local query results for the given region. Repeated executions of the same
+   * query with the same bind parameters return the cached results until the region is modified.
+   * Only queries that reference this single region are cached, and the cached results are read
+   * only. The hits and misses are recorded in the QueryResultCacheStats of the region.
+   *
+   * @param region the region whose query results are to be cached
+   * @param maxEntries the maximum number of distinct queries cached for the region
+   * @throws UnsupportedOperationException if the region is partitioned, is a bucket of a
+   *         partitioned region, or this is a client query service. The buckets of a partitioned
+   *         region are modified in other members, which a local modification counter cannot see.
+   * @throws IllegalArgumentException if maxEntries is not greater than zero
+   */
+  public void enableQueryResultCache(Region region, int maxEntries) {
+    if (pool != null) {
+      throw new UnsupportedOperationException(
+          "Query result caching is not supported on the Server Region.");
+    }
+    if (region instanceof PartitionedRegion || !(region instanceof LocalRegion)
+        || ((LocalRegion) region).isUsedForPartitionedRegionBucket()) {
+      throw new UnsupportedOperationException(
+          "Query result caching is not supported on a Partitioned Region.");
+    }
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be greater than zero");
+    }
+    LocalRegion localRegion = (LocalRegion) region;
+    if (localRegion.getQueryResultCache() == null) {
+      QueryResultCache resultCache = new QueryResultCache(maxEntries,
+          new QueryResultCacheStats(cache.getDistributedSystem(), region.getFullPath()));
+      if (!localRegion.setQueryResultCacheIfAbsent(resultCache)) {
+        resultCache.close();
+      }
+    }
+  }
+
+  /**
+   * Disables caching of local query results for the given region and discards any cached results.
+   */
+  public void disableQueryResultCache(Region region) {
+    if (region instanceof LocalRegion) {
+      ((LocalRegion) region).closeQueryResultCache();
+    }
+  }
 
   // CqService Related API implementation.
 
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.geode.cache.query.SelectResults;
+
+/**
+ * A per-region cache of local query results keyed by query string and bind parameters.
+ *
+ * Every modification of the owning region bumps a version counter. A cached result is only
+ * returned while the version it was computed against is still current, so stale results are
+ * discarded lazily on lookup and no invalidation messages are needed. Cached results are shared
+ * by all callers, so they are kept as {@link UnmodifiableSelectResults}.
+ * <p>
+ * Only regions whose every modification is applied in this member can cache their results, which
+ * rules out partitioned regions.
+ */
+public class QueryResultCache {
+
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  private final AtomicLong version = new AtomicLong();
+
+  private final QueryResultCacheStats stats;
+
+  private final Map<Key, CachedResult> results;
+
+  public QueryResultCache(int maxEntries, QueryResultCacheStats stats) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be greater than zero");
+    }
+    this.results = new LinkedHashMap<Key, CachedResult>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, CachedResult> eldest) {
+        return size() > maxEntries;
+      }
+    };
+    this.stats = stats;
+  }
+
+  /**
+   * Called by the owning region whenever one of its entries is created, updated, invalidated or
+   * destroyed, or when the region is cleared.
+   */
+  public void regionModified() {
+    version.incrementAndGet();
+  }
+
+  /**
+   * Returns the current region version. Callers must read it before executing a query and pass
+   * it to {@link #put} so that modifications made during execution invalidate the result.
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Returns the cached result for the given query and parameters, or null if there is none or
+   * the region has been modified since it was computed.
+   */
+  public CachedResult get(String queryString, Object[] parameters) {
+    Key key = new Key(queryString, parameters);
+    CachedResult cached;
+    synchronized (results) {
+      cached = results.get(key);
+      if (cached != null && cached.version != version.get()) {
+        results.remove(key);
+        stats.setResults(results.size());
+        cached = null;
+      }
+    }
+    if (cached == null) {
+      stats.incMisses();
+    } else {
+      stats.incHits();
+    }
+    return cached;
+  }
+
+  /**
+   * Caches the result of the query unless the region has been modified since resultVersion.
+   *
+   * @return the results the caller should return, which are read only if they were cached
+   */
+  public SelectResults<?> put(String queryString, Object[] parameters, long resultVersion,
+      SelectResults<?> selectResults, boolean indexUsed) {
+    if (resultVersion != version.get()) {
+      // the region changed while the query was executing
+      return selectResults;
+    }
+    Key key = new Key(queryString, parameters.clone());
+    SelectResults<?> unmodifiableResults = new UnmodifiableSelectResults(selectResults);
+    synchronized (results) {
+      results.put(key, new CachedResult(resultVersion, unmodifiableResults, indexUsed));
+      stats.setResults(results.size());
+    }
+    return unmodifiableResults;
+  }
+
+  public void clear() {
+    synchronized (results) {
+      results.clear();
+      stats.setResults(0);
+    }
+  }
+
+  /**
+   * Discards the cached results and closes the statistics.
+   */
+  public void close() {
+    clear();
+    stats.close();
+  }
+
+  public int size() {
+    synchronized (results) {
+      return results.size();
+    }
+  }
+
+  public long getHits() {
+    return stats.getHits();
+  }
+
+  public long getMisses() {
+    return stats.getMisses();
+  }
+
+  public static class CachedResult {
+    private final long version;
+
+    private final SelectResults<?> selectResults;
+
+    private final boolean indexUsed;
+
+    CachedResult(long version, SelectResults<?> selectResults, boolean indexUsed) {
+      this.version = version;
+      this.selectResults = selectResults;
+      this.indexUsed = indexUsed;
+    }
+
+    public SelectResults<?> getSelectResults() {
+      return selectResults;
+    }
+
+    public boolean isIndexUsed() {
+      return indexUsed;
+    }
+  }
+
+  private static class Key {
+    private final String queryString;
+
+    private final Object[] parameters;
+
+    private final int hashCode;
+
+    Key(String queryString, Object[] parameters) {
+      this.queryString = queryString;
+      this.parameters = parameters;
+      this.hashCode = 31 * queryString.hashCode() + Arrays.deepHashCode(parameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) other;
+      return hashCode == that.hashCode && queryString.equals(that.queryString)
+          && Arrays.deepEquals(parameters, that.parameters);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.annotations.Immutable;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * The statistics of the {@link QueryResultCache} of a region.
+ *
+ * @since Geode 1.15
+ */
+public class QueryResultCacheStats {
+
+  @Immutable
+  private static final StatisticsType type;
+
+  private static final String HITS = "hits";
+  private static final String MISSES = "misses";
+  private static final String RESULTS = "results";
+
+  private static final int hitsId;
+  private static final int missesId;
+  private static final int resultsId;
+
+  static {
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+    type = f.createType("QueryResultCacheStats",
+        "Statistics of the cached query results of a region", new StatisticDescriptor[] {
+            f.createLongCounter(HITS,
+                "Number of query executions answered from the cached results.", "operations"),
+            f.createLongCounter(MISSES,
+                "Number of query executions that found no current cached result.", "operations"),
+            f.createLongGauge(RESULTS, "Number of query results currently cached.", "results")});
+
+    hitsId = type.nameToId(HITS);
+    missesId = type.nameToId(MISSES);
+    resultsId = type.nameToId(RESULTS);
+  }
+
+  private final Statistics stats;
+
+  public QueryResultCacheStats(StatisticsFactory factory, String regionPath) {
+    this.stats = factory.createAtomicStatistics(type, "QueryResultCacheStats-" + regionPath);
+  }
+
+  public void close() {
+    stats.close();
+  }
+
+  public void incHits() {
+    stats.incLong(hitsId, 1);
+  }
+
+  public void incMisses() {
+    stats.incLong(missesId, 1);
+  }
+
+  public void setResults(int results) {
+    stats.setLong(resultsId, results);
+  }
+
+  public long getHits() {
+    return stats.getLong(hitsId);
+  }
+
+  public long getMisses() {
+    return stats.getLong(missesId);
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.types.CollectionType;
+import org.apache.geode.cache.query.types.ObjectType;
+
+/**
+ * A read only view of a {@link SelectResults}, so that results shared by several callers, such as
+ * those of the {@link QueryResultCache}, cannot be changed by one of them.
+ *
+ * @since Geode 1.15
+ */
+public class UnmodifiableSelectResults implements SelectResults {
+  private final SelectResults results;
+
+  public UnmodifiableSelectResults(SelectResults results) {
+    this.results = results;
+  }
+
+  @Override
+  public Iterator iterator() {
+    return Collections.unmodifiableCollection(results).iterator();
+  }
+
+  @Override
+  public boolean add(Object e) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addAll(Collection c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return results.contains(o);
+  }
+
+  @Override
+  public boolean containsAll(Collection c) {
+    return results.containsAll(c);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return results.isEmpty();
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeAll(Collection c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean retainAll(Collection c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int size() {
+    return results.size();
+  }
+
+  @Override
+  public Object[] toArray() {
+    return results.toArray();
+  }
+
+  @Override
+  public Object[] toArray(Object[] a) {
+    return results.toArray(a);
+  }
+
+  @Override
+  public boolean isModifiable() {
+    return false;
+  }
+
+  @Override
+  public int occurrences(Object element) {
+    return results.occurrences(element);
+  }
+
+  @Override
+  public Set asSet() {
+    return Collections.unmodifiableSet(results.asSet());
+  }
+
+  @Override
+  public List asList() {
+    return Collections.unmodifiableList(results.asList());
+  }
+
+  @Override
+  public CollectionType getCollectionType() {
+    return results.getCollectionType();
+  }
+
+  @Override
+  public void setElementType(ObjectType elementType) {
+    if (!elementType.equals(results.getCollectionType().getElementType())) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return results.toString();
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.apache.geode.util.internal.GeodeGlossary.GEMFIRE_PREFIX;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.serialization.KnownVersion;
+
+/**
+ * Combines plain acknowledgements that are bound for the same member into one
+ * {@link CumulativeAckMessage}.
+ * <p>
+ * There is no flusher thread. When no ack is being sent to a member, the thread that acknowledges
+ * an operation sends its ack itself, so a lightly loaded member replies as quickly as before.
+ * While that send is in progress, further acks for the same member accumulate and the sending
+ * thread sends them together once its own send returns. Each member is flushed independently, so
+ * a slow member only delays the acks bound for it.
+ * <p>
+ * Members older than Geode 1.15 can not read a CumulativeAckMessage, so the acks bound for them
+ * are still sent as separate {@link ReplyMessage}s.
+ *
+ * @since Geode 1.15
+ */
+class AckAggregator {
+
+  static final boolean ENABLED = Boolean.getBoolean(GEMFIRE_PREFIX + "cumulativeAcks");
+
+  /**
+   * The most acknowledgements sent in one message
+   */
+  private static final int MAX_ACKS =
+      Integer.getInteger(GEMFIRE_PREFIX + "cumulativeAcks.maxAcks", 1024);
+
+  private final ReplySender replySender;
+  private final int maxAcks;
+  private final Map<InternalDistributedMember, PendingAcks> pending = new ConcurrentHashMap<>();
+
+  AckAggregator(ReplySender replySender) {
+    this(replySender, MAX_ACKS);
+  }
+
+  AckAggregator(ReplySender replySender, int maxAcks) {
+    this.replySender = replySender;
+    this.maxAcks = maxAcks;
+  }
+
+  /**
+   * Acknowledges the operation of the given reply processor in the given member.
+   */
+  void ack(InternalDistributedMember recipient, int processorId) {
+    PendingAcks acks = pending.computeIfAbsent(recipient, PendingAcks::new);
+    synchronized (acks) {
+      if (acks.sending) {
+        // the thread sending to this member sends this ack once its send returns
+        acks.add(processorId);
+        return;
+      }
+      acks.sending = true;
+    }
+    boolean sent = false;
+    try {
+      ReplyMessage.send(recipient, processorId, null, replySender);
+      sent = true;
+    } finally {
+      if (sent) {
+        sendPending(acks);
+      } else {
+        synchronized (acks) {
+          acks.sending = false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Sends the acks that accumulated while this thread was sending, until there are none left.
+   */
+  private void sendPending(PendingAcks acks) {
+    while (true) {
+      final int[] processorIds;
+      synchronized (acks) {
+        processorIds = acks.take();
+        if (processorIds.length == 0) {
+          acks.sending = false;
+          // a thread that already found this entry sends its own ack since nothing is sending
+          pending.remove(acks.recipient, acks);
+          return;
+        }
+      }
+      int sentCount = 0;
+      try {
+        while (sentCount < processorIds.length) {
+          int to = Math.min(processorIds.length, sentCount + maxAcks);
+          send(acks.recipient, processorIds, sentCount, to);
+          sentCount = to;
+        }
+      } catch (RuntimeException e) {
+        synchronized (acks) {
+          // keep the unsent acks so that the next ack for this member sends them
+          acks.addFirst(Arrays.copyOfRange(processorIds, sentCount, processorIds.length));
+          acks.sending = false;
+        }
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Sends the acks from {@code from}, inclusive, to {@code to}, exclusive.
+   */
+  private void send(InternalDistributedMember recipient, int[] processorIds, int from, int to) {
+    if (to - from == 1 || !canReadCumulativeAcks(recipient)) {
+      for (int i = from; i < to; i++) {
+        ReplyMessage.send(recipient, processorIds[i], null, replySender);
+      }
+    } else {
+      replySender.putOutgoing(
+          new CumulativeAckMessage(recipient, Arrays.copyOfRange(processorIds, from, to)));
+    }
+  }
+
+  private static boolean canReadCumulativeAcks(InternalDistributedMember recipient) {
+    return !recipient.getVersion().isOlderThan(KnownVersion.GEODE_1_15_0);
+  }
+
+  private static class PendingAcks {
+    private final InternalDistributedMember recipient;
+    private int[] processorIds = new int[8];
+    private int size;
+    private boolean sending;
+
+    PendingAcks(InternalDistributedMember recipient) {
+      this.recipient = recipient;
+    }
+
+    void add(int processorId) {
+      if (size == processorIds.length) {
+        processorIds = Arrays.copyOf(processorIds, size * 2);
+      }
+      processorIds[size++] = processorId;
+    }
+
+    void addFirst(int[] earlierProcessorIds) {
+      int[] result = new int[Math.max(8, earlierProcessorIds.length + size)];
+      System.arraycopy(earlierProcessorIds, 0, result, 0, earlierProcessorIds.length);
+      System.arraycopy(processorIds, 0, result, earlierProcessorIds.length, size);
+      processorIds = result;
+      size += earlierProcessorIds.length;
+    }
+
+    int[] take() {
+      int[] result = Arrays.copyOf(processorIds, size);
+      size = 0;
+      return result;
+    }
+  }
+}
@@ -164,6 +164,12 @@ public class ClusterDistributionManager implements DistributionManager {
   private Distribution distribution;
   private ClusterOperationExecutors executors;
 
+  /**
+   * Combines acknowledgements bound for the same member when cumulative acks are enabled;
+   * otherwise null
+   */
+  private AckAggregator ackAggregator;
+
   /**
    * Membership failure listeners - for testing
    */
@@ -448,6 +454,9 @@ public class ClusterDistributionManager implements DistributionManager {
     try {
 
       executors = new ClusterOperationExecutors(stats, system);
+      if (AckAggregator.ENABLED) {
+        ackAggregator = new AckAggregator(this);
+      }
 
       if (!SYNC_EVENTS) {
         memberEventThread =
@@ -1088,6 +1097,15 @@ public class ClusterDistributionManager implements DistributionManager {
     }
   }
 
+  @Override
+  public void putOutgoingAck(InternalDistributedMember recipient, int processorId) {
+    if (ackAggregator != null) {
+      ackAggregator.ack(recipient, processorId);
+    } else {
+      ReplyMessage.send(recipient, processorId, null, this);
+    }
+  }
+
   @Override
   public String toString() {
     return description;
@@ -1171,7 +1189,6 @@ public class ClusterDistributionManager implements DistributionManager {
 
   private void askThreadsToStop() {
     executors.askThreadsToStop();
-
     Thread th = memberEventThread;
     if (th != null) {
       th.interrupt();
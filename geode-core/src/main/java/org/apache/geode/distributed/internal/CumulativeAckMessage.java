@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.serialization.DeserializationContext;
+import org.apache.geode.internal.serialization.SerializationContext;
+
+/**
+ * Acknowledges several operations sent by the same member with a single message. Each processor
+ * id is processed as though a plain {@link ReplyMessage} had been received for it, so every
+ * operation still completes on its own.
+ *
+ * @see AckAggregator
+ * @since Geode 1.15
+ */
+public class CumulativeAckMessage extends HighPriorityDistributionMessage {
+
+  private int[] processorIds;
+
+  public CumulativeAckMessage() {
+    // for deserialization
+  }
+
+  CumulativeAckMessage(InternalDistributedMember recipient, int[] processorIds) {
+    setRecipient(recipient);
+    this.processorIds = processorIds;
+  }
+
+  int[] getProcessorIds() {
+    return processorIds;
+  }
+
+  /** Like ReplyMessages, cumulative acks are always processed in-line */
+  @Override
+  public boolean getInlineProcess() {
+    return true;
+  }
+
+  @Override
+  protected void process(final ClusterDistributionManager dm) {
+    for (int processorId : processorIds) {
+      ReplyMessage reply = new ReplyMessage();
+      reply.setProcessorId(processorId);
+      reply.setSender(getSender());
+      reply.dmProcess(dm);
+    }
+  }
+
+  @Override
+  public int getDSFID() {
+    return CUMULATIVE_ACK_MESSAGE;
+  }
+
+  @Override
+  public void toData(DataOutput out,
+      SerializationContext context) throws IOException {
+    super.toData(out, context);
+    DataSerializer.writeIntArray(processorIds, out);
+  }
+
+  @Override
+  public void fromData(DataInput in,
+      DeserializationContext context) throws IOException, ClassNotFoundException {
+    super.fromData(in, context);
+    processorIds = DataSerializer.readIntArray(in);
+  }
+
+  @Override
+  public String toString() {
+    return getShortClassName() + " processorIds=" + Arrays.toString(processorIds) + " from "
+        + getSender();
+  }
+}
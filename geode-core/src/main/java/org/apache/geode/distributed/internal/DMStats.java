@@ -138,6 +138,20 @@ public interface DMStats extends MembershipStatistics {
 
   void incBatchFlushTime(long start);
 
+  /**
+   * Increments the number of message batches written to the network, and the number of messages
+   * and bytes they contained.
+   */
+  void incBatchesSent(int messages, int bytes);
+
+  void incBatchSizeFlushes();
+
+  void incBatchWindowFlushes();
+
+  void incBatchReplyFlushes();
+
+  void incBatchDrainFlushes();
+
   /**
    * Increments the total number of nanoseconds spent scheduling messages to be processed.
    */
@@ -159,6 +159,13 @@ public class DistributionStats implements DMStats {
   private static final int batchCopyTimeId;
   private static final int batchWaitTimeId;
   private static final int batchFlushTimeId;
+  private static final int batchesSentId;
+  private static final int batchedMessagesId;
+  private static final int batchedBytesId;
+  private static final int batchSizeFlushesId;
+  private static final int batchWindowFlushesId;
+  private static final int batchReplyFlushesId;
+  private static final int batchDrainFlushesId;
 
   private static final int threadOwnedReceiversId;
   private static final int threadOwnedReceiversId2;
@@ -243,6 +250,8 @@ public class DistributionStats implements DMStats {
   private static final int tcpFinalCheckResponsesReceivedId;
   private static final int udpFinalCheckRequestsSentId;
   private static final int udpFinalCheckResponsesReceivedId;
+  private static final int neighborSuspicionLevelId;
+  private static final int phiSuspicionsId;
 
   static {
     String statName = "DistributionStats";
@@ -609,6 +618,24 @@ public class DistributionStats implements DMStats {
         f.createLongCounter("batchFlushTime",
             "Total amount of time, in nanoseconds, spent flushing batched messages to the network",
             "nanoseconds"),
+        f.createLongCounter("batchesSent",
+            "Total number of message batches written to the network", "batches"),
+        f.createLongCounter("batchedMessages",
+            "Total number of messages written to the network in batches", "messages"),
+        f.createLongCounter("batchedBytes",
+            "Total number of bytes written to the network in batches", "bytes"),
+        f.createLongCounter("batchSizeFlushes",
+            "Total number of batches flushed because they reached the batch size threshold",
+            "batches"),
+        f.createLongCounter("batchWindowFlushes",
+            "Total number of batches flushed because their coalescing window expired",
+            "batches"),
+        f.createLongCounter("batchReplyFlushes",
+            "Total number of batches flushed early because they contained a message waiting for a reply",
+            "batches"),
+        f.createLongCounter("batchDrainFlushes",
+            "Total number of batches flushed because no other messages were waiting to be sent",
+            "batches"),
 
         f.createLongGauge("asyncSocketWritesInProgress",
             "Current number of non-blocking socket write calls in progress.", "writes"),
@@ -748,7 +775,12 @@ public class DistributionStats implements DMStats {
         f.createLongCounter("udpFinalCheckResponsesSent", udpFinalCheckResponsesSentDesc,
             "messages"),
         f.createLongCounter("udpFinalCheckResponsesReceived", udpFinalCheckResponsesReceivedDesc,
-            "messages"),});
+            "messages"),
+        f.createDoubleGauge("neighborSuspicionLevel",
+            "Phi accrual suspicion level of the member that this member is monitoring.", "phi"),
+        f.createLongCounter("phiSuspicions",
+            "Number of times a member was checked because its suspicion level reached the phi accrual threshold.",
+            "checks"),});
 
     // Initialize id fields
     sentMessagesId = type.nameToId("sentMessages");
@@ -852,6 +884,13 @@ public class DistributionStats implements DMStats {
     batchCopyTimeId = type.nameToId("batchCopyTime");
     batchWaitTimeId = type.nameToId("batchWaitTime");
     batchFlushTimeId = type.nameToId("batchFlushTime");
+    batchesSentId = type.nameToId("batchesSent");
+    batchedMessagesId = type.nameToId("batchedMessages");
+    batchedBytesId = type.nameToId("batchedBytes");
+    batchSizeFlushesId = type.nameToId("batchSizeFlushes");
+    batchWindowFlushesId = type.nameToId("batchWindowFlushes");
+    batchReplyFlushesId = type.nameToId("batchReplyFlushes");
+    batchDrainFlushesId = type.nameToId("batchDrainFlushes");
 
     asyncSocketWritesInProgressId = type.nameToId("asyncSocketWritesInProgress");
     asyncSocketWritesId = type.nameToId("asyncSocketWrites");
@@ -935,6 +974,8 @@ public class DistributionStats implements DMStats {
     tcpFinalCheckResponsesReceivedId = type.nameToId("tcpFinalCheckResponsesReceived");
     udpFinalCheckRequestsSentId = type.nameToId("udpFinalCheckRequestsSent");
     udpFinalCheckResponsesReceivedId = type.nameToId("udpFinalCheckResponsesReceived");
+    neighborSuspicionLevelId = type.nameToId("neighborSuspicionLevel");
+    phiSuspicionsId = type.nameToId("phiSuspicions");
   }
 
   /** The Statistics object that we delegate most behavior to */
@@ -2256,6 +2297,33 @@ public class DistributionStats implements DMStats {
     }
   }
 
+  @Override
+  public void incBatchesSent(int messages, int bytes) {
+    stats.incLong(batchesSentId, 1);
+    stats.incLong(batchedMessagesId, messages);
+    stats.incLong(batchedBytesId, bytes);
+  }
+
+  @Override
+  public void incBatchSizeFlushes() {
+    stats.incLong(batchSizeFlushesId, 1);
+  }
+
+  @Override
+  public void incBatchWindowFlushes() {
+    stats.incLong(batchWindowFlushesId, 1);
+  }
+
+  @Override
+  public void incBatchReplyFlushes() {
+    stats.incLong(batchReplyFlushesId, 1);
+  }
+
+  @Override
+  public void incBatchDrainFlushes() {
+    stats.incLong(batchDrainFlushesId, 1);
+  }
+
   @Override
   public void incUcastRetransmits() {
     stats.incLong(ucastRetransmitsId, 1);
@@ -2635,4 +2703,14 @@ public class DistributionStats implements DMStats {
     this.stats.incLong(udpFinalCheckResponsesReceivedId, 1L);
   }
 
+  @Override
+  public void setNeighborSuspicionLevel(double phi) {
+    this.stats.setDouble(neighborSuspicionLevelId, phi);
+  }
+
+  @Override
+  public void incPhiSuspicions() {
+    this.stats.incLong(phiSuspicionsId, 1L);
+  }
+
 }
@@ -589,6 +589,21 @@ public class LonerDistributionManager implements DistributionManager {
     @Override
     public void incBatchFlushTime(long start) {}
 
+    @Override
+    public void incBatchesSent(int messages, int bytes) {}
+
+    @Override
+    public void incBatchSizeFlushes() {}
+
+    @Override
+    public void incBatchWindowFlushes() {}
+
+    @Override
+    public void incBatchReplyFlushes() {}
+
+    @Override
+    public void incBatchDrainFlushes() {}
+
     @Override
     public void incUcastWriteBytes(long bytesWritten) {}
 
@@ -987,6 +1002,12 @@ public class LonerDistributionManager implements DistributionManager {
     @Override
     public void incUdpFinalCheckResponsesReceived() {}
 
+    @Override
+    public void setNeighborSuspicionLevel(double phi) {}
+
+    @Override
+    public void incPhiSuspicions() {}
+
     @Override
     public long startUDPMsgEncryption() {
       return 0L;
@@ -14,8 +14,11 @@
  */
 package org.apache.geode.distributed.internal;
 
+import static org.apache.geode.util.internal.GeodeGlossary.GEMFIRE_PREFIX;
+
 import java.lang.ref.WeakReference;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.ObjIdConcurrentMap;
@@ -33,13 +36,33 @@ import org.apache.geode.internal.ObjIdConcurrentMap;
  * <p>
  * Processor ids are always greater than 0.
  * </p>
+ * <p>
+ * Processors are kept in a table of slots indexed by the low bits of their id, so that put,
+ * retrieve and remove are a single compare-and-set or read without any locking. An id whose slot
+ * is still held by a long lived processor is skipped, and after a few such ids the processor is
+ * kept in an overflow map instead.
+ * </p>
  */
 public class ProcessorKeeper21 {
 
   /**
-   * Key is a unique id, value is an instance of some processor class
+   * The number of slots in the table; rounded up to a power of two
    */
-  private final ObjIdConcurrentMap<Object> map = new ObjIdConcurrentMap<Object>();
+  static final int SLOTS = Integer.getInteger(GEMFIRE_PREFIX + "ProcessorKeeper21.SLOTS", 4096);
+
+  /**
+   * How many ids with occupied slots put tries before using the overflow map
+   */
+  private static final int MAX_SLOT_TRIES = 8;
+
+  private final AtomicReferenceArray<Entry> slots;
+
+  private final int mask;
+
+  /**
+   * Key is a unique id, value is an instance of some processor class that did not get a slot
+   */
+  private final ObjIdConcurrentMap<Object> overflow = new ObjIdConcurrentMap<Object>();
 
   /**
    * If true then use weak refs to reference the processors.
@@ -53,7 +76,14 @@ public class ProcessorKeeper21 {
   }
 
   public ProcessorKeeper21(boolean useWeakRefs) {
+    this(useWeakRefs, SLOTS);
+  }
+
+  ProcessorKeeper21(boolean useWeakRefs, int slotCount) {
     this.useWeakRefs = useWeakRefs;
+    int size = slotCount <= 1 ? 1 : Integer.highestOneBit((slotCount - 1) << 1);
+    this.slots = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
   }
 
   private int getNextId() {
@@ -81,6 +111,16 @@ public class ProcessorKeeper21 {
    * @return the unique id for processor
    */
   public int put(Object processor) {
+    for (int tries = 0; tries < MAX_SLOT_TRIES; tries++) {
+      int id = getNextId();
+      int index = id & this.mask;
+      Entry current = this.slots.get(index);
+      if ((current == null || current.isCleared())
+          && this.overflow.get(id) == null
+          && this.slots.compareAndSet(index, current, new Entry(id, processor, useWeakRefs))) {
+        return id;
+      }
+    }
     int id;
     final Object obj;
     if (this.useWeakRefs) {
@@ -90,31 +130,53 @@ public class ProcessorKeeper21 {
     }
     do {
       id = getNextId();
-    } while (this.map.putIfAbsent(id, obj) != null);
+    } while (this.overflow.putIfAbsent(id, obj) != null || idInSlot(id));
     Assert.assertTrue(id > 0);
     return id;
   }
 
+  /**
+   * Returns true if the given id, just added to the overflow map, is also held by a slot, in which
+   * case it is removed from the map again.
+   */
+  private boolean idInSlot(int id) {
+    Entry entry = this.slots.get(id & this.mask);
+    if (entry != null && entry.id == id) {
+      this.overflow.remove(id);
+      return true;
+    }
+    return false;
+  }
+
   /**
    * Retrieve a processor that was previously put() in this keeper. The id is the value returned
    * from put(). If there is no processor by that id, or it has been garbage collected, null is
    * returned.
    */
   public Object retrieve(int id) {
+    final int index = id & this.mask;
+    final Entry entry = this.slots.get(index);
+    if (entry != null && entry.id == id) {
+      Object o = entry.getProcessor();
+      if (o == null) {
+        // Clean up
+        this.slots.compareAndSet(index, entry, null);
+      }
+      return o;
+    }
     Object o = null;
     if (this.useWeakRefs) {
-      final WeakReference<?> ref = (WeakReference<?>) this.map.get(id);
+      final WeakReference<?> ref = (WeakReference<?>) this.overflow.get(id);
       if (ref != null) {
         o = ref.get();
         if (o == null) {
           // Clean up
-          this.map.remove(id, ref);
+          this.overflow.remove(id, ref);
         }
       }
     } else {
-      o = this.map.get(id);
+      o = this.overflow.get(id);
     }
-    // System.out.println("ProcessorKeeper.retrieve(" + int + ") returning " + processor);
     return o;
   }
 
@@ -122,7 +184,36 @@ public class ProcessorKeeper21 {
    * Remove the processor with the given id. It's okay if no processor with that id exists.
    */
   public void remove(int id) {
-    map.remove(id);
+    final int index = id & this.mask;
+    final Entry entry = this.slots.get(index);
+    if (entry != null && entry.id == id) {
+      this.slots.compareAndSet(index, entry, null);
+    } else {
+      overflow.remove(id);
+    }
+  }
+
+  /**
+   * A processor held in a slot along with its id. The reference to a processor is weak unless the
+   * keeper does not use weak refs.
+   */
+  private static class Entry extends WeakReference<Object> {
+    final int id;
+    private final Object processor;
+
+    Entry(int id, Object processor, boolean weak) {
+      super(weak ? processor : null);
+      this.id = id;
+      this.processor = weak ? null : processor;
+    }
+
+    Object getProcessor() {
+      return this.processor != null ? this.processor : get();
+    }
+
+    boolean isCleared() {
+      return getProcessor() == null;
+    }
   }
 
 }
@@ -89,6 +89,13 @@ public class ReplyProcessor21 implements MembershipListener {
    */
   public static final double PR_SEVERE_ALERT_RATIO;
 
+  /**
+   * How many times a waiter checks for replies before blocking, to avoid parking and waking up for
+   * replies that arrive within a few microseconds
+   */
+  static final int REPLY_WAIT_SPINS =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "ReplyProcessor21.REPLY_WAIT_SPINS", 200);
+
   /** All live reply processors in this VM */
   @MakeNotStatic
   protected static final ProcessorKeeper21 keeper = new ProcessorKeeper21();
@@ -668,7 +675,7 @@ public class ReplyProcessor21 implements MembershipListener {
       throw new InterruptedException();
     }
 
-    if (stillWaiting()) {
+    if (stillWaiting() && !latch.spinAwait(REPLY_WAIT_SPINS)) {
       long timeout = getAckWaitThreshold() * 1000L;
       long timeSoFar = System.currentTimeMillis() - this.initTime;
       final long severeAlertTimeout = getAckSevereAlertThresholdMS();
@@ -33,4 +33,13 @@ public interface ReplySender {
 
   Set<InternalDistributedMember> putOutgoing(DistributionMessage msg);
 
+  /**
+   * Sends a plain acknowledgement, with no exception or return value, to the given reply processor
+   * in the given member. Implementations may combine several acknowledgements bound for the same
+   * member into one message.
+   */
+  default void putOutgoingAck(InternalDistributedMember recipient, int processorId) {
+    ReplyMessage.send(recipient, processorId, null, this);
+  }
+
 }
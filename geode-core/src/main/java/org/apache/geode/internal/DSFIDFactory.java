@@ -57,6 +57,7 @@ import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
 import org.apache.geode.cache.query.internal.types.MapTypeImpl;
 import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.distributed.internal.CumulativeAckMessage;
 import org.apache.geode.distributed.internal.DistributionAdvisor;
 import org.apache.geode.distributed.internal.HighPriorityAckedMessage;
 import org.apache.geode.distributed.internal.ReplyMessage;
@@ -87,6 +88,7 @@ import org.apache.geode.distributed.internal.membership.gms.locator.GetViewRespo
 import org.apache.geode.distributed.internal.membership.gms.messages.FinalCheckPassedMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatRequestMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewDeltaMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinResponseMessage;
@@ -471,6 +473,7 @@ public class DSFIDFactory implements DataSerializableFixedID {
     serializer.registerDSFID(VIEW_ACK_MESSAGE, ViewAckMessage.class);
     serializer.registerDSFID(CLI_FUNCTION_RESULT, CliFunctionResult.class);
     serializer.registerDSFID(INSTALL_VIEW_MESSAGE, InstallViewMessage.class);
+    serializer.registerDSFID(INSTALL_VIEW_DELTA_MESSAGE, InstallViewDeltaMessage.class);
     serializer.registerDSFID(NETVIEW, GMSMembershipView.class);
     serializer.registerDSFID(GET_VIEW_REQ, GetViewRequest.class);
     serializer.registerDSFID(GET_VIEW_RESP, GetViewResponse.class);
@@ -486,6 +489,7 @@ public class DSFIDFactory implements DataSerializableFixedID {
     serializer.registerDSFID(DISTRIBUTED_MEMBER, InternalDistributedMember.class);
     serializer.registerDSFID(UPDATE_MESSAGE, UpdateOperation.UpdateMessage.class);
     serializer.registerDSFID(REPLY_MESSAGE, ReplyMessage.class);
+    serializer.registerDSFID(CUMULATIVE_ACK_MESSAGE, CumulativeAckMessage.class);
     serializer.registerDSFID(PR_DESTROY, DestroyMessage.class);
     serializer.registerDSFID(CREATE_REGION_MESSAGE,
         CreateRegionProcessor.CreateRegionMessage.class);
@@ -963,6 +967,12 @@ public class DSFIDFactory implements DataSerializableFixedID {
     serializer.registerDSFID(PR_TOMBSTONE_MESSAGE, PRTombstoneMessage.class);
     serializer.registerDSFID(REQUEST_RVV_MESSAGE, InitialImageOperation.RequestRVVMessage.class);
     serializer.registerDSFID(RVV_REPLY_MESSAGE, InitialImageOperation.RVVReplyMessage.class);
+    serializer.registerDSFID(REQUEST_IMAGE_DIGEST_MESSAGE,
+        InitialImageOperation.RequestImageDigestMessage.class);
+    serializer.registerDSFID(IMAGE_DIGEST_REPLY_MESSAGE,
+        InitialImageOperation.ImageDigestReplyMessage.class);
+    serializer.registerDSFID(REQUEST_DIGESTED_IMAGE_MESSAGE,
+        InitialImageOperation.RequestDigestedImageMessage.class);
     serializer.registerDSFID(SNAPPY_COMPRESSED_CACHED_DESERIALIZABLE,
         SnappyCompressedCachedDeserializable.class);
     serializer.registerDSFID(UPDATE_ENTRY_VERSION_MESSAGE, UpdateEntryVersionMessage.class);
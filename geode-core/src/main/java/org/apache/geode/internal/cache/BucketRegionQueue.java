@@ -48,6 +48,7 @@ import org.apache.geode.internal.cache.wan.AbstractGatewaySenderEventProcessor;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.internal.cache.wan.parallel.BucketRegionQueueUnavailableException;
 import org.apache.geode.internal.cache.wan.parallel.ConcurrentParallelGatewaySenderQueue;
+import org.apache.geode.internal.cache.wan.parallel.ParallelGatewaySenderQueueLog;
 import org.apache.geode.internal.concurrent.Atomics;
 import org.apache.geode.internal.offheap.OffHeapClearRequired;
 import org.apache.geode.internal.offheap.annotations.Released;
@@ -212,6 +213,7 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
 
   @Override
   public void closeEntries() {
+    releaseLoggedValues();
     OffHeapClearRequired.doWithOffHeapClear(new Runnable() {
       @Override
       public void run() {
@@ -226,6 +228,7 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
   @Override
   public Set<VersionSource> clearEntries(final RegionVersionVector rvv) {
     final AtomicReference<Set<VersionSource>> result = new AtomicReference<Set<VersionSource>>();
+    releaseLoggedValues();
     OffHeapClearRequired.doWithOffHeapClear(new Runnable() {
       @Override
       public void run() {
@@ -243,6 +246,31 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
     // NOOP since we want the value in the region queue to stay in object form.
   }
 
+  /**
+   * Frees the space the values of the events in this bucket take in the queue log they were moved
+   * to, if any, and lets the log delete the last segment of this bucket
+   */
+  private void releaseLoggedValues() {
+    if (!ParallelGatewaySenderQueueLog.ENABLED) {
+      return;
+    }
+    ParallelGatewaySenderQueueLog log = null;
+    for (RegionEntry entry : getRegionMap().regionEntries()) {
+      Object value = entry.getValue();
+      if (value instanceof GatewaySenderEventImpl) {
+        GatewaySenderEventImpl event = (GatewaySenderEventImpl) value;
+        ParallelGatewaySenderQueueLog eventLog = event.getValueLog();
+        if (eventLog != null) {
+          log = eventLog;
+        }
+        event.releaseLoggedValue();
+      }
+    }
+    if (log != null) {
+      log.closeBucket(getId());
+    }
+  }
+
   @Override
   protected void clearQueues() {
     getInitializationLock().writeLock().lock();
@@ -385,7 +413,11 @@ public class BucketRegionQueue extends AbstractBucketRegionQueue {
         throw new EntryNotFoundException(event.getKey().toString());
       }
     } finally {
-      GatewaySenderEventImpl.release(event.getRawOldValue());
+      Object oldValue = event.getRawOldValue();
+      if (oldValue instanceof GatewaySenderEventImpl) {
+        ((GatewaySenderEventImpl) oldValue).releaseLoggedValue();
+      }
+      GatewaySenderEventImpl.release(oldValue);
     }
 
     // Primary buckets should already remove the key while peeking
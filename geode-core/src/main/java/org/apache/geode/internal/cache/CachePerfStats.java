@@ -55,6 +55,8 @@ public class CachePerfStats {
   static final int deltaGetInitialImagesCompletedId;
   static final int getInitialImageTimeId;
   static final int getInitialImageKeysReceivedId;
+  static final int getInitialImageChunksReceivedId;
+  static final int getInitialImageBytesReceivedId;
   static final int regionsId;
   static final int partitionedRegionsId;
   protected static final int destroysId;
@@ -207,6 +209,10 @@ public class CachePerfStats {
         "Total time spent doing getInitialImages for region creation.";
     final String getInitialImageKeysReceivedDesc =
         "Total number of keys received while doing getInitialImage operations.";
+    final String getInitialImageChunksReceivedDesc =
+        "Total number of chunks of entries received while doing getInitialImage operations.";
+    final String getInitialImageBytesReceivedDesc =
+        "Total number of bytes of entries received while doing getInitialImage operations. Divided by getInitialImageTime this gives the getInitialImage throughput.";
     final String regionsDesc = "The current number of regions in the cache.";
     final String partitionedRegionsDesc = "The current number of partitioned regions in the cache.";
     final String destroysDesc =
@@ -403,6 +409,10 @@ public class CachePerfStats {
             f.createLongCounter("getInitialImageTime", getInitialImageTimeDesc, "nanoseconds"),
             f.createLongCounter("getInitialImageKeysReceived", getInitialImageKeysReceivedDesc,
                 "keys"),
+            f.createLongCounter("getInitialImageChunksReceived",
+                getInitialImageChunksReceivedDesc, "chunks"),
+            f.createLongCounter("getInitialImageBytesReceived", getInitialImageBytesReceivedDesc,
+                "bytes"),
             f.createLongGauge("regions", regionsDesc, "regions"),
             f.createLongGauge("partitionedRegions", partitionedRegionsDesc, "partitionedRegions"),
             f.createLongCounter("destroys", destroysDesc, "operations"),
@@ -560,6 +570,8 @@ public class CachePerfStats {
     deltaGetInitialImagesCompletedId = type.nameToId("deltaGetInitialImagesCompleted");
     getInitialImageTimeId = type.nameToId("getInitialImageTime");
     getInitialImageKeysReceivedId = type.nameToId("getInitialImageKeysReceived");
+    getInitialImageChunksReceivedId = type.nameToId("getInitialImageChunksReceived");
+    getInitialImageBytesReceivedId = type.nameToId("getInitialImageBytesReceived");
     regionsId = type.nameToId("regions");
     partitionedRegionsId = type.nameToId("partitionedRegions");
     destroysId = type.nameToId("destroys");
@@ -726,6 +738,14 @@ public class CachePerfStats {
     return stats.getLong(getInitialImageKeysReceivedId);
   }
 
+  public long getGetInitialImageChunksReceived() {
+    return stats.getLong(getInitialImageChunksReceivedId);
+  }
+
+  public long getGetInitialImageBytesReceived() {
+    return stats.getLong(getInitialImageBytesReceivedId);
+  }
+
   public long getRegions() {
     return stats.getLong(regionsId);
   }
@@ -1058,6 +1078,14 @@ public class CachePerfStats {
     stats.incLong(getInitialImageKeysReceivedId, 1);
   }
 
+  public void incGetInitialImageChunksReceived() {
+    stats.incLong(getInitialImageChunksReceivedId, 1);
+  }
+
+  public void incGetInitialImageBytesReceived(long bytes) {
+    stats.incLong(getInitialImageBytesReceivedId, bytes);
+  }
+
   public long startIndexUpdate() {
     stats.incLong(indexUpdateInProgressId, 1);
     return getTime();
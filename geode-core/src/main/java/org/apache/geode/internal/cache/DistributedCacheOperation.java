@@ -1275,6 +1275,9 @@ public abstract class DistributedCacheOperation {
         ReplySender dm) {
       if (pId == 0 && (dm instanceof DistributionManager) && !this.directAck) {// Fix for #41871
         // distributed-no-ack message. Don't respond
+      } else if (pId != 0 && rex == null && this.appliedOperation && !this.closed
+          && !isInternal()) {
+        dm.putOutgoingAck(recipient, pId);
       } else {
         ReplyMessage.send(recipient, pId, rex, dm, !this.appliedOperation, this.closed, false,
             isInternal());
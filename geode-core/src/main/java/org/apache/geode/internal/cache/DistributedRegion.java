@@ -188,6 +188,12 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
    */
   private volatile boolean generateVersionTag = true;
 
+  /**
+   * True while the values distributed by this region are PDX values, so that updates keep the old
+   * value they need to create a {@link org.apache.geode.pdx.internal.PdxFieldDelta}.
+   */
+  private volatile boolean hasPdxFieldDeltaValues;
+
   /** Tests can set this to true and ignore reliability triggered reconnects */
   @MutableForTesting
   public static boolean ignoreReconnect = false;
@@ -3988,4 +3994,17 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
   SearchLoadAndWriteProcessor getSearchLoadAndWriteProcessor() {
     return SearchLoadAndWriteProcessor.getProcessor();
   }
+
+  /**
+   * Returns true if updates should keep the old value so that a PDX field delta can be sent.
+   */
+  public boolean hasPdxFieldDeltaValues() {
+    return hasPdxFieldDeltaValues;
+  }
+
+  void setHasPdxFieldDeltaValues(boolean value) {
+    if (hasPdxFieldDeltaValues != value) {
+      hasPdxFieldDeltaValues = value;
+    }
+  }
 }
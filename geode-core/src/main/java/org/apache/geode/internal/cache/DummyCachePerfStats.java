@@ -63,6 +63,16 @@ public class DummyCachePerfStats extends CachePerfStats {
     return 0L;
   }
 
+  @Override
+  public long getGetInitialImageChunksReceived() {
+    return 0L;
+  }
+
+  @Override
+  public long getGetInitialImageBytesReceived() {
+    return 0L;
+  }
+
   @Override
   public long getRegions() {
     return 0L;
@@ -219,6 +229,12 @@ public class DummyCachePerfStats extends CachePerfStats {
   @Override
   public void incGetInitialImageKeysReceived() {}
 
+  @Override
+  public void incGetInitialImageChunksReceived() {}
+
+  @Override
+  public void incGetInitialImageBytesReceived(long bytes) {}
+
   @Override
   public void incRegions(long inc) {}
 
@@ -85,6 +85,7 @@ import org.apache.geode.internal.size.Sizeable;
 import org.apache.geode.internal.util.ArrayUtils;
 import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.pdx.internal.PdxFieldDelta;
 import org.apache.geode.pdx.internal.PeerTypeRegistration;
 import org.apache.geode.util.internal.GeodeGlossary;
 
@@ -167,6 +168,12 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
    */
   private byte[] deltaBytes = null;
 
+  /**
+   * True if {@link #deltaBytes} hold a {@link PdxFieldDelta} received from a peer rather than the
+   * bytes of a user Delta.
+   */
+  private boolean pdxFieldDelta;
+
   /** routing information for cache clients for this event */
   private FilterInfo filterInfo;
 
@@ -349,6 +356,7 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
     }
     this.context = other.context;
     this.deltaBytes = other.deltaBytes;
+    this.pdxFieldDelta = other.pdxFieldDelta;
     this.tailKey = other.tailKey;
     this.versionTag = other.versionTag;
     // set possible duplicate
@@ -1817,6 +1825,10 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
         getRegion().getCachePerfStats().incDeltaFailedUpdates();
         throw new InvalidDeltaException("Old value not found for key " + this.keyInfo.getKey());
       }
+      if (this.pdxFieldDelta) {
+        processPdxFieldDelta(oldValueInVM);
+        return;
+      }
       FilterProfile fp = getRegion().getFilterProfile();
       // If compression is enabled then we've already gotten a new copy due to the
       // serializaion and deserialization that occurs.
@@ -1882,6 +1894,44 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
     }
   }
 
+  /**
+   * Applies a {@link PdxFieldDelta} to the serialized PDX old value. The result stays serialized so
+   * neither value is deserialized. Once applied the delta bytes are cleared so that the event is
+   * only ever forwarded, for example to clients, with its full value.
+   */
+  private void processPdxFieldDelta(Object oldValueInVM) {
+    if (!PdxFieldDelta.ENABLED) {
+      getRegion().getCachePerfStats().incDeltaFailedUpdates();
+      throw new InvalidDeltaException("PDX field delta propagation is not enabled");
+    }
+    if (!(oldValueInVM instanceof CachedDeserializable)
+        || !((CachedDeserializable) oldValueInVM).isSerialized()) {
+      getRegion().getCachePerfStats().incDeltaFailedUpdates();
+      throw new InvalidDeltaException(
+          "Old value for key " + this.keyInfo.getKey() + " is not a serialized PDX value");
+    }
+    boolean deltaBytesApplied = false;
+    byte[] newBytes;
+    long start = getRegion().getCachePerfStats().getTime();
+    try {
+      newBytes = PdxFieldDelta.applyDelta(
+          ((CachedDeserializable) oldValueInVM).getSerializedValue(), getDeltaBytes(),
+          getRegion().getCache().getPdxRegistry());
+      getRegion().getCachePerfStats().endDeltaUpdate(start);
+      deltaBytesApplied = true;
+    } finally {
+      if (!deltaBytesApplied) {
+        getRegion().getCachePerfStats().incDeltaFailedUpdates();
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("PDX field delta has been applied for key {}", getKey());
+    }
+    setNewValue(CachedDeserializableFactory.create(newBytes, getRegion().getCache()));
+    this.deltaBytes = null;
+    this.pdxFieldDelta = false;
+  }
+
   @VisibleForTesting
   protected static boolean shouldRecalculateSize(Delta value) {
     return GemFireCacheImpl.DELTAS_RECALCULATE_SIZE
@@ -2585,6 +2635,13 @@ public class EntryEventImpl implements InternalEntryEvent, InternalCacheEvent,
     this.deltaBytes = deltaBytes;
   }
 
+  /**
+   * Marks the delta bytes of this event as a {@link PdxFieldDelta} sent by a peer.
+   */
+  void setPdxFieldDelta(boolean pdxFieldDelta) {
+    this.pdxFieldDelta = pdxFieldDelta;
+  }
+
   // TODO (ashetkar) Can this.op.isCreate() be used instead?
   public boolean isCreate() {
     return testEventFlag(EventFlags.FLAG_ISCREATE);
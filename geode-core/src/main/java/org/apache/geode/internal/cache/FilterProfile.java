@@ -30,7 +30,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.Logger;
@@ -80,6 +82,7 @@ import org.apache.geode.internal.serialization.KnownVersion;
 import org.apache.geode.internal.serialization.SerializationContext;
 import org.apache.geode.internal.util.concurrent.CopyOnWriteHashMap;
 import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.util.internal.GeodeGlossary;
 
 /**
  * FilterProfile represents a distributed system member and is used for two purposes: processing
@@ -93,6 +96,14 @@ import org.apache.geode.logging.internal.log4j.api.LogService;
 public class FilterProfile implements DataSerializableFixedID {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * System property to find the clients interested in an event through an {@link InterestIndex} of
+   * their key and regular expression interest, instead of visiting every registration.
+   */
+  @MutableForTesting
+  static boolean INTEREST_INDEX =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "FilterProfile.INTEREST_INDEX");
+
   /** enumeration of distributed profile operations */
   enum operationType {
     REGISTER_KEY,
@@ -164,6 +175,21 @@ public class FilterProfile implements DataSerializableFixedID {
    */
   private final CopyOnWriteHashSet<Long> allKeyClientsInv = new CopyOnWriteHashSet<>();
 
+  /** Incremented, under the interestListLock, whenever the interest of a client changes */
+  private final AtomicLong interestVersion = new AtomicLong();
+
+  /** The index of keysOfInterest and patternsOfInterest, rebuilt when interestVersion changes */
+  private transient volatile InterestIndex interestIndex;
+
+  /** The index of keysOfInterestInv and patternsOfInterestInv */
+  private transient volatile InterestIndex interestIndexInv;
+
+  /** Set while a thread rebuilds interestIndex, so that it is only rebuilt once per change */
+  private final AtomicBoolean rebuildingInterestIndex = new AtomicBoolean();
+
+  /** Set while a thread rebuilds interestIndexInv */
+  private final AtomicBoolean rebuildingInterestIndexInv = new AtomicBoolean();
+
   /**
    * The region associated with this profile
    */
@@ -180,6 +206,12 @@ public class FilterProfile implements DataSerializableFixedID {
   /** CQs that are registered on the remote node **/
   private final CopyOnWriteHashMap<String, ServerCQ> cqs = new CopyOnWriteHashMap<>();
 
+  /** Incremented whenever a CQ is added to or removed from {@link #cqs} */
+  private final AtomicLong cqMapVersion = new AtomicLong();
+
+  /** An index of {@link #cqs} kept by the CQ service, which checks it against cqMapVersion */
+  private transient volatile Object cqIndex;
+
   /* the ID of the member that this profile describes */
   private DistributedMember memberID;
 
@@ -299,6 +331,7 @@ public class FilterProfile implements DataSerializableFixedID {
           throw new InternalGemFireError(
               "Unknown interest type");
       } // switch
+      this.interestVersion.incrementAndGet();
       if (this.isLocalProfile && opType != null) {
         sendProfileOperation(clientID, opType, interest, updatesAsInvalidates);
       }
@@ -401,6 +434,7 @@ public class FilterProfile implements DataSerializableFixedID {
           throw new InternalGemFireError(
               "bad interest type");
       }
+      this.interestVersion.incrementAndGet();
       if (this.region != null && this.isLocalProfile) {
         sendProfileOperation(clientID, opType, interest, false);
       }
@@ -533,6 +567,7 @@ public class FilterProfile implements DataSerializableFixedID {
         keysRegistered.removeAll(interestList.getSnapshot());
       }
       interestList.addAll(keys);
+      this.interestVersion.incrementAndGet();
 
       if (this.region != null && this.isLocalProfile) {
         sendProfileOperation(clientID, operationType.REGISTER_KEYS, keys, updatesAsInvalidates);
@@ -572,6 +607,7 @@ public class FilterProfile implements DataSerializableFixedID {
           getKeysOfInterestInv().remove(clientID);
         }
       }
+      this.interestVersion.incrementAndGet();
 
       if (this.region != null && this.isLocalProfile) {
         sendProfileOperation(clientID, operationType.UNREGISTER_KEYS, keys, false);
@@ -753,6 +789,7 @@ public class FilterProfile implements DataSerializableFixedID {
       if (clientMap != null) {
         clientMap.removeIDMapping(clientID);
       }
+      this.interestVersion.incrementAndGet();
       if (this.region != null && this.isLocalProfile) {
         sendProfileOperation(clientID, operationType.CLEAR, null, false);
       }
@@ -784,6 +821,24 @@ public class FilterProfile implements DataSerializableFixedID {
     return this.cqs;
   }
 
+  /**
+   * Returns a number that changes whenever a CQ is added to or removed from the CQ map.
+   */
+  public long getCqMapVersion() {
+    return this.cqMapVersion.get();
+  }
+
+  /**
+   * Returns the index of the CQ map last set by the CQ service, if any.
+   */
+  public Object getCqIndex() {
+    return this.cqIndex;
+  }
+
+  public void setCqIndex(Object cqIndex) {
+    this.cqIndex = cqIndex;
+  }
+
   /**
    * does this profile contain any continuous queries?
    */
@@ -801,6 +856,7 @@ public class FilterProfile implements DataSerializableFixedID {
       logger.debug("Adding CQ {} to this members FilterProfile.", cq.getServerCqName());
     }
     this.cqs.put(cq.getServerCqName(), cq);
+    this.cqMapVersion.incrementAndGet();
     this.incCqCount();
 
     // cq.setFilterID(cqMap.getWireID(cq.getServerCqName()));
@@ -865,6 +921,7 @@ public class FilterProfile implements DataSerializableFixedID {
     if (cq.getCqBaseRegion() != null) {
       if (addToCqMap) {
         this.cqs.put(serverCqName, cq);
+        this.cqMapVersion.incrementAndGet();
       }
 
       FilterProfile pf = cq.getCqBaseRegion().getFilterProfile();
@@ -887,6 +944,7 @@ public class FilterProfile implements DataSerializableFixedID {
         }
       }
       this.cqs.remove(serverCqName);
+      this.cqMapVersion.incrementAndGet();
       cq.getCqBaseRegion().getFilterProfile().decCqCount();
     }
   }
@@ -927,6 +985,7 @@ public class FilterProfile implements DataSerializableFixedID {
     ensureCqID(cq);
     String serverCqName = cq.getServerCqName();
     this.cqs.remove(serverCqName);
+    this.cqMapVersion.incrementAndGet();
     if (this.cqMap != null) {
       this.cqMap.removeIDMapping(cq.getFilterID());
     }
@@ -1387,6 +1446,56 @@ public class FilterProfile implements DataSerializableFixedID {
     return frInfo;
   }
 
+  /**
+   * Returns the index of the given key and pattern interest maps, which are either those of
+   * clients that want updates or those of clients that want invalidations, rebuilding it if the
+   * interest has changed since it was built. Only one thread rebuilds an index at a time. The
+   * others get null while it does, and visit the registrations themselves, so that no event is
+   * routed with interest that has since changed.
+   */
+  private InterestIndex getInterestIndex(Map<Object, Set> koi,
+      Map<Object, Map<Object, Pattern>> pats) {
+    boolean invalidates = koi == this.keysOfInterestInv;
+    long version = this.interestVersion.get();
+    InterestIndex index = invalidates ? this.interestIndexInv : this.interestIndex;
+    if (index != null && index.getInterestVersion() == version) {
+      return index;
+    }
+    AtomicBoolean rebuilding =
+        invalidates ? this.rebuildingInterestIndexInv : this.rebuildingInterestIndex;
+    if (!rebuilding.compareAndSet(false, true)) {
+      return null;
+    }
+    try {
+      index = new InterestIndex(version, koi, pats);
+      if (invalidates) {
+        this.interestIndexInv = index;
+      } else {
+        this.interestIndex = index;
+      }
+      return index;
+    } finally {
+      rebuilding.set(false);
+    }
+  }
+
+  /**
+   * get the clients attached to this server that are interested in the given event
+   *
+   * @param updatesAsInvalidates whether to get the clients that want invalidations instead of the
+   *        ones that want updates
+   * @return a set of the clients interested in the event, or null if there are none
+   */
+  @VisibleForTesting
+  Set getInterestedClients(EntryEvent event, boolean updatesAsInvalidates) {
+    if (updatesAsInvalidates) {
+      return getInterestedClients(event, this.allKeyClientsInv, this.keysOfInterestInv,
+          this.patternsOfInterestInv, this.filtersOfInterestInv);
+    }
+    return getInterestedClients(event, this.allKeyClients, this.keysOfInterest,
+        this.patternsOfInterest, this.filtersOfInterest);
+  }
+
   /**
    * get the clients interested in the given event that are attached to this server.
    *
@@ -1406,6 +1515,25 @@ public class FilterProfile implements DataSerializableFixedID {
         logger.debug("these clients matched for all-keys: {}", akc);
       }
     }
+    InterestIndex index = null;
+    if (INTEREST_INDEX && koi != null && pats != null) {
+      index = getInterestIndex(koi, pats);
+    }
+    if (index != null) {
+      if (result == null) {
+        result = new HashSet();
+      }
+      index.addInterestedClients(event.getKey(), result);
+      if (result.isEmpty()) {
+        // callers take a null set to mean that no client is interested
+        result = null;
+      }
+      if (logger.isDebugEnabled()) {
+        logger.debug("these clients matched for key lists, patterns and all-keys: {}", result);
+      }
+      koi = null;
+      pats = null;
+    }
     if (koi != null) {
       for (Iterator it = koi.entrySet().iterator(); it.hasNext();) {
         Map.Entry entry = (Map.Entry) it.next();
@@ -1499,6 +1627,7 @@ public class FilterProfile implements DataSerializableFixedID {
     this.keysOfInterestInv.putAll(DataSerializer.readHashMap(in));
     this.patternsOfInterestInv.putAll(DataSerializer.readHashMap(in));
     this.filtersOfInterestInv.putAll(DataSerializer.readHashMap(in));
+    this.interestVersion.incrementAndGet();
 
     // Read CQ Info.
     int numCQs = InternalDataSerializer.readArrayLength(in);
@@ -1510,6 +1639,7 @@ public class FilterProfile implements DataSerializableFixedID {
           ServerCQ cq = CqServiceProvider.readCq(in);
           processRegisterCq(serverCqName, cq, false);
           this.cqs.put(serverCqName, cq);
+          this.cqMapVersion.incrementAndGet();
         }
       } finally {
         LocalRegion.setThreadInitLevelRequirement(oldLevel);
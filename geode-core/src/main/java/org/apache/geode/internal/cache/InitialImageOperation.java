@@ -27,6 +27,7 @@ import java.io.ObjectOutput;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -132,6 +133,34 @@ public class InitialImageOperation {
       Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "GetInitialImage.CHUNK_PERMITS", 16)
           .intValue();
 
+  /**
+   * Number of series an image provider spreads its chunks over. The series are serialized and
+   * sent by a pool of threads shared by all images, so values larger than one let a provider
+   * overlap packing the region with sending it.
+   */
+  @MutableForTesting
+  public static int PARALLEL_SERIES =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "GetInitialImage.PARALLEL_SERIES", 1)
+          .intValue();
+
+  /**
+   * If true, a member that recovered a persistent region from disk but has to get a full image
+   * first compares digests of the region with the image provider, and the provider leaves out the
+   * parts of the region that match. The digests are probabilistic, see {@link RegionImageDigest}
+   * for what a collision would mean.
+   */
+  @MutableForTesting
+  public static boolean USE_IMAGE_DIGESTS =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "GetInitialImage.USE_DIGESTS");
+
+  /**
+   * number of segments the keys of a region are split into when comparing digests
+   */
+  @MutableForTesting
+  public static int IMAGE_DIGEST_SEGMENTS =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "GetInitialImage.DIGEST_SEGMENTS", 1024)
+          .intValue();
+
   /**
    * maximum number of unfinished operations to be supported by delta GII
    */
@@ -443,7 +472,12 @@ public class InitialImageOperation {
         }
       }
 
-      RequestImageMessage m = new RequestImageMessage();
+      final boolean useDigests = USE_IMAGE_DIGESTS && recoveredFromDisk
+          && this.region.getConcurrencyChecksEnabled()
+          && this.region.getDataPolicy().withPersistence()
+          && recipient.getVersion().isNotOlderThan(KnownVersion.GEODE_1_15_0);
+      RequestImageMessage m =
+          useDigests ? new RequestDigestedImageMessage() : new RequestImageMessage();
       m.regionPath = this.region.getFullPath();
       m.keysOnly = false;
       m.targetReinitialized = targetReinitialized;
@@ -500,6 +534,18 @@ public class InitialImageOperation {
         }
       }
 
+      // Compare digests if the provider is going to send a full image, either because we asked
+      // for one or because it has garbage collected tombstones we have not seen
+      BitSet matchingSegments = null;
+      if (useDigests && (m.versionVector == null
+          || !received_rvv.isRVVGCDominatedBy(m.versionVector))) {
+        matchingSegments = getMatchingSegmentsFromProvider(dm, recipient, targetReinitialized);
+        if (matchingSegments != null) {
+          ((RequestDigestedImageMessage) m).setSkippedSegments(matchingSegments,
+              IMAGE_DIGEST_SEGMENTS);
+        }
+      }
+
       ImageProcessor processor = new ImageProcessor(this.region.getSystem(), recipient);
       dm.acquireGIIPermitUninterruptibly();
       try {
@@ -523,6 +569,16 @@ public class InitialImageOperation {
         try {
           processor.waitForRepliesUninterruptibly();
 
+          // keep what we recovered for the segments the provider left out of a full image
+          if (matchingSegments != null && this.gotImage && !this.isDeltaGII) {
+            int kept = RegionImageDigest.keepRecoveredEntries(this.region, matchingSegments,
+                IMAGE_DIGEST_SEGMENTS);
+            if (isDebugEnabled) {
+              logger.debug("Region {} kept {} recovered entries that matched the image from {}",
+                  this.region.getFullPath(), kept, recipient);
+            }
+          }
+
           // review unfinished keys and remove untouched entries
           if (this.region.getDataPolicy().withPersistence() && keysOfUnfinishedOps != null
               && !keysOfUnfinishedOps.isEmpty()) {
@@ -1054,6 +1110,51 @@ public class InitialImageOperation {
     return received_rvv;
   }
 
+  /**
+   * Compare digests of the region with the image provider.
+   *
+   * @return the segments whose digests are equal in this member and the provider, which are very
+   *         likely to hold the same entries, or null if none are
+   *         or the provider could not be asked
+   */
+  protected BitSet getMatchingSegmentsFromProvider(final ClusterDistributionManager dm,
+      InternalDistributedMember recipient, boolean targetReinitialized) {
+    final int numSegments = IMAGE_DIGEST_SEGMENTS;
+    RequestImageDigestMessage rdm = new RequestImageDigestMessage();
+    rdm.regionPath = this.region.getFullPath();
+    rdm.targetReinitialized = targetReinitialized;
+    rdm.numSegments = numSegments;
+    rdm.setRecipient(recipient);
+
+    ImageDigestProcessor digestProcessor =
+        new ImageDigestProcessor(this.region.getSystem(), recipient);
+    rdm.processorId = digestProcessor.getProcessorId();
+    dm.putOutgoing(rdm);
+
+    // digest our own entries while the provider digests its
+    long[] localDigests = RegionImageDigest.compute(this.region, numSegments, true);
+    try {
+      digestProcessor.waitForRepliesUninterruptibly();
+    } catch (InternalGemFireException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof org.apache.geode.cache.TimeoutException) {
+        throw (org.apache.geode.cache.TimeoutException) cause;
+      }
+      throw ex;
+    } catch (ReplyException e) {
+      // fall back to a full image
+      if (logger.isDebugEnabled()) {
+        logger.debug("Failed to get image digests for {} from {}", this.region.getFullPath(),
+            recipient, e);
+      }
+      return null;
+    }
+    BitSet matching = RegionImageDigest.matchingSegments(localDigests, digestProcessor.digests);
+    logger.info("Region {} already has {} of {} segments of the image from {}",
+        this.region.getName(), matching.cardinality(), numSegments, recipient);
+    return matching.isEmpty() ? null : matching;
+  }
+
   /**
    * Compare the received RVV with local RVV and return a set of keys for unfinished operations.
    *
@@ -1201,7 +1302,7 @@ public class InitialImageOperation {
       /**
        * number of chunks we have received from this sender
        * <p>
-       * Indexed by seriesNum, always 0)
+       * Indexed by seriesNum
        */
       int[] msgsProcessed = null;
 
@@ -1211,7 +1312,7 @@ public class InitialImageOperation {
        * This is not set until the last chunk is received, so while it is zero we know we are not
        * done.
        * <p>
-       * Indexed by seriesNum, always 0.
+       * Indexed by seriesNum.
        */
       int[] numInSeries = null;
 
@@ -1314,6 +1415,9 @@ public class InitialImageOperation {
                   this.abort = true; // volatile store
                 } else {
                   this.receivedChunk = true;
+                  CachePerfStats stats = region.getCachePerfStats();
+                  stats.incGetInitialImageChunksReceived();
+                  stats.incGetInitialImageBytesReceived(m.getBytesRead());
                 }
               }
               isLast = trackMessage(m); // interpret series/msgNum
@@ -1680,7 +1784,7 @@ public class InitialImageOperation {
           }
         }
 
-        final int numSeries = 1; // @todo ericz parallelize using series
+        final int numSeries = Math.max(1, PARALLEL_SERIES);
         final int seriesNum = 0;
 
         // chunkEntries returns false if didn't finish
@@ -1696,6 +1800,7 @@ public class InitialImageOperation {
           ((HARegion) rgn).startServingGIIRequest();
         }
         boolean markedOngoingGII = false;
+        InitialImageSeriesSender seriesSender = null;
         try {
           boolean recoveringForLostMember = (this.lostMemberVersionID != null);
           RegionVersionHolder holderToSync = null;
@@ -1762,8 +1867,27 @@ public class InitialImageOperation {
             }
           }
           final RegionVersionHolder holderToSend = holderToSync;
+          if (numSeries > 1) {
+            seriesSender = new InitialImageSeriesSender(numSeries,
+                (entries, series, msgNum, lastInSeries, lastChunk) -> {
+                  if (rgn.isDestroyed()) {
+                    return false;
+                  }
+                  // the empty chunks closing the other series were not given a permit
+                  int flowControlId = lastInSeries && !lastChunk ? 0 : flowControl.getId();
+                  Map<VersionSource<?>, Long> gcVersions = null;
+                  if (lastChunk && rgn.getVersionVector() != null) {
+                    gcVersions = rgn.getVersionVector().getMemberToGCVersion();
+                  }
+                  replyWithData(dm, entries, series, msgNum, numSeries, lastInSeries,
+                      flowControlId, versionVector != null, holderToSend, gcVersions);
+                  return true;
+                });
+          }
+          final InitialImageSeriesSender parallelSender = seriesSender;
           boolean finished = chunkEntries(rgn, CHUNK_SIZE_IN_BYTES, !keysOnly, versionVector,
-              (HashSet) this.unfinishedKeys, flowControl, new ObjectIntProcedure() {
+              (HashSet) this.unfinishedKeys, flowControl, parallelSender == null,
+              new ObjectIntProcedure() {
                 int msgNum = 0;
 
                 boolean last = false;
@@ -1787,6 +1911,9 @@ public class InitialImageOperation {
                   List entries = (List) entList;
                   this.last = b > 0 && !lclAbortTest; // if abortTest, then never send last flag set
                                                       // to true
+                  if (parallelSender != null) {
+                    return !rgn.isDestroyed() && parallelSender.sendChunk(entries, this.last);
+                  }
                   try {
                     boolean abort = rgn.isDestroyed();
                     if (!abort) {
@@ -1805,6 +1932,14 @@ public class InitialImageOperation {
                   }
                 }
               });
+          if (seriesSender != null) {
+            InitialImageSeriesSender sender = seriesSender;
+            seriesSender = null;
+            finished = sender.awaitCompletion() && finished;
+            if (sender.getFailure() != null) {
+              throw sender.getFailure();
+            }
+          }
 
 
           if (isGiiDebugEnabled) {
@@ -1823,6 +1958,9 @@ public class InitialImageOperation {
           // One more chance to discover region or cache destruction...
           rgn.checkReadiness();
         } finally {
+          if (seriesSender != null) {
+            seriesSender.awaitCompletion();
+          }
           if (markedOngoingGII) {
             int count = rgn.getCache().getTombstoneService().decrementGCBlockCount();
             assert count >= 0;
@@ -1944,11 +2082,14 @@ public class InitialImageOperation {
      *
      * @param versionVector requester's region version vector
      * @param unfinishedKeys keys of unfinished operation (persistent region only)
+     * @param reuseChunkList true if proc is done with a chunk when it returns, false if it keeps
+     *        the chunk so a new list is needed for the next one
      * @return true if finished all chunks, false if stopped early
      */
     protected boolean chunkEntries(DistributedRegion rgn, int chunkSizeInBytes,
         boolean includeValues, RegionVersionVector versionVector, HashSet unfinishedKeys,
-        InitialImageFlowControl flowControl, ObjectIntProcedure proc) throws IOException {
+        InitialImageFlowControl flowControl, boolean reuseChunkList, ObjectIntProcedure proc)
+        throws IOException {
       boolean keepGoing = true;
       boolean sentLastChunk = false;
       int MAX_ENTRIES_PER_CHUNK = chunkSizeInBytes / 100;
@@ -1997,6 +2138,9 @@ public class InitialImageOperation {
             if (rgn.checkEntryNotValid(mapEntry)) { // entry was just removed
               continue;
             }
+            if (isExcluded(key)) {
+              continue;
+            }
             if (logger.isDebugEnabled()) {
               Object v = mapEntry.getValueInVM(rgn); // OFFHEAP: noop
               if (v instanceof Conflatable) {
@@ -2069,7 +2213,12 @@ public class InitialImageOperation {
           int lastMsg = it.hasNext() ? 0 : 1;
           keepGoing = proc.executeWith(chunkEntries, lastMsg);
           sentLastChunk = lastMsg == 1 && keepGoing;
-          chunkEntries.clear();
+          if (reuseChunkList) {
+            chunkEntries.clear();
+          } else {
+            chunkEntries = new InitialImageVersionedEntryList(rgn.getConcurrencyChecksEnabled(),
+                MAX_ENTRIES_PER_CHUNK);
+          }
 
           // if this region is destroyed while we are sending data, then abort.
         } while (keepGoing && it.hasNext());
@@ -2120,6 +2269,13 @@ public class InitialImageOperation {
       // ...end of abortTest code
     }
 
+    /**
+     * @return true if the requester already has the entry for this key
+     */
+    protected boolean isExcluded(Object key) {
+      return false;
+    }
+
     @Override
     public int getDSFID() {
       return REQUEST_IMAGE_MESSAGE;
@@ -2669,6 +2825,270 @@ public class InitialImageOperation {
 
   }
 
+  /**
+   * Image digest message processor.
+   */
+  class ImageDigestProcessor extends ReplyProcessor21 {
+    volatile long[] digests;
+
+    public ImageDigestProcessor(final InternalDistributedSystem system,
+        InternalDistributedMember member) {
+      super(system, member);
+    }
+
+    @Override
+    public void process(DistributionMessage msg) {
+      try {
+        if (msg instanceof ImageDigestReplyMessage) {
+          digests = ((ImageDigestReplyMessage) msg).digests;
+        }
+      } finally {
+        super.process(msg);
+      }
+    }
+
+    @Override
+    protected boolean logMultipleExceptions() {
+      return false;
+    }
+  }
+
+  /**
+   * ImageDigestReplyMessage transmits the digests of the GII provider's region to the requester
+   */
+  public static class ImageDigestReplyMessage extends ReplyMessage {
+
+    @Override
+    public boolean getInlineProcess() {
+      return false;
+    }
+
+    long[] digests;
+
+    public ImageDigestReplyMessage() {}
+
+    private ImageDigestReplyMessage(InternalDistributedMember mbr, int processorId,
+        long[] digests) {
+      setRecipient(mbr);
+      setProcessorId(processorId);
+      this.digests = digests;
+    }
+
+    public static void send(DistributionManager dm, InternalDistributedMember dest, int processorId,
+        long[] digests, ReplyException ex) {
+      ImageDigestReplyMessage msg = new ImageDigestReplyMessage(dest, processorId, digests);
+      if (ex != null) {
+        msg.setException(ex);
+      }
+      dm.putOutgoing(msg);
+    }
+
+    @Override
+    public void toData(DataOutput dop,
+        SerializationContext context) throws IOException {
+      super.toData(dop, context);
+      DataSerializer.writeLongArray(this.digests, dop);
+    }
+
+    @Override
+    public void fromData(DataInput dip,
+        DeserializationContext context) throws IOException, ClassNotFoundException {
+      super.fromData(dip, context);
+      this.digests = DataSerializer.readLongArray(dip);
+    }
+
+    @Override
+    public int getDSFID() {
+      return IMAGE_DIGEST_REPLY_MESSAGE;
+    }
+  }
+
+  /**
+   * This is the message thats sent to get the digests of the region from the GII provider.
+   */
+  public static class RequestImageDigestMessage extends DistributionMessage
+      implements MessageWithReply {
+
+    /**
+     * Name of the region.
+     */
+    protected String regionPath;
+
+    /**
+     * Id of the {@link InitialImageOperation.ImageDigestProcessor} that will handle the reply
+     */
+    protected int processorId;
+
+    /**
+     * If true, recipient should wait until fully initialized before returning data.
+     */
+    protected boolean targetReinitialized;
+
+    /**
+     * number of segments to split the keys into
+     */
+    protected int numSegments;
+
+    @Override
+    public int getProcessorId() {
+      return this.processorId;
+    }
+
+    @Override
+    public int getProcessorType() {
+      return this.targetReinitialized ? OperationExecutors.WAITING_POOL_EXECUTOR
+          : OperationExecutors.HIGH_PRIORITY_EXECUTOR;
+    }
+
+    @Override
+    protected void process(final ClusterDistributionManager dm) {
+      Throwable thr = null;
+      boolean sendReply = true;
+      long[] digests = null;
+      try {
+        Assert.assertTrue(this.regionPath != null, "Region path is null.");
+        final DistributedRegion rgn =
+            (DistributedRegion) getGIIRegion(dm, this.regionPath, this.targetReinitialized);
+        if (rgn != null && rgn.getConcurrencyChecksEnabled()) {
+          digests = RegionImageDigest.compute(rgn, this.numSegments, false);
+        }
+      } catch (RegionDestroyedException e) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("{}; Region destroyed: Request image digest aborting.", this);
+        }
+      } catch (CancelException e) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("{}; Cache Closed: Request image digest aborting.", this);
+        }
+      } catch (VirtualMachineError err) {
+        sendReply = false; // Don't try to respond!
+        SystemFailure.initiateFailure(err);
+        // If this ever returns, rethrow the error. We're poisoned
+        // now, so don't let this thread continue.
+        throw err;
+      } catch (Throwable t) {
+        // Whenever you catch Error or Throwable, you must also
+        // catch VirtualMachineError (see above). However, there is
+        // _still_ a possibility that you are dealing with a cascading
+        // error condition, so you also need to check to see if the JVM
+        // is still usable:
+        SystemFailure.checkFailure();
+        thr = t;
+      } finally {
+        if (sendReply) {
+          ImageDigestReplyMessage.send(dm, getSender(), this.processorId, digests,
+              thr == null ? null : new ReplyException(thr));
+        }
+      }
+    }
+
+    @Override
+    public int getDSFID() {
+      return REQUEST_IMAGE_DIGEST_MESSAGE;
+    }
+
+    @Override
+    public void fromData(DataInput in,
+        DeserializationContext context) throws IOException, ClassNotFoundException {
+      super.fromData(in, context);
+      this.regionPath = DataSerializer.readString(in);
+      this.processorId = in.readInt();
+      this.targetReinitialized = in.readBoolean();
+      this.numSegments = in.readInt();
+    }
+
+    @Override
+    public void toData(DataOutput out,
+        SerializationContext context) throws IOException {
+      super.toData(out, context);
+      DataSerializer.writeString(this.regionPath, out);
+      out.writeInt(this.processorId);
+      out.writeBoolean(this.targetReinitialized);
+      out.writeInt(this.numSegments);
+    }
+
+    @Override
+    public String toString() {
+      StringBuffer buff = new StringBuffer();
+      String cname = getClass().getName().substring(getClass().getPackage().getName().length() + 1);
+      buff.append(cname);
+      buff.append("(region path='");
+      buff.append(this.regionPath);
+      buff.append("'; sender=");
+      buff.append(getSender());
+      buff.append("; processorId=");
+      buff.append(this.processorId);
+      buff.append("; targetReinitalized=");
+      buff.append(this.targetReinitialized);
+      buff.append("; numSegments=");
+      buff.append(this.numSegments);
+      buff.append(")");
+      return buff.toString();
+    }
+
+  }
+
+  /**
+   * A request for an image that leaves out the segments of the region the requester found it
+   * already has by comparing digests with the provider.
+   */
+  public static class RequestDigestedImageMessage extends RequestImageMessage {
+
+    /**
+     * number of segments the keys were split into
+     */
+    private int numSegments;
+
+    /**
+     * the segments not to send, null to send all of them
+     */
+    private BitSet skippedSegments;
+
+    void setSkippedSegments(BitSet skippedSegments, int numSegments) {
+      this.skippedSegments = skippedSegments;
+      this.numSegments = numSegments;
+    }
+
+    @Override
+    protected boolean isExcluded(Object key) {
+      return this.skippedSegments != null
+          && this.skippedSegments.get(RegionImageDigest.segmentOf(key, this.numSegments));
+    }
+
+    @Override
+    public int getDSFID() {
+      return REQUEST_DIGESTED_IMAGE_MESSAGE;
+    }
+
+    @Override
+    public void fromData(DataInput in,
+        DeserializationContext context) throws IOException, ClassNotFoundException {
+      super.fromData(in, context);
+      this.numSegments = in.readInt();
+      long[] bits = DataSerializer.readLongArray(in);
+      this.skippedSegments = bits == null ? null : BitSet.valueOf(bits);
+    }
+
+    @Override
+    public void toData(DataOutput out,
+        SerializationContext context) throws IOException {
+      super.toData(out, context);
+      out.writeInt(this.numSegments);
+      DataSerializer.writeLongArray(
+          this.skippedSegments == null ? null : this.skippedSegments.toLongArray(), out);
+    }
+
+    @Override
+    public String toString() {
+      String descr = super.toString();
+      if (this.skippedSegments != null) {
+        descr += "; skipped " + this.skippedSegments.cardinality() + " of " + this.numSegments
+            + " segments";
+      }
+      return descr;
+    }
+  }
+
   /**
    * This is the message thats sent to get RVV from GII provider.
    */
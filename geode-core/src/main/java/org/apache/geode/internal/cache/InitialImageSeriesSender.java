@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.annotations.internal.MakeNotStatic;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * Spreads the chunks of an initial image over several series so that they are serialized and sent
+ * by pool threads rather than by the thread that packs them. The image target tracks the chunks of
+ * each series separately, so the series may complete in any order. Every series ends with a
+ * message flagged as last in its series; the series that do not carry the final chunk are closed
+ * with an empty chunk.
+ * <p>
+ * The chunks of a series are sent in order by at most one thread at a time. The threads come from
+ * a pool shared by every image this member provides, so the number of sending threads does not
+ * grow with the number of images requested. When the pool is saturated the packing thread sends
+ * the chunks itself. The number of chunks waiting to be sent is bounded by the
+ * {@link InitialImageFlowControl} permits that the packing thread acquires before it fills each
+ * chunk.
+ *
+ * @since Geode 1.15
+ */
+class InitialImageSeriesSender {
+
+  /**
+   * Maximum number of threads sending the series of all the images this member provides
+   */
+  static final int MAX_THREADS =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "GetInitialImage.PARALLEL_SERIES_THREADS",
+          Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+  @MakeNotStatic
+  private static ExecutorService sharedExecutor;
+
+  /**
+   * Sends one chunk of an initial image
+   */
+  interface ChunkSender {
+    /**
+     * @param entries the entries in the chunk, empty if this only closes a series
+     * @param seriesNum the series of the chunk
+     * @param msgNum the number of the chunk within its series
+     * @param lastInSeries whether this is the last chunk of its series
+     * @param lastChunk whether this is the last chunk packed for the image
+     * @return false if the image should be aborted
+     */
+    boolean send(List entries, int seriesNum, int msgNum, boolean lastInSeries,
+        boolean lastChunk);
+  }
+
+  private final int numSeries;
+
+  private final ChunkSender sender;
+
+  private final Executor executor;
+
+  private final Series[] series;
+
+  private int chunksSent;
+
+  /** the number of chunks handed to a series and not yet sent, guarded by this */
+  private int pending;
+
+  private volatile boolean aborted;
+
+  private volatile RuntimeException failure;
+
+  InitialImageSeriesSender(int numSeries, ChunkSender sender) {
+    this(numSeries, getSharedExecutor(), sender);
+  }
+
+  InitialImageSeriesSender(int numSeries, Executor executor, ChunkSender sender) {
+    this.numSeries = numSeries;
+    this.sender = sender;
+    this.executor = executor;
+    this.series = new Series[numSeries];
+    for (int i = 0; i < numSeries; i++) {
+      this.series[i] = new Series();
+    }
+  }
+
+  private static synchronized Executor getSharedExecutor() {
+    if (sharedExecutor == null) {
+      sharedExecutor = LoggingExecutors.newFixedThreadPoolWithFeedSize(MAX_THREADS,
+          MAX_THREADS, "GII series sender ");
+    }
+    return sharedExecutor;
+  }
+
+  /**
+   * Hands a chunk to the next series. The chunk must not be modified afterwards. If this is the
+   * last chunk every other series is closed as well.
+   *
+   * @return false if an earlier chunk failed to be sent and the image should be aborted
+   */
+  boolean sendChunk(List entries, boolean lastChunk) {
+    if (this.aborted) {
+      return false;
+    }
+    int seriesNum = this.chunksSent++ % this.numSeries;
+    submit(entries, seriesNum, lastChunk, lastChunk);
+    if (lastChunk) {
+      for (int i = 0; i < this.numSeries; i++) {
+        if (i != seriesNum) {
+          submit(new ArrayList(0), i, true, false);
+        }
+      }
+    }
+    return true;
+  }
+
+  private void submit(List entries, int seriesNum, boolean lastInSeries, boolean lastChunk) {
+    final int msgNum = this.series[seriesNum].msgNum++;
+    synchronized (this) {
+      this.pending++;
+    }
+    this.series[seriesNum].add(() -> send(entries, seriesNum, msgNum, lastInSeries, lastChunk));
+  }
+
+  private void send(List entries, int seriesNum, int msgNum, boolean lastInSeries,
+      boolean lastChunk) {
+    try {
+      if (!this.aborted && !this.sender.send(entries, seriesNum, msgNum, lastInSeries,
+          lastChunk)) {
+        this.aborted = true;
+      }
+    } catch (CancelException e) {
+      this.aborted = true;
+    } catch (RuntimeException e) {
+      this.failure = e;
+      this.aborted = true;
+    } finally {
+      synchronized (this) {
+        if (--this.pending == 0) {
+          notifyAll();
+        }
+      }
+    }
+  }
+
+  /**
+   * Waits for every series to send the chunks handed to it.
+   *
+   * @return false if a chunk failed to be sent and the image should be aborted
+   */
+  boolean awaitCompletion() {
+    boolean interrupted = false;
+    try {
+      synchronized (this) {
+        while (this.pending > 0) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return !this.aborted;
+  }
+
+  /**
+   * @return the exception that stopped a series from sending, if any
+   */
+  RuntimeException getFailure() {
+    return this.failure;
+  }
+
+  /**
+   * The chunks of one series waiting to be sent. A series is handed to the executor only while it
+   * has chunks and no thread is already sending them.
+   */
+  private class Series implements Runnable {
+    private final Queue<Runnable> chunks = new ArrayDeque<>();
+
+    /** whether a thread is sending the chunks of this series, guarded by chunks */
+    private boolean running;
+
+    /** the number of chunks handed to this series so far, only used by the packing thread */
+    private int msgNum;
+
+    void add(Runnable chunk) {
+      synchronized (this.chunks) {
+        this.chunks.add(chunk);
+        if (this.running) {
+          return;
+        }
+        this.running = true;
+      }
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        run();
+      }
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        Runnable chunk;
+        synchronized (this.chunks) {
+          chunk = this.chunks.poll();
+          if (chunk == null) {
+            this.running = false;
+            return;
+          }
+        }
+        chunk.run();
+      }
+    }
+  }
+}
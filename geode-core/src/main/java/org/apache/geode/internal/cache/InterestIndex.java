@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * An index of the key and regular expression interest of the clients of a {@link FilterProfile},
+ * so that the clients interested in a key are found without visiting every registration. Key
+ * interest is inverted into a map of key to the clients interested in it. Regular expressions are
+ * shared by the clients that registered the same one, and kept in a trie by the literal text they
+ * start with, so that only the expressions whose literal prefix the key starts with are matched
+ * against it. Expressions that do not start with literal text are matched against every key.
+ * <p>
+ * An index is immutable once built and is replaced whenever the interest of its profile changes.
+ *
+ * @since Geode 1.15
+ */
+class InterestIndex {
+
+  private static final String METACHARACTERS = "\\[](){}.*+?^$|";
+
+  private final long interestVersion;
+  private final Map<Object, Set<Object>> clientsByKey = new HashMap<>();
+  private final TrieNode patterns = new TrieNode();
+
+  /**
+   * @param interestVersion the version of the interest of the profile the maps were read at, which
+   *        must be read before the maps
+   * @param keysOfInterest the keys of interest of each client
+   * @param patternsOfInterest the regular expressions of interest of each client
+   */
+  InterestIndex(long interestVersion, Map<Object, Set> keysOfInterest,
+      Map<Object, Map<Object, Pattern>> patternsOfInterest) {
+    this.interestVersion = interestVersion;
+    for (Map.Entry<Object, Set> entry : keysOfInterest.entrySet()) {
+      for (Object key : entry.getValue()) {
+        clientsByKey.computeIfAbsent(key, k -> new HashSet<>()).add(entry.getKey());
+      }
+    }
+    Map<String, PatternClients> patternsByRegex = new HashMap<>();
+    for (Map.Entry<Object, Map<Object, Pattern>> entry : patternsOfInterest.entrySet()) {
+      for (Pattern pattern : entry.getValue().values()) {
+        PatternClients patternClients = patternsByRegex.get(pattern.pattern());
+        if (patternClients == null) {
+          patternClients = new PatternClients(pattern);
+          patternsByRegex.put(pattern.pattern(), patternClients);
+          patterns.add(getLiteralPrefix(pattern.pattern()), patternClients);
+        }
+        patternClients.clients.add(entry.getKey());
+      }
+    }
+  }
+
+  long getInterestVersion() {
+    return interestVersion;
+  }
+
+  /**
+   * Adds the clients that registered interest in the key, or in a regular expression it matches,
+   * to the set.
+   */
+  void addInterestedClients(Object key, Set<Object> clients) {
+    Set<Object> keyClients = clientsByKey.get(key);
+    if (keyClients != null) {
+      clients.addAll(keyClients);
+    }
+    if (key instanceof String) {
+      patterns.addMatchingClients((String) key, clients);
+    }
+  }
+
+  /**
+   * Returns the text every string the regular expression matches starts with. It stops at the
+   * first metacharacter, leaves out a character made optional by the quantifier after it, and is
+   * empty for expressions with alternatives.
+   */
+  static String getLiteralPrefix(String regex) {
+    if (regex.indexOf('|') >= 0) {
+      return "";
+    }
+    int end = 0;
+    while (end < regex.length() && METACHARACTERS.indexOf(regex.charAt(end)) < 0
+        && !Character.isSurrogate(regex.charAt(end))) {
+      end++;
+    }
+    if (end > 0 && end < regex.length()) {
+      char quantifier = regex.charAt(end);
+      if (quantifier == '*' || quantifier == '?' || quantifier == '{') {
+        end--;
+      }
+    }
+    return regex.substring(0, end);
+  }
+
+  /**
+   * A regular expression and the clients that registered interest in it
+   */
+  private static class PatternClients {
+    final Pattern pattern;
+    final Set<Object> clients = new HashSet<>();
+
+    PatternClients(Pattern pattern) {
+      this.pattern = pattern;
+    }
+  }
+
+  /**
+   * A node of the trie of the literal prefixes of the regular expressions, with the expressions
+   * whose literal prefix ends at it
+   */
+  private static class TrieNode {
+    private Map<Character, TrieNode> children;
+    private List<PatternClients> patterns;
+
+    void add(String prefix, PatternClients patternClients) {
+      TrieNode node = this;
+      for (int i = 0; i < prefix.length(); i++) {
+        if (node.children == null) {
+          node.children = new HashMap<>();
+        }
+        node = node.children.computeIfAbsent(prefix.charAt(i), c -> new TrieNode());
+      }
+      if (node.patterns == null) {
+        node.patterns = new ArrayList<>();
+      }
+      node.patterns.add(patternClients);
+    }
+
+    void addMatchingClients(String key, Set<Object> clients) {
+      TrieNode node = this;
+      int i = 0;
+      while (node != null) {
+        if (node.patterns != null) {
+          for (PatternClients patternClients : node.patterns) {
+            if (!clients.containsAll(patternClients.clients)
+                && patternClients.pattern.matcher(key).matches()) {
+              clients.addAll(patternClients.clients);
+            }
+          }
+        }
+        if (node.children == null || i == key.length()) {
+          break;
+        }
+        node = node.children.get(key.charAt(i++));
+      }
+    }
+  }
+}
@@ -48,6 +48,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
@@ -141,6 +142,7 @@ import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.QueryResultCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.index.IndexCreationData;
 import org.apache.geode.cache.query.internal.index.IndexManager;
@@ -462,6 +464,12 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    */
   private final AtomicBoolean memoryThresholdReached = new AtomicBoolean(false);
 
+  /**
+   * Caches local query results for this region. Null unless enabled through
+   * {@link DefaultQueryService#enableQueryResultCache}.
+   */
+  private final AtomicReference<QueryResultCache> queryResultCache = new AtomicReference<>();
+
   /**
    * Lock for updating PR MetaData on client side
    * <p>
@@ -2741,6 +2749,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       if (hasOwnStats) {
         cachePerfStats.close();
       }
+      closeQueryResultCache();
     }
   }
 
@@ -10175,6 +10184,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
   void updateSizeOnClearRegion(int sizeBeforeClear) {
     // Only needed by BucketRegion
+    notifyQueryResultCache();
   }
 
   /**
@@ -10196,16 +10206,52 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   @Override
   public void updateSizeOnPut(Object key, int oldSize, int newSize) {
     // Only needed by BucketRegion
+    notifyQueryResultCache();
   }
 
   @Override
   public void updateSizeOnCreate(Object key, int newSize) {
     // Only needed by BucketRegion
+    notifyQueryResultCache();
   }
 
   @Override
   public void updateSizeOnRemove(Object key, int oldSize) {
     // Only needed by BucketRegion
+    notifyQueryResultCache();
+  }
+
+  /**
+   * Returns the query result cache for this region, or null if query results are not cached.
+   */
+  public QueryResultCache getQueryResultCache() {
+    return queryResultCache.get();
+  }
+
+  /**
+   * Starts caching query results for this region in the given cache.
+   *
+   * @return false if query results were already cached for this region
+   */
+  public boolean setQueryResultCacheIfAbsent(QueryResultCache resultCache) {
+    return queryResultCache.compareAndSet(null, resultCache);
+  }
+
+  /**
+   * Stops caching query results for this region and closes the statistics of its result cache.
+   */
+  public void closeQueryResultCache() {
+    QueryResultCache resultCache = queryResultCache.getAndSet(null);
+    if (resultCache != null) {
+      resultCache.close();
+    }
+  }
+
+  private void notifyQueryResultCache() {
+    QueryResultCache resultCache = queryResultCache.get();
+    if (resultCache != null) {
+      resultCache.regionModified();
+    }
   }
 
   // TODO: return value is never used
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.BitSet;
+import java.util.Iterator;
+
+import org.apache.geode.internal.cache.entries.DiskEntry;
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+import org.apache.geode.internal.cache.versions.VersionSource;
+import org.apache.geode.internal.cache.versions.VersionStamp;
+
+/**
+ * Probabilistic digests of the entries of a region, with the keys split into a fixed number of
+ * segments. Each segment's digest is the sum of a 64-bit hash of the key's hash code and the
+ * version stamp of every entry in it, so it does not depend on the order the entries are visited
+ * in. A version stamp identifies the operation that produced an entry, so two members whose digests
+ * of a segment are equal very likely hold the same entries in that segment, tombstones included.
+ * The digests are not exact: keys with equal hash codes and the same versions, or different sets
+ * of entries whose hashes happen to add up to the same sum, give equal digests. The chance of such
+ * a collision is tiny, but an undetected one leaves the requester with stale entries in that
+ * segment.
+ * <p>
+ * A member that recovered a persistent region from disk and needs a full initial image uses these
+ * to leave out the segments it already holds. See {@link InitialImageOperation}.
+ *
+ * @since Geode 1.15
+ */
+class RegionImageDigest {
+
+  private RegionImageDigest() {
+    // no instances
+  }
+
+  /**
+   * @return the segment of the given key, which depends only on the key's hash code
+   */
+  static int segmentOf(Object key, int numSegments) {
+    int h = key.hashCode();
+    h ^= (h >>> 16);
+    return Math.floorMod(h, numSegments);
+  }
+
+  /**
+   * Computes the digests of a region.
+   *
+   * @param recoveredOnly true to only include entries that were recovered from disk and have not
+   *        been modified since
+   */
+  static long[] compute(DistributedRegion region, int numSegments, boolean recoveredOnly) {
+    long[] digests = new long[numSegments];
+    VersionSource<?> myId = region.getVersionMember();
+    Iterator<RegionEntry> it = region.getRegionMap().regionEntries().iterator();
+    while (it.hasNext()) {
+      RegionEntry entry = it.next();
+      if (region.checkEntryNotValid(entry)) {
+        continue;
+      }
+      Object key = entry.getKey();
+      long hash;
+      synchronized (entry) {
+        if (recoveredOnly && !isRecovered(entry)) {
+          continue;
+        }
+        hash = hash(key, entry.getVersionStamp(), myId);
+      }
+      digests[segmentOf(key, numSegments)] += hash;
+    }
+    return digests;
+  }
+
+  /**
+   * @return the segments whose digests are equal
+   */
+  static BitSet matchingSegments(long[] local, long[] remote) {
+    BitSet matching = new BitSet(local.length);
+    if (remote == null || remote.length != local.length) {
+      return matching;
+    }
+    for (int i = 0; i < local.length; i++) {
+      if (local[i] == remote[i]) {
+        matching.set(i);
+      }
+    }
+    return matching;
+  }
+
+  /**
+   * Clears the recovered flag of the entries recovered from disk in the given segments, the same
+   * as receiving those entries unchanged in the initial image would, so that they are kept when
+   * the entries that were not part of the image are destroyed.
+   *
+   * @return the number of entries kept
+   */
+  static int keepRecoveredEntries(DistributedRegion region, BitSet segments, int numSegments) {
+    DiskRegion diskRegion = region.getDiskRegion();
+    int kept = 0;
+    Iterator<RegionEntry> it = region.getRegionMap().regionEntries().iterator();
+    while (it.hasNext()) {
+      RegionEntry entry = it.next();
+      if (!segments.get(segmentOf(entry.getKey(), numSegments))) {
+        continue;
+      }
+      synchronized (entry) {
+        if (diskRegion.testIsRecoveredAndClear(entry)) {
+          kept++;
+        }
+      }
+    }
+    return kept;
+  }
+
+  private static boolean isRecovered(RegionEntry entry) {
+    if (!(entry instanceof DiskEntry)) {
+      return false;
+    }
+    DiskId id = ((DiskEntry) entry).getDiskId();
+    return id != null && EntryBits.isRecoveredFromDisk(id.getUserBits());
+  }
+
+  static long hash(Object key, VersionStamp<?> stamp, VersionSource<?> myId) {
+    long h = key.hashCode();
+    if (stamp != null) {
+      VersionSource<?> id = stamp.getMemberID();
+      if (id == null) {
+        id = myId;
+      }
+      h = h * 31 + memberHash(id);
+      h = h * 31 + stamp.getRegionVersion();
+      h = h * 31 + stamp.getEntryVersion();
+    }
+    return mix(h);
+  }
+
+  private static long memberHash(VersionSource<?> id) {
+    if (id instanceof DiskStoreID) {
+      DiskStoreID diskStoreID = (DiskStoreID) id;
+      return diskStoreID.getMostSignificantBits() * 31 + diskStoreID.getLeastSignificantBits();
+    }
+    return id == null ? 0 : id.hashCode();
+  }
+
+  /**
+   * The finalization step of MurmurHash3, which spreads every input bit over the whole result
+   */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
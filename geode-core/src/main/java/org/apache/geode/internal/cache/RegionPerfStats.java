@@ -263,6 +263,18 @@ class RegionPerfStats extends CachePerfStats implements RegionStats {
     cachePerfStats.incGetInitialImageKeysReceived();
   }
 
+  @Override
+  public void incGetInitialImageChunksReceived() {
+    stats.incLong(getInitialImageChunksReceivedId, 1);
+    cachePerfStats.incGetInitialImageChunksReceived();
+  }
+
+  @Override
+  public void incGetInitialImageBytesReceived(long bytes) {
+    stats.incLong(getInitialImageBytesReceivedId, bytes);
+    cachePerfStats.incGetInitialImageBytesReceived(bytes);
+  }
+
   @Override
   public long startIndexUpdate() {
     stats.incLong(indexUpdateInProgressId, 1);
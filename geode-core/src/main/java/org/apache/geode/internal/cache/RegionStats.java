@@ -65,6 +65,10 @@ public interface RegionStats {
 
   void incGetInitialImageKeysReceived();
 
+  void incGetInitialImageChunksReceived();
+
+  void incGetInitialImageBytesReceived(long bytes);
+
   long startIndexUpdate();
 
   void endIndexUpdate(long start);
@@ -28,6 +28,7 @@ import org.apache.geode.InternalGemFireError;
 import org.apache.geode.InvalidDeltaException;
 import org.apache.geode.cache.DataPolicy;
 import org.apache.geode.cache.EntryNotFoundException;
+import org.apache.geode.cache.SerializedCacheValue;
 import org.apache.geode.distributed.internal.ConflationKey;
 import org.apache.geode.distributed.internal.DirectReplyProcessor;
 import org.apache.geode.distributed.internal.DistributionManager;
@@ -42,6 +43,7 @@ import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.serialization.DeserializationContext;
 import org.apache.geode.internal.serialization.SerializationContext;
 import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.pdx.internal.PdxFieldDelta;
 
 /**
  * Handles distribution messaging for updating an entry in a region.
@@ -65,6 +67,47 @@ public class UpdateOperation extends AbstractUpdateOperation {
     return true;
   }
 
+  /**
+   * The changed fields of a PDX value, sent to peers instead of the full value. It is kept out of
+   * the event so that only peer UpdateMessages, and not client notifications, send it.
+   */
+  private byte[] pdxFieldDelta;
+
+  @Override
+  protected void _distribute() {
+    if (PdxFieldDelta.ENABLED) {
+      setPdxFieldDeltaIfNeeded();
+    }
+    super._distribute();
+  }
+
+  /**
+   * If the event has no user delta but both its old and new values are serialized PDX values of
+   * the same type then only the changed fields are distributed. Regions with no-ack scope send the
+   * full value along with any delta, so they never use field deltas.
+   */
+  private void setPdxFieldDeltaIfNeeded() {
+    EntryEventImpl ev = getEvent();
+    DistributedRegion region = getRegion();
+    if (ev.getDeltaBytes() != null || region.getScope().isDistributedNoAck()
+        || !region.getSystem().getConfig().getDeltaPropagation()) {
+      return;
+    }
+    SerializedCacheValue<?> newValue = ev.getSerializedNewValue();
+    if (newValue == null) {
+      return;
+    }
+    byte[] newBytes = newValue.getSerializedValue();
+    boolean isPdx = PdxFieldDelta.isPdx(newBytes);
+    region.setHasPdxFieldDeltaValues(isPdx);
+    SerializedCacheValue<?> oldValue = ev.getSerializedOldValue();
+    if (!isPdx || oldValue == null) {
+      return;
+    }
+    this.pdxFieldDelta = PdxFieldDelta.createDelta(oldValue.getSerializedValue(), newBytes,
+        region.getCache().getPdxRegistry());
+  }
+
   @Override
   protected CacheOperationMessage createMessage() {
     EntryEventImpl ev = getEvent();
@@ -87,6 +130,7 @@ public class UpdateOperation extends AbstractUpdateOperation {
     m.event = ev;
     m.eventId = ev.getEventId();
     m.key = ev.getKey();
+    m.pdxFieldDelta = this.pdxFieldDelta;
     m.deserializationPolicy = DESERIALIZATION_POLICY_LAZY;
     ev.exportNewValue(m);
   }
@@ -122,11 +166,17 @@ public class UpdateOperation extends AbstractUpdateOperation {
 
     private byte[] deltaBytes;
 
+    /**
+     * The {@link PdxFieldDelta} to send instead of the new value, or the one that was received.
+     */
+    private byte[] pdxFieldDelta;
+
     private boolean sendDeltaWithFullValue = true;
 
     // extraFlags
     static final int HAS_EVENTID = getNextByteMask(DESERIALIZATION_POLICY_END);
     static final int HAS_DELTA_WITH_FULL_VALUE = getNextByteMask(HAS_EVENTID);
+    static final int HAS_PDX_FIELD_DELTA = getNextByteMask(HAS_DELTA_WITH_FULL_VALUE);
 
     private Long tailKey = 0L;
 
@@ -147,6 +197,7 @@ public class UpdateOperation extends AbstractUpdateOperation {
       this.lastModified = upMsg.lastModified;
       this.newValue = upMsg.newValue;
       this.newValueObj = upMsg.newValueObj;
+      this.pdxFieldDelta = upMsg.pdxFieldDelta;
       this.op = upMsg.op;
       this.owner = upMsg.owner;
       this.possibleDuplicate = upMsg.possibleDuplicate;
@@ -183,7 +234,12 @@ public class UpdateOperation extends AbstractUpdateOperation {
       try {
         ev.setEventId(this.eventId);
 
-        ev.setDeltaBytes(this.deltaBytes);
+        if (this.pdxFieldDelta != null) {
+          ev.setDeltaBytes(this.pdxFieldDelta);
+          ev.setPdxFieldDelta(true);
+        } else {
+          ev.setDeltaBytes(this.deltaBytes);
+        }
 
         if (hasDelta()) {
           this.newValueObj = null;
@@ -316,7 +372,9 @@ public class UpdateOperation extends AbstractUpdateOperation {
       buff.append(this.key);
       if (this.hasDelta()) {
         byte[] bytes;
-        if (this.event != null) {
+        if (this.pdxFieldDelta != null) {
+          bytes = this.pdxFieldDelta;
+        } else if (this.event != null) {
           bytes = this.event.getDeltaBytes();
         } else {
           bytes = this.deltaBytes;
@@ -324,7 +382,8 @@ public class UpdateOperation extends AbstractUpdateOperation {
         if (bytes == null) {
           buff.append("; null delta bytes");
         } else {
-          buff.append("; ").append(bytes.length).append(" delta bytes");
+          buff.append("; ").append(bytes.length)
+              .append(this.pdxFieldDelta != null ? " PDX field delta bytes" : " delta bytes");
         }
       } else if (this.newValueObj != null) {
         buff.append("; newValueObj=");
@@ -367,7 +426,11 @@ public class UpdateOperation extends AbstractUpdateOperation {
 
       this.deserializationPolicy = (byte) (extraFlags & DESERIALIZATION_POLICY_MASK);
       if (hasDelta()) {
-        this.deltaBytes = DataSerializer.readByteArray(in);
+        if ((extraFlags & HAS_PDX_FIELD_DELTA) != 0) {
+          this.pdxFieldDelta = DataSerializer.readByteArray(in);
+        } else {
+          this.deltaBytes = DataSerializer.readByteArray(in);
+        }
       } else {
         this.newValue = DataSerializer.readByteArray(in);
         if ((extraFlags & HAS_DELTA_WITH_FULL_VALUE) != 0) {
@@ -391,6 +454,10 @@ public class UpdateOperation extends AbstractUpdateOperation {
           && this.sendDeltaWithFullValue && this.event.getDeltaBytes() != null) {
         extraFlags |= HAS_DELTA_WITH_FULL_VALUE;
       }
+      final boolean sendPdxFieldDelta = hasDelta() && this.event.getDeltaBytes() == null;
+      if (sendPdxFieldDelta) {
+        extraFlags |= HAS_PDX_FIELD_DELTA;
+      }
       out.writeByte(extraFlags);
 
       if (this.eventId != null) {
@@ -412,7 +479,8 @@ public class UpdateOperation extends AbstractUpdateOperation {
       DataSerializer.writeObject(key, out);
 
       if (hasDelta()) {
-        DataSerializer.writeByteArray(this.event.getDeltaBytes(), out);
+        DataSerializer.writeByteArray(
+            sendPdxFieldDelta ? this.pdxFieldDelta : this.event.getDeltaBytes(), out);
         this.event.getRegion().getCachePerfStats().incDeltasSent();
       } else {
         DistributedCacheOperation.writeValue(this.deserializationPolicy, this.newValueObj,
@@ -431,7 +499,8 @@ public class UpdateOperation extends AbstractUpdateOperation {
     private void setDeltaFlag(DistributedRegion region) {
       try {
         if (region != null && region.getSystem().getConfig().getDeltaPropagation() && this.sendDelta
-            && !region.scope.isDistributedNoAck() && this.event.getDeltaBytes() != null) {
+            && !region.scope.isDistributedNoAck()
+            && (this.event.getDeltaBytes() != null || this.pdxFieldDelta != null)) {
           setHasDelta(true);
           return;
         }
@@ -60,7 +60,12 @@ public abstract class AbstractDiskRegionEntry extends AbstractRegionEntry implem
   public void handleValueOverflow(RegionEntryContext context) {
     if (context instanceof BucketRegionQueue
         || context instanceof SerialGatewaySenderQueue.SerialGatewaySenderQueueMetaRegion) {
-      GatewaySenderEventImpl.release(this.getValue()); // OFFHEAP _getValue ok
+      Object value = this.getValue(); // OFFHEAP _getValue ok
+      if (value instanceof GatewaySenderEventImpl) {
+        // the overflowed form holds the value itself
+        ((GatewaySenderEventImpl) value).releaseLoggedValue();
+      }
+      GatewaySenderEventImpl.release(value);
     }
   }
 }
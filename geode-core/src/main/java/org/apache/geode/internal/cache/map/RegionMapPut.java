@@ -23,6 +23,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.cache.CacheWriter;
 import org.apache.geode.cache.DiskAccessException;
 import org.apache.geode.cache.Operation;
+import org.apache.geode.internal.cache.DistributedRegion;
 import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.EntryEventSerialization;
 import org.apache.geode.internal.cache.InternalRegion;
@@ -40,6 +41,7 @@ import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.sequencelog.EntryLogger;
 import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.pdx.internal.PdxFieldDelta;
 
 public class RegionMapPut extends AbstractRegionMapPut {
   protected static final Logger logger = LogService.getLogger();
@@ -180,7 +182,7 @@ public class RegionMapPut extends AbstractRegionMapPut {
     event.setRegionEntry(re);
     if (event.getOperation().guaranteesOldValue()) {
       setOldValueEvenIfFaultedOut();
-    } else if (isCacheWrite() || isRequireOldValue()) {
+    } else if (isCacheWrite() || isRequireOldValue() || isPdxFieldDeltaCandidate()) {
       setOldValueIfNotFaultedOut();
     } else {
       @Unretained
@@ -191,6 +193,15 @@ public class RegionMapPut extends AbstractRegionMapPut {
     }
   }
 
+  /**
+   * PDX field deltas are created from the old value, so it is kept for regions that distribute PDX
+   * values.
+   */
+  private boolean isPdxFieldDeltaCandidate() {
+    return PdxFieldDelta.ENABLED && getOwner() instanceof DistributedRegion
+        && ((DistributedRegion) getOwner()).hasPdxFieldDeltaValues();
+  }
+
   private void setOldValueIfNotFaultedOut() {
     final EntryEventImpl event = getEvent();
     ReferenceCountHelper.skipRefCountTracking();
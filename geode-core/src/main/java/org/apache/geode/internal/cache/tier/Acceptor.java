@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
 import org.apache.geode.internal.cache.tier.sockets.CacheServerStats;
@@ -25,6 +26,7 @@ import org.apache.geode.internal.cache.tier.sockets.ClientHealthMonitor;
 import org.apache.geode.internal.cache.tier.sockets.CommBufferPool;
 import org.apache.geode.internal.cache.tier.sockets.ConnectionListener;
 import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.net.BufferPool;
 import org.apache.geode.internal.net.SocketCloser;
 
 /**
@@ -91,6 +93,23 @@ public interface Acceptor extends CommBufferPool {
 
   boolean isSelector();
 
+  /**
+   * Returns the pool that server connections serialize reply values into, or null if reply values
+   * are serialized into heap buffers.
+   */
+  BufferPool getSerializationBufferPool();
+
+  /**
+   * Returns the pool that gateway receiver connections apply the events of a batch with, or null
+   * if each connection applies its batches by itself.
+   */
+  ExecutorService getGatewayApplyPool();
+
+  /**
+   * Returns the number of threads gateway receiver connections apply the events of a batch with.
+   */
+  int getGatewayApplyThreads();
+
   InetAddress getServerInetAddress();
 
   void notifyCacheMembersOfClose();
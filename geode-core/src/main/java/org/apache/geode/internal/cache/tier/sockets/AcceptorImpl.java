@@ -65,6 +65,7 @@ import org.apache.geode.DataSerializer;
 import org.apache.geode.StatisticsFactory;
 import org.apache.geode.SystemFailure;
 import org.apache.geode.ToDataException;
+import org.apache.geode.annotations.VisibleForTesting;
 import org.apache.geode.annotations.internal.MakeNotStatic;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.client.internal.PoolImpl;
@@ -93,6 +94,7 @@ import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
 import org.apache.geode.internal.inet.LocalHostUtil;
 import org.apache.geode.internal.logging.CoreLoggingExecutors;
 import org.apache.geode.internal.monitoring.ThreadsMonitoring;
+import org.apache.geode.internal.net.BufferPool;
 import org.apache.geode.internal.net.SocketCloser;
 import org.apache.geode.internal.net.SocketCreator;
 import org.apache.geode.internal.security.SecurityService;
@@ -101,6 +103,7 @@ import org.apache.geode.internal.statistics.StatisticsClock;
 import org.apache.geode.internal.statistics.StatisticsClockFactory;
 import org.apache.geode.internal.tcp.ConnectionTable;
 import org.apache.geode.internal.util.ArrayUtils;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
 import org.apache.geode.logging.internal.executors.LoggingThread;
 import org.apache.geode.logging.internal.executors.LoggingThreadFactory.CommandWrapper;
 import org.apache.geode.logging.internal.executors.LoggingThreadFactory.ThreadInitializer;
@@ -221,6 +224,40 @@ public class AcceptorImpl implements Acceptor, Runnable {
   private final int acceptTimeout =
       Integer.getInteger(ACCEPT_TIMEOUT_PROPERTY_NAME, DEFAULT_ACCEPT_TIMEOUT_MS);
 
+  /**
+   * The name of a system property that makes server connections serialize reply values into
+   * buffers acquired from a pool rather than into newly allocated heap buffers.
+   */
+  private static final String POOLED_SERIALIZATION_BUFFERS_PROPERTY_NAME =
+      "BridgeServer.POOLED_SERIALIZATION_BUFFERS";
+
+  /**
+   * Buffers that server connections serialize reply values into; null unless the
+   * {@link #POOLED_SERIALIZATION_BUFFERS_PROPERTY_NAME} system property is set.
+   */
+  private final BufferPool serializationBufferPool;
+
+  /**
+   * The name of a system property that sets the number of threads a gateway receiver applies the
+   * events of a batch with. With more than one, the events of a batch are spread over the threads
+   * by key, so the events of each key are still applied in the order they were sent.
+   */
+  @VisibleForTesting
+  public static final String GATEWAY_APPLY_THREADS_PROPERTY_NAME =
+      "GatewayReceiver.APPLY_THREADS";
+
+  /**
+   * The number of threads gateway receiver connections apply the events of a batch with, which is
+   * read when the acceptor is created
+   */
+  private final int gatewayApplyThreads;
+
+  /**
+   * A pool used by gateway receiver connections to apply the events of a batch in parallel; null
+   * unless this is a gateway receiver with more than one {@link #gatewayApplyThreads}.
+   */
+  private final ExecutorService gatewayApplyPool;
+
   /**
    * The minimum value of max-connections
    */
@@ -628,6 +665,14 @@ public class AcceptorImpl implements Acceptor, Runnable {
     cache = internalCache;
     crHelper = new CachedRegionHelper(cache);
 
+    DistributionManager distributionManager = cache.getDistributionManager();
+    if (Boolean.getBoolean(POOLED_SERIALIZATION_BUFFERS_PROPERTY_NAME)
+        && distributionManager != null) {
+      serializationBufferPool = new BufferPool(distributionManager.getStats());
+    } else {
+      serializationBufferPool = null;
+    }
+
     clientNotifier =
         cacheClientNotifierProvider.get(internalCache, new ClientRegistrationEventQueueManager(),
             statisticsClock, stats, maximumMessageCount,
@@ -643,6 +688,13 @@ public class AcceptorImpl implements Acceptor, Runnable {
     pool = initializeServerConnectionThreadPool();
     hsPool = initializeHandshakerThreadPool();
     clientQueueInitPool = initializeClientQueueInitializerThreadPool();
+    gatewayApplyThreads = isGatewayReceiver()
+        ? Math.max(1, Integer.getInteger(GATEWAY_APPLY_THREADS_PROPERTY_NAME, 1))
+        : 1;
+    gatewayApplyPool = gatewayApplyThreads > 1
+        ? LoggingExecutors.newFixedThreadPool(gatewayApplyThreads,
+            "GatewayReceiver apply on port " + localPort + " Thread ", true)
+        : null;
 
     isAuthenticationRequired = securityService.isClientSecurityRequired();
 
@@ -728,6 +780,21 @@ public class AcceptorImpl implements Acceptor, Runnable {
     return stats;
   }
 
+  @Override
+  public BufferPool getSerializationBufferPool() {
+    return serializationBufferPool;
+  }
+
+  @Override
+  public ExecutorService getGatewayApplyPool() {
+    return gatewayApplyPool;
+  }
+
+  @Override
+  public int getGatewayApplyThreads() {
+    return gatewayApplyThreads;
+  }
+
   /**
    * Returns true if this acceptor is using a selector to detect client events.
    */
@@ -1692,6 +1759,9 @@ public class AcceptorImpl implements Acceptor, Runnable {
     }
     clientQueueInitPool.shutdown();
     hsPool.shutdown();
+    if (gatewayApplyPool != null) {
+      gatewayApplyPool.shutdown();
+    }
   }
 
   private void shutdownSCs() {
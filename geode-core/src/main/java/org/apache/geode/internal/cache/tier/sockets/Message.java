@@ -35,6 +35,8 @@ import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.net.BufferPool;
+import org.apache.geode.internal.net.PooledHeapDataOutputStream;
 import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.serialization.KnownVersion;
@@ -169,6 +171,11 @@ public class Message {
   Part securePart = null;
   private boolean isMetaRegion = false;
 
+  /**
+   * If not null, object parts are serialized into buffers acquired from this pool
+   */
+  private BufferPool bufferPool;
+
   private KnownVersion version;
 
   /**
@@ -370,6 +377,17 @@ public class Message {
     }
   }
 
+  /**
+   * Creates the stream a part is serialized into. If this message has a buffer pool the part is
+   * serialized into pooled buffers that are returned to the pool when the part is cleared.
+   */
+  private HeapDataOutputStream createPartOutputStream(KnownVersion v, boolean doNotCopy) {
+    if (this.bufferPool != null) {
+      return new PooledHeapDataOutputStream(this.bufferPool, this.chunkSize, v, doNotCopy);
+    }
+    return new HeapDataOutputStream(this.chunkSize, v, doNotCopy);
+  }
+
   private void serializeAndAddPartNoCopying(Object o) {
     KnownVersion v = this.version;
     if (this.version.equals(KnownVersion.CURRENT)) {
@@ -378,7 +396,7 @@ public class Message {
 
     // Create the HDOS with a flag telling it that it can keep any byte[] or ByteBuffers/ByteSources
     // passed to it. Do NOT close the HeapDataOutputStream!
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v, true);
+    HeapDataOutputStream hdos = createPartOutputStream(v, true);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
@@ -401,7 +419,7 @@ public class Message {
     }
 
     // do NOT close the HeapDataOutputStream
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v);
+    HeapDataOutputStream hdos = createPartOutputStream(v, false);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
@@ -1094,6 +1112,14 @@ public class Message {
     this.messageStats = msgStats;
   }
 
+  /**
+   * Serialize object parts of this message into buffers acquired from the given pool. The buffers
+   * are released when the parts are cleared.
+   */
+  void setBufferPool(BufferPool bufferPool) {
+    this.bufferPool = bufferPool;
+  }
+
   /**
    * Undo any state changes done by setComms.
    *
@@ -32,6 +32,7 @@ import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.security.Principal;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
@@ -65,9 +66,11 @@ import org.apache.geode.internal.cache.tier.InternalClientMembership;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.ServerSideHandshake;
 import org.apache.geode.internal.cache.tier.sockets.command.Default;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompressor;
 import org.apache.geode.internal.logging.InternalLogWriter;
 import org.apache.geode.internal.monitoring.ThreadsMonitoring;
 import org.apache.geode.internal.monitoring.executor.AbstractExecutor;
+import org.apache.geode.internal.net.BufferPool;
 import org.apache.geode.internal.security.AuthorizeRequest;
 import org.apache.geode.internal.security.AuthorizeRequestPP;
 import org.apache.geode.internal.security.SecurityService;
@@ -228,6 +231,19 @@ public class ServerConnection implements Runnable {
    */
   private int latestBatchIdReplied = -1;
 
+  /**
+   * Decompresses the values of the gateway batches received on this connection, created when the
+   * first compressed batch arrives
+   */
+  private GatewayBatchCompressor.Decompressor gatewayBatchDecompressor;
+
+  /**
+   * The decompressors of the lanes a batch is applied in, other than the first which uses
+   * {@link #gatewayBatchDecompressor}
+   */
+  private GatewayBatchCompressor.Decompressor[] gatewayBatchLaneDecompressors =
+      new GatewayBatchCompressor.Decompressor[0];
+
   /**
    * Client identity from handshake
    */
@@ -1426,6 +1442,36 @@ public class ServerConnection implements Runnable {
     return latestBatchIdReplied;
   }
 
+  public GatewayBatchCompressor.Decompressor getGatewayBatchDecompressor() {
+    // not synchronized because batches are processed by a single thread
+    if (gatewayBatchDecompressor == null) {
+      gatewayBatchDecompressor = new GatewayBatchCompressor.Decompressor();
+    }
+    return gatewayBatchDecompressor;
+  }
+
+  /**
+   * Returns the decompressor of the given lane of a batch that is applied in parallel, which has
+   * the dictionary of {@link #getGatewayBatchDecompressor()}. Lane 0 uses that decompressor itself.
+   */
+  public GatewayBatchCompressor.Decompressor getGatewayBatchDecompressor(int lane) {
+    // called by the connection thread before the lanes start
+    GatewayBatchCompressor.Decompressor connectionDecompressor = getGatewayBatchDecompressor();
+    if (lane == 0) {
+      return connectionDecompressor;
+    }
+    if (lane > gatewayBatchLaneDecompressors.length) {
+      gatewayBatchLaneDecompressors = Arrays.copyOf(gatewayBatchLaneDecompressors, lane);
+    }
+    GatewayBatchCompressor.Decompressor decompressor = gatewayBatchLaneDecompressors[lane - 1];
+    if (decompressor == null) {
+      decompressor = new GatewayBatchCompressor.Decompressor();
+      gatewayBatchLaneDecompressors[lane - 1] = decompressor;
+    }
+    decompressor.useDictionaryOf(connectionDecompressor);
+    return decompressor;
+  }
+
   void initStreams(Socket s, int socketBufferSize, MessageStats messageStats) {
     try {
       if (getAcceptor().isSelector()) {
@@ -1447,6 +1493,17 @@ public class ServerConnection implements Runnable {
       executeFunctionResponseMessage.setComms(this, theSocket, commBuffer, messageStats);
       registerInterestResponseMessage.setComms(this, theSocket, commBuffer, messageStats);
       keySetResponseMessage.setComms(this, theSocket, commBuffer, messageStats);
+
+      BufferPool bufferPool = getAcceptor().getSerializationBufferPool();
+      if (bufferPool != null) {
+        replyMessage.setBufferPool(bufferPool);
+        responseMessage.setBufferPool(bufferPool);
+        chunkedResponseMessage.setBufferPool(bufferPool);
+        queryResponseMessage.setBufferPool(bufferPool);
+        executeFunctionResponseMessage.setBufferPool(bufferPool);
+        registerInterestResponseMessage.setBufferPool(bufferPool);
+        keySetResponseMessage.setBufferPool(bufferPool);
+      }
     } catch (RuntimeException re) {
       throw re;
     } catch (Exception e) {
@@ -1511,6 +1568,16 @@ public class ServerConnection implements Runnable {
       logger.debug("{}: Closed connection", name);
     }
     releaseCommBuffer();
+    if (gatewayBatchDecompressor != null) {
+      gatewayBatchDecompressor.close();
+      gatewayBatchDecompressor = null;
+    }
+    for (GatewayBatchCompressor.Decompressor decompressor : gatewayBatchLaneDecompressors) {
+      if (decompressor != null) {
+        decompressor.close();
+      }
+    }
+    gatewayBatchLaneDecompressors = new GatewayBatchCompressor.Decompressor[0];
     processMessages = false;
   }
 
@@ -15,8 +15,17 @@
 package org.apache.geode.internal.cache.tier.sockets.command;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.DataFormatException;
 
 import org.apache.geode.CancelException;
 import org.apache.geode.annotations.Immutable;
@@ -33,6 +42,7 @@ import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.EventIDHolder;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.tier.Acceptor;
 import org.apache.geode.internal.cache.tier.CachedRegionHelper;
 import org.apache.geode.internal.cache.tier.Command;
 import org.apache.geode.internal.cache.tier.MessageType;
@@ -42,6 +52,7 @@ import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompressor;
 import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
 import org.apache.geode.internal.security.AuthorizeRequest;
 import org.apache.geode.internal.security.SecurityService;
@@ -56,6 +67,11 @@ import org.apache.geode.pdx.internal.PeerTypeRegistration;
 
 public class GatewayReceiverCommand extends BaseCommand {
 
+  /**
+   * Smaller batches are applied in order even if the receiver has a gateway apply pool
+   */
+  private static final int MIN_EVENTS_TO_APPLY_IN_PARALLEL = 16;
+
   @Immutable
   private static final GatewayReceiverCommand SINGLETON = new GatewayReceiverCommand();
 
@@ -100,6 +116,16 @@ public class GatewayReceiverCommand extends BaseCommand {
     Part batchIdPart = clientMessage.getPart(1);
     int batchId = batchIdPart.getInt();
 
+    // The flags of the batch are in part 3. If its values are compressed the dictionary part
+    // follows, which is applied even to a batch that is not processed because later batches on
+    // this connection may be compressed with the same dictionary.
+    byte batchFlags = clientMessage.getPart(3).getSerializedForm()[0];
+    GatewayBatchCompressor.Decompressor decompressor = null;
+    if ((batchFlags & GatewayBatchCompressor.VALUES_COMPRESSED) != 0) {
+      decompressor = serverConnection.getGatewayBatchDecompressor();
+      decompressor.updateDictionary(clientMessage.getPart(4).getSerializedForm());
+    }
+
     // If this batch has already been seen, do not reply.
     // Instead, drop the batch and continue.
     if (batchId <= serverConnection.getLatestBatchIdReplied()) {
@@ -142,366 +168,664 @@ public class GatewayReceiverCommand extends BaseCommand {
     int partNumber = 2;
     int dsid = clientMessage.getPart(partNumber++).getInt();
 
-    boolean removeOnException = clientMessage.getPart(partNumber++).getSerializedForm()[0] == 1;
+    boolean removeOnException = (batchFlags & 0x01) != 0;
+    partNumber++;
+    if (decompressor != null) {
+      partNumber++;
+    }
 
-    // event received in batch also have PDX events at the start of the batch,to
-    // represent correct index on which the exception occurred, number of PDX
-    // events need to be subtracted.
-    int indexWithoutPDXEvent = -1; //
-    Part valuePart = null;
-    Throwable fatalException = null;
-    List<BatchException70> exceptions = new ArrayList<>();
-    for (int i = 0; i < numberOfEvents; i++) {
-      indexWithoutPDXEvent++;
+    ReceivedBatch batch = new ReceivedBatch(clientMessage, serverConnection, crHelper, stats,
+        batchId, numberOfEvents, dsid, removeOnException);
+    Acceptor acceptor = serverConnection.getAcceptor();
+    ExecutorService applyPool = acceptor.getGatewayApplyPool();
+    if (applyPool != null && acceptor.getGatewayApplyThreads() > 1
+        && numberOfEvents >= MIN_EVENTS_TO_APPLY_IN_PARALLEL
+        && serverConnection.getAuthzRequest() == null && !securityService.isIntegratedSecurity()) {
+      applyInParallel(batch, partNumber, applyPool, acceptor.getGatewayApplyThreads(),
+          decompressor);
+    } else {
+      applyInOrder(batch, batch.addLane(decompressor), 0, partNumber, 0);
+    }
+    batch.recordModification();
+    if (batch.cancelException != null) {
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "{} ignoring message of type {} from client {} because shutdown occurred during message processing.",
+            serverConnection.getName(), MessageType.getString(clientMessage.getMessageType()),
+            serverConnection.getProxyID());
+      }
+      serverConnection.setFlagProcessMessagesAsFalse();
+      serverConnection.setClientDisconnectedException(batch.cancelException);
+      return;
+    }
+    Throwable fatalException = batch.fatalException;
+    List<BatchException70> exceptions = batch.getExceptions();
+
+    {
+      long oldStart = start;
+      start = DistributionStats.getStatTime();
+      stats.incProcessBatchTime(start - oldStart);
+    }
+    if (fatalException != null) {
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+      writeFatalException(clientMessage, fatalException, serverConnection, batchId);
+      serverConnection.setAsTrue(RESPONDED);
+    } else if (!exceptions.isEmpty()) {
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+      writeBatchException(clientMessage, exceptions, serverConnection, batchId);
+      serverConnection.setAsTrue(RESPONDED);
+    } else {
+      // Increment the batch id unless the received batch id is -1 (a failover
+      // batch)
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+
+      writeReply(clientMessage, serverConnection, batchId, numberOfEvents);
+      serverConnection.setAsTrue(RESPONDED);
+      stats.incWriteProcessBatchResponseTime(DistributionStats.getStatTime() - start);
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "{}: Sent process batch normal response for batch {} containing {} events ({} bytes) with {} acknowledgement on {}",
+            serverConnection.getName(), batchId, numberOfEvents, clientMessage.getPayloadLength(),
+            "normal", serverConnection.getSocketString());
+      }
+    }
+  }
+
+  /**
+   * Applies the events of a batch one after the other on the calling thread.
+   *
+   * @param lane the lane of the calling thread
+   * @param firstEvent the index of the first event to apply
+   * @param partNumber the number of the first part of that event
+   * @param nonPdxEventsBefore the number of events before that event that are not PDX types
+   */
+  private void applyInOrder(ReceivedBatch batch, Lane lane, int firstEvent, int partNumber,
+      int nonPdxEventsBefore) throws InterruptedException, InterruptedIOException {
+    // events received in a batch also have PDX events at the start of the batch, so to represent
+    // the correct index at which an exception occurred the number of PDX events is subtracted
+    int indexWithoutPDXEvent = nonPdxEventsBefore;
+    for (int i = firstEvent; i < batch.numberOfEvents && !batch.isStopped(); i++) {
+      boolean isPdxEvent = isPdxEvent(batch.clientMessage, partNumber);
+      applyEvent(batch, lane, partNumber,
+          isPdxEvent ? indexWithoutPDXEvent - 1 : indexWithoutPDXEvent);
+      if (!isPdxEvent) {
+        indexWithoutPDXEvent++;
+      }
+      partNumber += numberOfParts(batch.clientMessage, partNumber);
+    }
+  }
 
-      Part actionTypePart = clientMessage.getPart(partNumber);
-      int actionType = actionTypePart.getInt();
+  /**
+   * Applies the events of a batch on the gateway apply pool. The PDX types at the start of the
+   * batch are applied first, since the other events may need them. The other events are then split
+   * into lanes by the hash of their keys and the lanes are applied at the same time, so the events
+   * on one key are still applied in the order they were sent. Each lane has a decompressor of its
+   * own. This returns once all the lanes are done, so the batch is only acknowledged once all of
+   * its events are applied.
+   *
+   * @param numberOfLanes the number of lanes to split the events into
+   * @param decompressor the decompressor of the connection, or null if the values are not
+   *        compressed
+   */
+  private void applyInParallel(ReceivedBatch batch, int partNumber, ExecutorService applyPool,
+      int numberOfLanes, GatewayBatchCompressor.Decompressor decompressor)
+      throws InterruptedException, IOException {
+    Message clientMessage = batch.clientMessage;
+    Lane firstLane = batch.addLane(decompressor);
+    int event = 0;
+    while (event < batch.numberOfEvents && isPdxEvent(clientMessage, partNumber)
+        && !batch.isStopped()) {
+      applyEvent(batch, firstLane, partNumber, -1);
+      partNumber += numberOfParts(clientMessage, partNumber);
+      event++;
+    }
+    if (batch.isStopped()) {
+      return;
+    }
 
-      boolean callbackArgExists = false;
+    int firstEvent = event;
+    int[] firstParts = new int[batch.numberOfEvents - firstEvent];
+    List<List<Integer>> laneEvents = new ArrayList<>(numberOfLanes);
+    for (int lane = 0; lane < numberOfLanes; lane++) {
+      laneEvents.add(new ArrayList<>());
+    }
+    int scannedPart = partNumber;
+    for (; event < batch.numberOfEvents; event++) {
+      int parts = numberOfParts(clientMessage, scannedPart);
+      if (parts == 0 || isPdxEvent(clientMessage, scannedPart)) {
+        // not the kind of batch this knows how to split
+        applyInOrder(batch, firstLane, firstEvent, partNumber, 0);
+        return;
+      }
+      firstParts[event - firstEvent] = scannedPart;
+      laneEvents.get(Math.floorMod(keyHash(clientMessage, scannedPart), numberOfLanes))
+          .add(event - firstEvent);
+      scannedPart += parts;
+    }
 
+    List<Future<Void>> futures = new ArrayList<>(numberOfLanes);
+    try {
+      for (int laneId = 1; laneId < numberOfLanes && !batch.isStopped(); laneId++) {
+        List<Integer> events = laneEvents.get(laneId);
+        if (events.isEmpty()) {
+          continue;
+        }
+        Lane lane = batch.addLane(decompressor == null ? null
+            : batch.serverConnection.getGatewayBatchDecompressor(laneId));
+        try {
+          futures.add(applyPool.submit(() -> {
+            applyLane(batch, lane, events, firstParts);
+            return null;
+          }));
+        } catch (RejectedExecutionException e) {
+          // the receiver is stopping
+          applyLane(batch, lane, events, firstParts);
+        }
+      }
+      applyLane(batch, firstLane, laneEvents.get(0), firstParts);
+    } finally {
+      waitForLanes(futures);
+    }
+  }
+
+  /**
+   * Applies the events of one lane. A lane that fails stops the other lanes of the batch before
+   * their next event.
+   */
+  private void applyLane(ReceivedBatch batch, Lane lane, List<Integer> events, int[] firstParts)
+      throws InterruptedException, InterruptedIOException {
+    boolean done = false;
+    try {
+      for (int event : events) {
+        if (batch.isStopped()) {
+          break;
+        }
+        // only the PDX types, which are all applied first, are left out of the event indexes
+        applyEvent(batch, lane, firstParts[event], event);
+      }
+      done = true;
+    } finally {
+      if (!done) {
+        batch.laneFailed = true;
+      }
+    }
+  }
+
+  private static void waitForLanes(List<Future<Void>> futures)
+      throws InterruptedException, IOException {
+    Throwable failure = null;
+    for (Future<Void> future : futures) {
       try {
-        boolean isPdxEvent = false;
-        boolean retry = true;
-        do {
-          if (isPdxEvent) {
-            // This is a retried event. Reset the PDX event index.
-            indexWithoutPDXEvent++;
-          }
-          isPdxEvent = false;
-          Part possibleDuplicatePart = clientMessage.getPart(partNumber + 1);
-          byte[] possibleDuplicatePartBytes;
-          try {
-            possibleDuplicatePartBytes = (byte[]) possibleDuplicatePart.getObject();
-          } catch (Exception e) {
-            logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
-                serverConnection.getName(), batchId, numberOfEvents), e);
-            handleException(removeOnException, stats, e);
-            break;
-          }
-          boolean possibleDuplicate = possibleDuplicatePartBytes[0] == 0x01;
-
-          // Make sure instance variables are null before each iteration
-          String regionName = null;
-          Object key = null;
-          Object callbackArg = null;
-
-          // Retrieve the region name from the message parts
-          Part regionNamePart = clientMessage.getPart(partNumber + 2);
-          regionName = regionNamePart.getCachedString();
-          if (regionName.equals(PeerTypeRegistration.REGION_FULL_PATH)) {
-            indexWithoutPDXEvent--;
-            isPdxEvent = true;
-          }
-
-          // Retrieve the event id from the message parts
-          // This was going to be used to determine possible
-          // duplication of events, but it is unused now. In
-          // fact the event id is overridden by the FROM_GATEWAY
-          // token.
-          Part eventIdPart = clientMessage.getPart(partNumber + 3);
-          eventIdPart.setVersion(serverConnection.getClientVersion());
-          // String eventId = eventIdPart.getString();
-          EventID eventId;
-          try {
-            eventId = (EventID) eventIdPart.getObject();
-          } catch (Exception e) {
-            logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
-                serverConnection.getName(), batchId, numberOfEvents), e);
-            handleException(removeOnException, stats, e);
-            break;
-          }
-
-          // Retrieve the key from the message parts
-          Part keyPart = clientMessage.getPart(partNumber + 4);
-          try {
-            key = keyPart.getStringOrObject();
-          } catch (Exception e) {
-            logger.warn(String.format(
-                "%s: Caught exception processing batch request %s containing %s events",
-                serverConnection.getName(), batchId, numberOfEvents), e);
-            handleException(removeOnException, stats, e);
-            break;
-          }
-          int index;
-          Part callbackArgPart;
-          EventIDHolder clientEvent;
-          long versionTimeStamp;
-          Part callbackArgExistsPart;
-          LocalRegion region;
-          switch (actionType) {
-            case 0: // Create
-              try {
-
-                /*
-                 * CLIENT EXCEPTION HANDLING TESTING CODE String keySt = (String) key;
-                 * System.out.println("Processing new key: " + key); if
-                 * (keySt.startsWith("failure")) { throw new Exception(LocalizedStrings
-                 * .ProcessBatch_THIS_EXCEPTION_REPRESENTS_A_FAILURE_ON_THE_SERVER
-                 * )); }
-                 */
-
-                // Retrieve the value from the message parts (do not deserialize it)
-                valuePart = clientMessage.getPart(partNumber + 5);
-                // try {
-                // logger.warn(getName() + ": Creating key " + key + " value " +
-                // valuePart.getObject());
-                // } catch (Exception e) {}
-
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 6;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
+        future.get();
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+    }
+    if (failure instanceof InterruptedException) {
+      throw (InterruptedException) failure;
+    } else if (failure instanceof IOException) {
+      throw (IOException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+  }
+
+  /**
+   * Applies one event of a batch.
+   *
+   * @param lane the lane the event is applied in
+   * @param partNumber the number of the first part of the event
+   * @param indexWithoutPDXEvent the index of the event among the events of the batch that are not
+   *        PDX types
+   */
+  private void applyEvent(ReceivedBatch batch, Lane lane, int partNumber,
+      int indexWithoutPDXEvent)
+      throws InterruptedException, InterruptedIOException {
+    Message clientMessage = batch.clientMessage;
+    ServerConnection serverConnection = batch.serverConnection;
+    CachedRegionHelper crHelper = batch.crHelper;
+    GatewayReceiverStats stats = batch.stats;
+    int batchId = batch.batchId;
+    int numberOfEvents = batch.numberOfEvents;
+    int dsid = batch.dsid;
+    boolean removeOnException = batch.removeOnException;
+    GatewayBatchCompressor.Decompressor decompressor = lane.decompressor;
+    Part valuePart = null;
+
+    Part actionTypePart = clientMessage.getPart(partNumber);
+    int actionType = actionTypePart.getInt();
+
+    boolean callbackArgExists = false;
+
+    try {
+      boolean isPdxEvent = false;
+      boolean retry = true;
+      do {
+        isPdxEvent = false;
+        Part possibleDuplicatePart = clientMessage.getPart(partNumber + 1);
+        byte[] possibleDuplicatePartBytes;
+        try {
+          possibleDuplicatePartBytes = (byte[]) possibleDuplicatePart.getObject();
+        } catch (Exception e) {
+          logger.warn(String.format(
+              "%s: Caught exception processing batch request %s containing %s events",
+              serverConnection.getName(), batchId, numberOfEvents), e);
+          handleException(removeOnException, stats, e);
+          break;
+        }
+        boolean possibleDuplicate = possibleDuplicatePartBytes[0] == 0x01;
+
+        // Make sure instance variables are null before each iteration
+        String regionName = null;
+        Object key = null;
+        Object callbackArg = null;
+
+        // Retrieve the region name from the message parts
+        Part regionNamePart = clientMessage.getPart(partNumber + 2);
+        regionName = regionNamePart.getCachedString();
+        if (regionName.equals(PeerTypeRegistration.REGION_FULL_PATH)) {
+          isPdxEvent = true;
+        }
+
+        // Retrieve the event id from the message parts
+        // This was going to be used to determine possible
+        // duplication of events, but it is unused now. In
+        // fact the event id is overridden by the FROM_GATEWAY
+        // token.
+        Part eventIdPart = clientMessage.getPart(partNumber + 3);
+        eventIdPart.setVersion(serverConnection.getClientVersion());
+        // String eventId = eventIdPart.getString();
+        EventID eventId;
+        try {
+          eventId = (EventID) eventIdPart.getObject();
+        } catch (Exception e) {
+          logger.warn(String.format(
+              "%s: Caught exception processing batch request %s containing %s events",
+              serverConnection.getName(), batchId, numberOfEvents), e);
+          handleException(removeOnException, stats, e);
+          break;
+        }
+
+        // Retrieve the key from the message parts
+        Part keyPart = clientMessage.getPart(partNumber + 4);
+        try {
+          key = keyPart.getStringOrObject();
+        } catch (Exception e) {
+          logger.warn(String.format(
+              "%s: Caught exception processing batch request %s containing %s events",
+              serverConnection.getName(), batchId, numberOfEvents), e);
+          handleException(removeOnException, stats, e);
+          break;
+        }
+        int index;
+        Part callbackArgPart;
+        EventIDHolder clientEvent;
+        long versionTimeStamp;
+        Part callbackArgExistsPart;
+        LocalRegion region;
+        switch (actionType) {
+          case 0: // Create
+            try {
+
+              /*
+               * CLIENT EXCEPTION HANDLING TESTING CODE String keySt = (String) key;
+               * System.out.println("Processing new key: " + key); if
+               * (keySt.startsWith("failure")) { throw new Exception(LocalizedStrings
+               * .ProcessBatch_THIS_EXCEPTION_REPRESENTS_A_FAILURE_ON_THE_SERVER
+               * )); }
+               */
+
+              // Retrieve the value from the message parts (do not deserialize it)
+              valuePart = clientMessage.getPart(partNumber + 5);
+              // try {
+              // logger.warn(getName() + ": Creating key " + key + " value " +
+              // valuePart.getObject());
+              // } catch (Exception e) {}
+
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 6;
+              callbackArgExistsPart = clientMessage.getPart(index++);
+              {
+                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+                callbackArgExists = partBytes[0] == 0x01;
+              }
+              if (callbackArgExists) {
+                callbackArgPart = clientMessage.getPart(index++);
+                try {
+                  callbackArg = callbackArgPart.getObject();
+                } catch (Exception e) {
+                  logger
+                      .warn(String.format(
+                          "%s: Caught exception processing batch create request %s for %s events",
+                          serverConnection.getName(), batchId, numberOfEvents),
+                          e);
+                  throw e;
                 }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(String.format(
-                            "%s: Caught exception processing batch create request %s for %s events",
-                            serverConnection.getName(), batchId, numberOfEvents),
-                            e);
-                    throw e;
-                  }
+              }
+              if (logger.isDebugEnabled()) {
+                logger.debug(
+                    "{}: Processing batch create request {} on {} for region {} key {} value {} callbackArg {}, eventId={}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key, valuePart, callbackArg, eventId);
+              }
+              versionTimeStamp = clientMessage.getPart(index++).getLong();
+              // Process the create request
+              if (key == null || regionName == null) {
+                String message = null;
+                if (key == null) {
+                  message = "%s: The input key for the batch create request %s is null";
                 }
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch create request {} on {} for region {} key {} value {} callbackArg {}, eventId={}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg, eventId);
+                if (regionName == null) {
+                  message = "%s: The input region name for the batch create request %s is null";
                 }
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                // Process the create request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  if (key == null) {
-                    message = "%s: The input key for the batch create request %s is null";
-                  }
-                  if (regionName == null) {
-                    message = "%s: The input region name for the batch create request %s is null";
-                  }
-                  String s = String.format(message, serverConnection.getName(), batchId);
-                  logger.warn(s);
-                  throw new Exception(s);
+                String s = String.format(message, serverConnection.getName(), batchId);
+                logger.warn(s);
+                throw new Exception(s);
+              }
+              region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+              if (region == null) {
+                handleRegionNull(serverConnection, regionName, batchId);
+              } else {
+                clientEvent = new EventIDHolder(eventId);
+                if (versionTimeStamp > 0) {
+                  VersionTag tag = VersionTag.create(region.getVersionMember());
+                  tag.setIsGatewayTag(true);
+                  tag.setVersionTimeStamp(versionTimeStamp);
+                  tag.setDistributedSystemId(dsid);
+                  clientEvent.setVersionTag(tag);
                 }
-                region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-                if (region == null) {
-                  handleRegionNull(serverConnection, regionName, batchId);
+                clientEvent.setPossibleDuplicate(possibleDuplicate);
+                handleMessageRetry(region, clientEvent);
+                byte[] value = getValue(valuePart, decompressor, stats);
+                boolean isObject = valuePart.isObject();
+                // [sumedh] This should be done on client while sending
+                // since that is the WAN gateway
+                AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
+                if (authzRequest != null) {
+                  PutOperationContext putContext =
+                      authzRequest.putAuthorize(regionName, key, value, isObject, callbackArg);
+                  value = putContext.getSerializedValue();
+                  isObject = putContext.isObject();
+                }
+                // Attempt to create the entry
+                boolean result = false;
+                if (isPdxEvent) {
+                  result = addPdxType(crHelper, key, value);
                 } else {
-                  clientEvent = new EventIDHolder(eventId);
-                  if (versionTimeStamp > 0) {
-                    VersionTag tag = VersionTag.create(region.getVersionMember());
-                    tag.setIsGatewayTag(true);
-                    tag.setVersionTimeStamp(versionTimeStamp);
-                    tag.setDistributedSystemId(dsid);
-                    clientEvent.setVersionTag(tag);
-                  }
-                  clientEvent.setPossibleDuplicate(possibleDuplicate);
-                  handleMessageRetry(region, clientEvent);
-                  byte[] value = valuePart.getSerializedForm();
-                  boolean isObject = valuePart.isObject();
-                  // [sumedh] This should be done on client while sending
-                  // since that is the WAN gateway
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    PutOperationContext putContext =
-                        authzRequest.putAuthorize(regionName, key, value, isObject, callbackArg);
-                    value = putContext.getSerializedValue();
-                    isObject = putContext.isObject();
-                  }
-                  // Attempt to create the entry
-                  boolean result = false;
-                  if (isPdxEvent) {
-                    result = addPdxType(crHelper, key, value);
-                  } else {
-                    result = region.basicBridgeCreate(key, value, isObject, callbackArg,
-                        serverConnection.getProxyID(), false, clientEvent, false);
-                    // If the create fails (presumably because it already exists),
-                    // attempt to update the entry
-                    if (!result) {
-                      result = region.basicBridgePut(key, value, null, isObject, callbackArg,
-                          serverConnection.getProxyID(), false, clientEvent);
-                    }
+                  result = region.basicBridgeCreate(key, value, isObject, callbackArg,
+                      serverConnection.getProxyID(), false, clientEvent, false);
+                  // If the create fails (presumably because it already exists),
+                  // attempt to update the entry
+                  if (!result) {
+                    result = region.basicBridgePut(key, value, null, isObject, callbackArg,
+                        serverConnection.getProxyID(), false, clientEvent);
                   }
+                }
 
-                  if (result || clientEvent.isConcurrencyConflict()) {
-                    serverConnection.setModificationInfo(true, regionName, key);
-                    stats.incCreateRequest();
-                    retry = false;
-                  } else {
-                    // This exception will be logged in the catch block below
-                    throw new Exception(
-                        String.format(
-                            "%s: Failed to create or update entry for region %s key %s value %s callbackArg %s",
-                            serverConnection.getName(), regionName, key, valuePart, callbackArg));
-                  }
+                if (result || clientEvent.isConcurrencyConflict()) {
+                  lane.modified(partNumber, regionName, key);
+                  stats.incCreateRequest();
+                  retry = false;
+                } else {
+                  // This exception will be logged in the catch block below
+                  throw new Exception(
+                      String.format(
+                          "%s: Failed to create or update entry for region %s key %s value %s callbackArg %s",
+                          serverConnection.getName(), regionName, key, valuePart, callbackArg));
                 }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch create request %s for %s events",
-                    serverConnection.getName(), batchId, numberOfEvents), e);
-                handleException(removeOnException, stats, e);
               }
-              break;
-
-            case 1: // Update
-              try {
-                // Retrieve the value from the message parts (do not deserialize it)
-                valuePart = clientMessage.getPart(partNumber + 5);
-                // try {
-                // logger.warn(getName() + ": Updating key " + key + " value " +
-                // valuePart.getObject());
-                // } catch (Exception e) {}
-
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 6;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
+            } catch (Exception e) {
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch create request %s for %s events",
+                  serverConnection.getName(), batchId, numberOfEvents), e);
+              handleException(removeOnException, stats, e);
+            }
+            break;
+
+          case 1: // Update
+            try {
+              // Retrieve the value from the message parts (do not deserialize it)
+              valuePart = clientMessage.getPart(partNumber + 5);
+              // try {
+              // logger.warn(getName() + ": Updating key " + key + " value " +
+              // valuePart.getObject());
+              // } catch (Exception e) {}
+
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 6;
+              callbackArgExistsPart = clientMessage.getPart(index++);
+              {
+                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+                callbackArgExists = partBytes[0] == 0x01;
+              }
+              if (callbackArgExists) {
+                callbackArgPart = clientMessage.getPart(index++);
+                try {
+                  callbackArg = callbackArgPart.getObject();
+                } catch (Exception e) {
+                  logger
+                      .warn(
+                          String.format(
+                              "%s: Caught exception processing batch update request %s containing %s events",
+                              serverConnection.getName(), batchId, numberOfEvents),
+                          e);
+                  throw e;
                 }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(
-                            String.format(
-                                "%s: Caught exception processing batch update request %s containing %s events",
-                                serverConnection.getName(), batchId, numberOfEvents),
-                            e);
-                    throw e;
-                  }
+              }
+              versionTimeStamp = clientMessage.getPart(index++).getLong();
+              if (logger.isDebugEnabled()) {
+                logger.debug(
+                    "{}: Processing batch update request {} on {} for region {} key {} value {} callbackArg {}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key, valuePart, callbackArg);
+              }
+              // Process the update request
+              if (key == null || regionName == null) {
+                String message = null;
+                if (key == null) {
+                  message = "%s: The input key for the batch update request %s is null";
                 }
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch update request {} on {} for region {} key {} value {} callbackArg {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg);
+                if (regionName == null) {
+                  message = "%s: The input region name for the batch update request %s is null";
                 }
-                // Process the update request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  if (key == null) {
-                    message = "%s: The input key for the batch update request %s is null";
-                  }
-                  if (regionName == null) {
-                    message = "%s: The input region name for the batch update request %s is null";
-                  }
-                  String s = String.format(message, serverConnection.getName(), batchId);
-                  logger.warn(s);
-                  throw new Exception(s);
+                String s = String.format(message, serverConnection.getName(), batchId);
+                logger.warn(s);
+                throw new Exception(s);
+              }
+              region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+              if (region == null) {
+                handleRegionNull(serverConnection, regionName, batchId);
+              } else {
+                clientEvent = new EventIDHolder(eventId);
+                if (versionTimeStamp > 0) {
+                  VersionTag tag = VersionTag.create(region.getVersionMember());
+                  tag.setIsGatewayTag(true);
+                  tag.setVersionTimeStamp(versionTimeStamp);
+                  tag.setDistributedSystemId(dsid);
+                  clientEvent.setVersionTag(tag);
                 }
-                region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-                if (region == null) {
-                  handleRegionNull(serverConnection, regionName, batchId);
-                } else {
-                  clientEvent = new EventIDHolder(eventId);
-                  if (versionTimeStamp > 0) {
-                    VersionTag tag = VersionTag.create(region.getVersionMember());
-                    tag.setIsGatewayTag(true);
-                    tag.setVersionTimeStamp(versionTimeStamp);
-                    tag.setDistributedSystemId(dsid);
-                    clientEvent.setVersionTag(tag);
-                  }
-                  clientEvent.setPossibleDuplicate(possibleDuplicate);
-                  handleMessageRetry(region, clientEvent);
-                  byte[] value = valuePart.getSerializedForm();
-                  boolean isObject = valuePart.isObject();
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    PutOperationContext putContext = authzRequest.putAuthorize(regionName, key,
-                        value, isObject, callbackArg, PutOperationContext.UPDATE);
-                    value = putContext.getSerializedValue();
-                    isObject = putContext.isObject();
-                  }
-                  boolean result = false;
-                  if (isPdxEvent) {
-                    result = addPdxType(crHelper, key, value);
-                  } else {
-                    result = region.basicBridgePut(key, value, null, isObject, callbackArg,
-                        serverConnection.getProxyID(), false, clientEvent);
-                  }
-                  if (result || clientEvent.isConcurrencyConflict()) {
-                    serverConnection.setModificationInfo(true, regionName, key);
-                    stats.incUpdateRequest();
-                    retry = false;
-                  } else {
-                    final String message =
-                        "%s: Failed to update entry for region %s, key %s, value %s, and callbackArg %s";
-                    String s = String.format(message, serverConnection.getName(), regionName,
-                        key, valuePart, callbackArg);
-                    logger.info(s);
-                    throw new Exception(s);
-                  }
+                clientEvent.setPossibleDuplicate(possibleDuplicate);
+                handleMessageRetry(region, clientEvent);
+                byte[] value = getValue(valuePart, decompressor, stats);
+                boolean isObject = valuePart.isObject();
+                AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
+                if (authzRequest != null) {
+                  PutOperationContext putContext = authzRequest.putAuthorize(regionName, key,
+                      value, isObject, callbackArg, PutOperationContext.UPDATE);
+                  value = putContext.getSerializedValue();
+                  isObject = putContext.isObject();
                 }
-              } catch (Exception e) {
-                // Preserve the connection under all circumstances
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch update request %s containing %s events",
-                    serverConnection.getName(), batchId, numberOfEvents), e);
-                handleException(removeOnException, stats, e);
-              }
-              break;
-
-            case 2: // Destroy
-              try {
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 5;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-                {
-                  byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                  callbackArgExists = partBytes[0] == 0x01;
+                boolean result = false;
+                if (isPdxEvent) {
+                  result = addPdxType(crHelper, key, value);
+                } else {
+                  result = region.basicBridgePut(key, value, null, isObject, callbackArg,
+                      serverConnection.getProxyID(), false, clientEvent);
                 }
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  try {
-                    callbackArg = callbackArgPart.getObject();
-                  } catch (Exception e) {
-                    logger
-                        .warn(
-                            String.format(
-                                "%s: Caught exception processing batch destroy request %s containing %s events",
-                                serverConnection.getName(), batchId, numberOfEvents),
-                            e);
-                    throw e;
-                  }
+                if (result || clientEvent.isConcurrencyConflict()) {
+                  lane.modified(partNumber, regionName, key);
+                  stats.incUpdateRequest();
+                  retry = false;
+                } else {
+                  final String message =
+                      "%s: Failed to update entry for region %s, key %s, value %s, and callbackArg %s";
+                  String s = String.format(message, serverConnection.getName(), regionName,
+                      key, valuePart, callbackArg);
+                  logger.info(s);
+                  throw new Exception(s);
                 }
+              }
+            } catch (Exception e) {
+              // Preserve the connection under all circumstances
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch update request %s containing %s events",
+                  serverConnection.getName(), batchId, numberOfEvents), e);
+              handleException(removeOnException, stats, e);
+            }
+            break;
 
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug("{}: Processing batch destroy request {} on {} for region {} key {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key);
+          case 2: // Destroy
+            try {
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 5;
+              callbackArgExistsPart = clientMessage.getPart(index++);
+              {
+                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+                callbackArgExists = partBytes[0] == 0x01;
+              }
+              if (callbackArgExists) {
+                callbackArgPart = clientMessage.getPart(index++);
+                try {
+                  callbackArg = callbackArgPart.getObject();
+                } catch (Exception e) {
+                  logger
+                      .warn(
+                          String.format(
+                              "%s: Caught exception processing batch destroy request %s containing %s events",
+                              serverConnection.getName(), batchId, numberOfEvents),
+                          e);
+                  throw e;
                 }
+              }
 
-                // Process the destroy request
-                if (key == null || regionName == null) {
-                  String message = null;
-                  if (key == null) {
-                    message =
-                        "%s: The input key for the batch destroy request %s is null";
-                  }
-                  if (regionName == null) {
-                    message =
-                        "%s: The input region name for the batch destroy request %s is null";
-                  }
-                  String s = String.format(message, serverConnection.getName(), batchId);
-                  logger.warn(s);
-                  throw new Exception(s);
+              versionTimeStamp = clientMessage.getPart(index++).getLong();
+              if (logger.isDebugEnabled()) {
+                logger.debug("{}: Processing batch destroy request {} on {} for region {} key {}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key);
+              }
+
+              // Process the destroy request
+              if (key == null || regionName == null) {
+                String message = null;
+                if (key == null) {
+                  message =
+                      "%s: The input key for the batch destroy request %s is null";
+                }
+                if (regionName == null) {
+                  message =
+                      "%s: The input region name for the batch destroy request %s is null";
                 }
+                String s = String.format(message, serverConnection.getName(), batchId);
+                logger.warn(s);
+                throw new Exception(s);
+              }
+              region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+              if (region == null) {
+                handleRegionNull(serverConnection, regionName, batchId);
+              } else {
+                clientEvent = new EventIDHolder(eventId);
+                if (versionTimeStamp > 0) {
+                  VersionTag tag = VersionTag.create(region.getVersionMember());
+                  tag.setIsGatewayTag(true);
+                  tag.setVersionTimeStamp(versionTimeStamp);
+                  tag.setDistributedSystemId(dsid);
+                  clientEvent.setVersionTag(tag);
+                }
+                handleMessageRetry(region, clientEvent);
+                // Destroy the entry
+                AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
+                if (authzRequest != null) {
+                  DestroyOperationContext destroyContext =
+                      authzRequest.destroyAuthorize(regionName, key, callbackArg);
+                  callbackArg = destroyContext.getCallbackArg();
+                }
+                try {
+                  region.basicBridgeDestroy(key, callbackArg, serverConnection.getProxyID(),
+                      false, clientEvent);
+                  lane.modified(partNumber, regionName, key);
+                } catch (EntryNotFoundException e) {
+                  logger.info("{}: during batch destroy no entry was found for key {}",
+                      serverConnection.getName(), key);
+                }
+                stats.incDestroyRequest();
+                retry = false;
+              }
+            } catch (Exception e) {
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch destroy request %s containing %s events",
+                  serverConnection.getName(), batchId, numberOfEvents),
+                  e);
+              handleException(removeOnException, stats, e);
+            }
+            break;
+
+          case 3: // Update Time-stamp for a RegionEntry
+            try {
+              // Region name
+              regionNamePart = clientMessage.getPart(partNumber + 2);
+              regionName = regionNamePart.getCachedString();
+
+              // Retrieve the event id from the message parts
+              eventIdPart = clientMessage.getPart(partNumber + 3);
+              eventId = (EventID) eventIdPart.getObject();
+
+              // Retrieve the key from the message parts
+              keyPart = clientMessage.getPart(partNumber + 4);
+              key = keyPart.getStringOrObject();
+
+              // Retrieve the callbackArg from the message parts if necessary
+              index = partNumber + 5;
+              callbackArgExistsPart = clientMessage.getPart(index++);
+
+              byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+              callbackArgExists = partBytes[0] == 0x01;
+
+              if (callbackArgExists) {
+                callbackArgPart = clientMessage.getPart(index++);
+                callbackArg = callbackArgPart.getObject();
+              }
+
+              versionTimeStamp = clientMessage.getPart(index++).getLong();
+              if (logger.isDebugEnabled()) {
+                logger.debug(
+                    "{}: Processing batch update-version request {} on {} for region {} key {} value {} callbackArg {}",
+                    serverConnection.getName(), batchId, serverConnection.getSocketString(),
+                    regionName, key, valuePart, callbackArg);
+              }
+              // Process the update time-stamp request
+              if (key == null || regionName == null) {
+                String message =
+                    "%s: Caught exception processing batch update version request request %s containing %s events";
+
+                String s = String.format(message, serverConnection.getName(),
+                    batchId, numberOfEvents);
+                logger.warn(s);
+                throw new Exception(s);
+
+              } else {
                 region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
+
                 if (region == null) {
                   handleRegionNull(serverConnection, regionName, batchId);
                 } else {
+
                   clientEvent = new EventIDHolder(eventId);
+
                   if (versionTimeStamp > 0) {
                     VersionTag tag = VersionTag.create(region.getVersionMember());
                     tag.setIsGatewayTag(true);
@@ -509,207 +833,106 @@ public class GatewayReceiverCommand extends BaseCommand {
                     tag.setDistributedSystemId(dsid);
                     clientEvent.setVersionTag(tag);
                   }
-                  handleMessageRetry(region, clientEvent);
-                  // Destroy the entry
-                  AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
-                  if (authzRequest != null) {
-                    DestroyOperationContext destroyContext =
-                        authzRequest.destroyAuthorize(regionName, key, callbackArg);
-                    callbackArg = destroyContext.getCallbackArg();
-                  }
+
+                  // Update the version tag
                   try {
-                    region.basicBridgeDestroy(key, callbackArg, serverConnection.getProxyID(),
-                        false, clientEvent);
-                    serverConnection.setModificationInfo(true, regionName, key);
+                    region.basicBridgeUpdateVersionStamp(key, callbackArg,
+                        serverConnection.getProxyID(), false, clientEvent);
                   } catch (EntryNotFoundException e) {
-                    logger.info("{}: during batch destroy no entry was found for key {}",
+                    logger.info(
+                        "Entry for key {} was not found in Region {} during ProcessBatch for Update Entry Version",
                         serverConnection.getName(), key);
                   }
-                  stats.incDestroyRequest();
                   retry = false;
                 }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch destroy request %s containing %s events",
-                    serverConnection.getName(), batchId, numberOfEvents),
-                    e);
-                handleException(removeOnException, stats, e);
-              }
-              break;
-
-            case 3: // Update Time-stamp for a RegionEntry
-              try {
-                // Region name
-                regionNamePart = clientMessage.getPart(partNumber + 2);
-                regionName = regionNamePart.getCachedString();
-
-                // Retrieve the event id from the message parts
-                eventIdPart = clientMessage.getPart(partNumber + 3);
-                eventId = (EventID) eventIdPart.getObject();
-
-                // Retrieve the key from the message parts
-                keyPart = clientMessage.getPart(partNumber + 4);
-                key = keyPart.getStringOrObject();
-
-                // Retrieve the callbackArg from the message parts if necessary
-                index = partNumber + 5;
-                callbackArgExistsPart = clientMessage.getPart(index++);
-
-                byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
-                callbackArgExists = partBytes[0] == 0x01;
-
-                if (callbackArgExists) {
-                  callbackArgPart = clientMessage.getPart(index++);
-                  callbackArg = callbackArgPart.getObject();
-                }
-
-                versionTimeStamp = clientMessage.getPart(index++).getLong();
-                if (logger.isDebugEnabled()) {
-                  logger.debug(
-                      "{}: Processing batch update-version request {} on {} for region {} key {} value {} callbackArg {}",
-                      serverConnection.getName(), batchId, serverConnection.getSocketString(),
-                      regionName, key, valuePart, callbackArg);
-                }
-                // Process the update time-stamp request
-                if (key == null || regionName == null) {
-                  String message =
-                      "%s: Caught exception processing batch update version request request %s containing %s events";
-
-                  String s = String.format(message, serverConnection.getName(),
-                      batchId, numberOfEvents);
-                  logger.warn(s);
-                  throw new Exception(s);
-
-                } else {
-                  region = (LocalRegion) crHelper.getCacheForGatewayCommand().getRegion(regionName);
-
-                  if (region == null) {
-                    handleRegionNull(serverConnection, regionName, batchId);
-                  } else {
-
-                    clientEvent = new EventIDHolder(eventId);
-
-                    if (versionTimeStamp > 0) {
-                      VersionTag tag = VersionTag.create(region.getVersionMember());
-                      tag.setIsGatewayTag(true);
-                      tag.setVersionTimeStamp(versionTimeStamp);
-                      tag.setDistributedSystemId(dsid);
-                      clientEvent.setVersionTag(tag);
-                    }
-
-                    // Update the version tag
-                    try {
-                      region.basicBridgeUpdateVersionStamp(key, callbackArg,
-                          serverConnection.getProxyID(), false, clientEvent);
-                    } catch (EntryNotFoundException e) {
-                      logger.info(
-                          "Entry for key {} was not found in Region {} during ProcessBatch for Update Entry Version",
-                          serverConnection.getName(), key);
-                    }
-                    retry = false;
-                  }
-                }
-              } catch (Exception e) {
-                logger.warn(String.format(
-                    "%s: Caught exception processing batch update version request request %s containing %s events",
-                    serverConnection.getName(), batchId, numberOfEvents), e);
-                handleException(removeOnException, stats, e);
               }
+            } catch (Exception e) {
+              logger.warn(String.format(
+                  "%s: Caught exception processing batch update version request request %s containing %s events",
+                  serverConnection.getName(), batchId, numberOfEvents), e);
+              handleException(removeOnException, stats, e);
+            }
 
-              break;
-            default:
-              logger.fatal("{}: Unknown action type ({}) for batch from {}",
-                  serverConnection.getName(), actionType, serverConnection.getSocketString());
-              stats.incUnknowsOperationsReceived();
-          }
-        } while (retry);
-      } catch (CancelException e) {
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              "{} ignoring message of type {} from client {} because shutdown occurred during message processing.",
-              serverConnection.getName(), MessageType.getString(clientMessage.getMessageType()),
-              serverConnection.getProxyID());
-        }
-        serverConnection.setFlagProcessMessagesAsFalse();
-        serverConnection.setClientDisconnectedException(e);
-        return;
-      } catch (Exception e) {
-        // If an interrupted exception is thrown , rethrow it
-        checkForInterrupt(serverConnection, e);
-
-        // If we have an issue with the PDX registry, stop processing more data
-        if (e.getCause() instanceof PdxRegistryMismatchException) {
-          fatalException = e.getCause();
-          logger.fatal(String.format(
-              "This gateway receiver has received a PDX type from %s that does match the existing PDX type. This gateway receiver will not process any more events, in order to prevent receiving objects which may not be deserializable.",
-              serverConnection.getMembershipID()), e.getCause());
-          break;
+            break;
+          default:
+            logger.fatal("{}: Unknown action type ({}) for batch from {}",
+                serverConnection.getName(), actionType, serverConnection.getSocketString());
+            stats.incUnknowsOperationsReceived();
         }
+      } while (retry && !batch.isStopped());
+    } catch (CancelException e) {
+      batch.cancelException = e;
+    } catch (Exception e) {
+      // If an interrupted exception is thrown , rethrow it
+      checkForInterrupt(serverConnection, e);
 
-        // Increment the batch id unless the received batch id is -1 (a
-        // failover batch)
-        DistributedSystem ds = crHelper.getCacheForGatewayCommand().getDistributedSystem();
-        String exceptionMessage = String.format(
-            "Exception occurred while processing a batch on the receiver running on DistributedSystem with Id: %s, DistributedMember on which the receiver is running: %s",
-            ((InternalDistributedSystem) ds).getDistributionManager().getDistributedSystemId(),
-            ds.getDistributedMember());
-        BatchException70 be =
-            new BatchException70(exceptionMessage, e, indexWithoutPDXEvent, batchId);
-        exceptions.add(be);
-      } finally {
-        // Increment the partNumber
-        if (actionType == 0 /* create */ || actionType == 1 /* update */) {
-          if (callbackArgExists) {
-            partNumber += 9;
-          } else {
-            partNumber += 8;
-          }
-        } else if (actionType == 2 /* destroy */) {
-          if (callbackArgExists) {
-            partNumber += 8;
-          } else {
-            partNumber += 7;
-          }
-        } else if (actionType == 3 /* update-version */) {
-          if (callbackArgExists) {
-            partNumber += 8;
-          } else {
-            partNumber += 7;
-          }
-        }
+      // If we have an issue with the PDX registry, stop processing more data; the other lanes stop
+      // before their next event or retry
+      if (e.getCause() instanceof PdxRegistryMismatchException) {
+        batch.fatalException = e.getCause();
+        logger.fatal(String.format(
+            "This gateway receiver has received a PDX type from %s that does match the existing PDX type. This gateway receiver will not process any more events, in order to prevent receiving objects which may not be deserializable.",
+            serverConnection.getMembershipID()), e.getCause());
+        return;
       }
+
+      // Increment the batch id unless the received batch id is -1 (a
+      // failover batch)
+      DistributedSystem ds = crHelper.getCacheForGatewayCommand().getDistributedSystem();
+      String exceptionMessage = String.format(
+          "Exception occurred while processing a batch on the receiver running on DistributedSystem with Id: %s, DistributedMember on which the receiver is running: %s",
+          ((InternalDistributedSystem) ds).getDistributionManager().getDistributedSystemId(),
+          ds.getDistributedMember());
+      BatchException70 be =
+          new BatchException70(exceptionMessage, e, indexWithoutPDXEvent, batchId);
+      batch.exceptions.add(be);
     }
+  }
 
-    {
-      long oldStart = start;
-      start = DistributionStats.getStatTime();
-      stats.incProcessBatchTime(start - oldStart);
+  private static boolean isPdxEvent(Message clientMessage, int partNumber) {
+    return PeerTypeRegistration.REGION_FULL_PATH
+        .equals(clientMessage.getPart(partNumber + 2).getCachedString());
+  }
+
+  /**
+   * @return the number of parts of the event that starts at the given part, or 0 if the action of
+   *         the event is unknown
+   */
+  private static int numberOfParts(Message clientMessage, int partNumber) {
+    int actionType = clientMessage.getPart(partNumber).getInt();
+    boolean callbackArgExists;
+    switch (actionType) {
+      case 0: // create
+      case 1: // update
+        callbackArgExists = callbackArgExists(clientMessage.getPart(partNumber + 6));
+        return callbackArgExists ? 9 : 8;
+      case 2: // destroy
+      case 3: // update-version
+        callbackArgExists = callbackArgExists(clientMessage.getPart(partNumber + 5));
+        return callbackArgExists ? 8 : 7;
+      default:
+        return 0;
     }
-    if (fatalException != null) {
-      serverConnection.incrementLatestBatchIdReplied(batchId);
-      writeFatalException(clientMessage, fatalException, serverConnection, batchId);
-      serverConnection.setAsTrue(RESPONDED);
-    } else if (!exceptions.isEmpty()) {
-      serverConnection.incrementLatestBatchIdReplied(batchId);
-      writeBatchException(clientMessage, exceptions, serverConnection, batchId);
-      serverConnection.setAsTrue(RESPONDED);
-    } else {
-      // Increment the batch id unless the received batch id is -1 (a failover
-      // batch)
-      serverConnection.incrementLatestBatchIdReplied(batchId);
+  }
 
-      writeReply(clientMessage, serverConnection, batchId, numberOfEvents);
-      serverConnection.setAsTrue(RESPONDED);
-      stats.incWriteProcessBatchResponseTime(DistributionStats.getStatTime() - start);
-      if (logger.isDebugEnabled()) {
-        logger.debug(
-            "{}: Sent process batch normal response for batch {} containing {} events ({} bytes) with {} acknowledgement on {}",
-            serverConnection.getName(), batchId, numberOfEvents, clientMessage.getPayloadLength(),
-            "normal", serverConnection.getSocketString());
-      }
+  private static boolean callbackArgExists(Part callbackArgExistsPart) {
+    try {
+      byte[] partBytes = (byte[]) callbackArgExistsPart.getObject();
+      return partBytes[0] == 0x01;
+    } catch (Exception e) {
+      // applying the event reports the failure
+      return false;
     }
   }
 
+  /**
+   * @return the hash of the serialized key of the event, which is the same for all the events the
+   *         sender sends on one key, so the key is only deserialized once its event is applied
+   */
+  private static int keyHash(Message clientMessage, int partNumber) {
+    return Arrays.hashCode(clientMessage.getPart(partNumber + 4).getSerializedForm());
+  }
+
   private boolean addPdxType(CachedRegionHelper crHelper, Object key, Object value)
       throws Exception {
     if (key instanceof EnumId) {
@@ -754,6 +977,112 @@ public class GatewayReceiverCommand extends BaseCommand {
     }
   }
 
+  /**
+   * The state of a batch that is being applied, which may be shared by several threads
+   */
+  private static class ReceivedBatch {
+    private final Message clientMessage;
+    private final ServerConnection serverConnection;
+    private final CachedRegionHelper crHelper;
+    private final GatewayReceiverStats stats;
+    private final int batchId;
+    private final int numberOfEvents;
+    private final int dsid;
+    private final boolean removeOnException;
+    private final List<BatchException70> exceptions =
+        Collections.synchronizedList(new ArrayList<>());
+    /** the lanes of the batch, only added to by the connection thread */
+    private final List<Lane> lanes = new ArrayList<>();
+    private volatile Throwable fatalException;
+    private volatile CancelException cancelException;
+    private volatile boolean laneFailed;
+
+    ReceivedBatch(Message clientMessage, ServerConnection serverConnection,
+        CachedRegionHelper crHelper, GatewayReceiverStats stats, int batchId, int numberOfEvents,
+        int dsid, boolean removeOnException) {
+      this.clientMessage = clientMessage;
+      this.serverConnection = serverConnection;
+      this.crHelper = crHelper;
+      this.stats = stats;
+      this.batchId = batchId;
+      this.numberOfEvents = numberOfEvents;
+      this.dsid = dsid;
+      this.removeOnException = removeOnException;
+    }
+
+    Lane addLane(GatewayBatchCompressor.Decompressor decompressor) {
+      Lane lane = new Lane(decompressor);
+      lanes.add(lane);
+      return lane;
+    }
+
+    /**
+     * @return whether no more events of the batch are applied
+     */
+    boolean isStopped() {
+      return fatalException != null || cancelException != null || laneFailed;
+    }
+
+    /**
+     * Records the last event of the batch that modified a region on the connection, once all the
+     * lanes are done
+     */
+    void recordModification() {
+      Lane last = null;
+      for (Lane lane : lanes) {
+        if (lane.modifiedPart >= 0 && (last == null || lane.modifiedPart > last.modifiedPart)) {
+          last = lane;
+        }
+      }
+      if (last != null) {
+        serverConnection.setModificationInfo(true, last.modifiedRegion, last.modifiedKey);
+      }
+    }
+
+    /**
+     * @return the exceptions of the events that failed, in the order of the events
+     */
+    List<BatchException70> getExceptions() {
+      List<BatchException70> sorted = new ArrayList<>(exceptions);
+      sorted.sort(Comparator.comparingInt(BatchException70::getIndex));
+      return sorted;
+    }
+  }
+
+  /**
+   * The state kept by the thread that applies some of the events of a batch, which is not shared
+   * with the threads that apply the other events
+   */
+  private static class Lane {
+    private final GatewayBatchCompressor.Decompressor decompressor;
+    /** the first part of the last event of this lane that modified a region, or -1 */
+    private int modifiedPart = -1;
+    private String modifiedRegion;
+    private Object modifiedKey;
+
+    Lane(GatewayBatchCompressor.Decompressor decompressor) {
+      this.decompressor = decompressor;
+    }
+
+    void modified(int partNumber, String regionName, Object key) {
+      modifiedPart = partNumber;
+      modifiedRegion = regionName;
+      modifiedKey = key;
+    }
+  }
+
+  private byte[] getValue(Part valuePart, GatewayBatchCompressor.Decompressor decompressor,
+      GatewayReceiverStats stats) throws DataFormatException {
+    byte[] value = valuePart.getSerializedForm();
+    if (decompressor == null || value == null) {
+      return value;
+    }
+    long start = stats.startTime();
+    value = decompressor.decompress(value);
+    stats.endValueDecompression(start, value.length);
+    return value;
+  }
+
   private void writeReply(Message msg, ServerConnection servConn, int batchId, int numberOfEvents)
       throws IOException {
     Message replyMsg = servConn.getResponseMessage();
@@ -129,6 +129,13 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   private final Map<Integer, List<GatewaySenderEventImpl>> batchIdToPDXEventsMap =
       Collections.synchronizedMap(new HashMap<>());
 
+  /**
+   * The ids of the batches in batchIdToEventsMap that have been dispatched and not acknowledged yet,
+   * in the order they were dispatched.
+   */
+  private final GatewaySenderBatchWindow batchWindow =
+      new GatewaySenderBatchWindow(MAX_IN_FLIGHT_BATCHES);
+
   private final List<GatewaySenderEventImpl> pdxSenderEventsList = new ArrayList<>();
   private final Map<Object, GatewaySenderEventImpl> pdxEventsMap = new HashMap<>();
   private volatile boolean rebuildPdxList = false;
@@ -372,6 +379,13 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   protected static final int FAILURE_LOG_MAX_INTERVAL = Integer.getInteger(
       GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.FAILURE_LOG_MAX_INTERVAL", 300000);
 
+  /**
+   * The maximum number of batches a processor dispatches to the remote site before it waits for the
+   * oldest of them to be acknowledged. The default of 0 means no limit.
+   */
+  public static final int MAX_IN_FLIGHT_BATCHES = Integer.getInteger(
+      GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.MAX_IN_FLIGHT_BATCHES", 0);
+
   public boolean skipFailureLogging(Integer batchId) {
     boolean skipLogging = false;
     // if map has become large then give up on new events but we don't expect
@@ -465,6 +479,13 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
           // sleep a little bit, look for events
           boolean interrupted = Thread.interrupted();
           try {
+            // wait for an ack if too many batches are in flight, unless the batches in flight
+            // are about to be dispatched again
+            if (!(dispatcher instanceof GatewaySenderEventCallbackDispatcher)
+                && !batchWindow.awaitCapacity(() -> stopped() || isPaused || resetLastPeekedEvents)
+                && !resetLastPeekedEvents) {
+              continue;
+            }
             if (resetLastPeekedEvents) {
               resetLastPeekedEvents();
               resetLastPeekedEvents = false;
@@ -607,6 +628,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
               eventsArr[0] = events;
               eventsArr[1] = filteredList;
               batchIdToEventsMap.put(getBatchId(), eventsArr);
+              batchWindow.dispatched(getBatchId());
               // find out PDX event and append it in front of the list
               pdxEventsToBeDispatched = addPDXEvent();
               eventsToBeDispatched.addAll(pdxEventsToBeDispatched);
@@ -905,7 +927,16 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   }
 
   private void resetLastPeekedEvents() {
-    batchIdToEventsMap.clear();
+    // the remote site may already have applied the batches that are in flight
+    synchronized (batchIdToEventsMap) {
+      for (List<GatewaySenderEventImpl>[] eventsArr : batchIdToEventsMap.values()) {
+        for (GatewaySenderEventImpl event : eventsArr[0]) {
+          event.setPossibleDuplicate(true);
+        }
+      }
+      batchIdToEventsMap.clear();
+    }
+    batchWindow.clear();
     // make sure that when there is problem while receiving ack, pdx gateway
     // sender events isDispatched is set to false so that same events will be
     // dispatched in next batch
@@ -983,9 +1014,19 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
     final GatewaySenderStats statistics = sender.getStatistics();
     statistics.incBatchesRedistributed();
     resetLastPeekedEvents = true;
+    batchWindow.wakeUp();
   }
 
   public void handleSuccessBatchAck(int batchId) {
+    if (batchWindow.acknowledged(batchId) == GatewaySenderBatchWindow.Ack.OUT_OF_ORDER) {
+      // the events are removed from the head of the queue, so an ack can only be applied after
+      // the acks of every batch dispatched before it
+      logger.warn(
+          "{}: Received ack for batch id {} before the acks of the batches dispatched before it. The unacknowledged batches will be dispatched again.",
+          sender, batchId);
+      handleException();
+      return;
+    }
     // this is to acknowledge PDX related events
     List<GatewaySenderEventImpl> pdxEvents = batchIdToPDXEventsMap.remove(batchId);
     if (pdxEvents != null) {
@@ -1189,6 +1230,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
           // try to stop it again
           dispatcher.stop();
           batchIdToEventsMap.clear();
+          batchWindow.clear();
         }
       } catch (InterruptedException ex) {
         Thread.currentThread().interrupt();
@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * Compresses the serialized values of the events in the batches that a gateway sender dispatches
+ * on one connection. Values are compressed one at a time with deflate and a preset dictionary.
+ * Event values of a region tend to share most of their bytes, such as PDX headers, field layouts
+ * and common strings, so a dictionary made of recently sent values lets even small values
+ * compress well.
+ * <p>
+ * The dictionary is rebuilt from samples of the values sent every {@link #TRAINING_INTERVAL}
+ * batches. A batch carries the dictionary its values were compressed with whenever the receiver
+ * may not have it yet, that is after the dictionary changed or the connection was replaced. The
+ * receiver keeps the latest dictionary of each connection in a {@link Decompressor}.
+ * <p>
+ * An instance is used only by the thread that dispatches the batches, except for {@link #close},
+ * which releases the native resources of the deflater once the dispatcher stops.
+ *
+ * @since Geode 1.15
+ */
+public class GatewayBatchCompressor {
+
+  /**
+   * Whether gateway senders compress the values of the batches they send to receivers that
+   * support it
+   */
+  public static final boolean COMPRESS_BATCHES =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.COMPRESS_BATCHES");
+
+  /**
+   * The bit of the batch flags that says the values of the batch are compressed and that the
+   * flags are followed by a dictionary part
+   */
+  public static final byte VALUES_COMPRESSED = 0x02;
+
+  /**
+   * The number of batches after which the dictionary is rebuilt from the latest samples
+   */
+  static final int TRAINING_INTERVAL = 64;
+
+  /**
+   * Deflate only refers back 32K bytes, so a larger dictionary would not help
+   */
+  static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+  /**
+   * The number of bytes sampled from the start of a value, where the serialized type information
+   * is
+   */
+  static final int MAX_SAMPLE_SIZE = 512;
+
+  /**
+   * Values shorter than this are sent as they are
+   */
+  static final int MIN_COMPRESSED_SIZE = 32;
+
+  /**
+   * The largest value a receiver decompresses. A compressed value claiming to be larger is
+   * rejected rather than allocated.
+   */
+  public static final int MAX_DECOMPRESSED_SIZE = Integer.getInteger(
+      GeodeGlossary.GEMFIRE_PREFIX + "GatewayReceiver.MAX_DECOMPRESSED_VALUE_SIZE",
+      1024 * 1024 * 1024);
+
+  /**
+   * Deflate cannot compress data by more than this ratio, so a compressed value claiming to be
+   * larger than its compressed bytes allow is corrupt
+   */
+  private static final int MAX_DEFLATE_RATIO = 1032;
+
+  private static final byte STORED = 0;
+  private static final byte DEFLATED = 1;
+
+  private static final byte SAME_DICTIONARY = 0;
+  private static final byte NEW_DICTIONARY = 1;
+
+  private static final byte[] NO_DICTIONARY = new byte[0];
+
+  private final GatewaySenderStats statistics;
+
+  private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+  /** whether the deflater has been ended, guarded by the deflater */
+  private boolean closed;
+
+  private final Deque<byte[]> samples = new ArrayDeque<>();
+
+  private int sampledBytes;
+
+  private byte[] dictionary = NO_DICTIONARY;
+
+  /** the connection the receiver of which has the current dictionary */
+  private Object dictionarySentOn;
+
+  private int batchesSinceTraining;
+
+  private byte[] buffer = new byte[1024];
+
+  private long batchStart;
+
+  private long batchBytesIn;
+
+  private long batchBytesOut;
+
+  public GatewayBatchCompressor(GatewaySenderStats statistics) {
+    this.statistics = statistics;
+  }
+
+  /**
+   * Starts compressing a batch to be sent on the given connection.
+   *
+   * @return the dictionary part to send after the batch flags
+   */
+  public byte[] startBatch(Object connection) {
+    batchStart = statistics.startTime();
+    batchBytesIn = 0;
+    batchBytesOut = 0;
+    if (++batchesSinceTraining >= TRAINING_INTERVAL && sampledBytes > 0) {
+      train();
+      batchesSinceTraining = 0;
+    }
+    if (connection == dictionarySentOn) {
+      return new byte[] {SAME_DICTIONARY};
+    }
+    byte[] part = new byte[dictionary.length + 1];
+    part[0] = NEW_DICTIONARY;
+    System.arraycopy(dictionary, 0, part, 1, dictionary.length);
+    return part;
+  }
+
+  /**
+   * @return the compressed form of a serialized value of the current batch
+   */
+  public byte[] compress(byte[] value) {
+    if (value == null || value.length == 0) {
+      return value;
+    }
+    sample(value);
+    byte[] compressed;
+    if (value.length < MIN_COMPRESSED_SIZE) {
+      compressed = stored(value);
+    } else {
+      compressed = deflate(value);
+    }
+    batchBytesIn += value.length;
+    batchBytesOut += compressed.length;
+    return compressed;
+  }
+
+  /**
+   * Records the statistics of the current batch once all of its values are compressed
+   */
+  public void endBatch() {
+    statistics.endBatchCompression(batchStart, batchBytesIn, batchBytesOut);
+  }
+
+  /**
+   * Records that a batch, and with it the current dictionary, was sent on the given connection
+   */
+  public void batchSent(Object connection) {
+    dictionarySentOn = connection;
+  }
+
+  /**
+   * Releases the native resources of the deflater. Values compressed afterwards are stored as
+   * they are.
+   */
+  public void close() {
+    synchronized (deflater) {
+      if (!closed) {
+        closed = true;
+        deflater.end();
+      }
+    }
+  }
+
+  private byte[] deflate(byte[] value) {
+    synchronized (deflater) {
+      if (closed) {
+        return stored(value);
+      }
+      deflater.reset();
+      if (dictionary.length > 0) {
+        deflater.setDictionary(dictionary);
+      }
+      deflater.setInput(value);
+      deflater.finish();
+      // the header holds the marker and the uncompressed length
+      int length = 5;
+      while (!deflater.finished()) {
+        if (length == buffer.length) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        length += deflater.deflate(buffer, length, buffer.length - length);
+        if (length >= value.length) {
+          return stored(value);
+        }
+      }
+      ByteBuffer.wrap(buffer).put(DEFLATED).putInt(value.length);
+      return Arrays.copyOf(buffer, length);
+    }
+  }
+
+  private static byte[] stored(byte[] value) {
+    byte[] stored = new byte[value.length + 1];
+    stored[0] = STORED;
+    System.arraycopy(value, 0, stored, 1, value.length);
+    return stored;
+  }
+
+  private void sample(byte[] value) {
+    byte[] sample = Arrays.copyOf(value, Math.min(value.length, MAX_SAMPLE_SIZE));
+    samples.addLast(sample);
+    sampledBytes += sample.length;
+    while (sampledBytes - samples.peekFirst().length >= MAX_DICTIONARY_SIZE) {
+      sampledBytes -= samples.removeFirst().length;
+    }
+  }
+
+  /**
+   * Builds the dictionary from the samples. Deflate encodes nearer matches with fewer bits, so the
+   * latest samples go at the end.
+   */
+  private void train() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(sampledBytes);
+    for (byte[] sample : samples) {
+      out.write(sample, 0, sample.length);
+    }
+    byte[] trained = out.toByteArray();
+    if (trained.length > MAX_DICTIONARY_SIZE) {
+      trained = Arrays.copyOfRange(trained, trained.length - MAX_DICTIONARY_SIZE, trained.length);
+    }
+    dictionary = trained;
+    dictionarySentOn = null;
+  }
+
+  byte[] getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * Decompresses the values of the batches received on one connection. The threads that apply a
+   * batch in parallel each use a decompressor of their own, with the dictionary of the
+   * connection's one.
+   */
+  public static class Decompressor {
+
+    private final Inflater inflater = new Inflater(true);
+
+    private byte[] dictionary = NO_DICTIONARY;
+
+    /**
+     * Applies the dictionary part of a batch, which must be done even if the batch itself is not
+     * processed because later batches may use the same dictionary.
+     */
+    public void updateDictionary(byte[] part) {
+      if (part != null && part.length > 0 && part[0] == NEW_DICTIONARY) {
+        dictionary = Arrays.copyOfRange(part, 1, part.length);
+      }
+    }
+
+    /**
+     * Uses the dictionary the given decompressor currently has
+     */
+    public void useDictionaryOf(Decompressor decompressor) {
+      dictionary = decompressor.dictionary;
+    }
+
+    /**
+     * @return the serialized value of which the given bytes are the compressed form
+     */
+    public byte[] decompress(byte[] compressed) throws DataFormatException {
+      if (compressed == null || compressed.length == 0) {
+        return compressed;
+      }
+      if (compressed[0] == STORED) {
+        return Arrays.copyOfRange(compressed, 1, compressed.length);
+      }
+      if (compressed.length < 5) {
+        throw new DataFormatException("Compressed value of " + compressed.length
+            + " bytes is too short for its header");
+      }
+      ByteBuffer header = ByteBuffer.wrap(compressed);
+      header.get();
+      int size = header.getInt();
+      long maxSize = Math.min(MAX_DECOMPRESSED_SIZE,
+          (long) (compressed.length - 5) * MAX_DEFLATE_RATIO + MAX_DEFLATE_RATIO);
+      if (size < 0 || size > maxSize) {
+        throw new DataFormatException("Compressed value of " + compressed.length
+            + " bytes claims an uncompressed size of " + size + " bytes, more than the "
+            + maxSize + " bytes allowed");
+      }
+      byte[] value = new byte[size];
+      inflater.reset();
+      if (dictionary.length > 0) {
+        inflater.setDictionary(dictionary);
+      }
+      inflater.setInput(compressed, 5, compressed.length - 5);
+      int length = 0;
+      while (length < value.length) {
+        int inflated = inflater.inflate(value, length, value.length - length);
+        if (inflated == 0
+            && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+          throw new DataFormatException(
+              "Compressed value ended after " + length + " of " + value.length + " bytes");
+        }
+        length += inflated;
+      }
+      return value;
+    }
+
+    /**
+     * Releases the native resources of this decompressor
+     */
+    public void close() {
+      inflater.end();
+    }
+  }
+}
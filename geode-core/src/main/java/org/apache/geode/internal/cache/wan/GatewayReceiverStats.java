@@ -81,6 +81,16 @@ public class GatewayReceiverStats extends CacheServerStats {
    * Name of the events retried
    */
   private static final String EVENTS_RETRIED = "eventsRetried";
+
+  /**
+   * Name of the batch value bytes decompressed statistic
+   */
+  private static final String BATCH_VALUE_BYTES_DECOMPRESSED = "batchValueBytesDecompressed";
+
+  /**
+   * Name of the batch decompression time statistic
+   */
+  private static final String BATCH_DECOMPRESSION_TIME = "batchDecompressionTime";
   private final MeterRegistry meterRegistry;
 
   // /** Id of the events queued statistic */
@@ -142,6 +152,16 @@ public class GatewayReceiverStats extends CacheServerStats {
    */
   private int eventsRetriedId;
 
+  /**
+   * Id of the batch value bytes decompressed statistic
+   */
+  private int batchValueBytesDecompressedId;
+
+  /**
+   * Id of the batch decompression time statistic
+   */
+  private int batchDecompressionTimeId;
+
   // ///////////////////// Constructors ///////////////////////
 
   public static GatewayReceiverStats createGatewayReceiverStats(StatisticsFactory f,
@@ -168,7 +188,11 @@ public class GatewayReceiverStats extends CacheServerStats {
         f.createIntCounter(EXCEPTIONS_OCCURRED,
             "number of exceptions occurred while porcessing the batches", "operations"),
         f.createIntCounter(EVENTS_RETRIED,
-            "total number events retried by this GatewayReceiver due to exceptions", "operations")};
+            "total number events retried by this GatewayReceiver due to exceptions", "operations"),
+        f.createLongCounter(BATCH_VALUE_BYTES_DECOMPRESSED,
+            "total size of the event values of compressed batches after decompression", "bytes"),
+        f.createLongCounter(BATCH_DECOMPRESSION_TIME,
+            "total time spent decompressing the event values of batches", "nanoseconds")};
     return new GatewayReceiverStats(f, ownerName, typeName, descriptors, meterRegistry);
 
   }
@@ -188,6 +212,8 @@ public class GatewayReceiverStats extends CacheServerStats {
     unknowsOperationsReceivedId = statType.nameToId(UNKNOWN_OPERATIONS_RECEIVED);
     exceptionsOccurredId = statType.nameToId(EXCEPTIONS_OCCURRED);
     eventsRetriedId = statType.nameToId(EVENTS_RETRIED);
+    batchValueBytesDecompressedId = statType.nameToId(BATCH_VALUE_BYTES_DECOMPRESSED);
+    batchDecompressionTimeId = statType.nameToId(BATCH_DECOMPRESSION_TIME);
 
     this.meterRegistry = meterRegistry;
     eventsReceivedCounter = LegacyStatCounter.builder(EVENTS_RECEIVED_COUNTER_NAME)
@@ -320,6 +346,18 @@ public class GatewayReceiverStats extends CacheServerStats {
     return this.stats.getInt(eventsRetriedId);
   }
 
+  /**
+   * Increments the size of the decompressed values and the time spent decompressing them.
+   */
+  public void endValueDecompression(long start, int decompressedBytes) {
+    this.stats.incLong(batchValueBytesDecompressedId, decompressedBytes);
+    this.stats.incLong(batchDecompressionTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  public long getBatchValueBytesDecompressed() {
+    return this.stats.getLong(batchValueBytesDecompressedId);
+  }
+
   /**
    * Returns the current time (ns).
    *
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The ids of the batches that a gateway sender event processor has dispatched on its connection
+ * and that the remote site has not acknowledged yet, in the order they were dispatched. The
+ * processor does not wait for the ack of a batch before dispatching the next one, so several
+ * batches may be in flight at once. This bounds how many, and checks that the acks arrive in the
+ * order the batches were dispatched, which the processor relies on when it removes acknowledged
+ * events from the head of its queue.
+ *
+ * @since Geode 1.15
+ */
+class GatewaySenderBatchWindow {
+
+  /**
+   * How long to wait for an ack before checking whether to stop waiting
+   */
+  private static final long WAIT_INTERVAL_MILLIS = 100;
+
+  /**
+   * The result of acknowledging a batch
+   */
+  enum Ack {
+    /** the batch was the oldest one in flight and has been removed from the window */
+    IN_ORDER,
+    /** the batch is in flight but older batches have not been acknowledged */
+    OUT_OF_ORDER,
+    /** the batch is not in flight, for example because the window was cleared */
+    UNKNOWN
+  }
+
+  private final int maxInFlight;
+
+  private final Deque<Integer> inFlight = new ArrayDeque<>();
+
+  /**
+   * @param maxInFlight the maximum number of batches in flight, or 0 for no limit
+   */
+  GatewaySenderBatchWindow(int maxInFlight) {
+    this.maxInFlight = Math.max(0, maxInFlight);
+  }
+
+  int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * Waits until another batch may be dispatched.
+   *
+   * @param stopWaiting checked periodically while waiting
+   * @return false if stopWaiting returned true before another batch could be dispatched
+   */
+  boolean awaitCapacity(BooleanSupplier stopWaiting) throws InterruptedException {
+    if (maxInFlight == 0) {
+      return true;
+    }
+    synchronized (inFlight) {
+      while (inFlight.size() >= maxInFlight) {
+        if (stopWaiting.getAsBoolean()) {
+          return false;
+        }
+        inFlight.wait(WAIT_INTERVAL_MILLIS);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Records that a batch is about to be dispatched. The latest batch may be dispatched again on
+   * the same connection, in which case it keeps its place.
+   */
+  void dispatched(int batchId) {
+    synchronized (inFlight) {
+      Integer latest = inFlight.peekLast();
+      if (latest == null || latest != batchId) {
+        inFlight.addLast(batchId);
+      }
+    }
+  }
+
+  /**
+   * Records that the remote site acknowledged a batch. A batch acknowledged out of order stays in
+   * the window.
+   */
+  Ack acknowledged(int batchId) {
+    synchronized (inFlight) {
+      Integer oldest = inFlight.peekFirst();
+      if (oldest != null && oldest == batchId) {
+        inFlight.removeFirst();
+        inFlight.notifyAll();
+        return Ack.IN_ORDER;
+      }
+      return inFlight.contains(batchId) ? Ack.OUT_OF_ORDER : Ack.UNKNOWN;
+    }
+  }
+
+  /**
+   * Forgets every batch in flight, which will be dispatched again, and wakes up a processor
+   * waiting to dispatch.
+   */
+  void clear() {
+    synchronized (inFlight) {
+      inFlight.clear();
+      inFlight.notifyAll();
+    }
+  }
+
+  /**
+   * Wakes up a processor waiting to dispatch so it checks whether to stop waiting
+   */
+  void wakeUp() {
+    synchronized (inFlight) {
+      inFlight.notifyAll();
+    }
+  }
+
+  int size() {
+    synchronized (inFlight) {
+      return inFlight.size();
+    }
+  }
+}
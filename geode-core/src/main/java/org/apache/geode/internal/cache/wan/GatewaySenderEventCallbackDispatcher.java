@@ -15,6 +15,8 @@
 
 package org.apache.geode.internal.cache.wan;
 
+import static org.apache.geode.util.internal.UncheckedUtils.uncheckedCast;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -22,7 +24,10 @@ import java.util.List;
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CancelException;
+import org.apache.geode.cache.asyncqueue.AsyncEventBatch;
+import org.apache.geode.cache.asyncqueue.AsyncEventBatchListener;
 import org.apache.geode.cache.asyncqueue.AsyncEventListener;
+import org.apache.geode.cache.asyncqueue.internal.AsyncEventBatchImpl;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 /**
@@ -146,8 +151,17 @@ public class GatewaySenderEventCallbackDispatcher implements GatewaySenderEventD
     int batchId = this.eventProcessor.getBatchId();
     boolean successAll = true;
     try {
+      AsyncEventBatch batch = null;
       for (AsyncEventListener listener : this.eventListeners) {
-        boolean successOne = listener.processEvents(events);
+        boolean successOne;
+        if (listener instanceof AsyncEventBatchListener) {
+          if (batch == null) {
+            batch = new AsyncEventBatchImpl(uncheckedCast(events));
+          }
+          successOne = ((AsyncEventBatchListener) listener).processBatch(batch);
+        } else {
+          successOne = listener.processEvents(events);
+        }
         if (!successOne) {
           successAll = false;
         }
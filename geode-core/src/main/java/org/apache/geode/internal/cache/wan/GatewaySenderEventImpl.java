@@ -40,6 +40,7 @@ import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.WrappedCallbackArgument;
 import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.wan.parallel.ParallelGatewaySenderQueueLog;
 import org.apache.geode.internal.lang.ObjectUtils;
 import org.apache.geode.internal.offheap.OffHeapHelper;
 import org.apache.geode.internal.offheap.ReferenceCountHelper;
@@ -127,6 +128,21 @@ public class GatewaySenderEventImpl
 
   private transient boolean serializedValueNotAvailable;
 
+  /**
+   * The log holding the serialized value of this event once it was moved off the heap, with the
+   * location and length of the value in it
+   */
+  private transient volatile ParallelGatewaySenderQueueLog valueLog;
+  private transient long valueLocation;
+  private transient int valueLength;
+
+  /**
+   * Whether the value of this event was moved to a log, with the hash of the value, so that equals
+   * and hashCode never have to read the value back from the log
+   */
+  private transient volatile boolean valueMovedToLog;
+  private transient int loggedValueHash;
+
   /**
    * Whether the value is a serialized object or just a byte[]
    */
@@ -510,7 +526,7 @@ public class GatewaySenderEventImpl
   @Retained
   public Object getRawValue() {
     @Retained(OffHeapIdentifier.GATEWAY_SENDER_EVENT_IMPL_VALUE)
-    Object result = value;
+    Object result = getHeapOrLoggedValue();
     if (result == null) {
       result = substituteValue;
       if (result == null) {
@@ -541,7 +557,7 @@ public class GatewaySenderEventImpl
   @Override
   public Object getDeserializedValue() {
     if (valueIsObject == 0x00) {
-      Object result = value;
+      Object result = getHeapOrLoggedValue();
       if (result == null) {
         @Unretained(OffHeapIdentifier.GATEWAY_SENDER_EVENT_IMPL_VALUE)
         Object so = valueObj;
@@ -572,6 +588,14 @@ public class GatewaySenderEventImpl
           Object result = EntryEventImpl.deserialize(value);
           valueObj = result;
           return result;
+        } else if (valueLog != null) {
+          // not kept so the value stays off the heap
+          byte[] logged = getHeapOrLoggedValue();
+          if (logged == null) {
+            throw new IllegalStateException(
+                "Value is no longer available. getDeserializedValue must be called before processEvents returns.");
+          }
+          return EntryEventImpl.deserialize(logged);
         } else if (substituteValue != null) {
           // If the substitute value is set, return it.
           return substituteValue;
@@ -592,7 +616,7 @@ public class GatewaySenderEventImpl
    * value. This is a debugging exception.
    */
   public String getValueAsString(boolean deserialize) {
-    Object v = value;
+    Object v = getHeapOrLoggedValue();
     if (v == null) {
       v = substituteValue;
     }
@@ -642,6 +666,12 @@ public class GatewaySenderEventImpl
   public byte[] getSerializedValue() {
     byte[] result = value;
     if (result == null) {
+      if (valueLog != null) {
+        result = getHeapOrLoggedValue();
+        if (result != null) {
+          return result;
+        }
+      }
       if (substituteValue != null) {
         // The substitute value is set. Serialize it
         isSerializingValue.set(Boolean.TRUE);
@@ -1155,8 +1185,8 @@ public class GatewaySenderEventImpl
     // The hardcoded value below was estimated using a NullDataOutputStream
     size += Sizeable.PER_OBJECT_OVERHEAD + 56;
 
-    // The value (a byte[])
-    size += getSerializedValueSize();
+    // The value (a byte[]), or its location if it was moved to a log
+    size += valueLog != null ? 16 : getSerializedValueSize();
 
     // The callback argument (a GatewayEventCallbackArgument wrapping an Object
     // which is the original callback argument)
@@ -1255,7 +1285,25 @@ public class GatewaySenderEventImpl
         && action == that.action
         && regionPath.equals(that.regionPath)
         && key.equals(that.key)
-        && Arrays.equals(value, that.value);
+        && valueEquals(that);
+  }
+
+  private boolean valueEquals(GatewaySenderEventImpl that) {
+    if (!valueMovedToLog && !that.valueMovedToLog) {
+      return Arrays.equals(value, that.value);
+    }
+    // a logged value is compared by its length and hash rather than read back from the log
+    return valueSize() == that.valueSize() && valueHash() == that.valueHash();
+  }
+
+  private int valueSize() {
+    byte[] heapValue = value;
+    return heapValue != null ? heapValue.length : valueMovedToLog ? valueLength : -1;
+  }
+
+  private int valueHash() {
+    byte[] heapValue = value;
+    return heapValue != null ? Arrays.hashCode(heapValue) : valueMovedToLog ? loggedValueHash : 0;
   }
 
   public int hashCode() {
@@ -1266,7 +1314,7 @@ public class GatewaySenderEventImpl
     hashCode = 37 * hashCode + action;
     hashCode = 37 * hashCode + ObjectUtils.hashCode(regionPath);
     hashCode = 37 * hashCode + ObjectUtils.hashCode(key);
-    hashCode = 37 * hashCode + (value == null ? 0 : Arrays.hashCode(value));
+    hashCode = 37 * hashCode + valueHash();
     return hashCode;
   }
 
@@ -1314,12 +1362,88 @@ public class GatewaySenderEventImpl
     }
   }
 
+  /**
+   * Moves the serialized value of this event from the heap to the given log. The value is read
+   * back from the log whenever it is needed until {@link #releaseLoggedValue()} is called.
+   *
+   * @param bucketId the id of the bucket the event is queued in
+   * @return whether the value was moved
+   */
+  public synchronized boolean logValue(ParallelGatewaySenderQueueLog log, int bucketId)
+      throws IOException {
+    byte[] bytes = value;
+    if (bytes == null || valueLog != null || substituteValue != null) {
+      return false;
+    }
+    // computed while the value is still on the heap
+    getSerializedValueSize();
+    valueLocation = log.append(bucketId, bytes);
+    valueLength = bytes.length;
+    loggedValueHash = Arrays.hashCode(bytes);
+    valueLog = log;
+    valueMovedToLog = true;
+    value = null;
+    return true;
+  }
+
+  /**
+   * Frees the space the value of this event takes in the log it was moved to, after which the
+   * value is no longer available.
+   */
+  public synchronized void releaseLoggedValue() {
+    ParallelGatewaySenderQueueLog log = valueLog;
+    if (log != null) {
+      valueLog = null;
+      valueObjReleased = true;
+      log.release(valueLocation, valueLength);
+    }
+  }
+
+  public boolean isValueLogged() {
+    return valueLog != null;
+  }
+
+  /**
+   * @return the log the value of this event was moved to, or null if it is not in a log
+   */
+  public ParallelGatewaySenderQueueLog getValueLog() {
+    return valueLog;
+  }
+
+  private byte[] getHeapOrLoggedValue() {
+    byte[] result = value;
+    if (result == null) {
+      ParallelGatewaySenderQueueLog log = valueLog;
+      if (log != null) {
+        try {
+          result = log.read(valueLocation, valueLength);
+        } catch (IllegalStateException e) {
+          // the value was released, or the log closed, while it was being read
+          valueObjReleased = true;
+        } catch (IOException e) {
+          throw new InternalGemFireError(
+              "Failed to read the value of the event with shadow key " + shadowKey, e);
+        }
+      }
+    }
+    return result;
+  }
+
   /**
    * Make a heap copy of this off-heap event and return it. A copy only needs to be made if the
-   * event's value is stored off-heap. If it is already on the java heap then just return "this". If
-   * it was stored off-heap and is no longer available (because it was released) then return null.
+   * event's value is stored off-heap or in a log. If it is already on the java heap then just
+   * return "this". If it was stored off-heap or in a log and is no longer available (because it was
+   * released) then return null.
    */
   public GatewaySenderEventImpl makeHeapCopyIfOffHeap() {
+    if (valueLog != null) {
+      // the logged value may be released while the copy is in use, as an off-heap one may
+      try {
+        return makeCopy();
+      } catch (IllegalStateException ex) {
+        return null;
+      }
+    }
     if (value != null || substituteValue != null) {
       // we have the value stored on the heap so return this
       return this;
@@ -43,6 +43,8 @@ public class GatewaySenderStats {
   protected static final String EVENTS_NOT_QUEUED_CONFLATED = "eventsNotQueuedConflated";
   /** Name of the events conflated from the batch statistic */
   protected static final String EVENTS_CONFLATED_FROM_BATCHES = "eventsConflatedFromBatches";
+  /** Name of the events conflated from the queue statistic */
+  protected static final String EVENTS_CONFLATED_FROM_QUEUE = "eventsConflatedFromQueue";
   /** Name of the event queue time statistic */
   protected static final String EVENT_QUEUE_TIME = "eventQueueTime";
   /** Name of the event queue size statistic */
@@ -102,6 +104,10 @@ public class GatewaySenderStats {
   protected static final String SYNCHRONIZATION_EVENTS_ENQUEUED = "synchronizationEventsEnqueued";
   protected static final String SYNCHRONIZATION_EVENTS_PROVIDED = "synchronizationEventsProvided";
 
+  protected static final String BATCH_VALUE_BYTES_UNCOMPRESSED = "batchValueBytesUncompressed";
+  protected static final String BATCH_VALUE_BYTES_COMPRESSED = "batchValueBytesCompressed";
+  protected static final String BATCH_COMPRESSION_TIME = "batchCompressionTime";
+
   /** Id of the events queued statistic */
   private static final int eventsReceivedId;
   /** Id of the events queued statistic */
@@ -155,6 +161,8 @@ public class GatewaySenderStats {
   private static final int eventsDroppedDueToPrimarySenderNotRunningId;
   /** Id of events conflated in batch */
   private static final int eventsConflatedFromBatchesId;
+  /** Id of events conflated in the queue */
+  private static final int eventsConflatedFromQueueId;
   /** Id of load balances completed */
   private static final int loadBalancesCompletedId;
   /** Id of load balances in progress */
@@ -165,6 +173,12 @@ public class GatewaySenderStats {
   private static final int synchronizationEventsEnqueuedId;
   /** Id of synchronization events provided */
   private static final int synchronizationEventsProvidedId;
+  /** Id of batch value bytes before compression */
+  private static final int batchValueBytesUncompressedId;
+  /** Id of batch value bytes after compression */
+  private static final int batchValueBytesCompressedId;
+  /** Id of batch compression time */
+  private static final int batchCompressionTimeId;
 
   /*
    * Static initializer to create and initialize the <code>StatisticsType</code>
@@ -205,11 +219,15 @@ public class GatewaySenderStats {
         type.nameToId(EVENTS_DROPPED_DUE_TO_PRIMARY_SENDER_NOT_RUNNING);
     eventsFilteredId = type.nameToId(EVENTS_FILTERED);
     eventsConflatedFromBatchesId = type.nameToId(EVENTS_CONFLATED_FROM_BATCHES);
+    eventsConflatedFromQueueId = type.nameToId(EVENTS_CONFLATED_FROM_QUEUE);
     loadBalancesCompletedId = type.nameToId(LOAD_BALANCES_COMPLETED);
     loadBalancesInProgressId = type.nameToId(LOAD_BALANCES_IN_PROGRESS);
     loadBalanceTimeId = type.nameToId(LOAD_BALANCE_TIME);
     synchronizationEventsEnqueuedId = type.nameToId(SYNCHRONIZATION_EVENTS_ENQUEUED);
     synchronizationEventsProvidedId = type.nameToId(SYNCHRONIZATION_EVENTS_PROVIDED);
+    batchValueBytesUncompressedId = type.nameToId(BATCH_VALUE_BYTES_UNCOMPRESSED);
+    batchValueBytesCompressedId = type.nameToId(BATCH_VALUE_BYTES_COMPRESSED);
+    batchCompressionTimeId = type.nameToId(BATCH_COMPRESSION_TIME);
   }
 
   protected static StatisticsType createType(final StatisticsTypeFactory f, final String typeName,
@@ -235,6 +253,9 @@ public class GatewaySenderStats {
                 "operations"),
             f.createIntCounter(EVENTS_CONFLATED_FROM_BATCHES,
                 "Number of events conflated from batches.", "operations"),
+            f.createIntCounter(EVENTS_CONFLATED_FROM_QUEUE,
+                "Number of events removed from the event queue because a later event on the same key replaced them.",
+                "operations"),
             f.createIntCounter(EVENTS_DISTRIBUTED,
                 "Number of events removed from the event queue and sent.", "operations"),
             f.createIntCounter(EVENTS_EXCEEDING_ALERT_THRESHOLD,
@@ -293,7 +314,15 @@ public class GatewaySenderStats {
             f.createIntCounter(SYNCHRONIZATION_EVENTS_ENQUEUED,
                 "Number of synchronization events added to the event queue.", "operations"),
             f.createIntCounter(SYNCHRONIZATION_EVENTS_PROVIDED,
-                "Number of synchronization events provided to other members.", "operations"),});
+                "Number of synchronization events provided to other members.", "operations"),
+            f.createLongCounter(BATCH_VALUE_BYTES_UNCOMPRESSED,
+                "Total size of the event values in compressed batches before compression.",
+                "bytes"),
+            f.createLongCounter(BATCH_VALUE_BYTES_COMPRESSED,
+                "Total size of the event values in compressed batches after compression.",
+                "bytes"),
+            f.createLongCounter(BATCH_COMPRESSION_TIME,
+                "Total time spent compressing the event values of batches.", "nanoseconds"),});
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -675,6 +704,22 @@ public class GatewaySenderStats {
     this.stats.incInt(eventsNotQueuedConflatedId, 1);
   }
 
+  /**
+   * Returns the current value of the "eventsConflatedFromQueue" stat.
+   *
+   * @return the current value of the "eventsConflatedFromQueue" stat
+   */
+  public int getEventsConflatedFromQueue() {
+    return this.stats.getInt(eventsConflatedFromQueueId);
+  }
+
+  /**
+   * Increments the "eventsConflatedFromQueue" stat.
+   */
+  public void incEventsConflatedFromQueue() {
+    this.stats.incInt(eventsConflatedFromQueueId, 1);
+  }
+
   /**
    * Increments the "eventsConflatedFromBatches" stat.
    */
@@ -924,6 +969,28 @@ public class GatewaySenderStats {
     this.stats.incInt(synchronizationEventsProvidedId, 1);
   }
 
+  /**
+   * Increments the "batchValueBytesUncompressed", "batchValueBytesCompressed" and
+   * "batchCompressionTime" stats.
+   *
+   * @param start the time the compression of the batch started
+   * @param uncompressedBytes the size of the values of the batch before compression
+   * @param compressedBytes the size of the values of the batch after compression
+   */
+  public void endBatchCompression(long start, long uncompressedBytes, long compressedBytes) {
+    this.stats.incLong(batchValueBytesUncompressedId, uncompressedBytes);
+    this.stats.incLong(batchValueBytesCompressedId, compressedBytes);
+    this.stats.incLong(batchCompressionTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  public long getBatchValueBytesUncompressed() {
+    return this.stats.getLong(batchValueBytesUncompressedId);
+  }
+
+  public long getBatchValueBytesCompressed() {
+    return this.stats.getLong(batchValueBytesCompressedId);
+  }
+
   public Statistics getStats() {
     return stats;
   }
@@ -19,6 +19,8 @@ import static org.apache.geode.cache.wan.GatewaySender.DEFAULT_BATCH_SIZE;
 import static org.apache.geode.cache.wan.GatewaySender.GET_TRANSACTION_EVENTS_FROM_QUEUE_RETRIES;
 import static org.apache.geode.internal.cache.LocalRegion.InitializationLevel.BEFORE_INITIAL_IMAGE;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -49,6 +51,7 @@ import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheException;
 import org.apache.geode.cache.CacheListener;
 import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.DiskStore;
 import org.apache.geode.cache.EntryNotFoundException;
 import org.apache.geode.cache.EvictionAction;
 import org.apache.geode.cache.EvictionAttributes;
@@ -208,13 +211,11 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
       String regionPath =
           ColocationHelper.getLeaderRegion((PartitionedRegion) event.getRegion()).getFullPath();
       PartitionedRegion prQ = userRegionNameToShadowPRMap.get(regionPath);
-      try {
-        destroyEventFromQueue(prQ, bucketId, previousTailKeyTobeRemoved);
-      } catch (EntryNotFoundException e) {
-        if (logger.isDebugEnabled()) {
-          logger.debug("{}: Not conflating {} due to EntryNotFoundException", this,
-              conflatableObject.getKeyToConflate());
-        }
+      if (destroyEventFromQueue(prQ, bucketId, previousTailKeyTobeRemoved)) {
+        stats.incEventsConflatedFromQueue();
+      } else if (logger.isDebugEnabled()) {
+        logger.debug("{}: Not conflating {} because the replaced event is no longer queued", this,
+            conflatableObject.getKeyToConflate());
       }
       if (logger.isDebugEnabled()) {
         logger.debug("{}: Conflated {} for key={} in queue for region={}", this,
@@ -244,6 +245,12 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
 
   private MetaRegionFactory metaRegionFactory;
 
+  /**
+   * The log the values of the events put in this queue are moved to, or null if they stay on the
+   * heap
+   */
+  private final ParallelGatewaySenderQueueLog valueLog;
+
   public ParallelGatewaySenderQueue(AbstractGatewaySender sender, Set<Region<?, ?>> userRegions,
       int idx,
       int nDispatcher, boolean cleanQueues) {
@@ -261,6 +268,7 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
     this.nDispatcher = nDispatcher;
     stats = sender.getStatistics();
     this.sender = sender;
+    valueLog = createValueLog(sender, idx);
 
     if (this.sender.getId().contains(AsyncEventQueueImpl.ASYNC_EVENT_QUEUE_PREFIX)) {
       asyncEvent = true;
@@ -906,6 +914,7 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
     boolean addedValueToQueue = false;
     try {
       if (brq != null) {
+        logValue(brq.getId(), value);
         addedValueToQueue = brq.addToQueue(key, value);
         // TODO: During merge, ParallelWANstats test failed. On
         // comment below code test passed. cheetha does not have below code.
@@ -925,11 +934,43 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
       }
     } finally {
       if (!addedValueToQueue) {
+        value.releaseLoggedValue();
         value.release();
       }
     }
   }
 
+  private static ParallelGatewaySenderQueueLog createValueLog(AbstractGatewaySender sender,
+      int index) {
+    if (!ParallelGatewaySenderQueueLog.ENABLED || sender.isPersistenceEnabled()) {
+      return null;
+    }
+    InternalCache cache = sender.getCache();
+    DiskStore diskStore = sender.getDiskStoreName() == null ? cache.getOrCreateDefaultDiskStore()
+        : cache.findDiskStore(sender.getDiskStoreName());
+    File directory = diskStore == null ? new File(".") : diskStore.getDiskDirs()[0];
+    return new ParallelGatewaySenderQueueLog(directory,
+        "BGQ_" + sender.getId().replaceAll("\\W", "_") + "_" + index,
+        ParallelGatewaySenderQueueLog.SEGMENT_SIZE);
+  }
+
+  /**
+   * Moves the value of an event about to be put in this queue to the log, so that the entry of the
+   * event in the bucket is sized and evicted without it
+   */
+  private void logValue(int bucketId, GatewaySenderEventImpl value) {
+    if (valueLog != null) {
+      try {
+        value.logValue(valueLog, bucketId);
+      } catch (IOException e) {
+        logger.warn("Failed to move the value of the event with shadow key {} to the queue log",
+            value.getShadowKey(), e);
+      } catch (IllegalStateException ignore) {
+        // the sender stopped and retired the log, so the value stays on the heap
+      }
+    }
+  }
+
   /**
    * This returns queueRegion if there is only one PartitionedRegion using the GatewaySender
    * Otherwise it returns null.
@@ -1098,13 +1139,18 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
     }
   }
 
-  private void destroyEventFromQueue(PartitionedRegion prQ, int bucketId, Object key) {
+  /**
+   * @return whether the event was destroyed from the bucket
+   */
+  private boolean destroyEventFromQueue(PartitionedRegion prQ, int bucketId, Object key) {
+    boolean destroyed = false;
     BucketRegionQueue brq = getBucketRegionQueueByBucketId(prQ, bucketId);
     // TODO : Make sure we dont need to initalize a bucket
     // before destroying a key from it
     try {
       if (brq != null) {
         brq.destroyKey(key);
+        destroyed = true;
       }
       stats.decQueueSize();
     } catch (EntryNotFoundException e) {
@@ -1129,6 +1175,7 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
       }
     }
     addRemovedEvent(prQ, bucketId, key);
+    return destroyed;
   }
 
   public void resetLastPeeked() {
@@ -1759,6 +1806,9 @@ public class ParallelGatewaySenderQueue implements RegionQueue {
    * Note that this cleanup doesn't clean the data held by the queue.
    */
   public void cleanUp() {
+    if (valueLog != null) {
+      valueLog.retire();
+    }
     regionToDispatchedKeysMap.clear();
     removalThread.shutdown();
     cleanupConflationThreadPool(sender);
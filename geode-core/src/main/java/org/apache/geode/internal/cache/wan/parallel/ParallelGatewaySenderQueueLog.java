@@ -0,0 +1,431 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan.parallel;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.annotations.internal.MakeNotStatic;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * An append-only log of the serialized values of the events queued by a parallel gateway sender
+ * queue. The values are appended to sequential segment files, and each queued event keeps only the
+ * location of its value, so the heap used by a queue no longer grows with the size of the values it
+ * holds.
+ * <p>
+ * Each bucket of the queue appends to segments of its own. The events of a bucket leave the queue
+ * in about the order they entered it, so the oldest segments of a bucket empty first and are
+ * deleted as a whole once all of their values are released, which keeps the drain sequential and
+ * avoids any compaction. A bucket that drains slowly only keeps its own segments on disk, and the
+ * segments of a bucket are released when the bucket is closed.
+ * <p>
+ * Appends are collected in a write buffer per segment and written to the segment file when the
+ * buffer is full, so queueing an event does not issue a write of its own. Values still in the
+ * buffer are read from it.
+ * <p>
+ * The log does not survive the member. It is only used for queues that are not persistent, which
+ * lose their events when the member goes down anyway.
+ *
+ * @since Geode 1.15
+ */
+public class ParallelGatewaySenderQueueLog {
+
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Whether parallel gateway sender queues that are not persistent keep the values of their
+   * events in a log on disk instead of on the heap
+   */
+  public static final boolean ENABLED =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.QUEUE_VALUE_LOG");
+
+  /**
+   * The size in bytes after which a bucket starts a new segment
+   */
+  public static final int SEGMENT_SIZE = Integer.getInteger(
+      GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.QUEUE_VALUE_LOG_SEGMENT_SIZE",
+      8 * 1024 * 1024);
+
+  /**
+   * The size in bytes of the buffer that collects the values appended to a segment
+   */
+  public static final int WRITE_BUFFER_SIZE = Integer.getInteger(
+      GeodeGlossary.GEMFIRE_PREFIX + "GatewaySender.QUEUE_VALUE_LOG_WRITE_BUFFER_SIZE",
+      32 * 1024);
+
+  private static final String SEGMENT_SUFFIX = ".qlog";
+
+  /**
+   * The names of the logs opened by this member, whose segments are never stale
+   */
+  @MakeNotStatic
+  private static final Set<String> openedNames = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Tells apart the segments of the logs with the same name, such as the log of a queue that was
+   * retired when its sender stopped and the log of the same queue after the sender restarted
+   */
+  @MakeNotStatic
+  private static final AtomicInteger generations = new AtomicInteger();
+
+  private final File directory;
+
+  private final String name;
+
+  private final int segmentSize;
+
+  private final int writeBufferSize;
+
+  private final int generation = generations.incrementAndGet();
+
+  private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+
+  private final Map<Integer, Bucket> buckets = new ConcurrentHashMap<>();
+
+  private final AtomicInteger nextSegmentId = new AtomicInteger();
+
+  /** true once no more values may be appended */
+  private volatile boolean retired;
+
+  public ParallelGatewaySenderQueueLog(File directory, String name, int segmentSize) {
+    this(directory, name, segmentSize, WRITE_BUFFER_SIZE);
+  }
+
+  ParallelGatewaySenderQueueLog(File directory, String name, int segmentSize,
+      int writeBufferSize) {
+    this.directory = directory;
+    this.name = name;
+    this.segmentSize = segmentSize;
+    this.writeBufferSize = writeBufferSize;
+    if (openedNames.add(name)) {
+      deleteStaleSegments();
+    }
+  }
+
+  /**
+   * Appends a value of the given bucket to the log.
+   *
+   * @return the location of the value, which holds the id of its segment in the high int and its
+   *         offset in the segment in the low int
+   */
+  public long append(int bucketId, byte[] value) throws IOException {
+    Bucket bucket = buckets.computeIfAbsent(bucketId, Bucket::new);
+    synchronized (bucket) {
+      if (retired) {
+        throw new IllegalStateException("The queue log " + name + " is closed");
+      }
+      Segment segment = bucket.current;
+      if (segment == null || segment.size > 0 && segment.size + value.length > segmentSize) {
+        segment = roll(bucket);
+      }
+      long location = ((long) segment.id << 32) | segment.size;
+      segment.write(value);
+      segment.liveBytes.addAndGet(value.length);
+      return location;
+    }
+  }
+
+  /**
+   * @return the value of the given length appended at the given location
+   * @throws IllegalStateException if the value is no longer available because it was released or
+   *         the log was closed
+   */
+  public byte[] read(long location, int length) throws IOException {
+    Segment segment = segments.get(segmentId(location));
+    if (segment == null) {
+      throw new IllegalStateException(
+          "The value at " + location + " is no longer available in the queue log " + name);
+    }
+    return segment.read(location, length);
+  }
+
+  /**
+   * Releases the value of the given length appended at the given location, deleting its segment
+   * if that was the last value of the segment still in use.
+   */
+  public void release(long location, int length) {
+    Segment segment = segments.get(segmentId(location));
+    if (segment != null && segment.liveBytes.addAndGet(-length) == 0) {
+      synchronized (segment.bucket) {
+        if (segment != segment.bucket.current && segment.liveBytes.get() == 0) {
+          delete(segment);
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops appending the values of the given bucket to its current segment, so that the segment is
+   * deleted once the values in it are released. A value appended for the bucket later starts a
+   * new segment.
+   */
+  public void closeBucket(int bucketId) {
+    Bucket bucket = buckets.get(bucketId);
+    if (bucket != null) {
+      synchronized (bucket) {
+        retireCurrent(bucket);
+      }
+    }
+  }
+
+  /**
+   * Stops appending to this log. The values already appended stay readable until they are
+   * released, after which the last segments are deleted too.
+   */
+  public void retire() {
+    retired = true;
+    for (Bucket bucket : buckets.values()) {
+      synchronized (bucket) {
+        retireCurrent(bucket);
+      }
+    }
+  }
+
+  /**
+   * Deletes all the segments of this log, making the values that were not released unreadable
+   */
+  public void close() {
+    retire();
+    for (Segment segment : new ArrayList<>(segments.values())) {
+      delete(segment);
+    }
+  }
+
+  public int getSegmentCount() {
+    return segments.size();
+  }
+
+  public long getLiveBytes() {
+    long liveBytes = 0;
+    for (Segment segment : segments.values()) {
+      liveBytes += segment.liveBytes.get();
+    }
+    return liveBytes;
+  }
+
+  /**
+   * @return the ids of the segments holding the values of the given bucket
+   */
+  Collection<Integer> getSegmentIds(int bucketId) {
+    Collection<Integer> ids = new ArrayList<>();
+    for (Segment segment : segments.values()) {
+      if (segment.bucket.id == bucketId) {
+        ids.add(segment.id);
+      }
+    }
+    return ids;
+  }
+
+  private Segment roll(Bucket bucket) throws IOException {
+    Segment previous = bucket.current;
+    int id = nextSegmentId.getAndIncrement();
+    File file = new File(directory, name + "_" + generation + "_" + id + SEGMENT_SUFFIX);
+    Segment segment = new Segment(id, bucket,
+        FileChannel.open(file.toPath(), CREATE, TRUNCATE_EXISTING, READ, WRITE), file,
+        writeBufferSize);
+    segments.put(id, segment);
+    bucket.current = segment;
+    if (previous != null) {
+      if (previous.liveBytes.get() == 0) {
+        delete(previous);
+      } else {
+        previous.flush(true);
+      }
+    }
+    return segment;
+  }
+
+  /**
+   * Called with the lock of the bucket held
+   */
+  private void retireCurrent(Bucket bucket) {
+    Segment segment = bucket.current;
+    bucket.current = null;
+    if (segment != null && segment.liveBytes.get() == 0) {
+      delete(segment);
+    }
+  }
+
+  private void delete(Segment segment) {
+    if (segments.remove(segment.id, segment)) {
+      segment.close();
+      if (!segment.file.delete() && segment.file.exists()) {
+        logger.warn("Failed to delete queue log segment {}", segment.file);
+      }
+    }
+  }
+
+  /**
+   * Removes the segments that a member which had the same queue before left behind when it went
+   * down
+   */
+  private void deleteStaleSegments() {
+    File[] stale = directory.listFiles(
+        (dir, fileName) -> fileName.startsWith(name + "_") && fileName.endsWith(SEGMENT_SUFFIX));
+    if (stale != null) {
+      for (File file : stale) {
+        if (!file.delete()) {
+          logger.warn("Failed to delete stale queue log segment {}", file);
+        }
+      }
+    }
+  }
+
+  private static int segmentId(long location) {
+    return (int) (location >>> 32);
+  }
+
+  private static long offset(long location) {
+    return location & 0xFFFFFFFFL;
+  }
+
+  /**
+   * The segment a bucket appends to. Its lock is held while values are appended for the bucket.
+   */
+  private static class Bucket {
+    private final int id;
+
+    /** the segment values of the bucket are appended to; guarded by this */
+    private Segment current;
+
+    Bucket(int id) {
+      this.id = id;
+    }
+  }
+
+  private class Segment {
+    private final int id;
+    private final Bucket bucket;
+    private final FileChannel channel;
+    private final File file;
+    private final AtomicLong liveBytes = new AtomicLong();
+
+    /** the number of bytes appended, including those still buffered; guarded by the bucket */
+    private long size;
+
+    /** the number of bytes written to the file */
+    private volatile long flushed;
+
+    /** the values appended since the last flush, null once the segment is full; guarded by this */
+    private ByteBuffer buffer;
+
+    Segment(int id, Bucket bucket, FileChannel channel, File file, int bufferSize) {
+      this.id = id;
+      this.bucket = bucket;
+      this.channel = channel;
+      this.file = file;
+      this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    synchronized void write(byte[] value) throws IOException {
+      if (value.length > buffer.remaining()) {
+        flush(false);
+      }
+      if (value.length > buffer.capacity()) {
+        flushed = writeFully(ByteBuffer.wrap(value), flushed);
+      } else {
+        buffer.put(value);
+      }
+      size += value.length;
+    }
+
+    /**
+     * Writes the buffered values to the file
+     *
+     * @param last true if no more values are appended, so the buffer is no longer needed
+     */
+    synchronized void flush(boolean last) throws IOException {
+      if (buffer == null) {
+        return;
+      }
+      buffer.flip();
+      flushed = writeFully(buffer, flushed);
+      buffer.clear();
+      if (last) {
+        buffer = null;
+      }
+    }
+
+    private long writeFully(ByteBuffer source, long position) throws IOException {
+      while (source.hasRemaining()) {
+        position += channel.write(source, position);
+      }
+      return position;
+    }
+
+    byte[] read(long location, int length) throws IOException {
+      long position = offset(location);
+      if (position + length > flushed) {
+        synchronized (this) {
+          if (position + length > flushed) {
+            if (buffer == null) {
+              throw new IllegalStateException("The value at " + location
+                  + " is no longer available in the queue log " + name);
+            }
+            // a flush writes whole values, so a value is either all buffered or all written
+            byte[] value = new byte[length];
+            System.arraycopy(buffer.array(), (int) (position - flushed), value, 0, length);
+            return value;
+          }
+        }
+      }
+      ByteBuffer value = ByteBuffer.allocate(length);
+      try {
+        while (value.hasRemaining()) {
+          int read = channel.read(value, position);
+          if (read < 0) {
+            throw new EOFException("The value at " + location
+                + " is truncated in the queue log " + name);
+          }
+          position += read;
+        }
+      } catch (ClosedChannelException e) {
+        // the segment was deleted while reading
+        throw new IllegalStateException(
+            "The value at " + location + " is no longer available in the queue log " + name, e);
+      }
+      return value.array();
+    }
+
+    synchronized void close() {
+      buffer = null;
+      try {
+        channel.close();
+      } catch (IOException e) {
+        logger.debug("Failed to close queue log segment {}", file, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.serialization.KnownVersion;
+
+/**
+ * A HeapDataOutputStream whose buffers are acquired from a {@link BufferPool} instead of being
+ * allocated on the heap. When the pool hands out direct buffers the serialized form is written
+ * straight into memory that can be handed to a SocketChannel without another copy.
+ * <p>
+ * All buffers are returned to the pool by {@link #close()}. The stream, and any ByteBuffer
+ * obtained from it, must not be used after it has been closed.
+ * <p>
+ * This class is not thread safe
+ *
+ * @since Geode 1.15
+ */
+public class PooledHeapDataOutputStream extends HeapDataOutputStream {
+
+  /**
+   * Stands in for the current buffer once the pooled buffers have been released. It has no
+   * capacity so sharing it between streams can not leak any state.
+   */
+  private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+
+  private final BufferPool bufferPool;
+
+  private final List<ByteBuffer> pooledBuffers = new ArrayList<>(2);
+
+  public PooledHeapDataOutputStream(BufferPool bufferPool, int allocSize, KnownVersion version) {
+    this(bufferPool, allocSize, version, false);
+  }
+
+  /**
+   * @param doNotCopy if true then byte arrays/buffers/sources will not be copied to this stream
+   *        but instead referenced.
+   */
+  public PooledHeapDataOutputStream(BufferPool bufferPool, int allocSize, KnownVersion version,
+      boolean doNotCopy) {
+    super(bufferPool.acquireDirectSenderBuffer(allocSize), version, doNotCopy);
+    this.bufferPool = bufferPool;
+    pooledBuffers.add(buffer);
+  }
+
+  @Override
+  protected ByteBuffer allocateBuffer(int capacity) {
+    ByteBuffer result = bufferPool.acquireDirectSenderBuffer(capacity);
+    pooledBuffers.add(result);
+    return result;
+  }
+
+  /**
+   * Returns the number of pooled buffers currently held by this stream.
+   */
+  int getPooledBufferCount() {
+    return pooledBuffers.size();
+  }
+
+  /**
+   * Releases all of the buffers held by this stream back to the pool.
+   */
+  @Override
+  public void close() {
+    super.close();
+    buffer = EMPTY_BUFFER;
+    for (ByteBuffer pooledBuffer : pooledBuffers) {
+      bufferPool.releaseSenderBuffer(pooledBuffer);
+    }
+    pooledBuffers.clear();
+  }
+}
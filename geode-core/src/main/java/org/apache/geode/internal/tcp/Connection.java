@@ -16,6 +16,7 @@ package org.apache.geode.internal.tcp;
 
 import static java.lang.Boolean.FALSE;
 import static java.lang.ThreadLocal.withInitial;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.geode.distributed.ConfigurationProperties.SECURITY_PEER_AUTH_INIT;
 import static org.apache.geode.distributed.internal.DistributionConfigImpl.SECURITY_SYSTEM_PREFIX;
 import static org.apache.geode.internal.monitoring.ThreadsMonitoring.Mode.P2PReaderExecutor;
@@ -34,6 +35,8 @@ import java.nio.ByteBuffer;
 import java.nio.channels.CancelledKeyException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 import java.util.Collections;
 import java.util.HashMap;
@@ -79,6 +82,7 @@ import org.apache.geode.internal.DSFIDFactory;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.SystemTimer.SystemTimerTask;
+import org.apache.geode.internal.cache.DirectReplyMessage;
 import org.apache.geode.internal.monitoring.ThreadsMonitoring;
 import org.apache.geode.internal.monitoring.executor.AbstractExecutor;
 import org.apache.geode.internal.net.BufferPool;
@@ -100,7 +104,7 @@ import org.apache.geode.logging.internal.log4j.api.LogService;
  *
  * @since GemFire 2.0
  */
-public class Connection implements Runnable {
+public class Connection implements Runnable, SelectorReaderPool.Reader {
   private static final Logger logger = LogService.getLogger();
 
   public static final String THREAD_KIND_IDENTIFIER = "P2P message reader";
@@ -270,6 +274,28 @@ public class Connection implements Runnable {
   /** message reader thread */
   private volatile Thread readerThread;
 
+  /**
+   * Set to true once the reader thread has handed this connection over to a
+   * {@link SelectorReaderPool}. From then on messages are read by the pool's worker threads.
+   */
+  private volatile boolean readBySelector;
+
+  /**
+   * The thread-local state established by the handshake on the reader thread. The selector
+   * workers restore it before reading so that replies are sent the same way they would be from a
+   * dedicated reader thread.
+   */
+  private boolean selectorReaderDominoThread;
+  private int selectorReaderDominoCount;
+  private Boolean selectorReaderOwnsResources;
+
+  /**
+   * The thread-owned connections used to send while processing this connection's messages on the
+   * selector workers. They belong to this connection rather than to whichever worker reads it, so
+   * messages received here keep going out on the same connections in the order they were received.
+   */
+  private Map selectorReaderThreadOwnedConnections;
+
   /** whether the reader thread is, or should be, running */
   volatile boolean stopped = true;
 
@@ -301,6 +327,12 @@ public class Connection implements Runnable {
    */
   private long transmissionStartTime;
 
+  /**
+   * Used to wait until a non-blocking channel, such as one read by a {@link SelectorReaderPool},
+   * can be written to again. Only used while holding outLock.
+   */
+  private volatile Selector writeSelector;
+
   /** ack wait timeout - if socketInUse, use this to trigger SUSPECT processing */
   private long ackWaitTimeout;
 
@@ -421,25 +453,26 @@ public class Connection implements Runnable {
       Integer.getInteger(GEMFIRE_PREFIX + "RECONNECT_WAIT_TIME", 2000);
 
   /**
-   * Batch sends currently should not be turned on because: 1. They will be used for all sends
-   * (instead of just no-ack) and thus will break messages that wait for a response (or kill perf).
-   * 2. The buffer is not properly flushed and closed on shutdown. The code attempts to do this but
-   * must not be doing it correctly.
+   * Coalesce messages sent on ordered connections into fewer socket writes. See
+   * {@link MessageCoalescer}.
    */
   private static final boolean BATCH_SENDS = Boolean.getBoolean("p2p.batchSends");
   private static final int BATCH_BUFFER_SIZE =
       Integer.getInteger("p2p.batchBufferSize", 1024 * 1024);
-  private static final int BATCH_FLUSH_MS = Integer.getInteger("p2p.batchFlushTime", 50);
-  private final Object batchLock = new Object();
-  private ByteBuffer fillBatchBuffer;
-  private ByteBuffer sendBatchBuffer;
-  private BatchBufferFlusher batchFlusher;
+  /**
+   * How long, in microseconds, a batch waits for more messages before being written. Defaults to
+   * p2p.batchFlushTime, in ms, if that is set. The default of 0 only coalesces messages sent while
+   * another write is in progress.
+   */
+  private static final long BATCH_WINDOW_MICROS = Long.getLong("p2p.batchWindowMicros",
+      MILLISECONDS.toMicros(Integer.getInteger("p2p.batchFlushTime", 0)));
 
   /**
    * use to test message prep overhead (no socket write). WARNING: turning this on completely
    * disables distribution of batched sends
    */
   private static final boolean SOCKET_WRITE_DISABLED = Boolean.getBoolean("p2p.disableSocketWrite");
+  private MessageCoalescer messageCoalescer;
 
   private final Object pusherSync = new Object();
 
@@ -453,6 +486,9 @@ public class Connection implements Runnable {
 
   private static final int MAX_WAIT_TIME = 32; // ms (must be a power of 2)
 
+  /** ms to wait at a time for a non-blocking channel to become writable */
+  private static final long WRITE_SELECT_INTERVAL = 100;
+
   /**
    * stateLock is used to synchronize state changes.
    */
@@ -1127,7 +1163,7 @@ public class Connection implements Runnable {
           String.format("Connection: failed construction for peer %s", remoteAddr));
     }
     if (preserveOrder && BATCH_SENDS) {
-      conn.createBatchSendBuffer();
+      conn.createMessageCoalescer();
     }
     conn.finishedConnecting = true;
     return conn;
@@ -1234,16 +1270,16 @@ public class Connection implements Runnable {
     }
   }
 
-  private void createBatchSendBuffer() {
-    if (BufferPool.useDirectBuffers) {
-      fillBatchBuffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE);
-      sendBatchBuffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE);
-    } else {
-      fillBatchBuffer = ByteBuffer.allocate(BATCH_BUFFER_SIZE);
-      sendBatchBuffer = ByteBuffer.allocate(BATCH_BUFFER_SIZE);
-    }
-    batchFlusher = new BatchBufferFlusher();
-    batchFlusher.start();
+  private void createMessageCoalescer() {
+    messageCoalescer = new MessageCoalescer(batch -> {
+      if (SOCKET_WRITE_DISABLED) {
+        batch.position(batch.limit());
+        return;
+      }
+      writeFully(getSocket().getChannel(), batch, false, null);
+    },
+        owner.getConduit().getStats(), BATCH_BUFFER_SIZE, BATCH_WINDOW_MICROS,
+        BufferPool.useDirectBuffers);
   }
 
   void cleanUpOnIdleTaskCancel() {
@@ -1254,40 +1290,6 @@ public class Connection implements Runnable {
     }
   }
 
-  private void closeBatchBuffer() {
-    if (batchFlusher != null) {
-      batchFlusher.close();
-    }
-  }
-
-  private void batchSend(ByteBuffer src) {
-    if (SOCKET_WRITE_DISABLED) {
-      return;
-    }
-    final long start = DistributionStats.getStatTime();
-    try {
-      Assert.assertTrue(src.remaining() <= BATCH_BUFFER_SIZE, "Message size(" + src.remaining()
-          + ") exceeded BATCH_BUFFER_SIZE(" + BATCH_BUFFER_SIZE + ")");
-      do {
-        ByteBuffer dst;
-        synchronized (batchLock) {
-          dst = fillBatchBuffer;
-          if (src.remaining() <= dst.remaining()) {
-            final long copyStart = DistributionStats.getStatTime();
-            dst.put(src);
-            owner.getConduit().getStats().incBatchCopyTime(copyStart);
-            return;
-          }
-        }
-        // If we got this far then we do not have room in the current
-        // buffer and need the flusher thread to flush before we can fill it
-        batchFlusher.flushBuffer(dst);
-      } while (true);
-    } finally {
-      owner.getConduit().getStats().incBatchSendTime(start);
-    }
-  }
-
   /**
    * Request that the manager close this connection, or close it forcibly if there is no manager.
    * Invoking this method ensures that the proper synchronization is done.
@@ -1365,6 +1367,7 @@ public class Connection implements Runnable {
         }
         // make sure our socket is closed
         asyncClose(false);
+        closeWriteSelector();
         if (!isReceiver && !hasResidualReaderThread()) {
           // receivers release the input buffer when exiting run(). Senders use the
           // inputBuffer for reading direct-reply responses
@@ -1411,7 +1414,6 @@ public class Connection implements Runnable {
         }
       }
 
-      closeBatchBuffer();
       closeAllMsgDestreamers();
     }
     if (cleanupEndpoint) {
@@ -1488,36 +1490,177 @@ public class Connection implements Runnable {
     try {
       readMessages();
     } finally {
-      // do the socket close within a finally block
-      if (logger.isDebugEnabled()) {
-        logger.debug("Stopping {} for {}", p2pReaderName(), remoteAddr);
-      }
-      if (isReceiver) {
-        try {
-          initiateSuspicionIfSharedUnordered();
-        } catch (CancelException e) {
-          // shutting down
-        }
-        if (!sharedResource) {
-          conduit.getStats().incThreadOwnedReceivers(-1L, dominoCount.get());
+      if (readBySelector) {
+        // the selector readers own this connection now and may already have stopped reading it
+        Thread.currentThread().setName("unused p2p reader");
+        synchronized (stateLock) {
+          if (readerThread == Thread.currentThread()) {
+            readerThread = null;
+          }
         }
-        asyncClose(false);
-        owner.removeAndCloseThreadOwnedSockets();
       } else {
-        if (sharedResource && !asyncMode) {
-          asyncClose(false);
+        // do the socket close within a finally block
+        if (logger.isDebugEnabled()) {
+          logger.debug("Stopping {} for {}", p2pReaderName(), remoteAddr);
         }
+        readerThread.setName("unused p2p reader");
+        readerStopped(dominoCount.get());
       }
+    }
+  }
 
-      inputBufferVendor.destruct();
+  /**
+   * Releases the resources of this connection once no more messages will be read from it.
+   */
+  private void readerStopped(int dominoNumber) {
+    if (isReceiver) {
+      try {
+        initiateSuspicionIfSharedUnordered();
+      } catch (CancelException e) {
+        // shutting down
+      }
+      if (!sharedResource) {
+        conduit.getStats().incThreadOwnedReceivers(-1L, dominoNumber);
+      }
+      asyncClose(false);
+      // on a selector worker only this connection's thread-owned connections are installed
+      owner.removeAndCloseThreadOwnedSockets();
+    } else {
+      if (sharedResource && !asyncMode) {
+        asyncClose(false);
+      }
+    }
 
-      // make sure that if the reader thread exits we notify a thread waiting for the handshake.
-      notifyHandshakeWaiter(false);
-      readerThread.setName("unused p2p reader");
+    inputBufferVendor.destruct();
+
+    // make sure that if the reader thread exits we notify a thread waiting for the handshake.
+    notifyHandshakeWaiter(false);
+    synchronized (stateLock) {
+      isRunning = false;
+      readerThread = null;
+    }
+  }
+
+  /**
+   * Hands this receiving connection over to the selector reader pool so that the current reader
+   * thread can be returned to its pool.
+   */
+  private void handOffToSelectorReaders(SocketChannel channel, SelectorReaderPool selectorReaders)
+      throws IOException {
+    channel.configureBlocking(false);
+    selectorReaderDominoThread = isDominoThread.get();
+    selectorReaderDominoCount = dominoCount.get();
+    selectorReaderOwnsResources = ConnectionTable.getThreadOwnsResourcesRegistration();
+    // the connections this reader thread owns were created for this connection's messages
+    selectorReaderThreadOwnedConnections = ConnectionTable.setThreadOrderedConnMap(null);
+    if (selectorReaderThreadOwnedConnections == null) {
+      selectorReaderThreadOwnedConnections = new HashMap();
+    }
+    readBySelector = true;
+    if (logger.isDebugEnabled()) {
+      logger.debug("Handing {} over to the selector readers", this);
+    }
+    selectorReaders.register(this, channel);
+  }
+
+  /**
+   * Reads and processes the bytes that are currently available on this connection's channel.
+   * Invoked by a {@link SelectorReaderPool} worker thread when the channel is readable. The pool
+   * never invokes this concurrently for the same connection, so messages are processed in the
+   * order they were sent.
+   *
+   * @return true if the pool should keep reading this connection
+   */
+  @Override
+  public boolean readAvailableMessages() {
+    isDominoThread.set(selectorReaderDominoThread);
+    dominoCount.set(selectorReaderDominoCount);
+    if (Boolean.TRUE.equals(selectorReaderOwnsResources)) {
+      ConnectionTable.threadWantsOwnResources();
+    } else {
+      ConnectionTable.threadWantsSharedResources();
+    }
+    Map workerThreadOwnedConnections =
+        ConnectionTable.setThreadOrderedConnMap(selectorReaderThreadOwnedConnections);
+    AbstractExecutor threadMonitorExecutor = SelectorReaderPool.getWorkerMonitor();
+    final boolean registerMonitor = threadMonitorExecutor == null;
+    if (registerMonitor) {
+      // the worker was not registered with thread monitoring when it started
+      threadMonitorExecutor = getThreadMonitoring().createAbstractExecutor(P2PReaderExecutor);
+      threadMonitorExecutor.suspendMonitoring();
+      getThreadMonitoring().register(threadMonitorExecutor);
+    }
+    boolean keepReading = false;
+    try {
+      keepReading = readAvailableMessages(threadMonitorExecutor);
+    } finally {
+      if (registerMonitor) {
+        getThreadMonitoring().unregister(threadMonitorExecutor);
+      }
+      try {
+        if (!keepReading) {
+          readerStopped(selectorReaderDominoCount);
+        }
+      } finally {
+        ConnectionTable.setThreadOrderedConnMap(workerThreadOwnedConnections);
+      }
+    }
+    return keepReading;
+  }
+
+  private boolean readAvailableMessages(AbstractExecutor threadMonitorExecutor) {
+    if (stopped || owner.getConduit().getCancelCriterion().isCancelInProgress()) {
+      return false;
+    }
+    try (final ByteBufferSharing inputSharing = inputBufferVendor.open()) {
+      ByteBuffer buff = inputSharing.getBuffer();
+      synchronized (stateLock) {
+        connectionState = STATE_READING;
+      }
+      int amountRead = getSocket().getChannel().read(buff);
       synchronized (stateLock) {
-        isRunning = false;
-        readerThread = null;
+        connectionState = STATE_IDLE;
+      }
+      if (amountRead < 0) {
+        readerShuttingDown = true;
+        try {
+          requestClose("SocketChannel.read returned EOF");
+        } catch (Exception ignored) {
+        }
+        return false;
+      }
+      if (amountRead > 0) {
+        processInputBuffer(threadMonitorExecutor);
+      }
+      return true;
+    } catch (CancelException e) {
+      readerShuttingDown = true;
+      try {
+        requestClose(String.format("CacheClosed in channel read: %s", e));
+      } catch (Exception ignored) {
+      }
+      return false;
+    } catch (IOException e) {
+      if (!isSocketClosed() && logger.isInfoEnabled() && !isIgnorableIOException(e)) {
+        logger.info("{} io exception for {}", p2pReaderName(), this, e);
+      }
+      readerShuttingDown = true;
+      try {
+        requestClose(String.format("IOException in channel read: %s", e));
+      } catch (Exception ignored) {
+      }
+      return false;
+    } catch (Exception e) {
+      owner.getConduit().getCancelCriterion().checkCancelInProgress(e);
+      if (!stopped && !isSocketClosed()) {
+        logger.fatal(String.format("%s exception in channel read", p2pReaderName()), e);
+      }
+      readerShuttingDown = true;
+      try {
+        requestClose(String.format("%s exception in channel read", e));
+      } catch (Exception ignored) {
       }
+      return false;
     }
   }
 
@@ -1669,6 +1812,12 @@ public class Connection implements Runnable {
             }
 
           }
+
+          SelectorReaderPool selectorReaders = owner.getSelectorReaderPool();
+          if (isReceiver && handshakeRead && selectorReaders != null && !getConduit().useSSL()) {
+            handOffToSelectorReaders(channel, selectorReaders);
+            return;
+          }
         } catch (CancelException e) {
           if (logger.isDebugEnabled()) {
             logger.debug("{} Terminated <{}> due to cancellation", p2pReaderName(), this, e);
@@ -1906,10 +2055,6 @@ public class Connection implements Runnable {
     if (!connected) {
       throw new ConnectionException(String.format("Not connected to %s", remoteAddr));
     }
-    if (batchFlusher != null) {
-      batchSend(buffer);
-      return;
-    }
     final boolean origSocketInUse = socketInUse;
     byte originalState;
     synchronized (stateLock) {
@@ -1918,8 +2063,12 @@ public class Connection implements Runnable {
     }
     socketInUse = true;
     try {
-      SocketChannel channel = getSocket().getChannel();
-      writeFully(channel, buffer, false, msg);
+      if (messageCoalescer != null) {
+        messageCoalescer.send(buffer, waitsForReply(msg));
+      } else {
+        SocketChannel channel = getSocket().getChannel();
+        writeFully(channel, buffer, false, msg);
+      }
       if (cacheContentChanges) {
         messagesSent++;
       }
@@ -1932,6 +2081,14 @@ public class Connection implements Runnable {
     }
   }
 
+  /**
+   * Returns true if the sender of the given message, which is null for a chunked message, may be
+   * waiting for a reply to it.
+   */
+  private static boolean waitsForReply(DistributionMessage msg) {
+    return msg == null || msg.getProcessorId() != 0 || msg instanceof DirectReplyMessage;
+  }
+
   /**
    * If {@code use} is true then "claim" the connection for our use. If {@code use} is
    * false then "release" the connection.
@@ -2658,6 +2815,9 @@ public class Connection implements Runnable {
             } finally {
               stats.endSocketWrite(true, start, amtWritten, 0);
             }
+            if (amtWritten == 0 && !channel.isBlocking()) {
+              waitUntilWritable(channel);
+            }
           }
 
         }
@@ -2667,6 +2827,54 @@ public class Connection implements Runnable {
     }
   }
 
+  /**
+   * Waits until a non-blocking channel can accept more bytes. Gives up once the ack-wait-threshold
+   * and ack-severe-alert-threshold have passed without the peer reading, so that a stuck peer does
+   * not hold outLock forever.
+   *
+   * @throws SocketTimeoutException if the channel does not become writable in time
+   * @throws ConnectionException if the connection is closed while waiting
+   */
+  private void waitUntilWritable(SocketChannel channel) throws IOException, ConnectionException {
+    Selector selector = writeSelector;
+    if (selector == null) {
+      selector = Selector.open();
+      channel.register(selector, SelectionKey.OP_WRITE);
+      writeSelector = selector;
+      if (stopped) {
+        closeWriteSelector();
+      }
+    }
+    final long timeout = (owner.getDM().getConfig().getAckWaitThreshold()
+        + owner.getDM().getConfig().getAckSevereAlertThreshold()) * 1000L;
+    final long start = System.currentTimeMillis();
+    try {
+      while (selector.select(WRITE_SELECT_INTERVAL) == 0) {
+        if (stopped || isSocketClosed()) {
+          throw new ConnectionException("connection is closed");
+        }
+        owner.getConduit().getCancelCriterion().checkCancelInProgress(null);
+        if (System.currentTimeMillis() - start >= timeout) {
+          throw new SocketTimeoutException(
+              String.format("Unable to write to %s for %s ms", remoteAddr, timeout));
+        }
+      }
+      selector.selectedKeys().clear();
+    } catch (ClosedSelectorException e) {
+      throw new ConnectionException("connection is closed");
+    }
+  }
+
+  private void closeWriteSelector() {
+    Selector selector = writeSelector;
+    if (selector != null) {
+      try {
+        selector.close();
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
   /**
    * @throws SocketTimeoutException if wait expires.
    * @throws ConnectionException if ack is not received
@@ -3376,106 +3584,4 @@ public class Connection implements Runnable {
   long getMessagesSent() {
     return messagesSent;
   }
-
-  private class BatchBufferFlusher extends Thread {
-
-    private volatile boolean flushNeeded;
-    private volatile boolean timeToStop;
-    private final DMStats stats;
-
-    BatchBufferFlusher() {
-      setDaemon(true);
-      stats = owner.getConduit().getStats();
-    }
-
-    /**
-     * Called when a message writer needs the current fillBatchBuffer flushed
-     */
-    void flushBuffer(ByteBuffer bb) {
-      final long start = DistributionStats.getStatTime();
-      try {
-        synchronized (this) {
-          synchronized (batchLock) {
-            if (bb != fillBatchBuffer) {
-              // it must have already been flushed. So just return and use the new fillBatchBuffer
-              return;
-            }
-          }
-          flushNeeded = true;
-          notifyAll();
-        }
-        synchronized (batchLock) {
-          // Wait for the flusher thread
-          while (bb == fillBatchBuffer) {
-            owner.getConduit().getCancelCriterion().checkCancelInProgress(null);
-            boolean interrupted = Thread.interrupted();
-            try {
-              batchLock.wait(); // spurious wakeup ok
-            } catch (InterruptedException ex) {
-              interrupted = true;
-            } finally {
-              if (interrupted) {
-                Thread.currentThread().interrupt();
-              }
-            }
-          }
-        }
-      } finally {
-        owner.getConduit().getStats().incBatchWaitTime(start);
-      }
-    }
-
-    public void close() {
-      synchronized (this) {
-        timeToStop = true;
-        flushNeeded = true;
-        notifyAll();
-      }
-    }
-
-    @Override
-    public void run() {
-      try {
-        synchronized (this) {
-          while (!timeToStop) {
-            if (!flushNeeded && fillBatchBuffer.position() <= BATCH_BUFFER_SIZE / 2) {
-              wait(BATCH_FLUSH_MS); // spurious wakeup ok
-            }
-            if (flushNeeded || fillBatchBuffer.position() > BATCH_BUFFER_SIZE / 2) {
-              final long start = DistributionStats.getStatTime();
-              synchronized (batchLock) {
-                // This is the only block of code that will swap the buffer references
-                flushNeeded = false;
-                ByteBuffer tmp = fillBatchBuffer;
-                fillBatchBuffer = sendBatchBuffer;
-                sendBatchBuffer = tmp;
-                batchLock.notifyAll();
-              }
-              // We now own the sendBatchBuffer
-              if (sendBatchBuffer.position() > 0) {
-                final boolean origSocketInUse = socketInUse;
-                socketInUse = true;
-                try {
-                  sendBatchBuffer.flip();
-                  SocketChannel channel = getSocket().getChannel();
-                  writeFully(channel, sendBatchBuffer, false, null);
-                  sendBatchBuffer.clear();
-                } catch (IOException | ConnectionException ex) {
-                  logger.fatal("Exception flushing batch send buffer: %s", ex);
-                  readerShuttingDown = true;
-                  requestClose(String.format("Exception flushing batch send buffer: %s", ex));
-                } finally {
-                  accessed();
-                  socketInUse = origSocketInUse;
-                }
-              }
-              stats.incBatchFlushTime(start);
-            }
-          }
-        }
-      } catch (InterruptedException ex) {
-        // time for this thread to shutdown
-      }
-    }
-  }
 }
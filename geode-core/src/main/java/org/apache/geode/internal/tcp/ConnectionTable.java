@@ -51,6 +51,7 @@ import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.lang.utils.JavaWorkarounds;
 import org.apache.geode.internal.logging.CoreLoggingExecutors;
+import org.apache.geode.internal.monitoring.ThreadsMonitoring;
 import org.apache.geode.internal.net.BufferPool;
 import org.apache.geode.internal.net.SocketCloser;
 import org.apache.geode.logging.internal.executors.LoggingExecutors;
@@ -134,6 +135,24 @@ public class ConnectionTable {
   private static final long READER_POOL_KEEP_ALIVE_TIME =
       Long.getLong("p2p.READER_POOL_KEEP_ALIVE_TIME", 120);
 
+  /**
+   * Number of selector threads that read messages from receiving connections once their handshake
+   * has been read. The default of 0 gives every receiving connection its own reader thread.
+   */
+  private static final int SELECTOR_READERS = Integer.getInteger("p2p.SELECTOR_READERS", 0);
+
+  /**
+   * Number of idle worker threads kept to read and process the messages of connections handed over
+   * to the selector readers. More workers are started while this many are busy.
+   */
+  private static final int SELECTOR_READER_CORE_WORKERS =
+      Integer.getInteger("p2p.SELECTOR_READER_CORE_WORKERS", 64);
+
+  /**
+   * Reads receiving connections when {@link #SELECTOR_READERS} is set; otherwise null
+   */
+  private final SelectorReaderPool selectorReaderPool;
+
   private final SocketCloser socketCloser;
 
   /**
@@ -196,6 +215,7 @@ public class ConnectionTable {
         ? new SystemTimer(conduit.getDM().getSystem()) : null;
     threadConnectionMap = new ConcurrentHashMap();
     p2pReaderThreadPool = createThreadPoolForIO(conduit.getDM().getSystem().isShareSockets());
+    selectorReaderPool = createSelectorReaderPool();
     socketCloser = new SocketCloser();
     bufferPool = conduit.getBufferPool();
   }
@@ -208,6 +228,29 @@ public class ConnectionTable {
         READER_POOL_KEEP_ALIVE_TIME, SECONDS, "UnsharedP2PReader");
   }
 
+  private SelectorReaderPool createSelectorReaderPool() {
+    if (SELECTOR_READERS <= 0) {
+      return null;
+    }
+    try {
+      ThreadsMonitoring threadsMonitoring = owner.getDM().getThreadMonitoring();
+      return new SelectorReaderPool(SELECTOR_READERS,
+          SelectorReaderPool.newWorkers(Math.max(0, SELECTOR_READER_CORE_WORKERS),
+              READER_POOL_KEEP_ALIVE_TIME, SECONDS, threadsMonitoring));
+    } catch (IOException e) {
+      logger.warn("Unable to open selectors for p2p readers; using a thread per connection", e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the pool that receiving connections hand themselves over to once their handshake has
+   * been read, or null if each receiving connection keeps its own reader thread.
+   */
+  SelectorReaderPool getSelectorReaderPool() {
+    return selectorReaderPool;
+  }
+
   /** conduit calls acceptConnection after an accept */
   void acceptConnection(Socket sock, PeerConnectionFactory peerConnectionFactory)
       throws IOException, ConnectionException {
@@ -649,6 +692,9 @@ public class ConnectionTable {
       }
     }
     closeReceivers(false);
+    if (selectorReaderPool != null) {
+      selectorReaderPool.close();
+    }
 
     Map map = threadOrderedConnMap.get();
     if (map != null) {
@@ -906,6 +952,21 @@ public class ConnectionTable {
     lastInstance.set(null);
   }
 
+  /**
+   * Makes the given map hold the calling thread's thread-owned connections, or clears them if it is
+   * null, and returns the map that held them before. This lets a thread that processes the messages
+   * of many receiving connections send on the connections owned by the one it is reading.
+   */
+  static Map setThreadOrderedConnMap(Map map) {
+    Map previous = threadOrderedConnMap.get();
+    if (map == null) {
+      threadOrderedConnMap.remove();
+    } else {
+      threadOrderedConnMap.set(map);
+    }
+    return previous;
+  }
+
   void removeAndCloseThreadOwnedSockets() {
     Map m = threadOrderedConnMap.get();
     if (m != null) {
@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionStats;
+
+/**
+ * Coalesces serialized messages bound for the same peer so that they are written to the network
+ * with one socket write instead of one write each. Each message keeps its own header, so the
+ * receiver reads a batch exactly as it would read the same messages sent one at a time.
+ * <p>
+ * Batching is adaptive: the first thread to send while no write is in progress becomes the writer
+ * and writes what is buffered. Messages sent by other threads while that write is in progress are
+ * buffered and written together once the write completes. A lone sender therefore never waits for
+ * other messages, while many concurrent senders share fewer, larger writes.
+ * <p>
+ * Like an unbatched send, {@link #send} returns only once the message has been written, so a
+ * failed write is thrown to every thread whose message was in the failed batch. A writer only
+ * writes until its own message has been written; any messages buffered meanwhile are written by
+ * one of their senders, so no single thread drains the batches of all the others.
+ * <p>
+ * Optionally the writer waits up to a coalescing window for more messages before writing. A message
+ * that waits for a reply ends the window early so that coalescing does not add to the latency of
+ * an operation.
+ *
+ * @since Geode 1.15
+ */
+class MessageCoalescer {
+
+  /**
+   * Writes a batch of messages to the network
+   */
+  interface BatchWriter {
+    void write(ByteBuffer batch) throws IOException;
+  }
+
+  private final Object lock = new Object();
+  private final BatchWriter batchWriter;
+  private final DMStats stats;
+  private final long windowNanos;
+  private final int flushThreshold;
+
+  /**
+   * Buffers messages while a batch is being written. Guarded by lock.
+   */
+  private ByteBuffer fillBuffer;
+
+  /**
+   * Holds the batch being written. Only accessed by the writer.
+   */
+  private ByteBuffer sendBuffer;
+
+  /** Guarded by lock */
+  private boolean writing;
+
+  /** Guarded by lock */
+  private int bufferedMessages;
+
+  /** Guarded by lock */
+  private boolean replyWaiting;
+
+  /**
+   * The number of the batch being filled. Guarded by lock.
+   */
+  private long fillGeneration = 1;
+
+  /**
+   * The number of the last batch that was written. Guarded by lock.
+   */
+  private long writtenGeneration;
+
+  /**
+   * The failure of an earlier write, after which nothing more is written. Guarded by lock.
+   */
+  private IOException failure;
+
+  /**
+   * @param bufferSize the size of each of the two batch buffers; larger messages are written
+   *        without being copied
+   * @param windowMicros how long a writer waits for more messages before writing a batch that is
+   *        below half of the buffer size, or 0 to only coalesce messages that are sent while a
+   *        write is in progress
+   */
+  MessageCoalescer(BatchWriter batchWriter, DMStats stats, int bufferSize, long windowMicros,
+      boolean useDirectBuffers) {
+    this.batchWriter = batchWriter;
+    this.stats = stats;
+    this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+    flushThreshold = bufferSize / 2;
+    if (useDirectBuffers) {
+      fillBuffer = ByteBuffer.allocateDirect(bufferSize);
+      sendBuffer = ByteBuffer.allocateDirect(bufferSize);
+    } else {
+      fillBuffer = ByteBuffer.allocate(bufferSize);
+      sendBuffer = ByteBuffer.allocate(bufferSize);
+    }
+  }
+
+  /**
+   * Sends the given serialized message and returns once it has been written, either by this thread
+   * or as part of a batch written by another thread.
+   *
+   * @param waitsForReply true if the sender of the message is going to wait for a reply to it
+   * @throws IOException if the batch containing the message, or an earlier batch, could not be
+   *         written. The connection should then be closed.
+   */
+  void send(ByteBuffer message, boolean waitsForReply) throws IOException {
+    final long start = DistributionStats.getStatTime();
+    try {
+      long generation = 0;
+      synchronized (lock) {
+        checkFailure();
+        while (writing && message.remaining() > fillBuffer.remaining()) {
+          // wait for the writer to take the full buffer
+          awaitLock();
+          checkFailure();
+        }
+        if (message.remaining() <= fillBuffer.remaining()) {
+          generation = append(message, waitsForReply);
+          message = null;
+          while (writing) {
+            // wait for another thread to write the batch, or take over writing it
+            awaitLock();
+            checkFailure();
+            if (writtenGeneration >= generation) {
+              return;
+            }
+          }
+        }
+        writing = true;
+      }
+      write(message, generation);
+    } finally {
+      stats.incBatchSendTime(start);
+    }
+  }
+
+  /**
+   * Must be called while holding lock
+   */
+  private void checkFailure() throws IOException {
+    if (failure != null) {
+      throw new IOException("An earlier batch could not be written", failure);
+    }
+  }
+
+  /**
+   * Must be called while holding lock
+   */
+  private void awaitLock() {
+    final long waitStart = DistributionStats.getStatTime();
+    boolean interrupted = Thread.interrupted();
+    try {
+      lock.wait();
+    } catch (InterruptedException e) {
+      interrupted = true;
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      stats.incBatchWaitTime(waitStart);
+    }
+  }
+
+  /**
+   * Must be called while holding lock
+   *
+   * @return the number of the batch the message was added to
+   */
+  private long append(ByteBuffer message, boolean waitsForReply) {
+    final long copyStart = DistributionStats.getStatTime();
+    fillBuffer.put(message);
+    stats.incBatchCopyTime(copyStart);
+    bufferedMessages++;
+    if (waitsForReply) {
+      replyWaiting = true;
+    }
+    return fillGeneration;
+  }
+
+  /**
+   * Writes batches until the batch with the given number has been written. A message that was too
+   * large to buffer is written after the messages that were buffered before it.
+   */
+  private void write(ByteBuffer largeMessage, long generation) throws IOException {
+    try {
+      if (largeMessage == null) {
+        while (!isWritten(generation)) {
+          writeBatch(true);
+        }
+      } else {
+        writeBatch(false);
+        batchWriter.write(largeMessage);
+      }
+    } catch (IOException | RuntimeException | Error e) {
+      synchronized (lock) {
+        if (failure == null) {
+          failure = e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+        fillBuffer.clear();
+        bufferedMessages = 0;
+        replyWaiting = false;
+      }
+      throw e;
+    } finally {
+      synchronized (lock) {
+        writing = false;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private boolean isWritten(long generation) {
+    synchronized (lock) {
+      return writtenGeneration >= generation;
+    }
+  }
+
+  /**
+   * Swaps the buffers and writes the batch that was being filled, if there is one.
+   *
+   * @param awaitWindow whether to first give other threads the coalescing window to add messages
+   */
+  private void writeBatch(boolean awaitWindow) throws IOException {
+    if (awaitWindow) {
+      awaitWindow();
+    }
+    final long generation;
+    final int messages;
+    final boolean full;
+    final boolean reply;
+    synchronized (lock) {
+      if (fillBuffer.position() == 0) {
+        return;
+      }
+      generation = fillGeneration++;
+      messages = bufferedMessages;
+      full = fillBuffer.position() >= flushThreshold;
+      reply = replyWaiting;
+      ByteBuffer filled = fillBuffer;
+      fillBuffer = sendBuffer;
+      sendBuffer = filled;
+      bufferedMessages = 0;
+      replyWaiting = false;
+      lock.notifyAll();
+    }
+    final long flushStart = DistributionStats.getStatTime();
+    sendBuffer.flip();
+    final int bytes = sendBuffer.remaining();
+    try {
+      batchWriter.write(sendBuffer);
+    } finally {
+      sendBuffer.clear();
+    }
+    synchronized (lock) {
+      writtenGeneration = generation;
+      lock.notifyAll();
+    }
+    stats.incBatchFlushTime(flushStart);
+    stats.incBatchesSent(messages, bytes);
+    if (full) {
+      stats.incBatchSizeFlushes();
+    } else if (reply) {
+      stats.incBatchReplyFlushes();
+    } else if (windowNanos > 0) {
+      stats.incBatchWindowFlushes();
+    } else {
+      stats.incBatchDrainFlushes();
+    }
+  }
+
+  /**
+   * Gives other threads up to the coalescing window to add to the batch unless it is already large
+   * enough or contains a message that waits for a reply.
+   */
+  private void awaitWindow() {
+    if (windowNanos <= 0) {
+      return;
+    }
+    final long deadline = System.nanoTime() + windowNanos;
+    while (true) {
+      synchronized (lock) {
+        if (replyWaiting || fillBuffer.position() >= flushThreshold
+            || fillBuffer.position() == 0) {
+          return;
+        }
+      }
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return;
+      }
+      LockSupport.parkNanos(this, Math.min(remaining, windowNanos / 4 + 1));
+    }
+  }
+
+  @VisibleForTesting
+  int getBufferedMessages() {
+    synchronized (lock) {
+      return bufferedMessages;
+    }
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static java.lang.Integer.MAX_VALUE;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.CoreLoggingExecutors;
+import org.apache.geode.internal.monitoring.ThreadsMonitoring;
+import org.apache.geode.internal.monitoring.executor.AbstractExecutor;
+import org.apache.geode.logging.internal.executors.LoggingThread;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * Reads from many channels using a small number of selector threads instead of a reader thread per
+ * channel. A selector thread only detects that a channel is readable; the read itself, and the
+ * processing of the messages that were read, is done by a worker thread. While a worker is reading
+ * a channel the channel is not selected again, so a channel is never read by two threads at once
+ * and the messages received on it are processed in the order they were sent.
+ * <p>
+ * Idle channels do not use a thread, so the number of threads needed to receive messages depends on
+ * the number of channels that are busy rather than on the number of peers.
+ *
+ * @since Geode 1.15
+ */
+class SelectorReaderPool {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * How often a selector thread checks for channels that were closed without being selected
+   */
+  private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+  /**
+   * Reads what is available on a channel registered with a SelectorReaderPool.
+   */
+  interface Reader {
+    /**
+     * Reads and processes the bytes currently available.
+     *
+     * @return true if the pool should keep reading the channel; false to deregister it
+     */
+    boolean readAvailableMessages();
+  }
+
+  /**
+   * The thread monitoring executor registered for the current worker thread, if it was started
+   * through {@link #runMonitoredWorker}.
+   */
+  private static final ThreadLocal<AbstractExecutor> workerMonitor = new ThreadLocal<>();
+
+  private final SelectorLoop[] loops;
+  private final ExecutorService workers;
+  private final AtomicInteger nextLoop = new AtomicInteger();
+  private volatile boolean closed;
+
+  SelectorReaderPool(int selectorCount, ExecutorService workers) throws IOException {
+    this.workers = workers;
+    loops = new SelectorLoop[selectorCount];
+    try {
+      for (int i = 0; i < selectorCount; i++) {
+        loops[i] = new SelectorLoop(Selector.open());
+      }
+    } catch (IOException e) {
+      close();
+      throw e;
+    }
+    for (int i = 0; i < selectorCount; i++) {
+      new LoggingThread("P2P selector reader " + i, loops[i]).start();
+    }
+  }
+
+  /**
+   * Creates the worker threads for a SelectorReaderPool. Up to {@code coreWorkers} idle workers
+   * are kept, but a readable channel never waits for a busy worker: a new worker is started
+   * instead. Workers may block while processing a message, for example while waiting for a reply
+   * that has to be read from another channel, so a bounded number of workers could deadlock.
+   */
+  static ExecutorService newWorkers(int coreWorkers, long keepAliveTime, TimeUnit unit,
+      ThreadsMonitoring threadsMonitoring) {
+    return CoreLoggingExecutors.newThreadPoolWithSynchronousFeed(coreWorkers, MAX_VALUE,
+        keepAliveTime, unit, "P2PSelectorReaderWorker", null,
+        worker -> runMonitoredWorker(threadsMonitoring, worker));
+  }
+
+  /**
+   * Runs a worker thread of the pool, registering it with thread monitoring once for as long as the
+   * thread lives rather than for every read. Intended as the command wrapper of the workers' thread
+   * factory.
+   */
+  static void runMonitoredWorker(ThreadsMonitoring threadsMonitoring, Runnable worker) {
+    AbstractExecutor executor =
+        threadsMonitoring.createAbstractExecutor(ThreadsMonitoring.Mode.P2PReaderExecutor);
+    executor.suspendMonitoring();
+    threadsMonitoring.register(executor);
+    workerMonitor.set(executor);
+    try {
+      worker.run();
+    } finally {
+      workerMonitor.remove();
+      threadsMonitoring.unregister(executor);
+    }
+  }
+
+  /**
+   * Returns the thread monitoring executor of the current worker thread, or null if the thread was
+   * not started through {@link #runMonitoredWorker}.
+   */
+  static AbstractExecutor getWorkerMonitor() {
+    return workerMonitor.get();
+  }
+
+  /**
+   * Starts reading the given non-blocking channel. The reader is invoked whenever the channel is
+   * readable until it returns false.
+   */
+  void register(Reader reader, SelectableChannel channel) {
+    SelectorLoop loop = loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)];
+    loop.change(new Registration(reader, channel, loop));
+  }
+
+  void close() {
+    closed = true;
+    for (SelectorLoop loop : loops) {
+      if (loop != null) {
+        loop.selector.wakeup();
+      }
+    }
+    workers.shutdown();
+  }
+
+  private void dispatch(Registration registration) {
+    if (!registration.busy.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      workers.execute(() -> read(registration));
+    } catch (RejectedExecutionException e) {
+      // the pool is shutting down
+      registration.busy.set(false);
+    }
+  }
+
+  private void read(Registration registration) {
+    boolean keepReading = false;
+    try {
+      keepReading = registration.reader.readAvailableMessages();
+    } finally {
+      if (keepReading) {
+        registration.busy.set(false);
+      } else {
+        registration.removed = true;
+      }
+      registration.loop.change(registration);
+    }
+  }
+
+  private static class Registration {
+    private final Reader reader;
+    private final SelectableChannel channel;
+    private final SelectorLoop loop;
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private volatile boolean removed;
+    private SelectionKey key;
+
+    Registration(Reader reader, SelectableChannel channel, SelectorLoop loop) {
+      this.reader = reader;
+      this.channel = channel;
+      this.loop = loop;
+    }
+  }
+
+  private class SelectorLoop implements Runnable {
+    private final Selector selector;
+
+    /**
+     * Registrations that need to be added, resumed or removed by the selector thread
+     */
+    private final Queue<Registration> changes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Only accessed by the selector thread
+     */
+    private final Set<Registration> registrations = new HashSet<>();
+
+    SelectorLoop(Selector selector) {
+      this.selector = selector;
+    }
+
+    void change(Registration registration) {
+      changes.add(registration);
+      selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+      long lastSweep = System.currentTimeMillis();
+      try {
+        while (!closed) {
+          selector.select(SWEEP_INTERVAL_MILLIS);
+          applyChanges();
+          Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+          while (selected.hasNext()) {
+            SelectionKey key = selected.next();
+            selected.remove();
+            try {
+              key.interestOps(0);
+            } catch (CancelledKeyException ignore) {
+              // the read will notice that the channel is closed
+            }
+            dispatch((Registration) key.attachment());
+          }
+          long now = System.currentTimeMillis();
+          if (now - lastSweep >= SWEEP_INTERVAL_MILLIS) {
+            lastSweep = now;
+            sweep();
+          }
+        }
+      } catch (ClosedSelectorException ignore) {
+        // closed
+      } catch (IOException e) {
+        logger.fatal("P2P selector reader failed", e);
+      } finally {
+        try {
+          selector.close();
+        } catch (IOException ignore) {
+        }
+      }
+    }
+
+    private void applyChanges() {
+      Registration registration;
+      while ((registration = changes.poll()) != null) {
+        if (registration.removed) {
+          registrations.remove(registration);
+          if (registration.key != null) {
+            registration.key.cancel();
+          }
+        } else if (registration.key == null) {
+          try {
+            registration.key =
+                registration.channel.register(selector, SelectionKey.OP_READ, registration);
+            registrations.add(registration);
+          } catch (IOException | CancelledKeyException e) {
+            // let the reader find out that its channel is no longer usable
+            dispatch(registration);
+          }
+        } else if (registration.key.isValid()) {
+          registration.key.interestOps(SelectionKey.OP_READ);
+        } else {
+          dispatch(registration);
+        }
+      }
+    }
+
+    /**
+     * A channel closed by another thread has its key cancelled without ever being selected, so
+     * give the readers of closed channels a chance to clean up.
+     */
+    private void sweep() {
+      for (Registration registration : registrations) {
+        if (!registration.channel.isOpen()) {
+          dispatch(registration);
+        }
+      }
+    }
+  }
+}
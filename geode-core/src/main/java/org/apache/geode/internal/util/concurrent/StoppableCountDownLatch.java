@@ -95,6 +95,25 @@ public class StoppableCountDownLatch {
     return delegate.await(timeoutNanos, NANOSECONDS);
   }
 
+  /**
+   * Checks the count up to the given number of times, without blocking, yielding the processor
+   * for the second half of the checks. This lets a waiter that expects the latch to be released
+   * very soon avoid being parked and woken up again.
+   *
+   * @return true if the count reached zero
+   */
+  public boolean spinAwait(final int tries) {
+    for (int i = 0; i < tries; i++) {
+      if (delegate.getCount() == 0) {
+        return true;
+      }
+      if (i >= tries / 2) {
+        Thread.yield();
+      }
+    }
+    return delegate.getCount() == 0;
+  }
+
   public void countDown() {
     delegate.countDown();
   }
@@ -17,6 +17,9 @@ package org.apache.geode.pdx.internal;
 import java.io.Externalizable;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -39,6 +42,8 @@ import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CancelException;
 import org.apache.geode.annotations.Immutable;
+import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.annotations.internal.MutableForTesting;
 import org.apache.geode.cache.RegionService;
 import org.apache.geode.internal.CopyOnWriteHashSet;
 import org.apache.geode.internal.PdxSerializerObject;
@@ -655,6 +660,204 @@ public class AutoSerializableManager {
     }
   }
 
+  /**
+   * Accesses fields through {@link MethodHandle}s created once per field. Unlike reflection the
+   * handles are invoked with exact, unboxed signatures, which avoids boxing primitive values and
+   * checking access on every call. The handles are held in instance fields, so the JIT does not
+   * treat them as constants and does not inline them the way it would a static final handle. This
+   * also works on JVMs where Unsafe is unavailable.
+   */
+  private static class MethodHandleFieldWrapper extends FieldWrapper {
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    public MethodHandleFieldWrapper(Field f) throws IllegalAccessException {
+      super(f);
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      Class<?> type = f.getType().isPrimitive() ? f.getType() : Object.class;
+      this.getter = lookup.unreflectGetter(f).asType(MethodType.methodType(type, Object.class));
+      this.setter =
+          lookup.unreflectSetter(f).asType(MethodType.methodType(void.class, Object.class, type));
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+      if (t instanceof RuntimeException) {
+        throw (RuntimeException) t;
+      }
+      if (t instanceof Error) {
+        throw (Error) t;
+      }
+      throw new IllegalStateException(t);
+    }
+
+    @Override
+    public int getInt(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (int) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setInt(Object o, int v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public boolean getBoolean(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (boolean) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setBoolean(Object o, boolean v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public byte getByte(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (byte) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setByte(Object o, byte v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public short getShort(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (short) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setShort(Object o, short v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public char getChar(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (char) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setChar(Object o, char v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public long getLong(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (long) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setLong(Object o, long v) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public float getFloat(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (float) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setFloat(Object o, float v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public double getDouble(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (double) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setDouble(Object o, double v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public Object getObject(Object o) throws IllegalArgumentException, IllegalAccessException {
+      try {
+        return (Object) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setObject(Object o, Object v)
+        throws IllegalArgumentException, IllegalAccessException {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+  }
+
   // unsafe will be null if the Unsafe class is not available or SAFE was requested.
   // We attempt to use Unsafe by default for best performance.
   @Immutable
@@ -679,6 +882,35 @@ public class AutoSerializableManager {
     unsafe = tmp;
   }
 
+  /**
+   * If true, fields are accessed through {@link MethodHandleFieldWrapper} instead of Unsafe or
+   * reflection.
+   */
+  @MutableForTesting
+  private static boolean useMethodHandles =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "AutoSerializer.METHOD_HANDLES");
+
+  @VisibleForTesting
+  static void setUseMethodHandles(boolean value) {
+    useMethodHandles = value;
+  }
+
+  private static FieldWrapper createFieldWrapper(Field f) {
+    if (useMethodHandles) {
+      try {
+        return new MethodHandleFieldWrapper(f);
+      } catch (IllegalAccessException ex) {
+        // some fields, for example final ones, can not be set through a method handle
+        logger.debug("Falling back to {} access for field {}",
+            unsafe != null ? "Unsafe" : "reflective", f, ex);
+      }
+    }
+    if (unsafe != null) {
+      return new UnsafeFieldWrapper(f);
+    }
+    return new FieldWrapper(f);
+  }
+
   public abstract static class PdxFieldWrapper {
     private final FieldWrapper field;
     private final String fieldName;
@@ -688,13 +920,7 @@ public class AutoSerializableManager {
 
     protected PdxFieldWrapper(AutoSerializableManager owner, Field f, String name,
         boolean transformValue, boolean isIdentityField) {
-      FieldWrapper tmp;
-      if (unsafe != null) {
-        tmp = new UnsafeFieldWrapper(f);
-      } else {
-        tmp = new FieldWrapper(f);
-      }
-      this.field = tmp;
+      this.field = createFieldWrapper(f);
       this.fieldName = name;
       this.transformValue = transformValue;
       this.owner = owner;
@@ -761,6 +987,11 @@ public class AutoSerializableManager {
       return this.field.getField();
     }
 
+    @VisibleForTesting
+    boolean isAccessedThroughMethodHandle() {
+      return this.field instanceof MethodHandleFieldWrapper;
+    }
+
     public String getName() {
       return this.fieldName;
     }
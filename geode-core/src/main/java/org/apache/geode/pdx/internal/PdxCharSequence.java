@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import org.apache.geode.internal.serialization.DSCODE;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSource;
+
+/**
+ * A reusable {@link CharSequence} view of a serialized String field of a PdxInstance. The view
+ * reads characters directly from the serialized bytes, which may be on or off heap, using absolute
+ * reads so that it never copies the bytes or creates a String.
+ *
+ * Instances are flyweights: {@link PdxInstanceImpl#readCharSequence(int, PdxCharSequence)} points
+ * an existing instance at a new field, so scanning many values needs a single instance per thread.
+ * A view is only valid while the PdxInstance it was read from is.
+ *
+ * @since Geode 1.15
+ */
+public class PdxCharSequence implements CharSequence {
+  private ByteSource buffer;
+
+  /** absolute position of the first encoded character */
+  private int start;
+
+  /** number of bytes in the encoded characters */
+  private int encodedLength;
+
+  /** number of characters; -1 until computed for modified UTF-8 encoded strings */
+  private int length;
+
+  private DSCODE encoding;
+
+  /**
+   * Points this view at the String serialized at the given position.
+   *
+   * @return false if the serialized String is null, in which case this view is left empty
+   */
+  boolean wrap(ByteSource buffer, int position) {
+    byte header = buffer.get(position);
+    this.buffer = buffer;
+    if (header == DSCODE.STRING_BYTES.toByte()) {
+      encoding = DSCODE.STRING_BYTES;
+      length = buffer.getShort(position + 1) & 0xFFFF;
+      encodedLength = length;
+      start = position + 3;
+    } else if (header == DSCODE.HUGE_STRING_BYTES.toByte()) {
+      encoding = DSCODE.HUGE_STRING_BYTES;
+      length = buffer.getInt(position + 1);
+      encodedLength = length;
+      start = position + 5;
+    } else if (header == DSCODE.STRING.toByte()) {
+      encoding = DSCODE.STRING;
+      length = -1;
+      encodedLength = buffer.getShort(position + 1) & 0xFFFF;
+      start = position + 3;
+    } else if (header == DSCODE.HUGE_STRING.toByte()) {
+      encoding = DSCODE.HUGE_STRING;
+      length = buffer.getInt(position + 1);
+      encodedLength = length * 2;
+      start = position + 5;
+    } else if (header == DSCODE.NULL_STRING.toByte() || header == DSCODE.NULL.toByte()) {
+      clear();
+      return false;
+    } else {
+      throw new IllegalStateException("Expected a String but found header " + header);
+    }
+    return true;
+  }
+
+  private void clear() {
+    buffer = null;
+    encoding = null;
+    start = 0;
+    encodedLength = 0;
+    length = 0;
+  }
+
+  @Override
+  public int length() {
+    if (length < 0) {
+      int count = 0;
+      int pos = start;
+      int end = start + encodedLength;
+      while (pos < end) {
+        pos += utfSequenceLength(buffer.get(pos));
+        count++;
+      }
+      length = count;
+    }
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length()) {
+      throw new IndexOutOfBoundsException("index " + index + " length " + length());
+    }
+    switch (encoding) {
+      case STRING_BYTES:
+      case HUGE_STRING_BYTES:
+        return (char) (buffer.get(start + index) & 0xFF);
+      case HUGE_STRING:
+        return buffer.getChar(start + index * 2);
+      default:
+        int pos = start;
+        for (int i = 0; i < index; i++) {
+          pos += utfSequenceLength(buffer.get(pos));
+        }
+        return decodeUtfChar(pos);
+    }
+  }
+
+  private static int utfSequenceLength(byte first) {
+    int b = first & 0xFF;
+    if (b < 0x80) {
+      return 1;
+    } else if ((b & 0xE0) == 0xC0) {
+      return 2;
+    }
+    return 3;
+  }
+
+  private char decodeUtfChar(int pos) {
+    int a = buffer.get(pos) & 0xFF;
+    if (a < 0x80) {
+      return (char) a;
+    }
+    int b = buffer.get(pos + 1) & 0x3F;
+    if ((a & 0xE0) == 0xC0) {
+      return (char) (((a & 0x1F) << 6) | b);
+    }
+    int c = buffer.get(pos + 2) & 0x3F;
+    return (char) (((a & 0x0F) << 12) | (b << 6) | c);
+  }
+
+  /**
+   * Compares the characters of this view with the given sequence without creating a String.
+   */
+  public boolean contentEquals(CharSequence other) {
+    int len = length();
+    if (other == null || other.length() != len) {
+      return false;
+    }
+    if (encoding == DSCODE.STRING) {
+      int pos = start;
+      for (int i = 0; i < len; i++) {
+        if (decodeUtfChar(pos) != other.charAt(i)) {
+          return false;
+        }
+        pos += utfSequenceLength(buffer.get(pos));
+      }
+      return true;
+    }
+    for (int i = 0; i < len; i++) {
+      if (charAt(i) != other.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return toString().substring(start, end);
+  }
+
+  @Override
+  public String toString() {
+    int len = length();
+    StringBuilder builder = new StringBuilder(len);
+    if (encoding == DSCODE.STRING) {
+      int pos = start;
+      for (int i = 0; i < len; i++) {
+        builder.append(decodeUtfChar(pos));
+        pos += utfSequenceLength(buffer.get(pos));
+      }
+    } else {
+      for (int i = 0; i < len; i++) {
+        builder.append(charAt(i));
+      }
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.geode.InvalidDeltaException;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.serialization.ByteArrayDataInput;
+import org.apache.geode.internal.serialization.DSCODE;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSource;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * Computes and applies field level deltas between two serialized PDX values of the same type.
+ * This lets an update of a few fields of a wide PDX object be distributed without the user
+ * implementing {@link org.apache.geode.Delta}.
+ *
+ * A delta starts with a magic number so that receivers can tell it apart from the bytes produced
+ * by a user Delta, followed by the type id and the raw serialized bytes of each changed field.
+ * Since receivers must understand this format it is only produced when the
+ * {@code gemfire.pdx.fieldDeltaPropagation} system property is set on all members.
+ *
+ * @since Geode 1.15
+ */
+public class PdxFieldDelta {
+
+  public static final boolean ENABLED =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "pdx.fieldDeltaPropagation");
+
+  /** "PDXD" */
+  private static final int MAGIC = 0x50445844;
+
+  private static final int DELTA_HEADER_SIZE = 12;
+
+  private PdxFieldDelta() {
+    // static utility
+  }
+
+  /**
+   * Returns true if the given delta bytes were created by {@link #createDelta}.
+   */
+  public static boolean isPdxFieldDelta(byte[] deltaBytes) {
+    return deltaBytes != null && deltaBytes.length >= DELTA_HEADER_SIZE
+        && ByteBuffer.wrap(deltaBytes).getInt(0) == MAGIC;
+  }
+
+  /**
+   * Returns true if the given bytes are a serialized PDX value.
+   */
+  public static boolean isPdx(byte[] bytes) {
+    return getTypeId(bytes) != 0;
+  }
+
+  /**
+   * Returns the field delta that turns oldBytes into newBytes, or null if the values are not PDX
+   * values of the same type or the delta would not be smaller than half of the new value.
+   */
+  public static byte[] createDelta(byte[] oldBytes, byte[] newBytes, TypeRegistry registry) {
+    int typeId = getTypeId(newBytes);
+    if (typeId == 0 || typeId != getTypeId(oldBytes)) {
+      return null;
+    }
+    PdxType type = registry.getType(typeId);
+    if (type == null || type.getHasDeletedField()) {
+      return null;
+    }
+    PdxReaderImpl oldReader = createReader(type, oldBytes);
+    PdxReaderImpl newReader = createReader(type, newBytes);
+    List<PdxField> changedFields = new ArrayList<>();
+    int changedSize = 0;
+    for (PdxField field : type.getFields()) {
+      ByteSource newField = newReader.getRaw(field);
+      if (!sameBytes(oldReader.getRaw(field), newField)) {
+        changedFields.add(field);
+        changedSize += newField.remaining() + 8;
+      }
+    }
+    if (DELTA_HEADER_SIZE + changedSize >= newBytes.length / 2) {
+      return null;
+    }
+    try (HeapDataOutputStream out =
+        new HeapDataOutputStream(DELTA_HEADER_SIZE + changedSize, KnownVersion.CURRENT)) {
+      out.writeInt(MAGIC);
+      out.writeInt(typeId);
+      out.writeInt(changedFields.size());
+      for (PdxField field : changedFields) {
+        ByteSource newField = newReader.getRaw(field);
+        out.writeInt(field.getFieldIndex());
+        out.writeInt(newField.remaining());
+        newField.sendTo(out);
+      }
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not create PDX field delta", e);
+    }
+  }
+
+  /**
+   * Applies a delta created by {@link #createDelta} to the serialized old value.
+   *
+   * @return the serialized new value
+   * @throws InvalidDeltaException if the old value is not a PDX value of the delta's type
+   */
+  public static byte[] applyDelta(byte[] oldBytes, byte[] deltaBytes, TypeRegistry registry) {
+    try (ByteArrayDataInput in = new ByteArrayDataInput(deltaBytes)) {
+      if (in.readInt() != MAGIC) {
+        throw new InvalidDeltaException("Not a PDX field delta");
+      }
+      int typeId = in.readInt();
+      if (typeId != getTypeId(oldBytes)) {
+        throw new InvalidDeltaException(
+            "PDX field delta for type " + typeId + " does not match the old value's type");
+      }
+      PdxType type = registry.getType(typeId);
+      if (type == null || type.getHasDeletedField()) {
+        throw new InvalidDeltaException("PDX type " + typeId + " does not support field deltas");
+      }
+      byte[][] changedFields = new byte[type.getFieldCount()][];
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        int fieldIndex = in.readInt();
+        byte[] fieldBytes = new byte[in.readInt()];
+        in.readFully(fieldBytes);
+        changedFields[fieldIndex] = fieldBytes;
+      }
+      PdxReaderImpl oldReader = createReader(type, oldBytes);
+      PdxOutputStream os = new PdxOutputStream(oldBytes.length + deltaBytes.length);
+      PdxWriterImpl writer = new PdxWriterImpl(type, os);
+      for (PdxField field : type.getFields()) {
+        byte[] changed = changedFields[field.getFieldIndex()];
+        if (changed != null) {
+          writer.writeRawField(field, changed);
+        } else {
+          writer.writeRawField(field, oldReader.getRaw(field));
+        }
+      }
+      writer.completeByteStreamGeneration();
+      return writer.toByteArray();
+    } catch (IOException | IndexOutOfBoundsException e) {
+      throw new InvalidDeltaException("Could not apply PDX field delta", e);
+    }
+  }
+
+  private static int getTypeId(byte[] bytes) {
+    if (bytes == null || bytes.length < PdxWriterImpl.HEADER_SIZE
+        || bytes[0] != DSCODE.PDX.toByte()) {
+      return 0;
+    }
+    return ByteBuffer.wrap(bytes).getInt(5);
+  }
+
+  private static PdxReaderImpl createReader(PdxType type, byte[] bytes) {
+    int length = ByteBuffer.wrap(bytes).getInt(1);
+    ByteBuffer fields = ByteBuffer.wrap(bytes, PdxWriterImpl.HEADER_SIZE, length).slice();
+    return new PdxReaderImpl(type, new PdxInputStream(fields));
+  }
+
+  private static boolean sameBytes(ByteSource a, ByteSource b) {
+    int length = a.remaining();
+    if (length != b.remaining()) {
+      return false;
+    }
+    int aStart = a.position();
+    int bStart = b.position();
+    for (int i = 0; i < length; i++) {
+      if (a.get(aStart + i) != b.get(bStart + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -42,7 +42,9 @@ import org.apache.geode.internal.tcp.ByteBufferInputStream;
 import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSource;
 import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSourceFactory;
 import org.apache.geode.internal.util.Hex;
+import org.apache.geode.pdx.FieldType;
 import org.apache.geode.pdx.JSONFormatter;
+import org.apache.geode.pdx.PdxFieldTypeMismatchException;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.WritablePdxInstance;
 
@@ -533,6 +535,80 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
     return this;
   }
 
+  /**
+   * Returns the index of the named field for use with the index based accessors, or -1 if this
+   * instance's type does not have the field. Indexes are stable for a given PdxType so callers
+   * scanning many instances of the same type can look up the index once.
+   */
+  public int getFieldIndex(String fieldName) {
+    PdxField field = getPdxType().getPdxField(fieldName);
+    return field == null ? -1 : field.getFieldIndex();
+  }
+
+  private PdxField getPdxField(int fieldIndex, FieldType expectedType) {
+    PdxField field = getPdxType().getPdxFieldByIndex(fieldIndex);
+    if (field.getFieldType() != expectedType) {
+      throw new PdxFieldTypeMismatchException("Expected " + expectedType.name().toLowerCase()
+          + " field but found field of type " + field.getTypeIdString());
+    }
+    return field;
+  }
+
+  // The index based accessors below use absolute reads of the serialized bytes, so they
+  // neither allocate nor need to be synchronized. Writable instances first apply their
+  // modified fields through getUnmodifiableReader().
+
+  public boolean getBoolean(int fieldIndex) {
+    return getUnmodifiableReader().readBoolean(getPdxField(fieldIndex, FieldType.BOOLEAN));
+  }
+
+  public byte getByte(int fieldIndex) {
+    return getUnmodifiableReader().readByte(getPdxField(fieldIndex, FieldType.BYTE));
+  }
+
+  public short getShort(int fieldIndex) {
+    return getUnmodifiableReader().readShort(getPdxField(fieldIndex, FieldType.SHORT));
+  }
+
+  public char getChar(int fieldIndex) {
+    return getUnmodifiableReader().readChar(getPdxField(fieldIndex, FieldType.CHAR));
+  }
+
+  public int getInt(int fieldIndex) {
+    return getUnmodifiableReader().readInt(getPdxField(fieldIndex, FieldType.INT));
+  }
+
+  public long getLong(int fieldIndex) {
+    return getUnmodifiableReader().readLong(getPdxField(fieldIndex, FieldType.LONG));
+  }
+
+  public float getFloat(int fieldIndex) {
+    return getUnmodifiableReader().readFloat(getPdxField(fieldIndex, FieldType.FLOAT));
+  }
+
+  public double getDouble(int fieldIndex) {
+    return getUnmodifiableReader().readDouble(getPdxField(fieldIndex, FieldType.DOUBLE));
+  }
+
+  /**
+   * Points the given reusable view at a String field without creating a String.
+   *
+   * @return false if the field is null
+   */
+  public boolean readCharSequence(int fieldIndex, PdxCharSequence target) {
+    return getUnmodifiableReader().readCharSequence(getPdxField(fieldIndex, FieldType.STRING),
+        target);
+  }
+
+  /**
+   * Returns a view of a String field that reads the serialized characters on demand, or null if
+   * the field is null.
+   */
+  public CharSequence getCharSequence(int fieldIndex) {
+    PdxCharSequence charSequence = new PdxCharSequence();
+    return readCharSequence(fieldIndex, charSequence) ? charSequence : null;
+  }
+
   // All PdxReaderImpl methods that might change the ByteBuffer position
   // need to be synchronized so that they are done atomically.
   // This fixes bug 43178.
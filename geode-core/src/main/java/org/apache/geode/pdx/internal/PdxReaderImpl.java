@@ -645,6 +645,15 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
     return getAbsolutePosition(ft);
   }
 
+  /**
+   * Points the given view at the String field without deserializing it.
+   *
+   * @return false if the field is null
+   */
+  protected boolean readCharSequence(PdxField ft, PdxCharSequence target) {
+    return target.wrap(dis.getBuffer(), getPositionForField(ft));
+  }
+
   private int getAbsolutePosition(PdxField ft) {
     int pos = 0;
     int idx0 = ft.getRelativeOffset();
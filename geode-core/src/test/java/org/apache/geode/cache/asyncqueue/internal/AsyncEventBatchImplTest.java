@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.asyncqueue.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.asyncqueue.AsyncEventBatchListener;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.test.junit.categories.AEQTest;
+
+@Category(AEQTest.class)
+public class AsyncEventBatchImplTest {
+
+  private final GatewaySenderEventImpl first = mock(GatewaySenderEventImpl.class);
+  private final GatewaySenderEventImpl second = mock(GatewaySenderEventImpl.class);
+  private final List<GatewaySenderEventImpl> events = Arrays.asList(first, second);
+  private final AsyncEventBatchImpl batch = new AsyncEventBatchImpl(events);
+
+  @Test
+  public void eventsAreAccessedByIndex() {
+    byte[] serializedValue = {1, 2, 3};
+    when(second.getKey()).thenReturn("key");
+    when(second.getOperation()).thenReturn(Operation.UPDATE);
+    when(second.getSerializedValue()).thenReturn(serializedValue);
+    when(second.getPossibleDuplicate()).thenReturn(true);
+
+    assertThat(batch.size()).isEqualTo(2);
+    assertThat(batch.getKey(1)).isEqualTo("key");
+    assertThat(batch.getOperation(1)).isEqualTo(Operation.UPDATE);
+    assertThat(batch.getSerializedValue(1)).isSameAs(serializedValue);
+    assertThat(batch.getPossibleDuplicate(1)).isTrue();
+    assertThat(batch.getEvents()).containsExactly(first, second);
+  }
+
+  @Test
+  public void valuesNotSerializedWithPdxHaveNoPdxInstance() {
+    when(first.getValueIsObject()).thenReturn((byte) 0x01);
+    when(first.getSerializedValue()).thenReturn(new byte[] {44, 0, 0, 0, 1});
+
+    assertThat(batch.getPdxInstance(0)).isNull();
+    assertThat(batch.getField(0, "id")).isNull();
+    verify(first, never()).getDeserializedValue();
+  }
+
+  @Test
+  public void eventsWithoutValueHaveNoPdxInstance() {
+    when(second.getValueIsObject()).thenReturn((byte) 0x01);
+
+    assertThat(batch.getPdxInstance(1)).isNull();
+  }
+
+  @Test
+  public void byteArrayValuesHaveNoPdxInstance() {
+    when(first.getValueIsObject()).thenReturn((byte) 0x00);
+
+    assertThat(batch.getPdxInstance(0)).isNull();
+    verify(first, never()).getSerializedValue();
+  }
+
+  @Test
+  public void batchListenerDoesNotProcessAListOfEvents() {
+    AsyncEventBatchListener listener = received -> true;
+
+    assertThatThrownBy(() -> listener.processEvents(batch.getEvents()))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+}
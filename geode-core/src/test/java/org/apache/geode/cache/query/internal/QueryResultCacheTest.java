@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.query.SelectResults;
+
+public class QueryResultCacheTest {
+  private static final String QUERY = "SELECT * FROM /region WHERE id = $1";
+
+  private QueryResultCacheStats stats;
+  private QueryResultCache cache;
+
+  @Before
+  public void setUp() {
+    stats = mock(QueryResultCacheStats.class);
+    cache = new QueryResultCache(2, stats);
+  }
+
+  @Test
+  public void getReturnsNullWhenNothingWasCached() {
+    assertThat(cache.get(QUERY, new Object[] {1})).isNull();
+    verify(stats).incMisses();
+  }
+
+  @Test
+  public void getReturnsResultCachedForSameQueryAndParameters() {
+    SelectResults<?> results = mock(SelectResults.class);
+    SelectResults<?> returned = cache.put(QUERY, new Object[] {1}, cache.getVersion(), results,
+        true);
+
+    QueryResultCache.CachedResult cached = cache.get(QUERY, new Object[] {1});
+
+    assertThat(cached.getSelectResults()).isSameAs(returned);
+    assertThat(cached.isIndexUsed()).isTrue();
+    verify(stats).incHits();
+    verify(stats).setResults(1);
+  }
+
+  @Test
+  public void cachedResultsAreReadOnly() {
+    @SuppressWarnings("unchecked")
+    SelectResults<Object> results = mock(SelectResults.class);
+
+    SelectResults<?> returned = cache.put(QUERY, new Object[] {1}, cache.getVersion(), results,
+        false);
+
+    assertThat(returned.isModifiable()).isFalse();
+    assertThatThrownBy(returned::clear).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void putReturnsTheResultsItDoesNotCache() {
+    SelectResults<?> results = mock(SelectResults.class);
+    long version = cache.getVersion();
+    cache.regionModified();
+
+    assertThat(cache.put(QUERY, new Object[] {1}, version, results, false)).isSameAs(results);
+  }
+
+  @Test
+  public void closeClosesTheStatistics() {
+    cache.close();
+
+    verify(stats).close();
+  }
+
+  @Test
+  public void getReturnsNullForDifferentParameters() {
+    cache.put(QUERY, new Object[] {1}, cache.getVersion(), mock(SelectResults.class), false);
+
+    assertThat(cache.get(QUERY, new Object[] {2})).isNull();
+  }
+
+  @Test
+  public void regionModificationInvalidatesCachedResults() {
+    cache.put(QUERY, new Object[] {1}, cache.getVersion(), mock(SelectResults.class), false);
+
+    cache.regionModified();
+
+    assertThat(cache.get(QUERY, new Object[] {1})).isNull();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void putIgnoresResultComputedBeforeRegionModification() {
+    long version = cache.getVersion();
+    cache.regionModified();
+
+    cache.put(QUERY, new Object[] {1}, version, mock(SelectResults.class), false);
+
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void leastRecentlyUsedResultIsEvictedWhenFull() {
+    cache.put("q1", new Object[0], cache.getVersion(), mock(SelectResults.class), false);
+    cache.put("q2", new Object[0], cache.getVersion(), mock(SelectResults.class), false);
+    cache.get("q1", new Object[0]);
+
+    cache.put("q3", new Object[0], cache.getVersion(), mock(SelectResults.class), false);
+
+    assertThat(cache.get("q1", new Object[0])).isNotNull();
+    assertThat(cache.get("q2", new Object[0])).isNull();
+    assertThat(cache.get("q3", new Object[0])).isNotNull();
+  }
+
+  @Test
+  public void constructorRejectsNonPositiveMaxEntries() {
+    assertThatThrownBy(() -> new QueryResultCache(0, stats))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
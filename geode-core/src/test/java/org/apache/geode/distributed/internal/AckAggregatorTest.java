@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.serialization.KnownVersion;
+
+public class AckAggregatorTest {
+
+  private final List<DistributionMessage> sent = new CopyOnWriteArrayList<>();
+  private final InternalDistributedMember member1 = mock(InternalDistributedMember.class);
+  private final InternalDistributedMember member2 = mock(InternalDistributedMember.class);
+  private final CountDownLatch sendStarted = new CountDownLatch(1);
+  private final CountDownLatch releaseSend = new CountDownLatch(1);
+  private InternalDistributedMember slowMember;
+  private ReplySender replySender;
+  private volatile boolean failNextCumulativeAck;
+
+  @Before
+  public void setUp() {
+    when(member1.getVersion()).thenReturn(KnownVersion.CURRENT);
+    when(member2.getVersion()).thenReturn(KnownVersion.CURRENT);
+    replySender = mock(ReplySender.class);
+    when(replySender.putOutgoing(any())).thenAnswer(invocation -> {
+      DistributionMessage message = invocation.getArgument(0);
+      if (message.getRecipients().get(0) == slowMember && sendStarted.getCount() > 0) {
+        sendStarted.countDown();
+        releaseSend.await();
+      }
+      if (message instanceof CumulativeAckMessage && failNextCumulativeAck) {
+        failNextCumulativeAck = false;
+        throw new IllegalStateException("send failed");
+      }
+      sent.add(message);
+      return null;
+    });
+  }
+
+  @After
+  public void tearDown() {
+    releaseSend.countDown();
+  }
+
+  /**
+   * Acks the given processor from another thread whose send to the member blocks until
+   * {@link #releaseSend} is counted down.
+   */
+  private CompletableFuture<Void> ackWithSlowSend(AckAggregator aggregator,
+      InternalDistributedMember member, int processorId) throws InterruptedException {
+    slowMember = member;
+    CompletableFuture<Void> ack =
+        CompletableFuture.runAsync(() -> aggregator.ack(member, processorId));
+    sendStarted.await();
+    return ack;
+  }
+
+  @Test
+  public void loneAckIsSentAsReplyMessageByTheAckingThread() {
+    AckAggregator aggregator = new AckAggregator(replySender, 10);
+
+    aggregator.ack(member1, 7);
+
+    assertThat(sent).hasSize(1);
+    assertThat(sent.get(0)).isExactlyInstanceOf(ReplyMessage.class);
+    assertThat(((ReplyMessage) sent.get(0)).processorId).isEqualTo(7);
+  }
+
+  @Test
+  public void acksAddedWhileSendingAreSentTogetherInOrder() throws Exception {
+    AckAggregator aggregator = new AckAggregator(replySender, 10);
+    CompletableFuture<Void> first = ackWithSlowSend(aggregator, member1, 1);
+
+    aggregator.ack(member1, 2);
+    aggregator.ack(member1, 3);
+    assertThat(sent).isEmpty();
+    releaseSend.countDown();
+    first.get();
+
+    assertThat(sent).hasSize(2);
+    assertThat(((ReplyMessage) sent.get(0)).processorId).isEqualTo(1);
+    CumulativeAckMessage message = (CumulativeAckMessage) sent.get(1);
+    assertThat(message.getProcessorIds()).containsExactly(2, 3);
+    assertThat(message.getRecipients()).containsExactly(member1);
+  }
+
+  @Test
+  public void slowMemberDoesNotDelayAcksForOtherMembers() throws Exception {
+    AckAggregator aggregator = new AckAggregator(replySender, 10);
+    CompletableFuture<Void> slow = ackWithSlowSend(aggregator, member1, 1);
+
+    aggregator.ack(member2, 2);
+
+    assertThat(sent).hasSize(1);
+    assertThat(sent.get(0).getRecipients()).containsExactly(member2);
+    assertThat(slow).isNotDone();
+    releaseSend.countDown();
+    slow.get();
+    assertThat(sent).hasSize(2);
+  }
+
+  @Test
+  public void largeNumberOfAcksIsSplitIntoSeveralMessages() throws Exception {
+    AckAggregator aggregator = new AckAggregator(replySender, 2);
+    CompletableFuture<Void> first = ackWithSlowSend(aggregator, member1, 1);
+
+    for (int i = 2; i <= 6; i++) {
+      aggregator.ack(member1, i);
+    }
+    releaseSend.countDown();
+    first.get();
+
+    assertThat(sent).hasSize(4);
+    assertThat(((CumulativeAckMessage) sent.get(1)).getProcessorIds()).containsExactly(2, 3);
+    assertThat(((CumulativeAckMessage) sent.get(2)).getProcessorIds()).containsExactly(4, 5);
+    assertThat(((ReplyMessage) sent.get(3)).processorId).isEqualTo(6);
+  }
+
+  @Test
+  public void ackAfterSendCompletesIsSentDirectly() {
+    AckAggregator aggregator = new AckAggregator(replySender, 10);
+
+    aggregator.ack(member1, 1);
+    aggregator.ack(member1, 2);
+
+    assertThat(sent).hasSize(2);
+    assertThat(((ReplyMessage) sent.get(1)).processorId).isEqualTo(2);
+  }
+
+  @Test
+  public void acksForMembersOlderThanGeode115AreSentAsReplyMessages() throws Exception {
+    when(member1.getVersion()).thenReturn(KnownVersion.GEODE_1_14_0);
+    AckAggregator aggregator = new AckAggregator(replySender, 10);
+    CompletableFuture<Void> first = ackWithSlowSend(aggregator, member1, 1);
+
+    aggregator.ack(member1, 2);
+    aggregator.ack(member1, 3);
+    releaseSend.countDown();
+    first.get();
+
+    assertThat(sent).hasSize(3).allMatch(message -> message instanceof ReplyMessage);
+    assertThat(((ReplyMessage) sent.get(1)).processorId).isEqualTo(2);
+    assertThat(((ReplyMessage) sent.get(2)).processorId).isEqualTo(3);
+  }
+
+  @Test
+  public void acksThatFailToSendAreSentWithTheNextAck() throws Exception {
+    AckAggregator aggregator = new AckAggregator(replySender, 10);
+    CompletableFuture<Void> first = ackWithSlowSend(aggregator, member1, 1);
+    aggregator.ack(member1, 2);
+    aggregator.ack(member1, 3);
+    failNextCumulativeAck = true;
+    releaseSend.countDown();
+    assertThatThrownBy(first::get).hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(sent).hasSize(1);
+
+    aggregator.ack(member1, 4);
+
+    assertThat(sent).hasSize(3);
+    assertThat(((ReplyMessage) sent.get(1)).processorId).isEqualTo(4);
+    assertThat(((CumulativeAckMessage) sent.get(2)).getProcessorIds()).containsExactly(2, 3);
+  }
+}
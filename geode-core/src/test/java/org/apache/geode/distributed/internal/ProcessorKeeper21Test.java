@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ProcessorKeeper21Test {
+
+  @Test
+  public void retrieveReturnsProcessorThatWasPut() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false, 4);
+    Object processor = new Object();
+
+    int id = keeper.put(processor);
+
+    assertThat(id).isGreaterThan(0);
+    assertThat(keeper.retrieve(id)).isSameAs(processor);
+  }
+
+  @Test
+  public void retrieveReturnsNullAfterRemove() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false, 4);
+    int id = keeper.put(new Object());
+
+    keeper.remove(id);
+
+    assertThat(keeper.retrieve(id)).isNull();
+  }
+
+  @Test
+  public void processorsThatDoNotFitInSlotsAreStillKept() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false, 4);
+    List<Object> processors = new ArrayList<>();
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Object processor = new Object();
+      processors.add(processor);
+      ids.add(keeper.put(processor));
+    }
+
+    Set<Integer> uniqueIds = new HashSet<>(ids);
+    assertThat(uniqueIds).hasSize(processors.size());
+    for (int i = 0; i < processors.size(); i++) {
+      assertThat(keeper.retrieve(ids.get(i))).isSameAs(processors.get(i));
+    }
+
+    ids.forEach(keeper::remove);
+    for (int id : ids) {
+      assertThat(keeper.retrieve(id)).isNull();
+    }
+  }
+
+  @Test
+  public void retrieveWithIdOfRemovedProcessorDoesNotReturnProcessorReusingItsSlot() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false, 1);
+    int oldId = keeper.put(new Object());
+    keeper.remove(oldId);
+
+    Object processor = new Object();
+    int newId = keeper.put(processor);
+
+    assertThat(newId).isNotEqualTo(oldId);
+    assertThat(keeper.retrieve(oldId)).isNull();
+    assertThat(keeper.retrieve(newId)).isSameAs(processor);
+  }
+
+  @Test
+  public void weakKeeperRetrievesProcessorWhileItIsReferenced() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(true, 4);
+    Object processor = new Object();
+
+    int id = keeper.put(processor);
+
+    assertThat(keeper.retrieve(id)).isSameAs(processor);
+  }
+}
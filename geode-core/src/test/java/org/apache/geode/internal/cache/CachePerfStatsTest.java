@@ -29,6 +29,8 @@ import static org.apache.geode.internal.cache.CachePerfStats.destroysId;
 import static org.apache.geode.internal.cache.CachePerfStats.entryCountId;
 import static org.apache.geode.internal.cache.CachePerfStats.evictorJobsCompletedId;
 import static org.apache.geode.internal.cache.CachePerfStats.evictorJobsStartedId;
+import static org.apache.geode.internal.cache.CachePerfStats.getInitialImageBytesReceivedId;
+import static org.apache.geode.internal.cache.CachePerfStats.getInitialImageChunksReceivedId;
 import static org.apache.geode.internal.cache.CachePerfStats.getInitialImagesCompletedId;
 import static org.apache.geode.internal.cache.CachePerfStats.getTimeId;
 import static org.apache.geode.internal.cache.CachePerfStats.getsId;
@@ -616,6 +618,23 @@ public class CachePerfStatsTest {
     assertThat(cachePerfStats.getGetInitialImagesCompleted()).isEqualTo(Long.MAX_VALUE);
   }
 
+  @Test
+  public void incGetInitialImageChunksReceivedIncrementsChunksReceived() {
+    cachePerfStats.incGetInitialImageChunksReceived();
+
+    assertThat(statistics.getLong(getInitialImageChunksReceivedId)).isEqualTo(1);
+    assertThat(cachePerfStats.getGetInitialImageChunksReceived()).isEqualTo(1);
+  }
+
+  @Test
+  public void incGetInitialImageBytesReceivedAddsToBytesReceived() {
+    cachePerfStats.incGetInitialImageBytesReceived(500);
+    cachePerfStats.incGetInitialImageBytesReceived(24);
+
+    assertThat(statistics.getLong(getInitialImageBytesReceivedId)).isEqualTo(524);
+    assertThat(cachePerfStats.getGetInitialImageBytesReceived()).isEqualTo(524);
+  }
+
   /**
    * Characterization test: Note that the only way to increment {@code getInitialImagesCompleted} is
    * to invoke {@code endGetInitialImage}.
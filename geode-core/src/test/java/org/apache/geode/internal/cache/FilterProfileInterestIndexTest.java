@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.internal.cache.tier.InterestType;
+import org.apache.geode.test.junit.categories.ClientSubscriptionTest;
+
+@Category({ClientSubscriptionTest.class})
+public class FilterProfileInterestIndexTest {
+
+  private final FilterProfile filterProfile = new FilterProfile();
+
+  @Before
+  public void setUp() {
+    FilterProfile.INTEREST_INDEX = true;
+  }
+
+  @After
+  public void tearDown() {
+    FilterProfile.INTEREST_INDEX = false;
+  }
+
+  private static EntryEvent event(Object key) {
+    EntryEvent event = mock(EntryEvent.class);
+    when(event.getKey()).thenReturn(key);
+    return event;
+  }
+
+  @Test
+  public void clientsInterestedInTheKeyOrAMatchingPatternAreFound() {
+    filterProfile.registerClientInterest(1L, "order-1", InterestType.KEY, false);
+    filterProfile.registerClientInterest(2L, "order-.*", InterestType.REGULAR_EXPRESSION, false);
+    filterProfile.registerClientInterest(3L, "order-1", InterestType.KEY, true);
+
+    assertThat(filterProfile.getInterestedClients(event("order-1"), false))
+        .containsExactlyInAnyOrder(1L, 2L);
+    assertThat(filterProfile.getInterestedClients(event("order-1"), true)).containsExactly(3L);
+  }
+
+  @Test
+  public void noInterestedClientsIsNull() {
+    filterProfile.registerClientInterest(1L, "order-1", InterestType.KEY, false);
+    filterProfile.registerClientInterest(2L, "order-.*", InterestType.REGULAR_EXPRESSION, false);
+
+    assertThat(filterProfile.getInterestedClients(event("customer-1"), false)).isNull();
+    assertThat(filterProfile.getInterestedClients(event("order-1"), true)).isNull();
+  }
+
+  @Test
+  public void interestChangesAreSeenByTheNextEvent() {
+    filterProfile.registerClientInterest(1L, "order-1", InterestType.KEY, false);
+    assertThat(filterProfile.getInterestedClients(event("order-1"), false)).containsExactly(1L);
+
+    filterProfile.registerClientInterest(2L, "order-1", InterestType.KEY, false);
+    assertThat(filterProfile.getInterestedClients(event("order-1"), false))
+        .containsExactlyInAnyOrder(1L, 2L);
+
+    filterProfile.unregisterClientInterest(1L, "order-1", InterestType.KEY);
+    filterProfile.unregisterClientInterest(2L, "order-1", InterestType.KEY);
+    assertThat(filterProfile.getInterestedClients(event("order-1"), false)).isNull();
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.geode.distributed.DistributedSystemDisconnectedException;
+
+public class InitialImageSeriesSenderTest {
+
+  private static class SentChunk {
+    final List entries;
+    final int seriesNum;
+    final int msgNum;
+    final boolean lastInSeries;
+    final boolean lastChunk;
+
+    SentChunk(List entries, int seriesNum, int msgNum, boolean lastInSeries, boolean lastChunk) {
+      this.entries = entries;
+      this.seriesNum = seriesNum;
+      this.msgNum = msgNum;
+      this.lastInSeries = lastInSeries;
+      this.lastChunk = lastChunk;
+    }
+  }
+
+  private final List<SentChunk> sent = Collections.synchronizedList(new ArrayList<>());
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private boolean record(List entries, int seriesNum, int msgNum, boolean lastInSeries,
+      boolean lastChunk) {
+    sent.add(new SentChunk(entries, seriesNum, msgNum, lastInSeries, lastChunk));
+    return true;
+  }
+
+  @Test
+  public void chunksAreSpreadOverSeriesAndEverySeriesIsClosed() {
+    InitialImageSeriesSender sender = new InitialImageSeriesSender(3, executor, this::record);
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(sender.sendChunk(Arrays.asList(i), i == 3)).isTrue();
+    }
+
+    assertThat(sender.awaitCompletion()).isTrue();
+    assertThat(sender.getFailure()).isNull();
+    assertThat(sent).hasSize(6);
+
+    // the receiver completes a series once it has seen msgNum + 1 messages for the last one
+    int[] received = new int[3];
+    int[] expected = new int[3];
+    int entries = 0;
+    for (SentChunk chunk : sent) {
+      received[chunk.seriesNum]++;
+      entries += chunk.entries.size();
+      if (chunk.lastInSeries) {
+        expected[chunk.seriesNum] = chunk.msgNum + 1;
+      }
+    }
+    assertThat(received).containsExactly(expected);
+    assertThat(received).containsExactly(2, 2, 2);
+    assertThat(entries).isEqualTo(4);
+    assertThat(sent.stream().filter(chunk -> chunk.lastChunk)).hasSize(1)
+        .allMatch(chunk -> chunk.seriesNum == 0 && chunk.entries.equals(Arrays.asList(3)));
+  }
+
+  @Test
+  public void emptyChunksCloseTheOtherSeries() {
+    InitialImageSeriesSender sender = new InitialImageSeriesSender(2, executor, this::record);
+
+    assertThat(sender.sendChunk(Arrays.asList(1), true)).isTrue();
+    assertThat(sender.awaitCompletion()).isTrue();
+
+    assertThat(sent).hasSize(2).allMatch(chunk -> chunk.lastInSeries && chunk.msgNum == 0);
+    assertThat(sent.stream().filter(chunk -> !chunk.lastChunk))
+        .allMatch(chunk -> chunk.seriesNum == 1 && chunk.entries.isEmpty());
+  }
+
+  @Test
+  public void cancellationAbortsTheImage() {
+    InitialImageSeriesSender sender = new InitialImageSeriesSender(2, executor,
+        (entries, seriesNum, msgNum, lastInSeries, lastChunk) -> {
+          throw new DistributedSystemDisconnectedException("closed");
+        });
+
+    sender.sendChunk(Arrays.asList(1), false);
+
+    assertThat(sender.awaitCompletion()).isFalse();
+    assertThat(sender.getFailure()).isNull();
+  }
+
+  @Test
+  public void failureIsReportedAfterCompletion() {
+    IllegalStateException failure = new IllegalStateException("failed");
+    InitialImageSeriesSender sender = new InitialImageSeriesSender(2, executor,
+        (entries, seriesNum, msgNum, lastInSeries, lastChunk) -> {
+          throw failure;
+        });
+
+    sender.sendChunk(Arrays.asList(1), true);
+
+    assertThat(sender.awaitCompletion()).isFalse();
+    assertThat(sender.getFailure()).isSameAs(failure);
+  }
+
+  @Test
+  public void moreSeriesThanThreadsAreAllSentInOrder() {
+    ExecutorService singleThread = Executors.newSingleThreadExecutor();
+    try {
+      InitialImageSeriesSender sender =
+          new InitialImageSeriesSender(4, singleThread, this::record);
+
+      for (int i = 0; i < 10; i++) {
+        assertThat(sender.sendChunk(Arrays.asList(i), i == 9)).isTrue();
+      }
+
+      assertThat(sender.awaitCompletion()).isTrue();
+      assertThat(sent).hasSize(12);
+      for (int seriesNum = 0; seriesNum < 4; seriesNum++) {
+        int series = seriesNum;
+        assertThat(sent.stream().filter(chunk -> chunk.seriesNum == series)
+            .mapToInt(chunk -> chunk.msgNum)).isSorted();
+      }
+    } finally {
+      singleThread.shutdownNow();
+    }
+  }
+
+  @Test
+  public void packingThreadSendsChunksThePoolRejects() {
+    InitialImageSeriesSender sender = new InitialImageSeriesSender(2, command -> {
+      throw new RejectedExecutionException();
+    }, this::record);
+
+    assertThat(sender.sendChunk(Arrays.asList(1), false)).isTrue();
+    assertThat(sent).hasSize(1);
+    assertThat(sender.sendChunk(Arrays.asList(2), true)).isTrue();
+
+    assertThat(sender.awaitCompletion()).isTrue();
+    assertThat(sent).hasSize(2);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.ClientSubscriptionTest;
+
+@Category({ClientSubscriptionTest.class})
+public class InterestIndexTest {
+
+  private final Map<Object, Set> keysOfInterest = new HashMap<>();
+  private final Map<Object, Map<Object, Pattern>> patternsOfInterest = new HashMap<>();
+
+  @Test
+  public void keyInterestMatchesOnlyTheRegisteredKeys() {
+    registerKeys(1L, "a", "b");
+    registerKeys(2L, "b", 7);
+
+    assertThat(interestedClients("a")).containsExactly(1L);
+    assertThat(interestedClients("b")).containsExactlyInAnyOrder(1L, 2L);
+    assertThat(interestedClients(7)).containsExactly(2L);
+    assertThat(interestedClients("c")).isEmpty();
+  }
+
+  @Test
+  public void patternInterestMatchesTheKeysThePatternMatches() {
+    registerPatterns(1L, "order-.*", "customer-[0-9]+");
+    registerPatterns(2L, "order-1.*");
+    registerPatterns(3L, "[a-z]+-2");
+
+    assertThat(interestedClients("order-12")).containsExactlyInAnyOrder(1L, 2L);
+    assertThat(interestedClients("order-2")).containsExactlyInAnyOrder(1L, 3L);
+    assertThat(interestedClients("customer-42")).containsExactly(1L);
+    assertThat(interestedClients("customer-x")).isEmpty();
+    assertThat(interestedClients("order")).isEmpty();
+  }
+
+  @Test
+  public void patternInterestDoesNotMatchKeysThatAreNotStrings() {
+    registerPatterns(1L, "1.*");
+
+    assertThat(interestedClients(12)).isEmpty();
+  }
+
+  @Test
+  public void patternsWithOptionalOrAlternativeStartsMatch() {
+    registerPatterns(1L, "ab*c");
+    registerPatterns(2L, "x|y");
+    registerPatterns(3L, "ab?c");
+
+    assertThat(interestedClients("ac")).containsExactlyInAnyOrder(1L, 3L);
+    assertThat(interestedClients("abbc")).containsExactly(1L);
+    assertThat(interestedClients("y")).containsExactly(2L);
+  }
+
+  @Test
+  public void literalPrefixStopsAtTheFirstMetacharacter() {
+    assertThat(InterestIndex.getLiteralPrefix("order-.*")).isEqualTo("order-");
+    assertThat(InterestIndex.getLiteralPrefix("order-1")).isEqualTo("order-1");
+    assertThat(InterestIndex.getLiteralPrefix("order\\d+")).isEqualTo("order");
+    assertThat(InterestIndex.getLiteralPrefix("orders*")).isEqualTo("order");
+    assertThat(InterestIndex.getLiteralPrefix("orders?")).isEqualTo("order");
+    assertThat(InterestIndex.getLiteralPrefix("orders{0,2}")).isEqualTo("order");
+    assertThat(InterestIndex.getLiteralPrefix("orders+")).isEqualTo("orders");
+    assertThat(InterestIndex.getLiteralPrefix("order|customer")).isEmpty();
+    assertThat(InterestIndex.getLiteralPrefix("(?i)order")).isEmpty();
+  }
+
+  private void registerKeys(Long clientID, Object... keys) {
+    Set<Object> clientKeys = new HashSet<>();
+    for (Object key : keys) {
+      clientKeys.add(key);
+    }
+    keysOfInterest.put(clientID, clientKeys);
+  }
+
+  private void registerPatterns(Long clientID, String... regexes) {
+    Map<Object, Pattern> clientPatterns = new HashMap<>();
+    for (String regex : regexes) {
+      clientPatterns.put(regex, Pattern.compile(regex));
+    }
+    patternsOfInterest.put(clientID, clientPatterns);
+  }
+
+  private Set<Object> interestedClients(Object key) {
+    Set<Object> clients = new HashSet<>();
+    new InterestIndex(0, keysOfInterest, patternsOfInterest).addInterestedClients(key, clients);
+    return clients;
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+import org.apache.geode.internal.cache.versions.VersionStamp;
+
+public class RegionImageDigestTest {
+
+  private static final int SEGMENTS = 64;
+
+  private DiskStoreID localId;
+  private DiskStoreID remoteId;
+
+  @Before
+  public void setUp() {
+    localId = new DiskStoreID(UUID.randomUUID());
+    remoteId = new DiskStoreID(UUID.randomUUID());
+  }
+
+  private static RegionEntry entry(Object key, DiskStoreID memberId, long regionVersion,
+      int entryVersion) {
+    VersionStamp stamp = mock(VersionStamp.class);
+    when(stamp.getMemberID()).thenReturn(memberId);
+    when(stamp.getRegionVersion()).thenReturn(regionVersion);
+    when(stamp.getEntryVersion()).thenReturn(entryVersion);
+    RegionEntry entry = mock(RegionEntry.class);
+    when(entry.getKey()).thenReturn(key);
+    when(entry.getVersionStamp()).thenReturn(stamp);
+    return entry;
+  }
+
+  private DistributedRegion region(RegionEntry... entries) {
+    RegionMap map = mock(RegionMap.class);
+    when(map.regionEntries()).thenReturn(Arrays.asList(entries));
+    DistributedRegion region = mock(DistributedRegion.class);
+    when(region.getRegionMap()).thenReturn(map);
+    when(region.getVersionMember()).thenReturn(localId);
+    return region;
+  }
+
+  @Test
+  public void segmentOfIsWithinRangeForAnyHashCode() {
+    for (Object key : new Object[] {"key1", -1, Integer.MIN_VALUE, Long.MAX_VALUE}) {
+      assertThat(RegionImageDigest.segmentOf(key, SEGMENTS)).isBetween(0, SEGMENTS - 1);
+      assertThat(RegionImageDigest.segmentOf(key, 1000)).isBetween(0, 999);
+    }
+  }
+
+  @Test
+  public void digestsDoNotDependOnEntryOrder() {
+    RegionEntry key1 = entry("key1", remoteId, 1, 1);
+    RegionEntry key2 = entry("key2", remoteId, 2, 1);
+    RegionEntry key3 = entry("key3", localId, 1, 3);
+
+    long[] digests = RegionImageDigest.compute(region(key1, key2, key3), SEGMENTS, false);
+
+    assertThat(RegionImageDigest.compute(region(key3, key1, key2), SEGMENTS, false))
+        .containsExactly(digests);
+  }
+
+  @Test
+  public void onlyTheSegmentOfAChangedEntryDiffers() {
+    long[] before = RegionImageDigest.compute(
+        region(entry("key1", remoteId, 1, 1), entry("key2", remoteId, 2, 1)), SEGMENTS, false);
+    long[] after = RegionImageDigest.compute(
+        region(entry("key1", remoteId, 1, 1), entry("key2", remoteId, 3, 2)), SEGMENTS, false);
+
+    BitSet matching = RegionImageDigest.matchingSegments(before, after);
+
+    assertThat(matching.cardinality()).isEqualTo(SEGMENTS - 1);
+    assertThat(matching.get(RegionImageDigest.segmentOf("key2", SEGMENTS))).isFalse();
+    assertThat(matching.get(RegionImageDigest.segmentOf("key1", SEGMENTS))).isTrue();
+  }
+
+  @Test
+  public void missingEntryMakesItsSegmentDiffer() {
+    long[] local = RegionImageDigest.compute(
+        region(entry("key1", remoteId, 1, 1), entry("key2", remoteId, 2, 1)), SEGMENTS, false);
+    long[] remote =
+        RegionImageDigest.compute(region(entry("key1", remoteId, 1, 1)), SEGMENTS, false);
+
+    BitSet matching = RegionImageDigest.matchingSegments(local, remote);
+
+    assertThat(matching.get(RegionImageDigest.segmentOf("key2", SEGMENTS))).isFalse();
+  }
+
+  @Test
+  public void entryWithoutMemberIdIsHashedAsTheLocalMember() {
+    VersionStamp withoutId = entry("key1", null, 5, 2).getVersionStamp();
+    VersionStamp withId = entry("key1", localId, 5, 2).getVersionStamp();
+
+    assertThat(RegionImageDigest.hash("key1", withoutId, localId))
+        .isEqualTo(RegionImageDigest.hash("key1", withId, remoteId));
+    assertThat(RegionImageDigest.hash("key1", withoutId, remoteId))
+        .isNotEqualTo(RegionImageDigest.hash("key1", withId, remoteId));
+  }
+
+  @Test
+  public void noSegmentsMatchDigestsOfAnotherSize() {
+    assertThat(RegionImageDigest.matchingSegments(new long[SEGMENTS], new long[SEGMENTS / 2]))
+        .isEmpty();
+    assertThat(RegionImageDigest.matchingSegments(new long[SEGMENTS], null)).isEmpty();
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class GatewayBatchCompressorTest {
+
+  private final GatewaySenderStats statistics = mock(GatewaySenderStats.class);
+  private final GatewayBatchCompressor compressor = new GatewayBatchCompressor(statistics);
+  private final GatewayBatchCompressor.Decompressor decompressor =
+      new GatewayBatchCompressor.Decompressor();
+  private final Object connection = new Object();
+
+  @After
+  public void tearDown() {
+    compressor.close();
+    decompressor.close();
+  }
+
+  private static byte[] value(int i) {
+    return ("{\"type\":\"org.example.Customer\",\"name\":\"customer-" + i
+        + "\",\"address\":\"" + i + " Main Street\",\"status\":\"ACTIVE\"}")
+            .getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Compresses a batch of values the way the batch op does and decompresses it the way the
+   * receiver does
+   */
+  private List<byte[]> sendBatch(int first, int count) throws Exception {
+    decompressor.updateDictionary(compressor.startBatch(connection));
+    List<byte[]> compressed = new ArrayList<>();
+    for (int i = first; i < first + count; i++) {
+      compressed.add(compressor.compress(value(i)));
+    }
+    compressor.endBatch();
+    compressor.batchSent(connection);
+
+    for (int i = 0; i < count; i++) {
+      assertThat(decompressor.decompress(compressed.get(i))).isEqualTo(value(first + i));
+    }
+    return compressed;
+  }
+
+  @Test
+  public void valuesSurviveTheRoundTripBeforeAndAfterTraining() throws Exception {
+    for (int batch = 0; batch < GatewayBatchCompressor.TRAINING_INTERVAL + 2; batch++) {
+      sendBatch(batch * 10, 10);
+    }
+
+    assertThat(compressor.getDictionary()).isNotEmpty();
+  }
+
+  @Test
+  public void trainedDictionaryMakesSmallValuesSmaller() throws Exception {
+    int before = sendBatch(0, 1).get(0).length;
+    for (int batch = 1; batch < GatewayBatchCompressor.TRAINING_INTERVAL + 1; batch++) {
+      sendBatch(batch, 1);
+    }
+
+    int after = sendBatch(1000, 1).get(0).length;
+
+    assertThat(after).isLessThan(before);
+    assertThat(after).isLessThan(value(1000).length / 2);
+  }
+
+  @Test
+  public void dictionaryIsOnlySentWhenTheReceiverMayNotHaveIt() {
+    assertThat(compressor.startBatch(connection)[0]).isEqualTo((byte) 1);
+    compressor.batchSent(connection);
+
+    assertThat(compressor.startBatch(connection)).containsExactly(0);
+    compressor.batchSent(connection);
+
+    assertThat(compressor.startBatch(new Object())[0]).isEqualTo((byte) 1);
+  }
+
+  @Test
+  public void dictionaryIsSentAgainIfTheBatchThatCarriedItWasNotSent() {
+    assertThat(compressor.startBatch(connection)[0]).isEqualTo((byte) 1);
+
+    assertThat(compressor.startBatch(connection)[0]).isEqualTo((byte) 1);
+  }
+
+  @Test
+  public void shortAndIncompressibleValuesAreStored() throws Exception {
+    byte[] shortValue = {1, 2, 3};
+    byte[] random = new byte[200];
+    new Random(1).nextBytes(random);
+
+    compressor.startBatch(connection);
+    byte[] compressedShort = compressor.compress(shortValue);
+    byte[] compressedRandom = compressor.compress(random);
+
+    assertThat(compressedShort).hasSize(shortValue.length + 1);
+    assertThat(compressedRandom).hasSize(random.length + 1);
+    assertThat(decompressor.decompress(compressedShort)).isEqualTo(shortValue);
+    assertThat(decompressor.decompress(compressedRandom)).isEqualTo(random);
+  }
+
+  @Test
+  public void nullAndEmptyValuesAreLeftAlone() throws Exception {
+    compressor.startBatch(connection);
+
+    assertThat(compressor.compress(null)).isNull();
+    assertThat(compressor.compress(new byte[0])).isEmpty();
+    assertThat(decompressor.decompress(null)).isNull();
+  }
+
+  @Test
+  public void batchStatisticsAreRecorded() throws Exception {
+    sendBatch(0, 2);
+
+    verify(statistics).endBatchCompression(anyLong(),
+        eq((long) (value(0).length + value(1).length)), anyLong());
+  }
+
+  @Test
+  public void valueClaimingMoreBytesThanItsCompressedFormAllowsIsRejected() throws Exception {
+    byte[] value = new byte[1000];
+    Arrays.fill(value, (byte) 'a');
+    compressor.startBatch(connection);
+    byte[] compressed = compressor.compress(value);
+    assertThat(compressed.length).isLessThan(value.length);
+    ByteBuffer.wrap(compressed).put(1, (byte) 0x7f);
+
+    assertThatThrownBy(() -> decompressor.decompress(compressed))
+        .isInstanceOf(DataFormatException.class);
+  }
+
+  @Test
+  public void valueClaimingANegativeSizeIsRejected() {
+    byte[] compressed = ByteBuffer.allocate(6).put((byte) 1).putInt(-1).array();
+
+    assertThatThrownBy(() -> decompressor.decompress(compressed))
+        .isInstanceOf(DataFormatException.class);
+  }
+
+  @Test
+  public void valuesAreStoredOnceTheCompressorIsClosed() throws Exception {
+    compressor.close();
+    compressor.startBatch(connection);
+
+    byte[] compressed = compressor.compress(value(0));
+
+    assertThat(compressed).hasSize(value(0).length + 1);
+    assertThat(decompressor.decompress(compressed)).isEqualTo(value(0));
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.wan.GatewaySenderBatchWindow.Ack;
+
+public class GatewaySenderBatchWindowTest {
+
+  @Test
+  public void acksInDispatchOrderEmptyTheWindow() {
+    GatewaySenderBatchWindow window = new GatewaySenderBatchWindow(3);
+    window.dispatched(0);
+    window.dispatched(1);
+    window.dispatched(2);
+
+    assertThat(window.acknowledged(0)).isEqualTo(Ack.IN_ORDER);
+    assertThat(window.acknowledged(1)).isEqualTo(Ack.IN_ORDER);
+    assertThat(window.acknowledged(2)).isEqualTo(Ack.IN_ORDER);
+    assertThat(window.size()).isZero();
+  }
+
+  @Test
+  public void ackOfALaterBatchIsOutOfOrderAndKeepsItInFlight() {
+    GatewaySenderBatchWindow window = new GatewaySenderBatchWindow(3);
+    window.dispatched(0);
+    window.dispatched(1);
+
+    assertThat(window.acknowledged(1)).isEqualTo(Ack.OUT_OF_ORDER);
+    assertThat(window.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void ackOfABatchNotInFlightIsUnknown() {
+    GatewaySenderBatchWindow window = new GatewaySenderBatchWindow(3);
+    window.dispatched(0);
+    window.clear();
+
+    assertThat(window.acknowledged(0)).isEqualTo(Ack.UNKNOWN);
+  }
+
+  @Test
+  public void dispatchingTheLatestBatchAgainKeepsItsPlace() {
+    GatewaySenderBatchWindow window = new GatewaySenderBatchWindow(3);
+    window.dispatched(0);
+    window.dispatched(1);
+    window.dispatched(1);
+
+    assertThat(window.size()).isEqualTo(2);
+    assertThat(window.acknowledged(0)).isEqualTo(Ack.IN_ORDER);
+    assertThat(window.acknowledged(1)).isEqualTo(Ack.IN_ORDER);
+  }
+
+  @Test
+  public void noLimitNeverWaits() throws Exception {
+    GatewaySenderBatchWindow window = new GatewaySenderBatchWindow(0);
+    for (int i = 0; i < 1000; i++) {
+      window.dispatched(i);
+    }
+
+    assertThat(window.awaitCapacity(() -> true)).isTrue();
+  }
+
+  @Test
+  public void fullWindowWaitsForTheOldestAck() throws Exception {
+    GatewaySenderBatchWindow window = new GatewaySenderBatchWindow(2);
+    window.dispatched(0);
+    window.dispatched(1);
+
+    CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+      try {
+        return window.awaitCapacity(() -> false);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    window.acknowledged(1);
+    assertThat(waiting).isNotDone();
+
+    window.acknowledged(0);
+    assertThat(waiting.get()).isTrue();
+  }
+
+  @Test
+  public void fullWindowStopsWaitingWhenAsked() throws Exception {
+    GatewaySenderBatchWindow window = new GatewaySenderBatchWindow(1);
+    window.dispatched(0);
+    AtomicBoolean stop = new AtomicBoolean();
+
+    CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+      try {
+        return window.awaitCapacity(stop::get);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    stop.set(true);
+    window.wakeUp();
+
+    await().until(waiting::isDone);
+    assertThat(waiting.get()).isFalse();
+    assertThat(window.size()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.apache.geode.util.internal.UncheckedUtils.uncheckedCast;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.cache.asyncqueue.AsyncEventBatch;
+import org.apache.geode.cache.asyncqueue.AsyncEventBatchListener;
+import org.apache.geode.cache.asyncqueue.AsyncEventListener;
+import org.apache.geode.test.junit.categories.AEQTest;
+
+@Category(AEQTest.class)
+public class GatewaySenderEventCallbackDispatcherTest {
+
+  private final AsyncEventBatchListener batchListener = mock(AsyncEventBatchListener.class);
+  private final AsyncEventListener listener = mock(AsyncEventListener.class);
+  private final GatewaySenderEventImpl first = mock(GatewaySenderEventImpl.class);
+  private final GatewaySenderEventImpl second = mock(GatewaySenderEventImpl.class);
+  private final List<GatewaySenderEventImpl> events = Arrays.asList(first, second);
+  private GatewaySenderEventCallbackDispatcher dispatcher;
+
+  @Before
+  public void setUp() {
+    AbstractGatewaySenderEventProcessor eventProcessor =
+        mock(AbstractGatewaySenderEventProcessor.class);
+    AbstractGatewaySender sender = mock(AbstractGatewaySender.class);
+    when(eventProcessor.getSender()).thenReturn(sender);
+    when(sender.getAsyncEventListeners()).thenReturn(Arrays.asList(batchListener, listener));
+    when(batchListener.processBatch(any())).thenReturn(true);
+    when(listener.processEvents(any())).thenReturn(true);
+    dispatcher = new GatewaySenderEventCallbackDispatcher(eventProcessor);
+  }
+
+  @Test
+  public void batchListenerIsGivenTheBatchThroughProcessBatch() throws Exception {
+    when(first.getKey()).thenReturn("first");
+    when(second.getKey()).thenReturn("second");
+
+    assertThat(dispatcher.dispatchBatch(events)).isTrue();
+
+    ArgumentCaptor<AsyncEventBatch> batch = ArgumentCaptor.forClass(AsyncEventBatch.class);
+    verify(batchListener).processBatch(batch.capture());
+    verify(batchListener, never()).processEvents(any());
+    assertThat(batch.getValue().size()).isEqualTo(2);
+    assertThat(batch.getValue().getKey(0)).isEqualTo("first");
+    assertThat(batch.getValue().getKey(1)).isEqualTo("second");
+  }
+
+  @Test
+  public void otherListenersAreGivenTheListOfEvents() throws Exception {
+    dispatcher.dispatchBatch(events);
+
+    verify(listener).processEvents(uncheckedCast(events));
+  }
+
+  @Test
+  public void batchFailsWhenTheBatchListenerFails() throws Exception {
+    when(batchListener.processBatch(any())).thenReturn(false);
+
+    assertThat(dispatcher.dispatchBatch(events)).isFalse();
+  }
+}
@@ -18,6 +18,7 @@ import static org.apache.geode.internal.serialization.KnownVersion.GEODE_1_13_0;
 import static org.apache.geode.internal.serialization.KnownVersion.GEODE_1_14_0;
 import static org.apache.geode.internal.serialization.KnownVersion.GEODE_1_8_0;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.mock;
@@ -36,6 +37,7 @@ import junitparams.Parameters;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.rules.TestName;
 import org.junit.runner.RunWith;
 
@@ -48,6 +50,7 @@ import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.TXId;
 import org.apache.geode.internal.cache.wan.parallel.ParallelGatewaySenderHelper;
+import org.apache.geode.internal.cache.wan.parallel.ParallelGatewaySenderQueueLog;
 import org.apache.geode.internal.serialization.DSCODE;
 import org.apache.geode.internal.serialization.DeserializationContext;
 import org.apache.geode.internal.serialization.KnownVersion;
@@ -65,6 +68,9 @@ public class GatewaySenderEventImplTest {
   @Rule
   public TestName testName = new TestName();
 
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Before
   public void setUpGemFire() {
     createCache();
@@ -263,6 +269,56 @@ public class GatewaySenderEventImplTest {
         .isEqualTo(deserializedEvent.isLastEventInTransaction());
   }
 
+  @Test
+  public void loggedValueIsReadFromTheLogUntilReleased() throws Exception {
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn(testName.getMethodName() + "_region");
+    when(region.getCache()).thenReturn(cache);
+    GatewaySenderEventImpl event = ParallelGatewaySenderHelper.createGatewaySenderEvent(region,
+        Operation.CREATE, "key1", "value1", 0, 0);
+    byte[] serializedValue = event.getSerializedValue();
+    ParallelGatewaySenderQueueLog log =
+        new ParallelGatewaySenderQueueLog(temporaryFolder.getRoot(), "log", 1024);
+
+    assertThat(event.logValue(log, 0)).isTrue();
+
+    assertThat(event.isValueLogged()).isTrue();
+    assertThat(event.getSerializedValue()).isEqualTo(serializedValue);
+    assertThat(event.getDeserializedValue()).isEqualTo("value1");
+    GatewaySenderEventImpl copy = event.makeHeapCopyIfOffHeap();
+    assertThat(copy).isNotSameAs(event).isEqualTo(event);
+    assertThat(copy.isValueLogged()).isFalse();
+
+    event.releaseLoggedValue();
+
+    assertThat(log.getLiveBytes()).isZero();
+    assertThat(event.makeHeapCopyIfOffHeap()).isNull();
+    assertThatThrownBy(event::getSerializedValue).isInstanceOf(IllegalStateException.class);
+    assertThat(copy.getSerializedValue()).isEqualTo(serializedValue);
+  }
+
+  @Test
+  public void loggedValueIsComparedWithoutReadingTheLog() throws Exception {
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn(testName.getMethodName() + "_region");
+    when(region.getCache()).thenReturn(cache);
+    GatewaySenderEventImpl event = ParallelGatewaySenderHelper.createGatewaySenderEvent(region,
+        Operation.CREATE, "key1", "value1", 0, 0);
+    GatewaySenderEventImpl copy = event.makeCopy();
+    int hashCode = event.hashCode();
+    ParallelGatewaySenderQueueLog log =
+        new ParallelGatewaySenderQueueLog(temporaryFolder.getRoot(), "log", 1024);
+    event.logValue(log, 0);
+
+    log.close();
+
+    assertThat(event).isEqualTo(copy).hasSameHashCodeAs(copy);
+    assertThat(event.hashCode()).isEqualTo(hashCode);
+    assertThat(event.getRawValue()).isNull();
+    assertThatThrownBy(event::getDeserializedValue).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(event::getSerializedValue).isInstanceOf(IllegalStateException.class);
+  }
+
   public static class VersionAndExpectedInvocations {
 
     private final KnownVersion version;
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan.parallel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestName;
+
+public class ParallelGatewaySenderQueueLogTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Rule
+  public TestName testName = new TestName();
+
+  private File directory;
+
+  private ParallelGatewaySenderQueueLog log;
+
+  @Before
+  public void setUp() {
+    directory = temporaryFolder.getRoot();
+    log = new ParallelGatewaySenderQueueLog(directory, testName.getMethodName(), 100, 64);
+  }
+
+  private static byte[] value(int length, int fill) {
+    byte[] value = new byte[length];
+    for (int i = 0; i < length; i++) {
+      value[i] = (byte) (fill + i);
+    }
+    return value;
+  }
+
+  private String[] segmentFileNames() {
+    return directory.list((dir, name) -> name.startsWith(testName.getMethodName()));
+  }
+
+  private int segmentFiles() {
+    return segmentFileNames().length;
+  }
+
+  @Test
+  public void appendedValuesAreReadBack() throws Exception {
+    long first = log.append(0, value(40, 1));
+    long second = log.append(0, value(40, 2));
+
+    assertThat(log.read(second, 40)).isEqualTo(value(40, 2));
+    assertThat(log.read(first, 40)).isEqualTo(value(40, 1));
+    assertThat(log.getLiveBytes()).isEqualTo(80);
+  }
+
+  @Test
+  public void bufferedValuesAreReadBackOnceWritten() throws Exception {
+    long first = log.append(0, value(40, 1));
+    assertThat(new File(directory, segmentFileNames()[0]).length()).isZero();
+
+    long second = log.append(0, value(40, 2));
+
+    assertThat(new File(directory, segmentFileNames()[0]).length()).isEqualTo(40);
+    assertThat(log.read(first, 40)).isEqualTo(value(40, 1));
+    assertThat(log.read(second, 40)).isEqualTo(value(40, 2));
+  }
+
+  @Test
+  public void fullSegmentRollsToANewOne() throws Exception {
+    log.append(0, value(60, 1));
+    long second = log.append(0, value(60, 2));
+    long large = log.append(0, value(250, 3));
+
+    assertThat(log.getSegmentCount()).isEqualTo(3);
+    assertThat(segmentFiles()).isEqualTo(3);
+    assertThat(log.read(second, 60)).isEqualTo(value(60, 2));
+    assertThat(log.read(large, 250)).isEqualTo(value(250, 3));
+  }
+
+  @Test
+  public void segmentIsDeletedOnceAllItsValuesAreReleased() throws Exception {
+    long first = log.append(0, value(50, 1));
+    long second = log.append(0, value(50, 2));
+    long third = log.append(0, value(50, 3));
+
+    log.release(first, 50);
+    assertThat(log.getSegmentCount()).isEqualTo(2);
+
+    log.release(second, 50);
+    assertThat(log.getSegmentCount()).isEqualTo(1);
+    assertThat(segmentFiles()).isEqualTo(1);
+    assertThat(log.read(third, 50)).isEqualTo(value(50, 3));
+    assertThatThrownBy(() -> log.read(first, 50)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void currentSegmentIsKeptWhenEmpty() throws Exception {
+    long first = log.append(0, value(50, 1));
+
+    log.release(first, 50);
+
+    assertThat(log.getSegmentCount()).isEqualTo(1);
+    assertThat(log.getLiveBytes()).isZero();
+  }
+
+  @Test
+  public void bucketsAppendToSegmentsOfTheirOwn() throws Exception {
+    long first = log.append(0, value(50, 1));
+    long second = log.append(1, value(50, 2));
+    log.append(0, value(60, 3));
+
+    assertThat(log.getSegmentIds(0)).hasSize(2);
+    assertThat(log.getSegmentIds(1)).hasSize(1);
+
+    log.release(first, 50);
+
+    assertThat(log.getSegmentIds(0)).hasSize(1);
+    assertThat(log.read(second, 50)).isEqualTo(value(50, 2));
+  }
+
+  @Test
+  public void closedBucketDeletesItsLastSegmentOnceReleased() throws Exception {
+    long first = log.append(0, value(50, 1));
+    log.append(1, value(50, 2));
+
+    log.closeBucket(0);
+    assertThat(log.read(first, 50)).isEqualTo(value(50, 1));
+    log.release(first, 50);
+
+    assertThat(log.getSegmentIds(0)).isEmpty();
+    assertThat(log.getSegmentIds(1)).hasSize(1);
+    assertThat(log.append(0, value(50, 3))).isNotEqualTo(first);
+    assertThat(log.getSegmentIds(0)).hasSize(1);
+  }
+
+  @Test
+  public void retiredLogDeletesItsLastSegmentOnceReleased() throws Exception {
+    long first = log.append(0, value(50, 1));
+
+    log.retire();
+
+    assertThat(log.read(first, 50)).isEqualTo(value(50, 1));
+    assertThatThrownBy(() -> log.append(0, value(50, 2))).isInstanceOf(IllegalStateException.class);
+
+    log.release(first, 50);
+
+    assertThat(log.getSegmentCount()).isZero();
+    assertThat(segmentFiles()).isZero();
+  }
+
+  @Test
+  public void closeDeletesAllSegments() throws Exception {
+    log.append(0, value(60, 1));
+    log.append(0, value(60, 2));
+
+    log.close();
+
+    assertThat(log.getSegmentCount()).isZero();
+    assertThat(segmentFiles()).isZero();
+  }
+
+  @Test
+  public void valueOfAClosedLogIsNoLongerAvailable() throws Exception {
+    long first = log.append(0, value(40, 1));
+    long second = log.append(0, value(40, 2));
+
+    log.close();
+
+    assertThatThrownBy(() -> log.read(first, 40)).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> log.read(second, 40)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void logWithTheSameNameKeepsTheSegmentsOfTheRetiredOne() throws Exception {
+    long first = log.append(0, value(50, 1));
+    log.retire();
+
+    ParallelGatewaySenderQueueLog restarted =
+        new ParallelGatewaySenderQueueLog(directory, testName.getMethodName(), 100);
+    long second = restarted.append(0, value(50, 2));
+
+    assertThat(log.read(first, 50)).isEqualTo(value(50, 1));
+    assertThat(restarted.read(second, 50)).isEqualTo(value(50, 2));
+    assertThat(segmentFiles()).isEqualTo(2);
+  }
+}
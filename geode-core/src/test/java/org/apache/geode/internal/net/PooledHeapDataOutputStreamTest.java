@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.serialization.KnownVersion;
+
+public class PooledHeapDataOutputStreamTest {
+
+  private BufferPool bufferPool;
+
+  @Before
+  public void setup() {
+    bufferPool = spy(new BufferPool(mock(DMStats.class)));
+  }
+
+  private static void writeContent(HeapDataOutputStream out) throws IOException {
+    out.writeInt(42);
+    DataSerializer.writeString("gr\u00fc\u00dfe", out);
+    DataSerializer.writeString(StringUtils.repeat("value", 1000), out);
+    out.writeLong(Long.MAX_VALUE);
+    out.write(new byte[3000]);
+  }
+
+  @Test
+  public void producesSameBytesAsHeapDataOutputStream() throws IOException {
+    HeapDataOutputStream expected = new HeapDataOutputStream(100, KnownVersion.CURRENT);
+    writeContent(expected);
+
+    try (PooledHeapDataOutputStream pooled =
+        new PooledHeapDataOutputStream(bufferPool, 100, KnownVersion.CURRENT)) {
+      writeContent(pooled);
+
+      assertThat(pooled.getPooledBufferCount()).isGreaterThan(1);
+      assertThat(pooled.toByteArray()).isEqualTo(expected.toByteArray());
+    }
+  }
+
+  @Test
+  public void closeReleasesAllBuffersToPool() throws IOException {
+    PooledHeapDataOutputStream pooled =
+        new PooledHeapDataOutputStream(bufferPool, 100, KnownVersion.CURRENT);
+    writeContent(pooled);
+    int bufferCount = pooled.getPooledBufferCount();
+
+    pooled.close();
+
+    verify(bufferPool, times(bufferCount)).releaseSenderBuffer(any(ByteBuffer.class));
+    assertThat(pooled.getPooledBufferCount()).isZero();
+    assertThat(pooled.size()).isZero();
+  }
+
+  @Test
+  public void closeIsIdempotent() {
+    PooledHeapDataOutputStream pooled =
+        new PooledHeapDataOutputStream(bufferPool, 100, KnownVersion.CURRENT);
+
+    pooled.close();
+    pooled.close();
+
+    verify(bufferPool, times(1)).releaseSenderBuffer(any(ByteBuffer.class));
+  }
+}
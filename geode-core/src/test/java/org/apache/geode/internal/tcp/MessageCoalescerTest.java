@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category(MembershipTest.class)
+public class MessageCoalescerTest {
+
+  private final List<byte[]> writes = new CopyOnWriteArrayList<>();
+  private final List<Thread> writers = new CopyOnWriteArrayList<>();
+  private DMStats stats;
+
+  @Before
+  public void setUp() {
+    stats = mock(DMStats.class);
+  }
+
+  private static ByteBuffer message(int size, int value) {
+    ByteBuffer message = ByteBuffer.allocate(size);
+    while (message.hasRemaining()) {
+      message.put((byte) value);
+    }
+    message.flip();
+    return message;
+  }
+
+  private void record(ByteBuffer batch) {
+    byte[] bytes = new byte[batch.remaining()];
+    batch.get(bytes);
+    writes.add(bytes);
+  }
+
+  @Test
+  public void loneMessageIsWrittenImmediately() throws IOException {
+    MessageCoalescer coalescer = new MessageCoalescer(this::record, stats, 1024, 0, false);
+
+    coalescer.send(message(10, 1), false);
+
+    assertThat(writes).hasSize(1);
+    assertThat(writes.get(0)).hasSize(10);
+    verify(stats).incBatchesSent(1, 10);
+    verify(stats).incBatchDrainFlushes();
+  }
+
+  private CompletableFuture<Void> sendAsync(MessageCoalescer coalescer, ByteBuffer message,
+      boolean waitsForReply) {
+    return CompletableFuture.runAsync(() -> {
+      try {
+        coalescer.send(message, waitsForReply);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    });
+  }
+
+  /**
+   * Returns a coalescer whose first write blocks until the returned latch is released, and then
+   * fails if failFirstWrite is true.
+   */
+  private MessageCoalescer blockFirstWrite(CountDownLatch firstWriteStarted,
+      CountDownLatch releaseFirstWrite, boolean failFirstWrite) {
+    return new MessageCoalescer(batch -> {
+      writers.add(Thread.currentThread());
+      record(batch);
+      if (writes.size() == 1) {
+        firstWriteStarted.countDown();
+        try {
+          releaseFirstWrite.await();
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+        if (failFirstWrite) {
+          throw new IOException("failed");
+        }
+      }
+    }, stats, 1024, 0, false);
+  }
+
+  @Test
+  public void messagesSentDuringAWriteAreWrittenTogether() throws Exception {
+    CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+    MessageCoalescer coalescer = blockFirstWrite(firstWriteStarted, releaseFirstWrite, false);
+
+    CompletableFuture<Void> first = sendAsync(coalescer, message(10, 1), false);
+    firstWriteStarted.await();
+    CompletableFuture<Void> others = CompletableFuture.allOf(
+        sendAsync(coalescer, message(10, 2), false),
+        sendAsync(coalescer, message(10, 3), false),
+        sendAsync(coalescer, message(10, 4), true));
+    await().until(() -> coalescer.getBufferedMessages() == 3);
+    assertThat(others).isNotDone();
+
+    releaseFirstWrite.countDown();
+    first.get();
+    others.get();
+
+    assertThat(writes).hasSize(2);
+    byte[] batch = writes.get(1);
+    assertThat(batch).hasSize(30);
+    assertThat(new byte[] {batch[0], batch[10], batch[20]})
+        .containsExactlyInAnyOrder((byte) 2, (byte) 3, (byte) 4);
+    verify(stats).incBatchesSent(3, 30);
+    verify(stats).incBatchReplyFlushes();
+  }
+
+  @Test
+  public void writerLeavesBatchesBufferedAfterItsMessageToTheirSenders() throws Exception {
+    CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+    MessageCoalescer coalescer = blockFirstWrite(firstWriteStarted, releaseFirstWrite, false);
+
+    CompletableFuture<Void> first = sendAsync(coalescer, message(10, 1), false);
+    firstWriteStarted.await();
+    CompletableFuture<Void> second = sendAsync(coalescer, message(10, 2), false);
+    await().until(() -> coalescer.getBufferedMessages() == 1);
+
+    releaseFirstWrite.countDown();
+    first.get();
+    second.get();
+
+    assertThat(writers).hasSize(2);
+    assertThat(writers.get(1)).isNotSameAs(writers.get(0));
+  }
+
+  @Test
+  public void failedWriteIsThrownToEverySenderWithAMessageInTheBatch() throws Exception {
+    CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+    MessageCoalescer coalescer = blockFirstWrite(firstWriteStarted, releaseFirstWrite, true);
+
+    CompletableFuture<Void> first = sendAsync(coalescer, message(10, 1), false);
+    firstWriteStarted.await();
+    CompletableFuture<Void> second = sendAsync(coalescer, message(10, 2), false);
+    CompletableFuture<Void> third = sendAsync(coalescer, message(10, 3), false);
+    await().until(() -> coalescer.getBufferedMessages() == 2);
+
+    releaseFirstWrite.countDown();
+
+    for (CompletableFuture<Void> send : Arrays.asList(first, second, third)) {
+      assertThatThrownBy(send::get).hasCauseInstanceOf(IOException.class)
+          .hasRootCauseMessage("failed");
+    }
+    assertThat(writes).hasSize(1);
+  }
+
+  @Test
+  public void messageLargerThanBufferIsWrittenWithoutCopying() throws IOException {
+    MessageCoalescer coalescer = new MessageCoalescer(this::record, stats, 16, 0, false);
+
+    coalescer.send(message(100, 1), false);
+
+    assertThat(writes).hasSize(1);
+    assertThat(writes.get(0)).hasSize(100);
+  }
+
+  @Test
+  public void failedWriteIsThrownAndReleasesTheWriter() throws IOException {
+    MessageCoalescer coalescer = new MessageCoalescer(batch -> {
+      throw new IOException("failed");
+    }, stats, 1024, 0, false);
+
+    assertThatThrownBy(() -> coalescer.send(message(10, 1), false))
+        .isInstanceOf(IOException.class);
+    assertThatThrownBy(() -> coalescer.send(message(10, 1), false))
+        .isInstanceOf(IOException.class);
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.geode.internal.monitoring.ThreadsMonitoring.Mode.P2PReaderExecutor;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.monitoring.ThreadsMonitoring;
+import org.apache.geode.internal.monitoring.executor.AbstractExecutor;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category(MembershipTest.class)
+public class SelectorReaderPoolTest {
+
+  private SelectorReaderPool pool;
+  private Pipe pipe;
+
+  @Before
+  public void setUp() throws IOException {
+    pool = new SelectorReaderPool(1, Executors.newCachedThreadPool());
+    pipe = Pipe.open();
+    pipe.source().configureBlocking(false);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    pool.close();
+    pipe.sink().close();
+    pipe.source().close();
+  }
+
+  private void write(int count) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(count);
+    while (buffer.hasRemaining()) {
+      pipe.sink().write(buffer);
+    }
+  }
+
+  @Test
+  public void readsEverythingWrittenWithoutConcurrentReads() throws IOException {
+    AtomicInteger bytesRead = new AtomicInteger();
+    AtomicBoolean reading = new AtomicBoolean();
+    AtomicBoolean concurrentRead = new AtomicBoolean();
+    ByteBuffer buffer = ByteBuffer.allocate(100);
+    pool.register(() -> {
+      if (!reading.compareAndSet(false, true)) {
+        concurrentRead.set(true);
+      }
+      try {
+        buffer.clear();
+        int amountRead = pipe.source().read(buffer);
+        if (amountRead < 0) {
+          return false;
+        }
+        bytesRead.addAndGet(amountRead);
+        return true;
+      } catch (IOException e) {
+        return false;
+      } finally {
+        reading.set(false);
+      }
+    }, pipe.source());
+
+    for (int i = 0; i < 50; i++) {
+      write(1000);
+    }
+
+    await().untilAsserted(() -> assertThat(bytesRead).hasValue(50_000));
+    assertThat(concurrentRead).isFalse();
+  }
+
+  @Test
+  public void readerIsNotInvokedAfterItReturnsFalse() throws IOException {
+    AtomicInteger invocations = new AtomicInteger();
+    pool.register(() -> {
+      invocations.incrementAndGet();
+      return false;
+    }, pipe.source());
+
+    write(10);
+    await().untilAsserted(() -> assertThat(invocations).hasValue(1));
+
+    write(10);
+    // a later write would have been dispatched well within the sweep interval
+    await().during(Duration.ofMillis(500))
+        .untilAsserted(() -> assertThat(invocations).hasValue(1));
+  }
+
+  @Test
+  public void readerIsInvokedWhenItsChannelIsClosedByAnotherThread() throws IOException {
+    AtomicBoolean sawClosedChannel = new AtomicBoolean();
+    pool.register(() -> {
+      try {
+        pipe.source().read(ByteBuffer.allocate(10));
+        return true;
+      } catch (IOException e) {
+        sawClosedChannel.set(true);
+        return false;
+      }
+    }, pipe.source());
+
+    pipe.source().close();
+
+    await().untilTrue(sawClosedChannel);
+  }
+
+  @Test
+  public void workersThatBlockDoNotKeepOtherChannelsFromBeingRead() throws Exception {
+    ThreadsMonitoring threadsMonitoring = mock(ThreadsMonitoring.class);
+    when(threadsMonitoring.createAbstractExecutor(P2PReaderExecutor))
+        .thenReturn(mock(AbstractExecutor.class));
+    int coreWorkers = 2;
+    int channelCount = coreWorkers * 3;
+    SelectorReaderPool saturatedPool = new SelectorReaderPool(1,
+        SelectorReaderPool.newWorkers(coreWorkers, 60, SECONDS, threadsMonitoring));
+    List<Pipe> pipes = new ArrayList<>();
+    try {
+      // every reader blocks until all of them are reading, as a worker waiting for a reply that
+      // another channel's worker has to read would
+      CountDownLatch allReading = new CountDownLatch(channelCount);
+      AtomicInteger readersReleased = new AtomicInteger();
+      for (int i = 0; i < channelCount; i++) {
+        Pipe channelPipe = Pipe.open();
+        pipes.add(channelPipe);
+        channelPipe.source().configureBlocking(false);
+        saturatedPool.register(() -> {
+          allReading.countDown();
+          try {
+            if (allReading.await(30, SECONDS)) {
+              readersReleased.incrementAndGet();
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return false;
+        }, channelPipe.source());
+        channelPipe.sink().write(ByteBuffer.allocate(1));
+      }
+
+      await().untilAsserted(() -> assertThat(readersReleased).hasValue(channelCount));
+    } finally {
+      saturatedPool.close();
+      for (Pipe channelPipe : pipes) {
+        channelPipe.sink().close();
+        channelPipe.source().close();
+      }
+    }
+  }
+
+  @Test
+  public void monitoredWorkerIsRegisteredOnceForItsLifetime() {
+    ThreadsMonitoring threadsMonitoring = mock(ThreadsMonitoring.class);
+    AbstractExecutor executor = mock(AbstractExecutor.class);
+    when(threadsMonitoring.createAbstractExecutor(P2PReaderExecutor)).thenReturn(executor);
+    AtomicReference<AbstractExecutor> monitorSeenByWorker = new AtomicReference<>();
+
+    SelectorReaderPool.runMonitoredWorker(threadsMonitoring,
+        () -> monitorSeenByWorker.set(SelectorReaderPool.getWorkerMonitor()));
+
+    assertThat(monitorSeenByWorker.get()).isSameAs(executor);
+    assertThat(SelectorReaderPool.getWorkerMonitor()).isNull();
+    verify(executor).suspendMonitoring();
+    verify(threadsMonitoring, times(1)).register(executor);
+    verify(threadsMonitoring, times(1)).unregister(executor);
+  }
+}
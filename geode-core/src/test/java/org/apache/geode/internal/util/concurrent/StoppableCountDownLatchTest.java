@@ -269,4 +269,21 @@ public class StoppableCountDownLatchTest {
     await().untilAsserted(() -> assertThat(latchFuture.isDone()).isTrue());
     assertThat(latch.getCount()).isEqualTo(theCount);
   }
+
+  @Test
+  public void spinAwaitReturnsTrueIfCountIsZero() {
+    StoppableCountDownLatch latch = new StoppableCountDownLatch(stopper, 1);
+
+    latch.countDown();
+
+    assertThat(latch.spinAwait(10)).isTrue();
+  }
+
+  @Test
+  public void spinAwaitReturnsFalseIfCountIsNotZero() {
+    StoppableCountDownLatch latch = new StoppableCountDownLatch(stopper, 1);
+
+    assertThat(latch.spinAwait(10)).isFalse();
+    assertThat(latch.getCount()).isEqualTo(1);
+  }
 }
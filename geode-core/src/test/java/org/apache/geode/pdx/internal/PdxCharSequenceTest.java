@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSource;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSourceFactory;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class PdxCharSequenceTest {
+
+  private static byte[] serialize(String value) throws IOException {
+    HeapDataOutputStream out = new HeapDataOutputStream(KnownVersion.CURRENT);
+    DataSerializer.writeString(value, out);
+    return out.toByteArray();
+  }
+
+  private static void assertViewOf(String value, ByteSource source) {
+    PdxCharSequence charSequence = new PdxCharSequence();
+    assertThat(charSequence.wrap(source, 0)).isTrue();
+    assertThat(charSequence.length()).isEqualTo(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      assertThat(charSequence.charAt(i)).isEqualTo(value.charAt(i));
+    }
+    assertThat(charSequence.contentEquals(value)).isTrue();
+    assertThat(charSequence.toString()).isEqualTo(value);
+  }
+
+  @Test
+  public void viewsAsciiString() throws IOException {
+    String value = "account-12345";
+    assertViewOf(value, ByteSourceFactory.wrap(serialize(value)));
+  }
+
+  @Test
+  public void viewsModifiedUtf8String() throws IOException {
+    String value = "gr\u00fc\u00dfe \u20ac";
+    assertViewOf(value, ByteSourceFactory.wrap(serialize(value)));
+  }
+
+  @Test
+  public void viewsHugeAsciiString() throws IOException {
+    String value = StringUtils.repeat('x', 0x10000 + 1);
+    assertViewOf(value, ByteSourceFactory.wrap(serialize(value)));
+  }
+
+  @Test
+  public void viewsHugeNonAsciiString() throws IOException {
+    String value = StringUtils.repeat('\u20ac', 0x10000);
+    assertViewOf(value, ByteSourceFactory.wrap(serialize(value)));
+  }
+
+  @Test
+  public void viewsStringInDirectBuffer() throws IOException {
+    String value = "off heap";
+    byte[] bytes = serialize(value);
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes).flip();
+    assertViewOf(value, ByteSourceFactory.create(direct));
+  }
+
+  @Test
+  public void wrapReturnsFalseForNullString() throws IOException {
+    PdxCharSequence charSequence = new PdxCharSequence();
+    assertThat(charSequence.wrap(ByteSourceFactory.wrap(serialize(null)), 0)).isFalse();
+    assertThat(charSequence.length()).isZero();
+  }
+
+  @Test
+  public void contentEqualsReturnsFalseForDifferentContent() throws IOException {
+    PdxCharSequence charSequence = new PdxCharSequence();
+    charSequence.wrap(ByteSourceFactory.wrap(serialize("abc")), 0);
+    assertThat(charSequence.contentEquals("abd")).isFalse();
+    assertThat(charSequence.contentEquals("ab")).isFalse();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.InvalidDeltaException;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class PdxFieldDeltaTest {
+
+  private static final String NOTES = StringUtils.repeat("notes ", 50);
+
+  private TypeRegistry registry;
+  private PdxType type;
+
+  @Before
+  public void setUp() {
+    registry = mock(TypeRegistry.class);
+    when(registry.defineLocalType(any(), any())).thenAnswer(invocation -> {
+      PdxType newType = invocation.getArgument(1);
+      newType.setTypeId(1);
+      return newType;
+    });
+
+    PdxWriterImpl writer = new PdxWriterImpl(new PdxType("PdxFieldDeltaTest.Trade", false),
+        registry, new PdxOutputStream());
+    writeTrade(writer, 1L, "GEODE", 1.0, NOTES);
+    type = writer.getPdxType();
+    when(registry.getType(1)).thenReturn(type);
+  }
+
+  private static void writeTrade(PdxWriterImpl writer, long id, String symbol, double price,
+      String notes) {
+    writer.writeLong("id", id);
+    writer.writeString("symbol", symbol);
+    writer.writeDouble("price", price);
+    writer.writeString("notes", notes);
+    writer.completeByteStreamGeneration();
+  }
+
+  private byte[] serializeTrade(long id, String symbol, double price, String notes) {
+    PdxWriterImpl writer = new PdxWriterImpl(type, new PdxOutputStream());
+    writeTrade(writer, id, symbol, price, notes);
+    return writer.toByteArray();
+  }
+
+  @Test
+  public void appliedDeltaOfFixedWidthFieldEqualsNewValue() {
+    byte[] oldBytes = serializeTrade(1L, "GEODE", 1.0, NOTES);
+    byte[] newBytes = serializeTrade(1L, "GEODE", 2.5, NOTES);
+
+    byte[] delta = PdxFieldDelta.createDelta(oldBytes, newBytes, registry);
+
+    assertThat(delta).isNotNull();
+    assertThat(delta.length).isLessThan(newBytes.length / 2);
+    assertThat(PdxFieldDelta.isPdxFieldDelta(delta)).isTrue();
+    assertThat(PdxFieldDelta.applyDelta(oldBytes, delta, registry)).isEqualTo(newBytes);
+  }
+
+  @Test
+  public void appliedDeltaOfVariableWidthFieldEqualsNewValue() {
+    byte[] oldBytes = serializeTrade(1L, "GEODE", 1.0, NOTES);
+    byte[] newBytes = serializeTrade(1L, "APACHE-GEODE", 1.0, NOTES);
+
+    byte[] delta = PdxFieldDelta.createDelta(oldBytes, newBytes, registry);
+
+    assertThat(delta).isNotNull();
+    assertThat(PdxFieldDelta.applyDelta(oldBytes, delta, registry)).isEqualTo(newBytes);
+  }
+
+  @Test
+  public void createDeltaReturnsNullWhenMostOfTheValueChanged() {
+    byte[] oldBytes = serializeTrade(1L, "GEODE", 1.0, NOTES);
+    byte[] newBytes = serializeTrade(1L, "GEODE", 1.0, NOTES.toUpperCase());
+
+    assertThat(PdxFieldDelta.createDelta(oldBytes, newBytes, registry)).isNull();
+  }
+
+  @Test
+  public void createDeltaReturnsNullForNonPdxValues() {
+    byte[] newBytes = serializeTrade(1L, "GEODE", 1.0, NOTES);
+
+    assertThat(PdxFieldDelta.createDelta(new byte[] {1, 2, 3}, newBytes, registry)).isNull();
+    assertThat(PdxFieldDelta.createDelta(null, newBytes, registry)).isNull();
+  }
+
+  @Test
+  public void applyDeltaThrowsWhenOldValueHasAnotherType() {
+    byte[] oldBytes = serializeTrade(1L, "GEODE", 1.0, NOTES);
+    byte[] delta =
+        PdxFieldDelta.createDelta(oldBytes, serializeTrade(2L, "GEODE", 1.0, NOTES), registry);
+    oldBytes[8] = 2;
+
+    assertThatThrownBy(() -> PdxFieldDelta.applyDelta(oldBytes, delta, registry))
+        .isInstanceOf(InvalidDeltaException.class);
+  }
+
+  @Test
+  public void isPdxFieldDeltaReturnsFalseForOtherDeltaBytes() {
+    assertThat(PdxFieldDelta.isPdxFieldDelta(null)).isFalse();
+    assertThat(PdxFieldDelta.isPdxFieldDelta(new byte[] {0, 0, 0, 1})).isFalse();
+    assertThat(PdxFieldDelta.isPdxFieldDelta(new byte[16])).isFalse();
+  }
+
+  @Test
+  public void isPdxReturnsTrueOnlyForSerializedPdxValues() {
+    assertThat(PdxFieldDelta.isPdx(serializeTrade(1L, "GEODE", 1.0, NOTES))).isTrue();
+    assertThat(PdxFieldDelta.isPdx(null)).isFalse();
+    assertThat(PdxFieldDelta.isPdx(new byte[] {1, 2, 3})).isFalse();
+  }
+}
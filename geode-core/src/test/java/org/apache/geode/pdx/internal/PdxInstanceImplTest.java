@@ -19,6 +19,7 @@ import static org.apache.geode.distributed.internal.locks.GrantorRequestProcesso
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -41,6 +42,7 @@ import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.PdxFieldTypeMismatchException;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.test.junit.categories.SerializationTest;
 
@@ -264,6 +266,39 @@ public class PdxInstanceImplTest {
     assertEquals(boolean[].class, instance.getField(booleanArrayField.getFieldName()).getClass());
   }
 
+  @Test
+  public void testIndexBasedAccessors() {
+    PdxInstanceImpl pdxInstance = (PdxInstanceImpl) instance;
+    assertEquals(-1, pdxInstance.getFieldIndex(nonExistentField.getFieldName()));
+    assertEquals(13,
+        pdxInstance.getInt(pdxInstance.getFieldIndex(nonIdentityField.getFieldName())));
+    assertTrue(pdxInstance.getBoolean(pdxInstance.getFieldIndex(booleanField.getFieldName())));
+    assertEquals(3.1415,
+        pdxInstance.getDouble(pdxInstance.getFieldIndex(doubleField.getFieldName())), 0.0);
+    assertEquals(37, pdxInstance.getInt(pdxInstance.getFieldIndex(intField.getFieldName())));
+    assertEquals(42L, pdxInstance.getLong(pdxInstance.getFieldIndex(longField.getFieldName())));
+  }
+
+  @Test(expected = PdxFieldTypeMismatchException.class)
+  public void testIndexBasedAccessorThrowsForWrongFieldType() {
+    PdxInstanceImpl pdxInstance = (PdxInstanceImpl) instance;
+    pdxInstance.getLong(pdxInstance.getFieldIndex(intField.getFieldName()));
+  }
+
+  @Test
+  public void testReadCharSequence() {
+    PdxInstanceImpl pdxInstance = (PdxInstanceImpl) instance;
+    PdxCharSequence charSequence = new PdxCharSequence();
+    assertTrue(pdxInstance.readCharSequence(
+        pdxInstance.getFieldIndex(stringField.getFieldName()), charSequence));
+    assertEquals(5, charSequence.length());
+    assertEquals('M', charSequence.charAt(0));
+    assertEquals('!', charSequence.charAt(4));
+    assertTrue(charSequence.contentEquals("MOOF!"));
+    assertFalse(charSequence.contentEquals("MOOF?"));
+    assertEquals("MOOF!", charSequence.toString());
+  }
+
   @Test
   public void testHasField() {
     assertEquals(false, instance.hasField(nonExistentField.getFieldName()));
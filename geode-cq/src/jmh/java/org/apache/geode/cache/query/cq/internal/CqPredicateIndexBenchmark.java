@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.cq.internal;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.PathUtils;
+import org.apache.geode.internal.cache.InternalCache;
+
+/**
+ * Measures how many update events per second find the CQs they must be sent to, out of a number
+ * of CQs of the form {@code SELECT * FROM /accounts a WHERE a.id = <constant>}. The full scan reads
+ * the attribute of the new and old values once for every CQ and compares it with the CQ's
+ * constant, which is less than evaluating each CQ's query costs, while the indexed lookup uses
+ * {@link CqPredicateIndex}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CqPredicateIndexBenchmark {
+
+  private static final int EVENTS = 1024;
+
+  @Param({"10", "100", "1000", "10000"})
+  public int numberOfCqs;
+
+  private ExecutionContext context;
+  private List<ServerCQImpl> cqs;
+  private long[] constants;
+  private CqPredicateIndex index;
+  private Account[] newValues;
+  private Account[] oldValues;
+  private int event;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    InternalCache cache = mock(InternalCache.class);
+    context = mock(ExecutionContext.class);
+    when(context.getCache()).thenReturn(cache);
+
+    cqs = new ArrayList<>(numberOfCqs);
+    constants = new long[numberOfCqs];
+    for (int i = 0; i < numberOfCqs; i++) {
+      ServerCQImpl cq = mock(ServerCQImpl.class);
+      when(cq.getQuery())
+          .thenReturn(new DefaultQuery("SELECT * FROM $1 a WHERE a.id = " + i, cache, false));
+      when(cq.getQueryExecutionContext()).thenReturn(context);
+      cqs.add(cq);
+      constants[i] = i;
+    }
+    index = new CqPredicateIndex(0, cqs);
+
+    Random random = new Random(0);
+    newValues = new Account[EVENTS];
+    oldValues = new Account[EVENTS];
+    for (int i = 0; i < EVENTS; i++) {
+      newValues[i] = new Account(random.nextInt(numberOfCqs));
+      oldValues[i] = new Account(random.nextInt(numberOfCqs));
+    }
+  }
+
+  @Benchmark
+  public void fullScan(Blackhole blackhole) throws Exception {
+    int i = nextEvent();
+    for (int j = 0; j < numberOfCqs; j++) {
+      if (matches(newValues[i], constants[j]) || matches(oldValues[i], constants[j])) {
+        blackhole.consume(cqs.get(j));
+      }
+    }
+  }
+
+  @Benchmark
+  public Object indexed() {
+    int i = nextEvent();
+    return index.getCandidates(newValues[i], oldValues[i], true);
+  }
+
+  private boolean matches(Account value, long constant) throws Exception {
+    Object id = PathUtils.evaluateAttribute(context, value, "id");
+    return CqPredicateIndex.toIndexKey(id).equals(constant);
+  }
+
+  private int nextEvent() {
+    event = (event + 1) & (EVENTS - 1);
+    return event;
+  }
+
+  public static class Account {
+    public final int id;
+
+    Account(int id) {
+      this.id = id;
+    }
+  }
+}
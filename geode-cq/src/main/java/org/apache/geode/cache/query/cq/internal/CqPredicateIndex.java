@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.cq.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.internal.CompiledComparison;
+import org.apache.geode.cache.query.internal.CompiledID;
+import org.apache.geode.cache.query.internal.CompiledIteratorDef;
+import org.apache.geode.cache.query.internal.CompiledLiteral;
+import org.apache.geode.cache.query.internal.CompiledPath;
+import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.CompiledValue;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.PathUtils;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.pdx.internal.PdxString;
+
+/**
+ * An index of the CQs of a FilterProfile by the constants their WHERE clauses compare an attribute
+ * of the entry value with, such as {@code SELECT * FROM /accounts a WHERE a.accountId = 17}. CQs
+ * that differ only in the constant share a group, which reads the attribute once per value and
+ * finds the CQs it can satisfy with a hash lookup for {@code =}, or a range of a sorted map for
+ * {@code <, <=, >, >=} on integers.
+ * <p>
+ * The index only narrows down the CQs an event is evaluated against; the CQs it returns are still
+ * evaluated in full. A CQ it leaves out is one whose predicate neither the new nor the old value
+ * satisfies, so it relies on the old value of the event rather than on the CQ results cache. CQs
+ * of any other form are always returned, and so is a whole group when the attribute cannot be read
+ * from a value or is of a type the group does not index.
+ *
+ * @since Geode 1.15
+ */
+class CqPredicateIndex {
+
+  private final long cqMapVersion;
+  private final List<ServerCQImpl> unindexedCqs = new ArrayList<>();
+  private final Map<String, PredicateGroup> groups = new HashMap<>();
+
+  /**
+   * @param cqMapVersion the version of the FilterProfile CQ map the CQs were read from, which must
+   *        be read before the CQs
+   */
+  CqPredicateIndex(long cqMapVersion, Collection<?> cqs) {
+    this.cqMapVersion = cqMapVersion;
+    for (Object cq : cqs) {
+      if (cq != null) {
+        add((ServerCQImpl) cq);
+      }
+    }
+  }
+
+  long getCqMapVersion() {
+    return cqMapVersion;
+  }
+
+  int getGroupCount() {
+    return groups.size();
+  }
+
+  /**
+   * @param newValue the new value of the event, or null if it has none
+   * @param oldValue the old value of the event, or null if it has none
+   * @param oldValueNeeded whether the CQs must also be matched against the old value of the event
+   * @return the CQs that may need to be sent the event
+   */
+  Collection<ServerCQImpl> getCandidates(Object newValue, Object oldValue,
+      boolean oldValueNeeded) {
+    if (groups.isEmpty()) {
+      return unindexedCqs;
+    }
+    Set<ServerCQImpl> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+    candidates.addAll(unindexedCqs);
+    for (PredicateGroup group : groups.values()) {
+      if (oldValueNeeded && oldValue == null) {
+        // only the CQ results cache knows which CQs the old value satisfied
+        candidates.addAll(group.cqs);
+        continue;
+      }
+      if (newValue != null && !group.addCandidates(newValue, candidates)) {
+        candidates.addAll(group.cqs);
+        continue;
+      }
+      if (oldValueNeeded && !group.addCandidates(oldValue, candidates)) {
+        candidates.addAll(group.cqs);
+      }
+    }
+    return candidates;
+  }
+
+  private void add(ServerCQImpl cq) {
+    Predicate predicate = Predicate.of(cq);
+    if (predicate == null) {
+      unindexedCqs.add(cq);
+      return;
+    }
+    String groupKey = predicate.operator + " " + predicate.attribute + " "
+        + predicate.constant.getClass().getName();
+    PredicateGroup group = groups.get(groupKey);
+    if (group == null) {
+      group = predicate.operator == OQLLexerTokenTypes.TOK_EQ
+          ? new EqualityGroup(predicate.attribute, cq)
+          : new RangeGroup(predicate.attribute, cq, predicate.operator);
+      groups.put(groupKey, group);
+    }
+    group.add(predicate.constant, cq);
+  }
+
+  /**
+   * @return the value as a key of the index, or null if it is of a type the index does not handle
+   */
+  static Object toIndexKey(Object value) {
+    if (value instanceof Integer || value instanceof Long || value instanceof Short
+        || value instanceof Byte) {
+      return ((Number) value).longValue();
+    } else if (value instanceof String) {
+      return value;
+    } else if (value instanceof PdxString) {
+      return value.toString();
+    }
+    return null;
+  }
+
+  /**
+   * A comparison of an attribute of the value with a constant, with the attribute on the left
+   */
+  private static class Predicate {
+    final String attribute;
+    final int operator;
+    final Object constant;
+
+    private Predicate(String attribute, int operator, Object constant) {
+      this.attribute = attribute;
+      this.operator = operator;
+      this.constant = constant;
+    }
+
+    static Predicate of(ServerCQImpl cq) {
+      Query query = cq.getQuery();
+      if (!(query instanceof DefaultQuery) || cq.getQueryExecutionContext() == null) {
+        return null;
+      }
+      CompiledSelect select = ((DefaultQuery) query).getSimpleSelect();
+      if (select == null || select.getIterators().size() != 1
+          || !(select.getWhereClause() instanceof CompiledComparison)) {
+        return null;
+      }
+      String iteratorName = ((CompiledIteratorDef) select.getIterators().get(0)).getName();
+      CompiledComparison comparison = (CompiledComparison) select.getWhereClause();
+      int operator = comparison.getOperator();
+      String attribute = getAttribute(comparison._left, iteratorName);
+      CompiledValue constant = comparison._right;
+      if (attribute == null) {
+        attribute = getAttribute(comparison._right, iteratorName);
+        constant = comparison._left;
+        operator = reflect(operator);
+      }
+      if (attribute == null || !(constant instanceof CompiledLiteral) || reflect(operator) < 0) {
+        return null;
+      }
+      Object key;
+      try {
+        key = toIndexKey(constant.evaluate(null));
+      } catch (Exception e) {
+        return null;
+      }
+      if (key == null || (operator != OQLLexerTokenTypes.TOK_EQ && !(key instanceof Long))) {
+        // ranges of strings are left out as PDX strings do not sort the way strings do
+        return null;
+      }
+      return new Predicate(attribute, operator, key);
+    }
+
+    /**
+     * @return the name of the attribute of the iterator the value is, or null if it is not one
+     */
+    private static String getAttribute(CompiledValue value, String iteratorName) {
+      if (value instanceof CompiledPath) {
+        CompiledValue receiver = ((CompiledPath) value).getReceiver();
+        if (receiver instanceof CompiledID && iteratorName != null
+            && iteratorName.equals(((CompiledID) receiver).getId())) {
+          return ((CompiledPath) value).getTailID();
+        }
+      } else if (value instanceof CompiledID) {
+        String id = ((CompiledID) value).getId();
+        if (!id.equals(iteratorName)) {
+          return id;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * @return the operator with its operands swapped, or -1 if it is not indexed
+     */
+    private static int reflect(int operator) {
+      switch (operator) {
+        case OQLLexerTokenTypes.TOK_EQ:
+          return OQLLexerTokenTypes.TOK_EQ;
+        case OQLLexerTokenTypes.TOK_LT:
+          return OQLLexerTokenTypes.TOK_GT;
+        case OQLLexerTokenTypes.TOK_LE:
+          return OQLLexerTokenTypes.TOK_GE;
+        case OQLLexerTokenTypes.TOK_GT:
+          return OQLLexerTokenTypes.TOK_LT;
+        case OQLLexerTokenTypes.TOK_GE:
+          return OQLLexerTokenTypes.TOK_LE;
+        default:
+          return -1;
+      }
+    }
+  }
+
+  /**
+   * The CQs that compare the same attribute with the same operator and a constant of the same type
+   */
+  private abstract static class PredicateGroup {
+    final String attribute;
+    /** The CQ whose execution context reads the attribute, with its method authorizer */
+    final ServerCQImpl reader;
+    final List<ServerCQImpl> cqs = new ArrayList<>();
+
+    PredicateGroup(String attribute, ServerCQImpl reader) {
+      this.attribute = attribute;
+      this.reader = reader;
+    }
+
+    void add(Object constant, ServerCQImpl cq) {
+      cqs.add(cq);
+      addToIndex(constant, cq);
+    }
+
+    /**
+     * Adds the CQs whose predicate the value satisfies.
+     *
+     * @return false if the value could not be matched through the index
+     */
+    boolean addCandidates(Object value, Set<ServerCQImpl> candidates) {
+      Object attributeValue;
+      try {
+        synchronized (reader) {
+          ExecutionContext context = reader.getQueryExecutionContext();
+          attributeValue = PathUtils.evaluateAttribute(context, value, attribute);
+        }
+      } catch (Exception e) {
+        // the CQs report the failure when they are evaluated
+        return false;
+      }
+      Object key = toIndexKey(attributeValue);
+      if (key == null) {
+        return false;
+      }
+      return addCandidatesForKey(key, candidates);
+    }
+
+    abstract void addToIndex(Object constant, ServerCQImpl cq);
+
+    abstract boolean addCandidatesForKey(Object key, Set<ServerCQImpl> candidates);
+  }
+
+  private static class EqualityGroup extends PredicateGroup {
+    private final Map<Object, List<ServerCQImpl>> cqsByConstant = new HashMap<>();
+
+    EqualityGroup(String attribute, ServerCQImpl reader) {
+      super(attribute, reader);
+    }
+
+    @Override
+    void addToIndex(Object constant, ServerCQImpl cq) {
+      cqsByConstant.computeIfAbsent(constant, k -> new ArrayList<>()).add(cq);
+    }
+
+    @Override
+    boolean addCandidatesForKey(Object key, Set<ServerCQImpl> candidates) {
+      Class<?> constantType = cqsByConstant.keySet().iterator().next().getClass();
+      if (key.getClass() != constantType) {
+        return false;
+      }
+      List<ServerCQImpl> matches = cqsByConstant.get(key);
+      if (matches != null) {
+        candidates.addAll(matches);
+      }
+      return true;
+    }
+  }
+
+  private static class RangeGroup extends PredicateGroup {
+    private final int operator;
+    private final TreeMap<Long, List<ServerCQImpl>> cqsByConstant = new TreeMap<>();
+
+    RangeGroup(String attribute, ServerCQImpl reader, int operator) {
+      super(attribute, reader);
+      this.operator = operator;
+    }
+
+    @Override
+    void addToIndex(Object constant, ServerCQImpl cq) {
+      cqsByConstant.computeIfAbsent((Long) constant, k -> new ArrayList<>()).add(cq);
+    }
+
+    @Override
+    boolean addCandidatesForKey(Object key, Set<ServerCQImpl> candidates) {
+      if (!(key instanceof Long)) {
+        return false;
+      }
+      Long value = (Long) key;
+      // the constants c for which "value operator c" holds
+      NavigableMap<Long, List<ServerCQImpl>> matches;
+      switch (operator) {
+        case OQLLexerTokenTypes.TOK_LT:
+          matches = cqsByConstant.tailMap(value, false);
+          break;
+        case OQLLexerTokenTypes.TOK_LE:
+          matches = cqsByConstant.tailMap(value, true);
+          break;
+        case OQLLexerTokenTypes.TOK_GT:
+          matches = cqsByConstant.headMap(value, false);
+          break;
+        default:
+          matches = cqsByConstant.headMap(value, true);
+          break;
+      }
+      for (List<ServerCQImpl> cqs : matches.values()) {
+        candidates.addAll(cqs);
+      }
+      return true;
+    }
+  }
+}
@@ -102,6 +102,14 @@ public class CqServiceImpl implements CqService {
   public static boolean EXECUTE_QUERY_DURING_INIT = Boolean.valueOf(System
       .getProperty(GeodeGlossary.GEMFIRE_PREFIX + "cq.EXECUTE_QUERY_DURING_INIT", "true"));
 
+  /**
+   * System property to index the CQs of each filter profile by the constants of their WHERE
+   * clauses, so that an event is evaluated only against the CQs whose predicate its new or old
+   * value can satisfy. See {@link CqPredicateIndex}.
+   */
+  public static final boolean PREDICATE_INDEX =
+      Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "cq.PREDICATE_INDEX");
+
 
   private static final String CQ_NAME_PREFIX = "GfCq";
 
@@ -1313,9 +1321,17 @@ public class CqServiceImpl implements CqService {
 
       HashMap<Long, Integer> cqInfo = new HashMap<>();
 
-      for (Object o : cqs.entrySet()) {
-        Map.Entry cqEntry = (Map.Entry) o;
-        ServerCQImpl cQuery = (ServerCQImpl) cqEntry.getValue();
+      Collection<?> cqsToProcess = cqs.values();
+      if (PREDICATE_INDEX) {
+        Object newValue = cqUnfilteredEventsSet_newValue.isEmpty() ? null
+            : cqUnfilteredEventsSet_newValue.iterator().next();
+        Object oldValue = opRequiringQueryOnOldValue ? entryEvent.getOldValue() : null;
+        cqsToProcess = getPredicateIndex(pf).getCandidates(newValue, oldValue,
+            opRequiringQueryOnOldValue);
+      }
+
+      for (Object o : cqsToProcess) {
+        ServerCQImpl cQuery = (ServerCQImpl) o;
         b_cqResults_newValue = false;
         b_cqResults_oldValue = false;
         queryOldValue = false;
@@ -1598,6 +1614,22 @@ public class CqServiceImpl implements CqService {
     return matchingCqMap;
   }
 
+  /**
+   * Returns the predicate index of the CQs of the filter profile, rebuilding it if the CQs have
+   * changed since it was built.
+   */
+  private static CqPredicateIndex getPredicateIndex(FilterProfile pf) {
+    long cqMapVersion = pf.getCqMapVersion();
+    Object index = pf.getCqIndex();
+    if (index instanceof CqPredicateIndex
+        && ((CqPredicateIndex) index).getCqMapVersion() == cqMapVersion) {
+      return (CqPredicateIndex) index;
+    }
+    CqPredicateIndex newIndex = new CqPredicateIndex(cqMapVersion, pf.getCqMap().values());
+    pf.setCqIndex(newIndex);
+    return newIndex;
+  }
+
   /**
    * Applies the query on the event. This method takes care of the performance related changed done
    * to improve the CQ-query performance. When CQ-query is executed first time, it saves the query
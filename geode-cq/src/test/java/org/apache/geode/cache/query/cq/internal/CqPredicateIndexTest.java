@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.cq.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.internal.cache.InternalCache;
+
+public class CqPredicateIndexTest {
+
+  private InternalCache cache;
+  private ExecutionContext context;
+
+  @Before
+  public void setUp() {
+    cache = mock(InternalCache.class);
+    context = mock(ExecutionContext.class);
+    when(context.getCache()).thenReturn(cache);
+  }
+
+  @Test
+  public void equalityCandidatesAreTheCqsWithTheConstantOfTheValue() {
+    ServerCQImpl cq1 = cq("SELECT * FROM $1 a WHERE a.id = 1");
+    ServerCQImpl cq2 = cq("SELECT * FROM $1 a WHERE a.id = 2");
+    ServerCQImpl cq3 = cq("SELECT * FROM $1 WHERE id = 2");
+
+    CqPredicateIndex index = new CqPredicateIndex(0, Arrays.asList(cq1, cq2, cq3));
+
+    assertThat(index.getGroupCount()).isEqualTo(1);
+    assertThat(index.getCandidates(new Account(2, "x"), null, false))
+        .containsExactlyInAnyOrder(cq2, cq3);
+    assertThat(index.getCandidates(new Account(3, "x"), null, false)).isEmpty();
+  }
+
+  @Test
+  public void stringConstantsAreIndexed() {
+    ServerCQImpl cq1 = cq("SELECT * FROM $1 a WHERE a.name = 'x'");
+    ServerCQImpl cq2 = cq("SELECT * FROM $1 a WHERE a.name = 'y'");
+
+    CqPredicateIndex index = new CqPredicateIndex(0, Arrays.asList(cq1, cq2));
+
+    assertThat(index.getCandidates(new Account(1, "y"), null, false)).containsExactly(cq2);
+  }
+
+  @Test
+  public void rangeCandidatesAreTheCqsWhoseRangeHoldsTheValue() {
+    ServerCQImpl greaterThan1 = cq("SELECT * FROM $1 a WHERE a.id > 1");
+    ServerCQImpl greaterThan5 = cq("SELECT * FROM $1 a WHERE a.id > 5");
+    ServerCQImpl atMost5 = cq("SELECT * FROM $1 a WHERE a.id <= 5");
+    ServerCQImpl lessThan5 = cq("SELECT * FROM $1 a WHERE 5 > a.id");
+
+    CqPredicateIndex index = new CqPredicateIndex(0,
+        Arrays.asList(greaterThan1, greaterThan5, atMost5, lessThan5));
+
+    assertThat(index.getCandidates(new Account(5, "x"), null, false))
+        .containsExactlyInAnyOrder(greaterThan1, atMost5);
+    assertThat(index.getCandidates(new Account(0, "x"), null, false))
+        .containsExactlyInAnyOrder(atMost5, lessThan5);
+  }
+
+  @Test
+  public void candidatesIncludeTheCqsOfTheOldValueWhenItIsNeeded() {
+    ServerCQImpl cq1 = cq("SELECT * FROM $1 a WHERE a.id = 1");
+    ServerCQImpl cq2 = cq("SELECT * FROM $1 a WHERE a.id = 2");
+
+    CqPredicateIndex index = new CqPredicateIndex(0, Arrays.asList(cq1, cq2));
+
+    assertThat(index.getCandidates(new Account(1, "x"), new Account(2, "x"), true))
+        .containsExactlyInAnyOrder(cq1, cq2);
+    assertThat(index.getCandidates(null, new Account(2, "x"), true)).containsExactly(cq2);
+  }
+
+  @Test
+  public void candidatesIncludeTheWholeGroupWhenTheOldValueIsNeededButMissing() {
+    ServerCQImpl cq1 = cq("SELECT * FROM $1 a WHERE a.id = 1");
+    ServerCQImpl cq2 = cq("SELECT * FROM $1 a WHERE a.id = 2");
+
+    CqPredicateIndex index = new CqPredicateIndex(0, Arrays.asList(cq1, cq2));
+
+    assertThat(index.getCandidates(new Account(1, "x"), null, true))
+        .containsExactlyInAnyOrder(cq1, cq2);
+  }
+
+  @Test
+  public void candidatesIncludeTheWholeGroupWhenTheAttributeCannotBeRead() {
+    ServerCQImpl cq1 = cq("SELECT * FROM $1 a WHERE a.id = 1");
+    ServerCQImpl cq2 = cq("SELECT * FROM $1 a WHERE a.id = 2");
+
+    CqPredicateIndex index = new CqPredicateIndex(0, Arrays.asList(cq1, cq2));
+
+    assertThat(index.getCandidates("not an account", null, false))
+        .containsExactlyInAnyOrder(cq1, cq2);
+  }
+
+  @Test
+  public void cqsThatCannotBeIndexedAreAlwaysCandidates() {
+    ServerCQImpl notEqual = cq("SELECT * FROM $1 a WHERE a.id != 1");
+    ServerCQImpl and = cq("SELECT * FROM $1 a WHERE a.id = 1 AND a.name = 'x'");
+    ServerCQImpl stringRange = cq("SELECT * FROM $1 a WHERE a.name > 'x'");
+    ServerCQImpl indexed = cq("SELECT * FROM $1 a WHERE a.id = 1");
+
+    CqPredicateIndex index =
+        new CqPredicateIndex(0, Arrays.asList(notEqual, and, stringRange, indexed));
+
+    assertThat(index.getGroupCount()).isEqualTo(1);
+    assertThat(index.getCandidates(new Account(2, "x"), null, false))
+        .containsExactlyInAnyOrder(notEqual, and, stringRange);
+  }
+
+  @Test
+  public void integralNumbersHaveTheSameIndexKey() {
+    assertThat(CqPredicateIndex.toIndexKey(7)).isEqualTo(7L);
+    assertThat(CqPredicateIndex.toIndexKey((short) 7)).isEqualTo(7L);
+    assertThat(CqPredicateIndex.toIndexKey((byte) 7)).isEqualTo(7L);
+    assertThat(CqPredicateIndex.toIndexKey(7L)).isEqualTo(7L);
+    assertThat(CqPredicateIndex.toIndexKey(7.0)).isNull();
+  }
+
+  private ServerCQImpl cq(String queryString) {
+    ServerCQImpl cq = mock(ServerCQImpl.class);
+    when(cq.getQuery()).thenReturn(new DefaultQuery(queryString, cache, false));
+    when(cq.getQueryExecutionContext()).thenReturn(context);
+    return cq;
+  }
+
+  public static class Account {
+    public final int id;
+    public final String name;
+
+    Account(int id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+  }
+}
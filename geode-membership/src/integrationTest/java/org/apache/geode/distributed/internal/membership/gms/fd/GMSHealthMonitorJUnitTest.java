@@ -417,6 +417,57 @@ public class GMSHealthMonitorJUnitTest {
     Assert.assertTrue(gmsHealthMonitor.getStats().getSuspectsReceived() > 0);
   }
 
+  @Test
+  public void checkRepliesAreNotRecordedAsHeartbeats() throws Exception {
+    installAView();
+    MemberIdentifier member = mockMembers.get(1);
+
+    for (int requestId = 0; requestId < 5; requestId++) {
+      HeartbeatMessage reply = new HeartbeatMessage(requestId);
+      reply.setSender(member);
+      gmsHealthMonitor.processMessage(reply);
+    }
+    assertThat(gmsHealthMonitor.heartbeatHistories).doesNotContainKey(member);
+
+    HeartbeatMessage heartbeat = new HeartbeatMessage(-1);
+    heartbeat.setSender(member);
+    gmsHealthMonitor.processMessage(heartbeat);
+    assertThat(gmsHealthMonitor.heartbeatHistories).containsKey(member);
+  }
+
+  @Test
+  public void memberIsCheckedAtMemberTimeoutWhateverItsSuspicionLevel() throws Exception {
+    installAView();
+    MemberIdentifier member = mockMembers.get(1);
+    gmsHealthMonitor.phiThreshold = Double.MAX_VALUE;
+    gmsHealthMonitor.heartbeatHistories.put(member, heartbeatHistory(10_000));
+
+    assertThat(gmsHealthMonitor.isCheckNeeded(member, 40_000, 40_100)).isFalse();
+    assertThat(gmsHealthMonitor.isCheckNeeded(member, 40_000, 40_000 + memberTimeout)).isTrue();
+  }
+
+  @Test
+  public void memberIsCheckedBeforeMemberTimeoutOnceSuspicionLevelIsReached() throws Exception {
+    installAView();
+    MemberIdentifier member = mockMembers.get(1);
+    gmsHealthMonitor.phiThreshold = 8;
+    gmsHealthMonitor.heartbeatHistories.put(member, heartbeatHistory(10));
+
+    assertThat(gmsHealthMonitor.isCheckNeeded(member, 40, 60)).isFalse();
+    assertThat(gmsHealthMonitor.isCheckNeeded(member, 40, 340)).isTrue();
+  }
+
+  /**
+   * Returns the history of a member that sent five heartbeats separated by the given interval
+   */
+  private PhiAccrualFailureDetector heartbeatHistory(long interval) {
+    PhiAccrualFailureDetector history = new PhiAccrualFailureDetector(10, 10, 0);
+    for (long time = 0; time <= 4 * interval; time += interval) {
+      history.heartbeat(time);
+    }
+    return history;
+  }
+
   @Test
   public void testCheckIfAvailableWithSimulatedHeartBeat() throws Exception {
     GMSMembershipView v = installAView();
@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -36,6 +37,7 @@ import org.apache.geode.distributed.internal.membership.gms.MembershipLocatorSta
 import org.apache.geode.distributed.internal.membership.gms.Services;
 import org.apache.geode.distributed.internal.membership.gms.interfaces.JoinLeave;
 import org.apache.geode.distributed.internal.membership.gms.interfaces.Messenger;
+import org.apache.geode.distributed.internal.membership.gms.messenger.TcpMessenger;
 import org.apache.geode.distributed.internal.tcpserver.TcpClient;
 import org.apache.geode.distributed.internal.tcpserver.TcpServer;
 import org.apache.geode.distributed.internal.tcpserver.TcpSocketCreatorImpl;
@@ -91,6 +93,11 @@ public class GMSLocatorIntegrationTest {
     gmsLocator.setServices(services);
   }
 
+  @After
+  public void tearDown() {
+    System.clearProperty(TcpMessenger.TRANSPORT_PROPERTY);
+  }
+
   @Test
   public void viewFileIsNullByDefault() {
     assertThat(gmsLocator.getViewFile()).isNull();
@@ -111,4 +118,17 @@ public class GMSLocatorIntegrationTest {
 
     assertThat(gmsLocator.getViewFile()).exists();
   }
+
+  @Test
+  public void findCoordinatorRequestFromMemberUsingAnotherTransportIsRejected() {
+    gmsLocator.init(tcpServer);
+    System.setProperty(TcpMessenger.TRANSPORT_PROPERTY, "tcp");
+    FindCoordinatorRequest request = new FindCoordinatorRequest(messenger.getMemberID());
+    System.clearProperty(TcpMessenger.TRANSPORT_PROPERTY);
+
+    FindCoordinatorResponse response =
+        (FindCoordinatorResponse) gmsLocator.processRequest(request);
+
+    assertThat(response.getRejectionMessage()).contains("uses the tcp membership transport");
+  }
 }
@@ -26,6 +26,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Matchers.isA;
@@ -77,6 +78,7 @@ import org.apache.geode.distributed.internal.membership.gms.locator.FindCoordina
 import org.apache.geode.distributed.internal.membership.gms.membership.GMSJoinLeave.SearchState;
 import org.apache.geode.distributed.internal.membership.gms.membership.GMSJoinLeave.ViewCreator;
 import org.apache.geode.distributed.internal.membership.gms.membership.GMSJoinLeave.ViewReplyProcessor;
+import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewDeltaMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinResponseMessage;
@@ -790,6 +792,26 @@ public class GMSJoinLeaveJUnitTest {
     assertEquals(2, E.getVmViewId());
   }
 
+  @Test
+  public void viewDeltaThatCannotBeAppliedIsRejected() throws Exception {
+    initMocks();
+    prepareAndInstallView(mockMembers[0], createMemberList(mockMembers[0], gmsJoinLeaveMemberId));
+    GMSMembershipView<MemberIdentifier> otherBase = new GMSMembershipView<>(mockMembers[0],
+        gmsJoinLeave.getView().getViewId(),
+        createMemberList(mockMembers[0], mockMembers[1], gmsJoinLeaveMemberId));
+    GMSMembershipView<MemberIdentifier> newView =
+        new GMSMembershipView<>(otherBase, otherBase.getViewId() + 1);
+    InstallViewDeltaMessage<MemberIdentifier> delta =
+        new InstallViewDeltaMessage<>(newView, otherBase, credentials, true);
+    delta.setSender(mockMembers[0]);
+
+    gmsJoinLeave.processInstallViewDeltaMessage(delta);
+
+    verify(messenger).send(argThat((ViewAckMessage ack) -> ack.isDeltaRejected()
+        && ack.isPrepareAck() && ack.getViewId() == newView.getViewId()));
+    assertEquals(otherBase.getViewId(), gmsJoinLeave.getView().getViewId());
+  }
+
   @Test
   public void testBecomeCoordinatorThroughViewChange() throws Exception {
     initMocks();
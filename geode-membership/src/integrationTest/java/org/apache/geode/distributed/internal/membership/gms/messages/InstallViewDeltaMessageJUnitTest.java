@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messages;
+
+import static org.apache.geode.distributed.internal.membership.gms.util.MemberIdentifierUtil.createMemberID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.api.MemberIdentifier;
+import org.apache.geode.distributed.internal.membership.gms.GMSMembershipView;
+import org.apache.geode.distributed.internal.membership.gms.Services;
+import org.apache.geode.internal.serialization.BufferDataOutputStream;
+import org.apache.geode.internal.serialization.DSFIDSerializer;
+import org.apache.geode.internal.serialization.DSFIDSerializerFactory;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class InstallViewDeltaMessageJUnitTest {
+
+  private List<MemberIdentifier> members;
+  private GMSMembershipView<MemberIdentifier> baseView;
+
+  @Before
+  public void setUp() {
+    members = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      members.add(createMemberID(1000 + i));
+    }
+    baseView = new GMSMembershipView<>(members.get(0), 5, members);
+    for (MemberIdentifier member : members) {
+      baseView.setFailureDetectionPort(member, member.getMembershipPort() + 1);
+    }
+  }
+
+  private GMSMembershipView<MemberIdentifier> createNextView() {
+    MemberIdentifier joined = createMemberID(2000);
+    MemberIdentifier departed = members.get(3);
+    MemberIdentifier crashed = members.get(5);
+    List<MemberIdentifier> newMembers = new ArrayList<>(members);
+    newMembers.remove(departed);
+    newMembers.remove(crashed);
+    newMembers.add(joined);
+    GMSMembershipView<MemberIdentifier> view = new GMSMembershipView<>(members.get(0), 6,
+        newMembers, new HashSet<>(Collections.singleton(departed)),
+        new HashSet<>(Collections.singleton(crashed)));
+    view.setFailureDetectionPorts(baseView);
+    view.setFailureDetectionPort(joined, 2001);
+    view.setPublicKey(joined, "key");
+    return view;
+  }
+
+  private static void assertSameView(GMSMembershipView<MemberIdentifier> actual,
+      GMSMembershipView<MemberIdentifier> expected) {
+    assertThat(actual.getViewId()).isEqualTo(expected.getViewId());
+    assertThat(actual.getCreator()).isEqualTo(expected.getCreator());
+    assertThat(actual.getMembers()).containsExactlyElementsOf(expected.getMembers());
+    assertThat(actual.getShutdownMembers()).isEqualTo(expected.getShutdownMembers());
+    assertThat(actual.getCrashedMembers()).isEqualTo(expected.getCrashedMembers());
+    for (MemberIdentifier member : expected.getMembers()) {
+      assertThat(actual.getFailureDetectionPort(member))
+          .isEqualTo(expected.getFailureDetectionPort(member));
+      assertThat(actual.getPublicKey(member)).isEqualTo(expected.getPublicKey(member));
+    }
+  }
+
+  @Test
+  public void deltaAppliedToBaseViewReproducesView() {
+    GMSMembershipView<MemberIdentifier> view = createNextView();
+
+    InstallViewDeltaMessage<MemberIdentifier> delta =
+        new InstallViewDeltaMessage<>(view, baseView, null, false);
+
+    assertSameView(delta.applyTo(baseView), view);
+  }
+
+  @Test
+  public void deltaCannotBeAppliedToAnotherView() {
+    GMSMembershipView<MemberIdentifier> view = createNextView();
+    InstallViewDeltaMessage<MemberIdentifier> delta =
+        new InstallViewDeltaMessage<>(view, baseView, null, true);
+
+    assertThat(delta.applyTo(view)).isNull();
+
+    List<MemberIdentifier> otherMembers = new ArrayList<>(members);
+    otherMembers.remove(1);
+    assertThat(delta.applyTo(new GMSMembershipView<>(members.get(0), 5, otherMembers))).isNull();
+  }
+
+  @Test
+  public void deltaSurvivesSerialization() throws Exception {
+    DSFIDSerializer serializer = new DSFIDSerializerFactory().create();
+    Services.registerSerializables(serializer);
+    GMSMembershipView<MemberIdentifier> view = createNextView();
+    InstallViewDeltaMessage<MemberIdentifier> delta =
+        new InstallViewDeltaMessage<>(view, baseView, "credentials", true);
+
+    BufferDataOutputStream out = new BufferDataOutputStream(KnownVersion.CURRENT);
+    serializer.getObjectSerializer().writeObject(delta, out);
+    InstallViewDeltaMessage<MemberIdentifier> copy = serializer.getObjectDeserializer()
+        .readObject(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+
+    assertThat(copy.getViewId()).isEqualTo(6);
+    assertThat(copy.getBaseViewId()).isEqualTo(5);
+    assertThat(copy.isPreparing()).isTrue();
+    assertThat(copy.getCredentials()).isEqualTo("credentials");
+    assertSameView(copy.applyTo(baseView), view);
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messenger;
+
+import static org.apache.geode.distributed.internal.membership.api.MembershipConfig.DEFAULT_LOCATOR_WAIT_TIME;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.distributed.internal.membership.api.MemberIdentifier;
+import org.apache.geode.distributed.internal.membership.api.MemberIdentifierFactoryImpl;
+import org.apache.geode.distributed.internal.membership.api.MemberStartupException;
+import org.apache.geode.distributed.internal.membership.api.Membership;
+import org.apache.geode.distributed.internal.membership.api.MembershipBuilder;
+import org.apache.geode.distributed.internal.membership.api.MembershipConfig;
+import org.apache.geode.distributed.internal.membership.api.MembershipConfigurationException;
+import org.apache.geode.distributed.internal.membership.api.MembershipLocator;
+import org.apache.geode.distributed.internal.membership.api.MembershipLocatorBuilder;
+import org.apache.geode.distributed.internal.tcpserver.TcpClient;
+import org.apache.geode.distributed.internal.tcpserver.TcpSocketCreator;
+import org.apache.geode.distributed.internal.tcpserver.TcpSocketCreatorImpl;
+import org.apache.geode.distributed.internal.tcpserver.TcpSocketFactory;
+import org.apache.geode.internal.inet.LocalHostUtil;
+import org.apache.geode.internal.serialization.DSFIDSerializer;
+import org.apache.geode.internal.serialization.internal.DSFIDSerializerImpl;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+/**
+ * Tests of forming a group with membership messages sent by TcpMessenger
+ */
+@Category({MembershipTest.class})
+public class TcpMessengerIntegrationTest {
+  private InetAddress localHost;
+  private DSFIDSerializer dsfidSerializer;
+  private TcpSocketCreator socketCreator;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Rule
+  public RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  @Before
+  public void before() throws IOException {
+    System.setProperty(TcpMessenger.TRANSPORT_PROPERTY, "tcp");
+    localHost = LocalHostUtil.getLocalHost();
+    dsfidSerializer = new DSFIDSerializerImpl();
+    socketCreator = new TcpSocketCreatorImpl();
+  }
+
+  @Test
+  public void membersFormAViewAndSeeMembersLeave()
+      throws IOException, MemberStartupException {
+    final MembershipLocator<MemberIdentifier> locator = createLocator();
+    locator.start();
+
+    final Membership<MemberIdentifier> membership1 =
+        createMembership(createMembershipConfig(true, locator.getPort()), locator);
+    start(membership1);
+    final Membership<MemberIdentifier> membership2 =
+        createMembership(createMembershipConfig(false, locator.getPort()), null);
+    start(membership2);
+    final Membership<MemberIdentifier> membership3 =
+        createMembership(createMembershipConfig(false, locator.getPort()), null);
+    start(membership3);
+
+    await().untilAsserted(
+        () -> assertThat(membership1.getView().getMembers()).hasSize(3));
+    await().untilAsserted(
+        () -> assertThat(membership2.getView().getMembers()).hasSize(3));
+    await().untilAsserted(
+        () -> assertThat(membership3.getView().getMembers()).hasSize(3));
+
+    membership3.disconnect(false);
+
+    await().untilAsserted(
+        () -> assertThat(membership1.getView().getMembers()).hasSize(2));
+    await().untilAsserted(
+        () -> assertThat(membership2.getView().getMembers()).hasSize(2));
+
+    membership2.disconnect(false);
+    membership1.disconnect(false);
+    locator.stop();
+  }
+
+  @Test
+  public void multicastIsRejected() {
+    final MembershipConfig config = new MembershipConfig() {
+      @Override
+      public boolean isMulticastEnabled() {
+        return true;
+      }
+    };
+
+    assertThatThrownBy(() -> createMembership(config, null))
+        .isInstanceOf(MembershipConfigurationException.class)
+        .hasMessageContaining("Multicast");
+  }
+
+  private void start(final Membership<MemberIdentifier> membership)
+      throws MemberStartupException {
+    membership.start();
+    membership.startEventProcessing();
+  }
+
+  private Membership<MemberIdentifier> createMembership(
+      final MembershipConfig config,
+      final MembershipLocator<MemberIdentifier> embeddedLocator)
+      throws MembershipConfigurationException {
+    final TcpClient locatorClient =
+        new TcpClient(socketCreator, dsfidSerializer.getObjectSerializer(),
+            dsfidSerializer.getObjectDeserializer(), TcpSocketFactory.DEFAULT);
+
+    return MembershipBuilder.<MemberIdentifier>newMembershipBuilder(
+        socketCreator, locatorClient, dsfidSerializer, new MemberIdentifierFactoryImpl())
+        .setMembershipLocator(embeddedLocator)
+        .setConfig(config)
+        .create();
+  }
+
+  private MembershipConfig createMembershipConfig(final boolean isALocator,
+      final int locatorPort) {
+    return new MembershipConfig() {
+      @Override
+      public String getLocators() {
+        return localHost.getHostName() + '[' + locatorPort + ']';
+      }
+
+      @Override
+      public int getVmKind() {
+        return isALocator ? MemberIdentifier.LOCATOR_DM_TYPE : MemberIdentifier.NORMAL_DM_TYPE;
+      }
+
+      @Override
+      public int getLocatorWaitTime() {
+        return DEFAULT_LOCATOR_WAIT_TIME;
+      }
+    };
+  }
+
+  private MembershipLocator<MemberIdentifier> createLocator()
+      throws MembershipConfigurationException, IOException {
+    final Supplier<ExecutorService> executorServiceSupplier =
+        () -> LoggingExecutors.newCachedThreadPool("membership", false);
+
+    return MembershipLocatorBuilder.<MemberIdentifier>newLocatorBuilder(
+        socketCreator,
+        dsfidSerializer,
+        temporaryFolder.newFolder().toPath(),
+        executorServiceSupplier)
+        .setConfig(createMembershipConfig(true))
+        .setPort(0)
+        .create();
+  }
+
+  private MembershipConfig createMembershipConfig(final boolean isALocator) {
+    return new MembershipConfig() {
+      @Override
+      public int getVmKind() {
+        return isALocator ? MemberIdentifier.LOCATOR_DM_TYPE : MemberIdentifier.NORMAL_DM_TYPE;
+      }
+    };
+  }
+}
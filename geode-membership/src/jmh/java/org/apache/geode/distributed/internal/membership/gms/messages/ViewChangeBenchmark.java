@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messages;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.apache.geode.distributed.internal.membership.api.MemberDataBuilder;
+import org.apache.geode.distributed.internal.membership.api.MemberIdentifier;
+import org.apache.geode.distributed.internal.membership.api.MemberIdentifierFactoryImpl;
+import org.apache.geode.distributed.internal.membership.gms.GMSMembershipView;
+import org.apache.geode.distributed.internal.membership.gms.Services;
+import org.apache.geode.internal.serialization.BufferDataOutputStream;
+import org.apache.geode.internal.serialization.DSFIDSerializer;
+import org.apache.geode.internal.serialization.DSFIDSerializerFactory;
+import org.apache.geode.internal.serialization.KnownVersion;
+
+/**
+ * Measures the latency of a view change, from the coordinator serializing the message to a
+ * recipient having the new view. Like JGroupsMessenger, the coordinator serializes the message
+ * once and copies it for every other member of the view, so the copies grow with the size of the
+ * message. A recipient then deserializes it and, for a delta, applies it to the base view. The
+ * view change has one member joining and one leaving, which is the common case in a large
+ * cluster. Network transmission is not included.
+ */
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ViewChangeBenchmark {
+
+  @Param({"16", "64", "256"})
+  public int clusterSize;
+
+  @Param({"full", "delta"})
+  public String mode;
+
+  private DSFIDSerializer serializer;
+  private GMSMembershipView<MemberIdentifier> baseView;
+  private AbstractGMSMessage<MemberIdentifier> message;
+
+  @Setup
+  public void setup() throws IOException {
+    serializer = new DSFIDSerializerFactory().create();
+    Services.registerSerializables(serializer);
+
+    List<MemberIdentifier> members = new ArrayList<>(clusterSize);
+    for (int i = 0; i < clusterSize; i++) {
+      members.add(createMember(i));
+    }
+    baseView = new GMSMembershipView<>(members.get(0), 10, members);
+    for (MemberIdentifier member : members) {
+      baseView.setFailureDetectionPort(member, member.getMembershipPort() + 1);
+    }
+
+    MemberIdentifier departed = members.get(clusterSize / 2);
+    MemberIdentifier joined = createMember(clusterSize);
+    List<MemberIdentifier> newMembers = new ArrayList<>(members);
+    newMembers.remove(departed);
+    newMembers.add(joined);
+    GMSMembershipView<MemberIdentifier> view = new GMSMembershipView<>(members.get(0), 11,
+        newMembers, new HashSet<>(Collections.singleton(departed)), new HashSet<>());
+    view.setFailureDetectionPorts(baseView);
+    view.setFailureDetectionPort(joined, joined.getMembershipPort() + 1);
+
+    if (mode.equals("delta")) {
+      message = new InstallViewDeltaMessage<>(view, baseView, null, false);
+    } else {
+      message = new InstallViewMessage<>(view, null, baseView.getViewId(), false);
+    }
+  }
+
+  private static MemberIdentifier createMember(int i) throws UnknownHostException {
+    return new MemberIdentifierFactoryImpl().create(
+        MemberDataBuilder.newBuilderForLocalHost("localhost")
+            .setMembershipPort(30000 + i)
+            .setVmViewId(i)
+            .setUuidMostSignificantBits(i)
+            .setUuidLeastSignificantBits(~i)
+            .build());
+  }
+
+  private byte[] serialize() throws IOException {
+    BufferDataOutputStream out = new BufferDataOutputStream(KnownVersion.CURRENT);
+    serializer.getObjectSerializer().writeObject(message, out);
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  public Object viewChange(Blackhole blackhole) throws IOException, ClassNotFoundException {
+    byte[] bytes = serialize();
+    for (int i = 1; i < clusterSize; i++) {
+      blackhole.consume(Arrays.copyOf(bytes, bytes.length));
+    }
+    Object received = serializer.getObjectDeserializer()
+        .readObject(new DataInputStream(new ByteArrayInputStream(bytes)));
+    if (received instanceof InstallViewDeltaMessage) {
+      @SuppressWarnings("unchecked")
+      InstallViewDeltaMessage<MemberIdentifier> delta =
+          (InstallViewDeltaMessage<MemberIdentifier>) received;
+      return delta.applyTo(baseView);
+    }
+    return received;
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messenger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import org.apache.geode.distributed.internal.membership.api.MemberIdentifier;
+import org.apache.geode.distributed.internal.membership.api.MemberIdentifierFactoryImpl;
+import org.apache.geode.distributed.internal.membership.api.MemberStartupException;
+import org.apache.geode.distributed.internal.membership.api.Membership;
+import org.apache.geode.distributed.internal.membership.api.MembershipBuilder;
+import org.apache.geode.distributed.internal.membership.api.MembershipConfig;
+import org.apache.geode.distributed.internal.membership.api.MembershipLocator;
+import org.apache.geode.distributed.internal.membership.api.MembershipLocatorBuilder;
+import org.apache.geode.distributed.internal.tcpserver.TcpClient;
+import org.apache.geode.distributed.internal.tcpserver.TcpSocketCreator;
+import org.apache.geode.distributed.internal.tcpserver.TcpSocketCreatorImpl;
+import org.apache.geode.distributed.internal.tcpserver.TcpSocketFactory;
+import org.apache.geode.internal.inet.LocalHostUtil;
+import org.apache.geode.internal.serialization.DSFIDSerializer;
+import org.apache.geode.internal.serialization.internal.DSFIDSerializerImpl;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
+
+/**
+ * Compares the JGroups UDP and TCP membership transports with a group of members that all run
+ * in this JVM. The join benchmark measures the time from starting a member until every member has
+ * installed a view containing it, and the leave benchmark the time from a member leaving until
+ * every remaining member has installed a view without it.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MembershipTransportBenchmark {
+
+  @Param({"udp", "tcp"})
+  public String transport;
+
+  @Param({"4", "16"})
+  public int groupSize;
+
+  private InetAddress localHost;
+  private DSFIDSerializer dsfidSerializer;
+  private TcpSocketCreator socketCreator;
+  private MembershipLocator<MemberIdentifier> locator;
+  private final List<Membership<MemberIdentifier>> members = new ArrayList<>();
+  private boolean joining;
+  private Membership<MemberIdentifier> extraMember;
+
+  @Setup(Level.Trial)
+  public void setup(BenchmarkParams params) throws Exception {
+    System.setProperty(TcpMessenger.TRANSPORT_PROPERTY, transport);
+    localHost = LocalHostUtil.getLocalHost();
+    dsfidSerializer = new DSFIDSerializerImpl();
+    socketCreator = new TcpSocketCreatorImpl();
+    joining = params.getBenchmark().endsWith("join");
+
+    locator = MembershipLocatorBuilder.<MemberIdentifier>newLocatorBuilder(
+        socketCreator,
+        dsfidSerializer,
+        Files.createTempDirectory("membership-benchmark"),
+        () -> LoggingExecutors.newCachedThreadPool("membership", false))
+        .setConfig(createMembershipConfig(true, 0))
+        .setPort(0)
+        .create();
+    locator.start();
+
+    members.add(start(createMembership(true, locator)));
+    for (int i = 1; i < groupSize; i++) {
+      members.add(start(createMembership(false, null)));
+    }
+    awaitViewSize(groupSize);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    for (int i = members.size() - 1; i >= 0; i--) {
+      members.get(i).disconnect(false);
+    }
+    members.clear();
+    locator.stop();
+    System.clearProperty(TcpMessenger.TRANSPORT_PROPERTY);
+  }
+
+  @Setup(Level.Invocation)
+  public void setupInvocation() throws Exception {
+    if (joining) {
+      extraMember = createMembership(false, null);
+    } else {
+      extraMember = start(createMembership(false, null));
+      awaitViewSize(groupSize + 1);
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDownInvocation() throws InterruptedException {
+    if (joining) {
+      extraMember.disconnect(false);
+      awaitViewSize(groupSize);
+    }
+    extraMember = null;
+  }
+
+  @Benchmark
+  public void join() throws Exception {
+    start(extraMember);
+    awaitViewSize(groupSize + 1);
+    while (extraMember.getView().size() != groupSize + 1) {
+      Thread.sleep(1);
+    }
+  }
+
+  @Benchmark
+  public void leave() throws InterruptedException {
+    extraMember.disconnect(false);
+    awaitViewSize(groupSize);
+  }
+
+  private void awaitViewSize(int size) throws InterruptedException {
+    for (Membership<MemberIdentifier> member : members) {
+      while (member.getView().size() != size) {
+        Thread.sleep(1);
+      }
+    }
+  }
+
+  private Membership<MemberIdentifier> start(Membership<MemberIdentifier> membership)
+      throws MemberStartupException {
+    membership.start();
+    membership.startEventProcessing();
+    return membership;
+  }
+
+  private Membership<MemberIdentifier> createMembership(boolean isALocator,
+      MembershipLocator<MemberIdentifier> embeddedLocator) throws IOException {
+    final TcpClient locatorClient =
+        new TcpClient(socketCreator, dsfidSerializer.getObjectSerializer(),
+            dsfidSerializer.getObjectDeserializer(), TcpSocketFactory.DEFAULT);
+    try {
+      return MembershipBuilder.<MemberIdentifier>newMembershipBuilder(
+          socketCreator, locatorClient, dsfidSerializer, new MemberIdentifierFactoryImpl())
+          .setMembershipLocator(embeddedLocator)
+          .setConfig(createMembershipConfig(isALocator, locator.getPort()))
+          .create();
+    } catch (MemberStartupException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private MembershipConfig createMembershipConfig(boolean isALocator, int locatorPort) {
+    return new MembershipConfig() {
+      @Override
+      public String getLocators() {
+        return locatorPort == 0 ? "" : localHost.getHostName() + '[' + locatorPort + ']';
+      }
+
+      @Override
+      public int getVmKind() {
+        return isALocator ? MemberIdentifier.LOCATOR_DM_TYPE : MemberIdentifier.NORMAL_DM_TYPE;
+      }
+    };
+  }
+}
@@ -123,6 +123,17 @@ public interface MembershipStatistics {
 
   void incUdpFinalCheckResponsesReceived();
 
+  /**
+   * Records the suspicion level (phi) of the member this member is monitoring
+   */
+  void setNeighborSuspicionLevel(double phi);
+
+  /**
+   * Increments the number of times a member was checked because its suspicion level reached the
+   * phi accrual threshold
+   */
+  void incPhiSuspicions();
+
   long getHeartbeatRequestsReceived();
 
   long getHeartbeatsSent();
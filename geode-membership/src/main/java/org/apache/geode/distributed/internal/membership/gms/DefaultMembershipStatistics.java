@@ -45,6 +45,8 @@ public class DefaultMembershipStatistics implements MembershipStatistics {
   private long tcpFinalCheckResponsesReceived;
   private long udpFinalCheckRequestsSent;
   private long udpFinalCheckResponsesReceived;
+  private double neighborSuspicionLevel;
+  private long phiSuspicions;
 
   @Override
   public long startMsgSerialization() {
@@ -221,6 +223,16 @@ public class DefaultMembershipStatistics implements MembershipStatistics {
     udpFinalCheckResponsesReceived++;
   }
 
+  @Override
+  public void setNeighborSuspicionLevel(double phi) {
+    neighborSuspicionLevel = phi;
+  }
+
+  @Override
+  public void incPhiSuspicions() {
+    phiSuspicions++;
+  }
+
   @Override
   public long getHeartbeatRequestsReceived() {
     return heartbeatRequestsReceived;
@@ -198,6 +198,21 @@ public class GMSMembershipView<ID extends MemberIdentifier> implements DataSeria
     failureDetectionPorts[idx] = port;
   }
 
+  /**
+   * Replace the failure-detection ports of this view. The ports are in the same order as the
+   * members of this view.
+   */
+  public void setFailureDetectionPorts(int[] ports) {
+    if (ports == null) {
+      Arrays.fill(failureDetectionPorts, -1);
+      return;
+    }
+    failureDetectionPorts = Arrays.copyOf(ports, Math.max(ports.length, members.size()));
+    if (ports.length < members.size()) {
+      Arrays.fill(failureDetectionPorts, ports.length, members.size(), -1);
+    }
+  }
+
   /**
    * Transfer the failure-detection ports from another view to this one
    */
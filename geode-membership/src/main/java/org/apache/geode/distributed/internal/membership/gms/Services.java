@@ -21,6 +21,7 @@ import static org.apache.geode.internal.serialization.DataSerializableFixedID.GE
 import static org.apache.geode.internal.serialization.DataSerializableFixedID.GET_VIEW_RESP;
 import static org.apache.geode.internal.serialization.DataSerializableFixedID.HEARTBEAT_REQUEST;
 import static org.apache.geode.internal.serialization.DataSerializableFixedID.HEARTBEAT_RESPONSE;
+import static org.apache.geode.internal.serialization.DataSerializableFixedID.INSTALL_VIEW_DELTA_MESSAGE;
 import static org.apache.geode.internal.serialization.DataSerializableFixedID.INSTALL_VIEW_MESSAGE;
 import static org.apache.geode.internal.serialization.DataSerializableFixedID.JOIN_REQUEST;
 import static org.apache.geode.internal.serialization.DataSerializableFixedID.JOIN_RESPONSE;
@@ -62,6 +63,7 @@ import org.apache.geode.distributed.internal.membership.gms.membership.GMSJoinLe
 import org.apache.geode.distributed.internal.membership.gms.messages.FinalCheckPassedMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatRequestMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewDeltaMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinResponseMessage;
@@ -71,6 +73,7 @@ import org.apache.geode.distributed.internal.membership.gms.messages.RemoveMembe
 import org.apache.geode.distributed.internal.membership.gms.messages.SuspectMembersMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.ViewAckMessage;
 import org.apache.geode.distributed.internal.membership.gms.messenger.JGroupsMessenger;
+import org.apache.geode.distributed.internal.membership.gms.messenger.TcpMessenger;
 import org.apache.geode.distributed.internal.tcpserver.TcpClient;
 import org.apache.geode.distributed.internal.tcpserver.TcpSocketCreator;
 import org.apache.geode.internal.serialization.DSFIDSerializer;
@@ -152,7 +155,8 @@ public class Services<ID extends MemberIdentifier> {
     this.manager = membershipManager;
     this.joinLeave = new GMSJoinLeave<>(locatorClient);
     this.healthMon = new GMSHealthMonitor<>(socketCreator);
-    this.messenger = new JGroupsMessenger<>();
+    this.messenger = TcpMessenger.isSelected() ? new TcpMessenger<>(socketCreator)
+        : new JGroupsMessenger<>();
     this.auth = authenticator;
     this.serializer = serializer;
     this.memberFactory = memberFactory;
@@ -170,6 +174,7 @@ public class Services<ID extends MemberIdentifier> {
     serializer.registerDSFID(LEAVE_REQUEST_MESSAGE, LeaveRequestMessage.class);
     serializer.registerDSFID(VIEW_ACK_MESSAGE, ViewAckMessage.class);
     serializer.registerDSFID(INSTALL_VIEW_MESSAGE, InstallViewMessage.class);
+    serializer.registerDSFID(INSTALL_VIEW_DELTA_MESSAGE, InstallViewDeltaMessage.class);
     serializer.registerDSFID(NETVIEW, GMSMembershipView.class);
     serializer.registerDSFID(GET_VIEW_REQ, GetViewRequest.class);
     serializer.registerDSFID(GET_VIEW_RESP, GetViewResponse.class);
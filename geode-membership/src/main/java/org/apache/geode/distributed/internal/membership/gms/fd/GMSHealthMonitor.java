@@ -103,6 +103,13 @@ public class GMSHealthMonitor<ID extends MemberIdentifier> implements HealthMoni
   private volatile ID nextNeighbor;
 
   long memberTimeout;
+
+  /**
+   * The suspicion level at which a member is checked, initially {@link #PHI_THRESHOLD}
+   */
+  @VisibleForTesting
+  double phiThreshold = PHI_THRESHOLD;
+
   private volatile boolean isStopping = false;
   private final AtomicInteger requestId = new AtomicInteger();
 
@@ -131,6 +138,27 @@ public class GMSHealthMonitor<ID extends MemberIdentifier> implements HealthMoni
   public static final long MEMBER_SUSPECT_COLLECTION_INTERVAL =
       Long.getLong("geode.suspect-member-collection-interval", 200);
 
+  /**
+   * The suspicion level, phi, at which the next neighbor is checked. Once enough heartbeats have
+   * been received from it, this replaces the fixed member-timeout based decision with one that
+   * adapts to how regularly that member's heartbeats arrive. A value of 0, the default, disables
+   * phi accrual failure detection. Suspicion levels are recorded in statistics either way.
+   */
+  static final double PHI_THRESHOLD =
+      Double.parseDouble(System.getProperty("geode.phi-accrual-threshold", "0"));
+
+  /**
+   * The number of most recent heartbeat intervals used to compute a member's suspicion level
+   */
+  static final int PHI_WINDOW_SIZE = Integer.getInteger("geode.phi-accrual-window-size", 100);
+
+  /**
+   * A delay, in milliseconds, added to the mean heartbeat interval of every member to tolerate
+   * pauses that are longer than any seen so far
+   */
+  static final long PHI_ACCEPTABLE_PAUSE =
+      Long.getLong("geode.phi-accrual-acceptable-pause", 0);
+
   /**
    * A millisecond clock reading used to mark the last time a peer made contact.
    */
@@ -148,6 +176,12 @@ public class GMSHealthMonitor<ID extends MemberIdentifier> implements HealthMoni
   final ConcurrentMap<ID, TimeStamp> memberTimeStamps =
       new ConcurrentHashMap<>();
 
+  /**
+   * Heartbeat arrival history of members, used to compute their suspicion levels
+   */
+  final ConcurrentMap<ID, PhiAccrualFailureDetector> heartbeatHistories =
+      new ConcurrentHashMap<>();
+
   /**
    * Members currently being suspected and the view they were suspected in
    */
@@ -301,9 +335,8 @@ public class GMSHealthMonitor<ID extends MemberIdentifier> implements HealthMoni
             return;
           }
 
-          long interval = memberTimeoutInMillis / GMSHealthMonitor.LOGICAL_INTERVAL;
-          long lastTS = currentTime - nextNeighborTS.getTime();
-          if (lastTS + interval >= memberTimeoutInMillis) {
+          boolean check = isCheckNeeded(neighbor, nextNeighborTS.getTime(), currentTime);
+          if (check) {
             logger.debug("Checking member {} ", neighbor);
             // now do check request for this member;
             checkMember(neighbor);
@@ -778,6 +811,7 @@ public class GMSHealthMonitor<ID extends MemberIdentifier> implements HealthMoni
         it.remove();
       }
     }
+    heartbeatHistories.keySet().removeIf(member -> !newView.contains(member));
     currentView = newView;
     setNextNeighbor(newView, null);
   }
@@ -1077,7 +1111,70 @@ public class GMSHealthMonitor<ID extends MemberIdentifier> implements HealthMoni
 
     }
     // we got heartbeat lets update timestamp
-    contactedBy(m.getSender(), System.currentTimeMillis());
+    long now = System.currentTimeMillis();
+    if (m.getRequestId() < 0) {
+      // replies to check requests arrive whenever a check is made, so they would distort the
+      // intervals between the member's regular heartbeats
+      recordHeartbeat(m.getSender(), now);
+    }
+    contactedBy(m.getSender(), now);
+  }
+
+  /**
+   * Returns true if the given member, last heard from at the given time, should be checked. A
+   * member is checked once its suspicion level reaches {@link #phiThreshold}, and in any case once
+   * member-timeout has nearly elapsed, so phi can only make the check happen sooner.
+   */
+  @VisibleForTesting
+  boolean isCheckNeeded(ID member, long lastContact, long currentTime) {
+    double phi = 0;
+    PhiAccrualFailureDetector history = heartbeatHistories.get(member);
+    if (history != null && history.isAvailable()) {
+      phi = history.phi(currentTime - Math.max(lastContact, history.getLastHeartbeat()));
+      stats.setNeighborSuspicionLevel(phi);
+    }
+    long interval = memberTimeout / LOGICAL_INTERVAL;
+    if (currentTime - lastContact + interval >= memberTimeout) {
+      return true;
+    }
+    if (phiThreshold > 0 && phi >= phiThreshold) {
+      logger.debug("Suspicion level of {} is {}", member, phi);
+      stats.incPhiSuspicions();
+      return true;
+    }
+    return false;
+  }
+
+  private void recordHeartbeat(ID sender, long timeStamp) {
+    PhiAccrualFailureDetector history = heartbeatHistories.get(sender);
+    if (history == null) {
+      GMSMembershipView<ID> view = currentView;
+      if (view == null || !view.contains(sender)) {
+        return;
+      }
+      history = JavaWorkarounds.computeIfAbsent(heartbeatHistories, sender,
+          (s) -> new PhiAccrualFailureDetector(PHI_WINDOW_SIZE,
+              memberTimeout / (LOGICAL_INTERVAL * 10L), PHI_ACCEPTABLE_PAUSE));
+    }
+    history.heartbeat(timeStamp);
+  }
+
+  /**
+   * Returns the current suspicion level of the given member, or 0 if not enough heartbeats have
+   * been received from it
+   */
+  @VisibleForTesting
+  double getSuspicionLevel(ID member) {
+    PhiAccrualFailureDetector history = heartbeatHistories.get(member);
+    if (history == null || !history.isAvailable()) {
+      return 0;
+    }
+    long lastContact = history.getLastHeartbeat();
+    TimeStamp ts = memberTimeStamps.get(member);
+    if (ts != null) {
+      lastContact = Math.max(lastContact, ts.getTime());
+    }
+    return history.phi(System.currentTimeMillis() - lastContact);
   }
 
   /**
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+/**
+ * Tracks the heartbeats received from one member and computes how suspicious the time since the
+ * last one is. The suspicion level, phi, is -log10 of the probability that a heartbeat arrives
+ * even later than now, assuming the intervals between heartbeats are normally distributed with the
+ * mean and standard deviation of the most recent intervals. A phi of 1 means that there is a 10%
+ * chance that the member is still alive, 2 a 1% chance and so on.
+ * <p>
+ * Since the distribution is learned per member, a member whose heartbeats arrive steadily becomes
+ * suspect soon after it stops sending them while one whose heartbeats are delayed by GC pauses or
+ * network bursts is given more time.
+ * <p>
+ * See Hayashibara et al., "The phi accrual failure detector".
+ *
+ * @since Geode 1.15
+ */
+class PhiAccrualFailureDetector {
+
+  /**
+   * The number of intervals needed before a suspicion level is computed
+   */
+  static final int MIN_SAMPLES = 3;
+
+  private final long[] intervals;
+  private final long minStdDeviationMillis;
+  private final long acceptablePauseMillis;
+
+  private int count;
+  private int next;
+  private long sum;
+  private long sumOfSquares;
+  private long lastHeartbeat = -1;
+
+  /**
+   * @param windowSize the number of most recent intervals used to compute the suspicion level
+   * @param minStdDeviationMillis the lowest standard deviation used, so that a member whose
+   *        heartbeats have been perfectly regular is not suspected after a tiny delay
+   * @param acceptablePauseMillis a delay that is added to the mean interval to tolerate pauses
+   *        that have not been seen yet
+   */
+  PhiAccrualFailureDetector(int windowSize, long minStdDeviationMillis,
+      long acceptablePauseMillis) {
+    if (windowSize < MIN_SAMPLES) {
+      throw new IllegalArgumentException(
+          "window size must be at least " + MIN_SAMPLES + ": " + windowSize);
+    }
+    intervals = new long[windowSize];
+    this.minStdDeviationMillis = Math.max(1, minStdDeviationMillis);
+    this.acceptablePauseMillis = acceptablePauseMillis;
+  }
+
+  /**
+   * Records a heartbeat received at the given time
+   */
+  synchronized void heartbeat(long timeMillis) {
+    if (lastHeartbeat >= 0 && timeMillis > lastHeartbeat) {
+      long interval = timeMillis - lastHeartbeat;
+      if (count == intervals.length) {
+        long oldest = intervals[next];
+        sum -= oldest;
+        sumOfSquares -= oldest * oldest;
+      } else {
+        count++;
+      }
+      intervals[next] = interval;
+      next = (next + 1) % intervals.length;
+      sum += interval;
+      sumOfSquares += interval * interval;
+    }
+    if (timeMillis > lastHeartbeat) {
+      lastHeartbeat = timeMillis;
+    }
+  }
+
+  /**
+   * Returns the time of the last heartbeat, or -1 if there has not been one
+   */
+  synchronized long getLastHeartbeat() {
+    return lastHeartbeat;
+  }
+
+  /**
+   * Returns true if enough heartbeats have been received to compute a suspicion level
+   */
+  synchronized boolean isAvailable() {
+    return count >= MIN_SAMPLES;
+  }
+
+  /**
+   * Returns the suspicion level for a member that was last heard from the given number of
+   * milliseconds ago, or 0 if not enough heartbeats have been received yet.
+   */
+  synchronized double phi(long millisSinceLastContact) {
+    if (count < MIN_SAMPLES) {
+      return 0;
+    }
+    double mean = (double) sum / count;
+    double variance = Math.max(0, (double) sumOfSquares / count - mean * mean);
+    double stdDeviation = Math.max(Math.sqrt(variance), minStdDeviationMillis);
+    return phi(millisSinceLastContact, mean + acceptablePauseMillis, stdDeviation);
+  }
+
+  /**
+   * Computes phi using a logistic approximation of the cumulative normal distribution, which
+   * unlike the error function is cheap to compute and accurate enough for this purpose.
+   */
+  static double phi(double elapsed, double mean, double stdDeviation) {
+    double y = (elapsed - mean) / stdDeviation;
+    double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+    if (elapsed > mean) {
+      if (e == 0) {
+        // so late that the probability underflows
+        return Double.MAX_VALUE;
+      }
+      return -Math.log10(e / (1.0 + e));
+    }
+    return -Math.log10(1.0 - 1.0 / (1.0 + e));
+  }
+}
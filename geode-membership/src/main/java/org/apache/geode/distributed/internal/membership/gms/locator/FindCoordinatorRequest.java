@@ -22,6 +22,7 @@ import java.util.Collection;
 
 import org.apache.geode.distributed.internal.membership.api.MemberIdentifier;
 import org.apache.geode.distributed.internal.membership.gms.messages.AbstractGMSMessage;
+import org.apache.geode.distributed.internal.membership.gms.messenger.TcpMessenger;
 import org.apache.geode.internal.serialization.DeserializationContext;
 import org.apache.geode.internal.serialization.KnownVersion;
 import org.apache.geode.internal.serialization.SerializationContext;
@@ -40,10 +41,12 @@ public class FindCoordinatorRequest<ID extends MemberIdentifier> extends Abstrac
   private byte[] myPublicKey;
   private int requestId;
   private String dhalgo;
+  private String transport;
 
   public FindCoordinatorRequest(ID myId) {
     this.memberID = myId;
     this.dhalgo = "";
+    this.transport = TcpMessenger.getSelectedTransport();
   }
 
   public FindCoordinatorRequest(ID myId,
@@ -55,6 +58,7 @@ public class FindCoordinatorRequest<ID extends MemberIdentifier> extends Abstrac
     this.myPublicKey = pk;
     this.requestId = requestId;
     this.dhalgo = dhalgo;
+    this.transport = TcpMessenger.getSelectedTransport();
   }
 
   public FindCoordinatorRequest() {
@@ -73,6 +77,13 @@ public class FindCoordinatorRequest<ID extends MemberIdentifier> extends Abstrac
     return dhalgo;
   }
 
+  /**
+   * Returns the membership transport of the requesting member, "tcp" or "udp"
+   */
+  public String getTransport() {
+    return transport;
+  }
+
   public Collection<ID> getRejectedCoordinators() {
     return rejectedCoordinators;
   }
@@ -93,7 +104,7 @@ public class FindCoordinatorRequest<ID extends MemberIdentifier> extends Abstrac
 
   @Override
   public KnownVersion[] getSerializationVersions() {
-    return null;
+    return new KnownVersion[] {KnownVersion.GEODE_1_15_0};
   }
 
   @Override
@@ -110,6 +121,12 @@ public class FindCoordinatorRequest<ID extends MemberIdentifier> extends Abstrac
   @Override
   public void toData(DataOutput out,
       SerializationContext context) throws IOException {
+    toDataPre_GEODE_1_15_0_0(out, context);
+    StaticSerialization.writeString(transport, out);
+  }
+
+  public void toDataPre_GEODE_1_15_0_0(DataOutput out,
+      SerializationContext context) throws IOException {
     context.getSerializer().writeObject(memberID, out);
     if (this.rejectedCoordinators != null) {
       out.writeInt(this.rejectedCoordinators.size());
@@ -128,6 +145,14 @@ public class FindCoordinatorRequest<ID extends MemberIdentifier> extends Abstrac
   @Override
   public void fromData(DataInput in,
       DeserializationContext context) throws IOException, ClassNotFoundException {
+    fromDataPre_GEODE_1_15_0_0(in, context);
+    this.transport = StaticSerialization.readString(in);
+  }
+
+  public void fromDataPre_GEODE_1_15_0_0(DataInput in,
+      DeserializationContext context) throws IOException, ClassNotFoundException {
+    // members older than 1.15 only support the udp transport
+    this.transport = "udp";
     this.memberID = context.getDeserializer().readObject(in);
     int size = in.readInt();
     this.rejectedCoordinators = new ArrayList<>(size);
@@ -44,6 +44,7 @@ import org.apache.geode.distributed.internal.membership.gms.GMSUtil;
 import org.apache.geode.distributed.internal.membership.gms.Services;
 import org.apache.geode.distributed.internal.membership.gms.interfaces.Locator;
 import org.apache.geode.distributed.internal.membership.gms.messenger.GMSMemberWrapper;
+import org.apache.geode.distributed.internal.membership.gms.messenger.TcpMessenger;
 import org.apache.geode.distributed.internal.tcpserver.HostAddress;
 import org.apache.geode.distributed.internal.tcpserver.HostAndPort;
 import org.apache.geode.distributed.internal.tcpserver.TcpClient;
@@ -246,6 +247,14 @@ public class GMSLocator<ID extends MemberIdentifier> implements Locator<ID>, Tcp
               + findRequest.getDHAlgo() + ") as locator (" + securityUDPDHAlgo + ")");
     }
 
+    String transport = TcpMessenger.getSelectedTransport();
+    if (!transport.equals(findRequest.getTransport())) {
+      return new FindCoordinatorResponse<>(
+          "Rejecting findCoordinatorRequest, as member uses the " + findRequest.getTransport()
+              + " membership transport and the locator uses " + transport + ". Set "
+              + TcpMessenger.TRANSPORT_PROPERTY + " to the same value on every member");
+    }
+
     if (services == null) {
       if (findRequest.getMyPublicKey() != null) {
         publicKeys.put(new GMSMemberWrapper(findRequest.getMemberID()),
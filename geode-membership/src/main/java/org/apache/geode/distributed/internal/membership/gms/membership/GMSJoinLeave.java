@@ -54,6 +54,7 @@ import org.apache.geode.distributed.internal.membership.gms.locator.FindCoordina
 import org.apache.geode.distributed.internal.membership.gms.locator.FindCoordinatorResponse;
 import org.apache.geode.distributed.internal.membership.gms.messages.AbstractGMSMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HasMemberID;
+import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewDeltaMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinResponseMessage;
@@ -118,6 +119,13 @@ public class GMSJoinLeave<ID extends MemberIdentifier> implements JoinLeave<ID>
   private static final long VIEW_BROADCAST_INTERVAL =
       Long.getLong(GeodeGlossary.GEMFIRE_PREFIX + "view-broadcast-interval", 60000);
 
+  /**
+   * whether the coordinator may send view changes as deltas to members that acknowledged the
+   * previous view
+   */
+  static final boolean VIEW_DELTAS_ENABLED =
+      !Boolean.getBoolean(GeodeGlossary.GEMFIRE_PREFIX + "disable-view-deltas");
+
   /**
    * membership logger
    */
@@ -212,6 +220,23 @@ public class GMSJoinLeave<ID extends MemberIdentifier> implements JoinLeave<ID>
    */
   ViewReplyProcessor prepareProcessor = new ViewReplyProcessor(true);
 
+  /**
+   * the last view this member sent as coordinator, from which later views may be sent as deltas
+   */
+  private GMSMembershipView<ID> deltaBaseView;
+
+  /**
+   * members that acknowledged installing deltaBaseView. Concurrency: protected by synchronization
+   * of itself
+   */
+  private final Set<ID> deltaBaseViewAcks = new HashSet<>();
+
+  /**
+   * the full form of the view most recently sent to some members as a delta, for members that
+   * report they could not apply the delta
+   */
+  private volatile InstallViewMessage<ID> fullViewOfDelta;
+
   /**
    * whether quorum checks can cause a forced-disconnect
    */
@@ -942,8 +967,9 @@ public class GMSJoinLeave<ID extends MemberIdentifier> implements JoinLeave<ID>
       throws InterruptedException {
 
     int id = view.getViewId();
-    InstallViewMessage<ID> msg = new InstallViewMessage<>(view,
-        services.getAuthenticator().getCredentials(this.localAddress), preparing);
+    GMSMembershipView<ID> installedView = currentView;
+    Object credentials = services.getAuthenticator().getCredentials(this.localAddress);
+    InstallViewMessage<ID> msg = new InstallViewMessage<>(view, credentials, preparing);
     List<ID> recips = new ArrayList<>(view.getMembers());
 
     // a recent member was seen not to receive a new view - I think this is why
@@ -980,6 +1006,12 @@ public class GMSJoinLeave<ID extends MemberIdentifier> implements JoinLeave<ID>
 
     logger.info((preparing ? "preparing" : "sending") + " new view " + view);
 
+    GMSMembershipView<ID> deltaBase = this.deltaBaseView;
+    List<ID> deltaRecips = getDeltaRecipients(view, deltaBase, installedView, recips);
+    if (!deltaRecips.isEmpty()) {
+      recips = new ArrayList<>(recips);
+      recips.removeAll(deltaRecips);
+    }
     msg.setRecipients(recips);
 
     Set<ID> pendingLeaves = getPendingRequestIDs(LEAVE_REQUEST_MESSAGE);
@@ -988,7 +1020,25 @@ public class GMSJoinLeave<ID extends MemberIdentifier> implements JoinLeave<ID>
     viewReplyProcessor.initialize(id, new HashSet<>(responders));
     viewReplyProcessor.processPendingRequests(pendingLeaves, pendingRemovals);
     addPublicKeysToView(view);
-    services.getMessenger().send(msg, view);
+    if (!preparing) {
+      // acknowledgements of this view make its recipients eligible for deltas from it
+      synchronized (deltaBaseViewAcks) {
+        this.deltaBaseView = new GMSMembershipView<>(view, view.getViewId());
+        deltaBaseViewAcks.clear();
+      }
+    }
+    if (!recips.isEmpty()) {
+      services.getMessenger().send(msg, view);
+    }
+    if (!deltaRecips.isEmpty()) {
+      this.fullViewOfDelta = msg;
+      InstallViewDeltaMessage<ID> deltaMsg =
+          new InstallViewDeltaMessage<>(view, deltaBase, credentials, preparing);
+      deltaMsg.setRecipients(deltaRecips);
+      logger.debug("sending view {} as a delta from view {} to {} members", id,
+          deltaBase.getViewId(), deltaRecips.size());
+      services.getMessenger().send(deltaMsg, view);
+    }
 
     // only wait for responses during preparation
     if (preparing) {
@@ -996,6 +1046,11 @@ public class GMSJoinLeave<ID extends MemberIdentifier> implements JoinLeave<ID>
 
       Set<ID> failedToRespond = viewReplyProcessor.waitForResponses();
 
+      if (!deltaRecips.isEmpty()) {
+        failedToRespond = resendFullView(msg, view, deltaRecips, failedToRespond,
+            viewReplyProcessor);
+      }
+
       logger.info("finished waiting for responses to view preparation");
 
       ID conflictingViewSender =
@@ -1016,6 +1071,87 @@ public class GMSJoinLeave<ID extends MemberIdentifier> implements JoinLeave<ID>
     return true;
   }
 
+  /**
+   * Returns the recipients that can be sent the given view as a delta from the base view: those
+   * that acknowledged installing the base view and that understand view deltas. The base view must
+   * still be this member's current view.
+   */
+  private List<ID> getDeltaRecipients(GMSMembershipView<ID> view,
+      GMSMembershipView<ID> deltaBase, GMSMembershipView<ID> installedView, List<ID> recips) {
+    if (!VIEW_DELTAS_ENABLED || deltaBase == null || installedView == null
+        || deltaBase.getViewId() != installedView.getViewId()
+        || deltaBase.getViewId() >= view.getViewId() || recips.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<ID> result = new ArrayList<>(recips.size());
+    short currentVersion = KnownVersion.getCurrentVersion().ordinal();
+    synchronized (deltaBaseViewAcks) {
+      if (deltaBase != this.deltaBaseView) {
+        return Collections.emptyList();
+      }
+      for (ID mbr : recips) {
+        if (deltaBaseViewAcks.contains(mbr) && mbr.getVersionOrdinal() >= currentVersion) {
+          result.add(mbr);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Sends the full view to a member that reported it could not apply the delta it was sent. The
+   * member is still among those whose responses are awaited, so its acknowledgement of the full
+   * view ends the wait for it.
+   */
+  private void resendFullView(ViewAckMessage<ID> rejection) {
+    InstallViewMessage<ID> sent = this.fullViewOfDelta;
+    if (sent == null || sent.getView().getViewId() != rejection.getViewId()
+        || sent.isPreparing() != rejection.isPrepareAck()) {
+      return;
+    }
+    ID mbr = rejection.getSender();
+    synchronized (deltaBaseViewAcks) {
+      deltaBaseViewAcks.remove(mbr);
+    }
+    logger.info("resending view {} in full to {}, which could not apply its delta",
+        rejection.getViewId(), mbr);
+    InstallViewMessage<ID> msg =
+        new InstallViewMessage<>(sent.getView(), sent.getCredentials(), sent.isPreparing());
+    msg.setRecipient(mbr);
+    services.getMessenger().send(msg, sent.getView());
+  }
+
+  /**
+   * Sends the full view to members that were sent a delta during preparation but did not respond,
+   * in case the delta was lost, and waits for their responses.
+   *
+   * @return the members that failed to respond
+   */
+  private Set<ID> resendFullView(InstallViewMessage<ID> msg, GMSMembershipView<ID> view,
+      List<ID> deltaRecips, Set<ID> failedToRespond, ViewReplyProcessor viewReplyProcessor)
+      throws InterruptedException {
+    if (viewReplyProcessor.getConflictingView() != null) {
+      return failedToRespond;
+    }
+    List<ID> resendTo = new ArrayList<>(deltaRecips);
+    resendTo.retainAll(failedToRespond);
+    if (resendTo.isEmpty()) {
+      return failedToRespond;
+    }
+    synchronized (deltaBaseViewAcks) {
+      deltaBaseViewAcks.removeAll(resendTo);
+    }
+    logger.info("resending view {} in full to members that did not respond to its delta: {}",
+        view.getViewId(), resendTo);
+    viewReplyProcessor.initialize(view.getViewId(), new HashSet<>(resendTo));
+    msg.setRecipients(resendTo);
+    services.getMessenger().send(msg, view);
+    Set<ID> result = new HashSet<>(failedToRespond);
+    result.removeAll(resendTo);
+    result.addAll(viewReplyProcessor.waitForResponses());
+    return result;
+  }
+
   private void addPublicKeysToView(GMSMembershipView<ID> view) {
     String sDHAlgo = services.getConfig().getSecurityUDPDHAlgo();
     if (sDHAlgo != null && !sDHAlgo.isEmpty()) {
@@ -1108,6 +1244,33 @@ public class GMSJoinLeave<ID extends MemberIdentifier> implements JoinLeave<ID>
     }
   }
 
+  /**
+   * Reconstructs the view in a delta from the current view and processes it like a full view.
+   * When the delta cannot be applied the coordinator is asked for the full view.
+   */
+  void processInstallViewDeltaMessage(final InstallViewDeltaMessage<ID> m) {
+    if (isStopping) {
+      return;
+    }
+    GMSMembershipView<ID> base = currentView;
+    GMSMembershipView<ID> view = base == null ? null : m.applyTo(base);
+    if (view == null) {
+      logger.info("Unable to apply membership view delta {} to current view {}", m,
+          base == null ? null : base.getViewId());
+      if (!playingDead) {
+        ViewAckMessage<ID> rejection =
+            new ViewAckMessage<>(m.getSender(), m.getViewId(), m.isPreparing());
+        rejection.setDeltaRejected();
+        services.getMessenger().send(rejection);
+      }
+      return;
+    }
+    InstallViewMessage<ID> fullMessage = new InstallViewMessage<>(view, m.getCredentials(),
+        m.getBaseViewId(), m.isPreparing());
+    fullMessage.setSender(m.getSender());
+    processInstallViewMessage(fullMessage);
+  }
+
   private void forceDisconnect(String reason) {
     this.isStopping = true;
     if (!isJoined) {
@@ -1135,10 +1298,20 @@ public class GMSJoinLeave<ID extends MemberIdentifier> implements JoinLeave<ID>
       return;
     }
 
+    if (m.isDeltaRejected()) {
+      resendFullView(m);
+      return;
+    }
+
     if (m.isPrepareAck()) {
       this.prepareProcessor.processViewResponse(m.getViewId(), m.getSender(), m.getAlternateView());
     } else {
       this.viewProcessor.processViewResponse(m.getViewId(), m.getSender(), m.getAlternateView());
+      synchronized (deltaBaseViewAcks) {
+        if (deltaBaseView != null && deltaBaseView.getViewId() == m.getViewId()) {
+          deltaBaseViewAcks.add(m.getSender());
+        }
+      }
     }
   }
 
@@ -1867,6 +2040,8 @@ public class GMSJoinLeave<ID extends MemberIdentifier> implements JoinLeave<ID>
     services.getMessenger().addHandler(JoinRequestMessage.class, this::processJoinRequestMessage);
     services.getMessenger().addHandler(JoinResponseMessage.class, this::processJoinResponseMessage);
     services.getMessenger().addHandler(InstallViewMessage.class, this::processInstallViewMessage);
+    services.getMessenger().addHandler(InstallViewDeltaMessage.class,
+        this::processInstallViewDeltaMessage);
     services.getMessenger().addHandler(ViewAckMessage.class, this::processViewAckMessage);
     services.getMessenger().addHandler(LeaveRequestMessage.class, this::processLeaveRequestMessage);
     services.getMessenger().addHandler(RemoveMemberMessage.class, this::processRemoveMemberMessage);
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messages;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.geode.distributed.internal.membership.api.MemberIdentifier;
+import org.apache.geode.distributed.internal.membership.gms.GMSMembershipView;
+import org.apache.geode.distributed.internal.membership.gms.GMSUtil;
+import org.apache.geode.internal.serialization.DeserializationContext;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.internal.serialization.SerializationContext;
+import org.apache.geode.internal.serialization.StaticSerialization;
+
+/**
+ * An InstallViewDeltaMessage carries a PREPARE or INSTALL view as the difference from a view that
+ * the recipient already has installed. Instead of the identifiers of all members it holds the
+ * position of each member in the base view, so only members that joined in the new view and those
+ * that departed or crashed are sent in full. This keeps the size of a view change proportional to
+ * the number of members that changed rather than to the size of the cluster.
+ * <p>
+ * A recipient whose current view is not the base view cannot apply the delta and ignores it. The
+ * coordinator only sends deltas to members that acknowledged the base view and sends the full
+ * view to any that do not respond.
+ *
+ * @since Geode 1.15
+ */
+public class InstallViewDeltaMessage<ID extends MemberIdentifier> extends AbstractGMSMessage<ID> {
+
+  /** marks a member that is not in the base view and is read from newMembers */
+  private static final int NEW_MEMBER = -1;
+
+  private int viewId;
+  private ID creator;
+  private int baseViewId;
+  private int baseChecksum;
+  private int[] memberIndexes;
+  private List<ID> newMembers;
+  private Set<ID> shutdownMembers;
+  private Set<ID> crashedMembers;
+  private int[] failureDetectionPorts;
+  private Map<ID, Object> newPublicKeys;
+  private Object credentials;
+  private boolean preparing;
+
+  public InstallViewDeltaMessage(GMSMembershipView<ID> view, GMSMembershipView<ID> base,
+      Object credentials, boolean preparing) {
+    this.viewId = view.getViewId();
+    this.creator = view.getCreator();
+    this.baseViewId = base.getViewId();
+    this.baseChecksum = checksum(base);
+    this.credentials = credentials;
+    this.preparing = preparing;
+    List<ID> baseMembers = base.getMembers();
+    Map<ID, Integer> basePositions = new HashMap<>();
+    for (int i = 0; i < baseMembers.size(); i++) {
+      basePositions.put(baseMembers.get(i), i);
+    }
+    List<ID> members = view.getMembers();
+    memberIndexes = new int[members.size()];
+    newMembers = new ArrayList<>();
+    newPublicKeys = new HashMap<>();
+    for (int i = 0; i < members.size(); i++) {
+      ID member = members.get(i);
+      Integer position = basePositions.get(member);
+      if (position == null) {
+        memberIndexes[i] = NEW_MEMBER;
+        newMembers.add(member);
+        Object publicKey = view.getPublicKey(member);
+        if (publicKey != null) {
+          newPublicKeys.put(member, publicKey);
+        }
+      } else {
+        memberIndexes[i] = position;
+      }
+    }
+    shutdownMembers = new HashSet<>(view.getShutdownMembers());
+    crashedMembers = new HashSet<>(view.getCrashedMembers());
+    failureDetectionPorts = view.getFailureDetectionPorts();
+  }
+
+  public InstallViewDeltaMessage() {
+    // no-arg constructor for serialization
+  }
+
+  /**
+   * A checksum of the members of a view, used to make sure that the recipient's view with the
+   * base view ID is the same view that the delta was computed from
+   */
+  private static int checksum(GMSMembershipView<?> view) {
+    return view.getMembers().hashCode();
+  }
+
+  public int getViewId() {
+    return viewId;
+  }
+
+  public int getBaseViewId() {
+    return baseViewId;
+  }
+
+  public Object getCredentials() {
+    return credentials;
+  }
+
+  public boolean isPreparing() {
+    return preparing;
+  }
+
+  /**
+   * Reconstructs the full view from the given base view.
+   *
+   * @return the new view, or null if the given view is not the one this delta was computed from
+   */
+  public GMSMembershipView<ID> applyTo(GMSMembershipView<ID> base) {
+    if (base.getViewId() != baseViewId || checksum(base) != baseChecksum) {
+      return null;
+    }
+    List<ID> baseMembers = base.getMembers();
+    List<ID> members = new ArrayList<>(memberIndexes.length);
+    int nextNewMember = 0;
+    for (int index : memberIndexes) {
+      if (index == NEW_MEMBER) {
+        if (nextNewMember >= newMembers.size()) {
+          return null;
+        }
+        members.add(newMembers.get(nextNewMember++));
+      } else if (index >= 0 && index < baseMembers.size()) {
+        members.add(baseMembers.get(index));
+      } else {
+        return null;
+      }
+    }
+    GMSMembershipView<ID> view = new GMSMembershipView<>(creator, viewId, members,
+        new HashSet<>(shutdownMembers), new HashSet<>(crashedMembers));
+    view.setFailureDetectionPorts(failureDetectionPorts);
+    view.setPublicKeys(base);
+    newPublicKeys.forEach(view::setPublicKey);
+    return view;
+  }
+
+  @Override
+  public KnownVersion[] getSerializationVersions() {
+    return null;
+  }
+
+  @Override
+  public int getDSFID() {
+    return INSTALL_VIEW_DELTA_MESSAGE;
+  }
+
+  @Override
+  public void toData(DataOutput out,
+      SerializationContext context) throws IOException {
+    out.writeInt(viewId);
+    context.getSerializer().writeObject(creator, out);
+    out.writeInt(baseViewId);
+    out.writeInt(baseChecksum);
+    out.writeBoolean(preparing);
+    StaticSerialization.writeIntArray(memberIndexes, out);
+    StaticSerialization.writeArrayLength(newMembers.size(), out);
+    for (ID member : newMembers) {
+      context.getSerializer().writeObject(member, out);
+    }
+    GMSUtil.writeSetOfMemberIDs(shutdownMembers, out, context);
+    GMSUtil.writeSetOfMemberIDs(crashedMembers, out, context);
+    StaticSerialization.writeIntArray(failureDetectionPorts, out);
+    StaticSerialization.writeHashMap(newPublicKeys, out, context);
+    context.getSerializer().writeObject(credentials, out);
+  }
+
+  @Override
+  public void fromData(DataInput in,
+      DeserializationContext context) throws IOException, ClassNotFoundException {
+    viewId = in.readInt();
+    creator = context.getDeserializer().readObject(in);
+    baseViewId = in.readInt();
+    baseChecksum = in.readInt();
+    preparing = in.readBoolean();
+    memberIndexes = StaticSerialization.readIntArray(in);
+    newMembers = GMSUtil.readArrayOfIDs(in, context);
+    shutdownMembers = GMSUtil.readHashSetOfMemberIDs(in, context);
+    crashedMembers = GMSUtil.readHashSetOfMemberIDs(in, context);
+    failureDetectionPorts = StaticSerialization.readIntArray(in);
+    Map<ID, Object> keys = StaticSerialization.readHashMap(in, context);
+    newPublicKeys = keys == null ? new HashMap<>() : keys;
+    credentials = context.getDeserializer().readObject(in);
+  }
+
+  @Override
+  public String toString() {
+    return "InstallViewDeltaMessage(type=" + (preparing ? "PREPARE" : "INSTALL")
+        + "; Current ViewID=" + viewId + "; Base View ID=" + baseViewId + "; members="
+        + memberIndexes.length + "; new members=" + newMembers + "; shutdown=" + shutdownMembers
+        + "; crashed=" + crashedMembers + ")";
+  }
+}
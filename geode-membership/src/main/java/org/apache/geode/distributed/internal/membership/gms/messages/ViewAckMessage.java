@@ -32,6 +32,7 @@ public class ViewAckMessage<ID extends MemberIdentifier> extends AbstractGMSMess
   int viewId;
   boolean preparing;
   GMSMembershipView<ID> alternateView;
+  boolean deltaRejected;
 
   public ViewAckMessage(ID recipient, int viewId, boolean preparing) {
     super();
@@ -64,6 +65,18 @@ public class ViewAckMessage<ID extends MemberIdentifier> extends AbstractGMSMess
     return preparing;
   }
 
+  /**
+   * Marks this as the response of a member that could not apply an
+   * {@link InstallViewDeltaMessage} and needs the full view
+   */
+  public void setDeltaRejected() {
+    this.deltaRejected = true;
+  }
+
+  public boolean isDeltaRejected() {
+    return deltaRejected;
+  }
+
   @Override
   public int getDSFID() {
     return VIEW_ACK_MESSAGE;
@@ -72,6 +85,12 @@ public class ViewAckMessage<ID extends MemberIdentifier> extends AbstractGMSMess
   @Override
   public void toData(DataOutput out,
       SerializationContext context) throws IOException {
+    toDataPre_GEODE_1_15_0_0(out, context);
+    out.writeBoolean(this.deltaRejected);
+  }
+
+  public void toDataPre_GEODE_1_15_0_0(DataOutput out,
+      SerializationContext context) throws IOException {
     out.writeInt(this.viewId);
     out.writeBoolean(this.preparing);
     context.getSerializer().writeObject(this.alternateView, out);
@@ -80,6 +99,12 @@ public class ViewAckMessage<ID extends MemberIdentifier> extends AbstractGMSMess
   @Override
   public void fromData(DataInput in,
       DeserializationContext context) throws IOException, ClassNotFoundException {
+    fromDataPre_GEODE_1_15_0_0(in, context);
+    this.deltaRejected = in.readBoolean();
+  }
+
+  public void fromDataPre_GEODE_1_15_0_0(DataInput in,
+      DeserializationContext context) throws IOException, ClassNotFoundException {
     this.viewId = in.readInt();
     this.preparing = in.readBoolean();
     this.alternateView = context.getDeserializer().readObject(in);
@@ -89,11 +114,11 @@ public class ViewAckMessage<ID extends MemberIdentifier> extends AbstractGMSMess
   public String toString() {
     String s = getSender() == null ? getRecipients().toString() : "" + getSender();
     return "ViewAckMessage(" + s + "; " + this.viewId + "; preparing=" + preparing + "; altview="
-        + this.alternateView + ")";
+        + this.alternateView + (deltaRejected ? "; deltaRejected" : "") + ")";
   }
 
   @Override
   public KnownVersion[] getSerializationVersions() {
-    return null;
+    return new KnownVersion[] {KnownVersion.GEODE_1_15_0};
   }
 }
@@ -0,0 +1,1000 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messenger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.geode.distributed.internal.membership.gms.messages.AbstractGMSMessage.ALL_RECIPIENTS;
+import static org.apache.geode.internal.serialization.DataSerializableFixedID.JOIN_REQUEST;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimerTask;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.membership.api.CacheOperationMessageMarker;
+import org.apache.geode.distributed.internal.membership.api.MemberIdentifier;
+import org.apache.geode.distributed.internal.membership.api.MemberShunnedException;
+import org.apache.geode.distributed.internal.membership.api.MemberStartupException;
+import org.apache.geode.distributed.internal.membership.api.MembershipClosedException;
+import org.apache.geode.distributed.internal.membership.api.MembershipConfig;
+import org.apache.geode.distributed.internal.membership.api.MembershipConfigurationException;
+import org.apache.geode.distributed.internal.membership.api.MembershipStatistics;
+import org.apache.geode.distributed.internal.membership.api.Message;
+import org.apache.geode.distributed.internal.membership.gms.GMSMemberData;
+import org.apache.geode.distributed.internal.membership.gms.GMSMembershipView;
+import org.apache.geode.distributed.internal.membership.gms.GMSUtil;
+import org.apache.geode.distributed.internal.membership.gms.Services;
+import org.apache.geode.distributed.internal.membership.gms.interfaces.MessageHandler;
+import org.apache.geode.distributed.internal.membership.gms.interfaces.Messenger;
+import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
+import org.apache.geode.distributed.internal.tcpserver.HostAndPort;
+import org.apache.geode.distributed.internal.tcpserver.TcpSocketCreator;
+import org.apache.geode.internal.inet.LocalHostUtil;
+import org.apache.geode.internal.serialization.BufferDataOutputStream;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.internal.serialization.VersionedDataInputStream;
+import org.apache.geode.internal.serialization.Versioning;
+import org.apache.geode.internal.serialization.VersioningIO;
+import org.apache.geode.logging.internal.OSProcess;
+import org.apache.geode.logging.internal.executors.LoggingThread;
+import org.apache.geode.util.internal.GeodeGlossary;
+
+/**
+ * TcpMessenger is a Messenger that sends membership and failure detection messages over
+ * persistent TCP connections instead of JGroups UDP. It is used instead of JGroupsMessenger when
+ * the system property gemfire.membership-transport is set to "tcp". It does not support multicast
+ * or security-udp-dhalgo, but its connections are created with the cluster socket creator so
+ * they use TLS if SSL is enabled for the cluster.
+ * <p>
+ * There is one outgoing connection to each member that this member sends to, with a thread that
+ * writes the messages queued for that member. Messages that are queued while a write is in
+ * progress are written together, so a burst of messages to one member costs one write rather
+ * than one datagram each. The queue is bounded, and a write that takes longer than member-timeout
+ * closes the connection, so a member that stops reading can't hold on to an unbounded amount of
+ * memory or a writer thread. Each incoming connection has a thread that reads the messages sent
+ * over it and dispatches them, so messages from one sender are processed in the order they were
+ * sent.
+ * <p>
+ * Every member of a cluster must use the same transport. Locators reject members that use the
+ * other one.
+ *
+ * @since Geode 1.15
+ */
+public class TcpMessenger<ID extends MemberIdentifier> implements Messenger<ID> {
+
+  private static final Logger logger = Services.getLogger();
+
+  /**
+   * The system property that selects the transport used for membership messages, "udp" for
+   * JGroupsMessenger, which is the default, or "tcp" for TcpMessenger
+   */
+  public static final String TRANSPORT_PROPERTY =
+      GeodeGlossary.GEMFIRE_PREFIX + "membership-transport";
+
+  /**
+   * The most bytes written to a connection at once when several messages are queued for it
+   */
+  static final int MAX_BATCH_BYTES =
+      Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "tcp-messenger-batch-bytes", 64 * 1024);
+
+  /**
+   * The most messages queued for one member. A reliable message waits up to member-timeout for
+   * room in the queue, an unreliable one is dropped if the queue is full.
+   */
+  static final int MAX_QUEUED_MESSAGES = Integer
+      .getInteger(GeodeGlossary.GEMFIRE_PREFIX + "tcp-messenger-max-queued-messages", 10000);
+
+  /**
+   * Guards against reading a corrupted length from a connection and allocating a huge buffer
+   */
+  private static final int MAX_MESSAGE_BYTES = 64 * 1024 * 1024;
+
+  private static final int SOCKET_BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * How long stop() waits for queued messages, such as a leave request, to be written
+   */
+  private static final long STOP_FLUSH_MILLIS = 2000;
+
+  /**
+   * Queued to tell the writer of a connection to close it after writing the messages before it
+   */
+  private static final OutgoingFrame CLOSE = new OutgoingFrame(new byte[0], false);
+
+  private final TcpSocketCreator socketCreator;
+
+  private Services<ID> services;
+
+  private volatile ID localAddress;
+
+  private volatile GMSMembershipView<ID> view;
+
+  private volatile boolean stopped;
+
+  private ServerSocket serverSocket;
+
+  private final Map<Class<?>, MessageHandler<?>> handlers = new ConcurrentHashMap<>();
+
+  private final Map<InetSocketAddress, OutgoingConnection> outgoing = new ConcurrentHashMap<>();
+
+  private final Set<IncomingConnection> incoming = ConcurrentHashMap.newKeySet();
+
+  private TimerTask writeTimeoutChecker;
+
+  private final AtomicInteger requestId = new AtomicInteger(new Random().nextInt());
+
+  public TcpMessenger(TcpSocketCreator socketCreator) {
+    this.socketCreator = socketCreator;
+  }
+
+  /**
+   * Returns true if the TCP transport has been selected with {@link #TRANSPORT_PROPERTY}
+   */
+  public static boolean isSelected() {
+    return "tcp".equalsIgnoreCase(System.getProperty(TRANSPORT_PROPERTY, "udp"));
+  }
+
+  /**
+   * Returns the transport selected with {@link #TRANSPORT_PROPERTY}, "tcp" or "udp"
+   */
+  public static String getSelectedTransport() {
+    return isSelected() ? "tcp" : "udp";
+  }
+
+  @Override
+  public void init(Services<ID> s) throws MembershipConfigurationException {
+    this.services = s;
+    MembershipConfig config = services.getConfig();
+    if (config.isMulticastEnabled()) {
+      throw new MembershipConfigurationException(
+          "Multicast is not supported when " + TRANSPORT_PROPERTY + " is tcp");
+    }
+    if (!config.getSecurityUDPDHAlgo().isEmpty()) {
+      throw new MembershipConfigurationException("security-udp-dhalgo is not supported when "
+          + TRANSPORT_PROPERTY + " is tcp. Enable SSL for the cluster instead.");
+    }
+  }
+
+  @Override
+  public void start() throws MemberStartupException {
+    long start = System.currentTimeMillis();
+    MembershipConfig config = services.getConfig();
+
+    InetAddress bindAddress;
+    try {
+      String bindAddressName = config.getBindAddress();
+      if (bindAddressName == null || bindAddressName.isEmpty()) {
+        bindAddress = LocalHostUtil.getLocalHost();
+      } else {
+        bindAddress = InetAddress.getByName(bindAddressName);
+      }
+    } catch (UnknownHostException e) {
+      throw new MembershipConfigurationException(e.getMessage(), e);
+    }
+
+    int port = Integer.getInteger(GeodeGlossary.GEMFIRE_PREFIX + "jg-bind-port", 0);
+    int[] portRange = port != 0 ? new int[] {port, port} : config.getMembershipPortRange();
+    try {
+      serverSocket = socketCreator.forAdvancedUse().createServerSocketUsingPortRange(bindAddress,
+          50/* backlog */, true/* isBindAddress */, false/* useNIO */, SOCKET_BUFFER_SIZE,
+          portRange, socketCreator.forCluster().useSSL());
+    } catch (IOException e) {
+      throw new MemberStartupException("unable to create membership server socket", e);
+    }
+
+    establishLocalAddress(bindAddress, serverSocket.getLocalPort());
+
+    Thread acceptor =
+        new LoggingThread("Geode Membership TCP Acceptor", this::acceptConnections);
+    acceptor.start();
+
+    long memberTimeout = config.getMemberTimeout();
+    writeTimeoutChecker = new TimerTask() {
+      @Override
+      public void run() {
+        long now = System.currentTimeMillis();
+        for (OutgoingConnection connection : outgoing.values()) {
+          connection.checkWriteTimeout(now, memberTimeout);
+        }
+      }
+    };
+    long checkInterval = Math.max(1, memberTimeout / 2);
+    services.getTimer().schedule(writeTimeoutChecker, checkInterval, checkInterval);
+
+    logger.info("Membership TCP server socket {} created (took {}ms)",
+        serverSocket.getLocalSocketAddress(), System.currentTimeMillis() - start);
+  }
+
+  private void establishLocalAddress(InetAddress bindAddress, int port) {
+    MembershipConfig config = services.getConfig();
+    boolean isLocator = (config
+        .getVmKind() == MemberIdentifier.LOCATOR_DM_TYPE)
+        || !config.getStartLocator().isEmpty();
+
+    String hostname = config.getBindAddress();
+    if (hostname == null || hostname.isEmpty()) {
+      hostname = bindAddress.getHostName();
+    }
+    UUID uuid = UUID.randomUUID();
+    GMSMemberData gmsMember = new GMSMemberData(bindAddress,
+        hostname, port,
+        OSProcess.getId(), (byte) config.getVmKind(),
+        -1 /* directport */, -1 /* viewID */, config.getName(),
+        GMSUtil.parseGroups(config.getRoles(), config.getGroups()), config.getDurableClientId(),
+        config.getDurableClientTimeout(),
+        config.isNetworkPartitionDetectionEnabled(), isLocator,
+        KnownVersion.getCurrentVersion().ordinal(),
+        uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(),
+        (byte) (config.getMemberWeight() & 0xff), false, null);
+    localAddress = services.getMemberFactory().create(gmsMember);
+    logger.info("Established local address {}", localAddress);
+    services.setLocalAddress(localAddress);
+  }
+
+  @Override
+  public void started() {}
+
+  @Override
+  public void stop() {
+    stopped = true;
+    cancelWriteTimeoutChecker();
+    closeServerSocket();
+    List<OutgoingConnection> connections = new ArrayList<>(outgoing.values());
+    outgoing.clear();
+    for (OutgoingConnection connection : connections) {
+      connection.close();
+    }
+    long giveUpTime = System.currentTimeMillis() + STOP_FLUSH_MILLIS;
+    for (OutgoingConnection connection : connections) {
+      connection.awaitClose(giveUpTime);
+    }
+    closeIncomingConnections();
+  }
+
+  @Override
+  public void stopped() {}
+
+  @Override
+  public void emergencyClose() {
+    view = null;
+    stopped = true;
+    cancelWriteTimeoutChecker();
+    closeServerSocket();
+    for (OutgoingConnection connection : outgoing.values()) {
+      connection.forceClose();
+    }
+    outgoing.clear();
+    closeIncomingConnections();
+  }
+
+  private void cancelWriteTimeoutChecker() {
+    TimerTask checker = writeTimeoutChecker;
+    if (checker != null) {
+      checker.cancel();
+    }
+  }
+
+  private void closeServerSocket() {
+    ServerSocket socket = serverSocket;
+    if (socket != null) {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        logger.debug("Unexpected exception closing membership server socket", e);
+      }
+    }
+  }
+
+  private void closeIncomingConnections() {
+    for (IncomingConnection connection : incoming) {
+      closeQuietly(connection.socket);
+    }
+    incoming.clear();
+  }
+
+  private static void closeQuietly(Socket socket) {
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // ignored - the socket is being discarded
+    }
+  }
+
+  @Override
+  public void memberSuspected(ID initiator, ID suspect, String reason) {}
+
+  @Override
+  public void installView(GMSMembershipView<ID> v) {
+    GMSMembershipView<ID> oldView = this.view;
+    this.view = v;
+
+    // close connections from members that have left the view, whose reader threads would
+    // otherwise wait for messages that will never come
+    if (oldView != null) {
+      for (IncomingConnection connection : incoming) {
+        ID sender = connection.sender;
+        if (sender != null && oldView.contains(sender) && !v.contains(sender)) {
+          closeQuietly(connection.socket);
+        }
+      }
+    }
+
+    // close connections to addresses that no longer belong to a member
+    Set<InetSocketAddress> addresses = new HashSet<>();
+    for (ID member : v.getMembers()) {
+      addresses.add(addressOf(member));
+    }
+    for (Map.Entry<InetSocketAddress, OutgoingConnection> entry : outgoing.entrySet()) {
+      if (!addresses.contains(entry.getKey()) && outgoing.remove(entry.getKey(), entry.getValue())) {
+        entry.getValue().close();
+      }
+    }
+  }
+
+  @Override
+  public void beSick() {}
+
+  @Override
+  public void playDead() {}
+
+  @Override
+  public void beHealthy() {}
+
+  @Override
+  public <T extends Message<ID>> void addHandler(Class<T> c, MessageHandler<T> h) {
+    handlers.put(c, h);
+  }
+
+  @Override
+  public boolean testMulticast(long timeout) {
+    return false;
+  }
+
+  @Override
+  public void getMessageState(ID member, Map<String, Long> state, boolean includeMulticast) {
+    // multicast is not supported and messages to one member are delivered in order
+  }
+
+  @Override
+  public void waitForMessageState(ID member, Map<String, Long> state)
+      throws InterruptedException, TimeoutException {
+    // see getMessageState
+  }
+
+  @Override
+  public Set<ID> send(Message<ID> msg, GMSMembershipView<ID> alternateView) {
+    return send(msg, true);
+  }
+
+  @Override
+  public Set<ID> sendUnreliably(Message<ID> msg) {
+    return send(msg, false);
+  }
+
+  @Override
+  public Set<ID> send(Message<ID> msg) {
+    return send(msg, true);
+  }
+
+  private Set<ID> send(Message<ID> msg, boolean reliably) {
+    if (stopped) {
+      logger.info("TcpMessenger is stopped - messaging is not possible");
+      throw new MembershipClosedException("Distributed System is shutting down");
+    }
+    GMSMembershipView<ID> oldView = this.view;
+
+    List<ID> destinations = msg.getRecipients();
+    List<ID> recipients;
+    if (destinations.size() == 1 && destinations.get(0) == ALL_RECIPIENTS) {
+      recipients = new ArrayList<>(services.getJoinLeave().getView().getMembers());
+    } else {
+      recipients = destinations;
+    }
+
+    if (logger.isDebugEnabled() && reliably) {
+      logger.debug("sending via TCP: [{}] recipients: {}", msg, recipients);
+    }
+
+    msg.registerProcessor();
+    Set<ID> failedRecipients = new HashSet<>();
+    Map<Short, byte[]> frames = new HashMap<>();
+    for (ID mbr : recipients) {
+      short version = mbr.getVersionOrdinal();
+      byte[] frame = frames.get(version);
+      if (frame == null) {
+        try {
+          frame = createFrame(msg, version);
+        } catch (IOException e) {
+          failedRecipients.add(mbr);
+          continue;
+        }
+        if (frames.isEmpty()) {
+          services.getStatistics().incSentBytes(frame.length);
+        }
+        frames.put(version, frame);
+      }
+      if (!enqueue(mbr, new OutgoingFrame(frame, reliably))) {
+        failedRecipients.add(mbr);
+      }
+    }
+
+    if (failedRecipients.isEmpty() && msg.forAll()) {
+      return Collections.emptySet();
+    }
+    GMSMembershipView<ID> newView = this.view;
+    if (newView != null && newView != oldView) {
+      for (ID d : destinations) {
+        if (!newView.contains(d)) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("messenger: member has left the view: {}  view is now {}", d, newView);
+          }
+          failedRecipients.add(d);
+        }
+      }
+    }
+    return failedRecipients;
+  }
+
+  private InetSocketAddress addressOf(ID member) {
+    return new InetSocketAddress(member.getInetAddress(), member.getMembershipPort());
+  }
+
+  /**
+   * Queues a message for a member, returning false if its queue stayed full
+   */
+  private boolean enqueue(ID member, OutgoingFrame frame) {
+    InetSocketAddress address = addressOf(member);
+    while (true) {
+      OutgoingConnection connection = outgoing.get(address);
+      if (connection == null) {
+        OutgoingConnection created = new OutgoingConnection(address);
+        connection = outgoing.putIfAbsent(address, created);
+        if (connection == null) {
+          connection = created;
+          created.start();
+        }
+      }
+      QueueResult result = connection.send(member, frame);
+      if (result == QueueResult.QUEUED) {
+        return true;
+      }
+      if (result == QueueResult.FULL) {
+        if (frame.reliable) {
+          logger.warn("Unable to send message to {}: {} messages are waiting to be written to it",
+              member, MAX_QUEUED_MESSAGES);
+        }
+        return false;
+      }
+      // closed by installView - replace it with a new connection
+      outgoing.remove(address, connection);
+    }
+  }
+
+  /**
+   * Serializes a message for a member with the given version. The frame starts with its length,
+   * which is followed by the sender's version ordinal, the sender's ID and the message.
+   */
+  private byte[] createFrame(Message<ID> msg, short versionOrdinal) throws IOException {
+    MembershipStatistics stats = services.getStatistics();
+    long start = stats.startMsgSerialization();
+    final KnownVersion version = Versioning
+        .getKnownVersionOrDefault(Versioning.getVersion(versionOrdinal), KnownVersion.CURRENT);
+    try (BufferDataOutputStream out = new BufferDataOutputStream(version)) {
+      out.writeInt(0); // the length, which is filled in below
+      VersioningIO.writeOrdinal(out, KnownVersion.getCurrentVersion().ordinal(), true);
+      localAddress.getMemberData().writeEssentialData(out,
+          services.getSerializer().createSerializationContext(out));
+      services.getSerializer().getObjectSerializer().writeObject(msg, out);
+      byte[] frame = out.toByteArray();
+      int length = frame.length - 4;
+      frame[0] = (byte) (length >>> 24);
+      frame[1] = (byte) (length >>> 16);
+      frame[2] = (byte) (length >>> 8);
+      frame[3] = (byte) length;
+      return frame;
+    } catch (IOException ex) {
+      logger.warn("Error serializing message", ex);
+      throw ex;
+    } catch (Exception ex) {
+      logger.warn("Error serializing message", ex);
+      throw new IOException("Error serializing message", ex.getCause());
+    } finally {
+      stats.endMsgSerialization(start);
+    }
+  }
+
+  private void acceptConnections() {
+    ServerSocket ssocket = serverSocket;
+    while (!stopped && !ssocket.isClosed()) {
+      Socket socket;
+      try {
+        socket = ssocket.accept();
+      } catch (IOException e) {
+        if (!stopped) {
+          logger.debug("Unexpected exception accepting a membership connection", e);
+        }
+        continue;
+      }
+      IncomingConnection connection = new IncomingConnection(socket);
+      incoming.add(connection);
+      if (stopped) {
+        closeQuietly(socket);
+        break;
+      }
+      Thread reader = new LoggingThread(
+          "Geode Membership TCP Reader for " + socket.getRemoteSocketAddress(),
+          () -> readMessages(connection));
+      reader.start();
+    }
+    logger.info("Membership TCP acceptor thread exiting");
+  }
+
+  /**
+   * Reads and dispatches the messages sent over a connection. An idle connection is kept, but a
+   * sender that stops in the middle of a message for member-timeout is disconnected.
+   */
+  private void readMessages(IncomingConnection connection) {
+    Socket socket = connection.socket;
+    try {
+      int memberTimeout = (int) services.getConfig().getMemberTimeout();
+      socket.setTcpNoDelay(true);
+      socketCreator.forCluster().handshakeIfSocketIsSSL(socket, memberTimeout);
+      socket.setSoTimeout(memberTimeout);
+      DataInputStream in =
+          new DataInputStream(new BufferedInputStream(socket.getInputStream(), SOCKET_BUFFER_SIZE));
+      while (!stopped) {
+        int first;
+        try {
+          first = in.read();
+        } catch (SocketTimeoutException e) {
+          // nothing has been sent for a while, which is normal between messages
+          continue;
+        }
+        if (first < 0) {
+          throw new EOFException();
+        }
+        int length = (first << 24) | (in.readUnsignedByte() << 16) | in.readUnsignedShort();
+        if (length <= 0 || length > MAX_MESSAGE_BYTES) {
+          throw new IOException("Invalid membership message length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        ID sender = receive(bytes);
+        if (sender != null) {
+          connection.sender = sender;
+        }
+      }
+    } catch (EOFException e) {
+      // the sender closed the connection
+    } catch (IOException e) {
+      if (!stopped) {
+        logger.debug("Closing membership connection from {}", socket.getRemoteSocketAddress(),
+            e);
+      }
+    } finally {
+      incoming.remove(connection);
+      closeQuietly(socket);
+    }
+  }
+
+  /**
+   * Dispatches a message, returning its sender or null if it could not be read
+   */
+  private ID receive(byte[] bytes) {
+    long startTime = services.getStatistics().startUDPDispatchRequest();
+    try {
+      if (services.getManager().shutdownInProgress()) {
+        return null;
+      }
+
+      Message<ID> msg = readMessage(bytes);
+      if (msg == null) {
+        return null;
+      }
+
+      // admin-only VMs don't have caches, so we ignore cache operations
+      if ((services.getConfig()
+          .getVmKind() == MemberIdentifier.ADMIN_ONLY_DM_TYPE)
+          && (msg instanceof CacheOperationMessageMarker)) {
+        return msg.getSender();
+      }
+
+      msg.resetTimestamp();
+      msg.setBytesRead(bytes.length);
+
+      try {
+        if (logger.isTraceEnabled()) {
+          logger.trace("TcpMessenger dispatching {} from {}", msg, msg.getSender());
+        }
+        getMessageHandler(msg).processMessage(msg);
+      } catch (MemberShunnedException e) {
+        // message from non-member - ignore
+      }
+      return msg.getSender();
+    } finally {
+      services.getStatistics().endUDPDispatchRequest(startTime);
+    }
+  }
+
+  private Message<ID> readMessage(byte[] bytes) {
+    long start = services.getStatistics().startMsgDeserialization();
+    try {
+      DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes));
+
+      short ordinal = VersioningIO.readOrdinal(dis);
+      if (ordinal < KnownVersion.getCurrentVersion().ordinal()) {
+        final KnownVersion version = Versioning.getKnownVersionOrDefault(
+            Versioning.getVersion(ordinal),
+            KnownVersion.CURRENT);
+        dis = new VersionedDataInputStream(dis, version);
+      }
+
+      GMSMemberData info = new GMSMemberData();
+      info.readEssentialData(dis, services.getSerializer().createDeserializationContext(dis));
+      ID sender = services.getMemberFactory().create(info);
+      Message<ID> result = services.getSerializer().getObjectDeserializer().readObject(dis);
+
+      // JoinRequestMessages are sent with an ID that may have been reused from a previous
+      // life by way of auto-reconnect, so we don't look for a canonical reference for it
+      if (result.getDSFID() == JOIN_REQUEST) {
+        result.setSender(((JoinRequestMessage<ID>) result).getMemberID());
+      } else {
+        result.setSender(services.getJoinLeave().getMemberID(sender));
+      }
+      services.getStatistics().endMsgDeserialization(start);
+      return result;
+    } catch (Exception e) {
+      logger.error("Exception deserializing message payload of length " + bytes.length, e);
+      return null;
+    }
+  }
+
+  /**
+   * returns the handler that should process the given message. The default handler is the
+   * membership manager
+   */
+  @SuppressWarnings("unchecked")
+  private MessageHandler<Message<ID>> getMessageHandler(Message<ID> msg) {
+    Class<?> msgClazz = msg.getClass();
+    MessageHandler<?> h = handlers.get(msgClazz);
+    if (h == null) {
+      for (Class<?> clazz : handlers.keySet()) {
+        if (clazz.isAssignableFrom(msgClazz)) {
+          h = handlers.get(clazz);
+          handlers.put(msg.getClass(), h);
+          break;
+        }
+      }
+    }
+    if (h == null) {
+      h = services.getManager();
+    }
+    return (MessageHandler<Message<ID>>) h;
+  }
+
+  @Override
+  public ID getMemberID() {
+    return localAddress;
+  }
+
+  /**
+   * Quorum checks during auto-reconnect use the JGroups channel of the previous membership, so
+   * they are not performed with this messenger.
+   */
+  @Override
+  public GMSQuorumChecker<ID> getQuorumChecker() {
+    return null;
+  }
+
+  @Override
+  public byte[] getPublicKey(ID mbr) {
+    return null;
+  }
+
+  @Override
+  public void setPublicKey(byte[] publickey, ID mbr) {}
+
+  @Override
+  public void setClusterSecretKey(byte[] clusterSecretKey) {}
+
+  @Override
+  public byte[] getClusterSecretKey() {
+    return null;
+  }
+
+  @Override
+  public int getRequestId() {
+    return requestId.incrementAndGet();
+  }
+
+  @Override
+  public void initClusterKey() {}
+
+  private enum QueueResult {
+    QUEUED, FULL, CLOSED
+  }
+
+  private class IncomingConnection {
+    final Socket socket;
+
+    /** the member that sent the last message read from the socket */
+    volatile ID sender;
+
+    IncomingConnection(Socket socket) {
+      this.socket = socket;
+    }
+  }
+
+  private static class OutgoingFrame {
+    final byte[] bytes;
+    final boolean reliable;
+
+    OutgoingFrame(byte[] bytes, boolean reliable) {
+      this.bytes = bytes;
+      this.reliable = reliable;
+    }
+  }
+
+  /**
+   * A connection to one member and the thread that writes the messages queued for it. The
+   * connection is established by the writer when it has the first message to write, and is
+   * re-established once if writing to it fails.
+   */
+  private class OutgoingConnection implements Runnable {
+    private final InetSocketAddress address;
+    private final BlockingQueue<OutgoingFrame> queue =
+        new LinkedBlockingQueue<>(MAX_QUEUED_MESSAGES);
+    private final Thread writer;
+
+    /** the most recent ID messages were sent to at this address */
+    private volatile ID member;
+
+    /** guarded by this */
+    private boolean closed;
+
+    /** used only by the writer, except when it is closed by emergencyClose */
+    private volatile Socket socket;
+    private OutputStream out;
+    private boolean warned;
+
+    /** when the write in progress started, or 0 */
+    private volatile long writeStartTime;
+
+    OutgoingConnection(InetSocketAddress address) {
+      this.address = address;
+      writer = new LoggingThread("Geode Membership TCP Sender to " + address, this);
+    }
+
+    void start() {
+      writer.start();
+    }
+
+    /**
+     * Queues a message. A reliable message waits up to member-timeout for room in the queue.
+     */
+    QueueResult send(ID member, OutgoingFrame frame) {
+      synchronized (this) {
+        if (closed) {
+          return QueueResult.CLOSED;
+        }
+        this.member = member;
+      }
+      boolean queued;
+      if (frame.reliable) {
+        try {
+          queued = queue.offer(frame, services.getConfig().getMemberTimeout(), MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          queued = false;
+        }
+      } else {
+        queued = queue.offer(frame);
+      }
+      return queued ? QueueResult.QUEUED : QueueResult.FULL;
+    }
+
+    /**
+     * Closes the connection after the messages queued so far have been written
+     */
+    synchronized void close() {
+      if (!closed) {
+        closed = true;
+        // if the queue is full the writer closes the connection once it is empty
+        queue.offer(CLOSE);
+      }
+    }
+
+    private synchronized boolean isClosed() {
+      return closed;
+    }
+
+    /**
+     * Closes the socket if a write has been blocked for longer than member-timeout, which fails
+     * the write so that the member is checked by the health monitor
+     */
+    void checkWriteTimeout(long now, long memberTimeout) {
+      long start = writeStartTime;
+      Socket s = socket;
+      if (start != 0 && s != null && now - start > memberTimeout) {
+        logger.warn("Closing membership connection to {} after a write blocked for {}ms", address,
+            now - start);
+        closeQuietly(s);
+      }
+    }
+
+    void forceClose() {
+      close();
+      writer.interrupt();
+      Socket s = socket;
+      if (s != null) {
+        closeQuietly(s);
+      }
+    }
+
+    void awaitClose(long giveUpTime) {
+      try {
+        long wait = giveUpTime - System.currentTimeMillis();
+        if (wait > 0) {
+          writer.join(wait);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (writer.isAlive()) {
+        forceClose();
+      }
+    }
+
+    @Override
+    public void run() {
+      List<OutgoingFrame> batch = new ArrayList<>();
+      try {
+        boolean closing = false;
+        while (!closing) {
+          OutgoingFrame frame = queue.take();
+          int bytes = 0;
+          while (frame != null) {
+            if (frame == CLOSE) {
+              closing = true;
+              break;
+            }
+            batch.add(frame);
+            bytes += frame.bytes.length;
+            frame = bytes < MAX_BATCH_BYTES ? queue.poll() : null;
+          }
+          if (!batch.isEmpty()) {
+            write(batch);
+            batch.clear();
+          }
+          if (queue.isEmpty() && isClosed()) {
+            closing = true;
+          }
+        }
+      } catch (InterruptedException e) {
+        // closed by emergencyClose
+      } finally {
+        closeSocket();
+      }
+    }
+
+    private void write(List<OutgoingFrame> batch) {
+      IOException problem;
+      try {
+        writeBatch(batch);
+        return;
+      } catch (IOException e) {
+        problem = e;
+        closeSocket();
+      }
+      if (stopped) {
+        return;
+      }
+      // the connection may have been closed by the other side, so try once more with a new one
+      batch.removeIf(frame -> !frame.reliable);
+      if (!batch.isEmpty()) {
+        try {
+          writeBatch(batch);
+          return;
+        } catch (IOException e) {
+          problem = e;
+          closeSocket();
+        }
+      }
+      handleIOException(problem);
+    }
+
+    private void writeBatch(List<OutgoingFrame> batch) throws IOException {
+      if (socket == null) {
+        connect();
+      }
+      writeStartTime = System.currentTimeMillis();
+      try {
+        for (OutgoingFrame frame : batch) {
+          out.write(frame.bytes);
+        }
+        out.flush();
+      } finally {
+        writeStartTime = 0;
+      }
+    }
+
+    private void connect() throws IOException {
+      Socket s = socketCreator.forAdvancedUse().connect(
+          new HostAndPort(address.getAddress().getHostAddress(), address.getPort()),
+          (int) services.getConfig().getMemberTimeout(), null, false, SOCKET_BUFFER_SIZE,
+          socketCreator.forCluster().useSSL());
+      s.setTcpNoDelay(true);
+      socket = s;
+      out = new BufferedOutputStream(s.getOutputStream(), MAX_BATCH_BYTES);
+    }
+
+    private void closeSocket() {
+      Socket s = socket;
+      socket = null;
+      out = null;
+      if (s != null) {
+        closeQuietly(s);
+      }
+    }
+
+    /**
+     * If a message can't be sent it may mean that the network is down. If so we need to initiate
+     * suspect processing on the recipient.
+     */
+    private void handleIOException(IOException e) {
+      if (services.getManager().shutdownInProgress()) {
+        return;
+      }
+      ID recipient = member;
+      GMSMembershipView<ID> v = view;
+      if (recipient != null && v != null && v.contains(recipient)) {
+        if (!warned) {
+          logger.warn("Unable to send message to " + recipient, e);
+          warned = true;
+        }
+        services.getHealthMonitor().checkIfAvailable(recipient,
+            "Unable to send messages to this member via TCP", true);
+      } else if (logger.isDebugEnabled()) {
+        logger.debug("Unable to send message to {}", address, e);
+      }
+    }
+  }
+}
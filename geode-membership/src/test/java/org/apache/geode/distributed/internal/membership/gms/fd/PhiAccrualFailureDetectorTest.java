@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.Test;
+
+public class PhiAccrualFailureDetectorTest {
+
+  private static PhiAccrualFailureDetector detectorWithIntervals(long... intervals) {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 10, 0);
+    long time = 1000;
+    detector.heartbeat(time);
+    for (long interval : intervals) {
+      time += interval;
+      detector.heartbeat(time);
+    }
+    return detector;
+  }
+
+  @Test
+  public void isNotAvailableUntilEnoughIntervalsAreRecorded() {
+    PhiAccrualFailureDetector detector = detectorWithIntervals(1000, 1000);
+
+    assertThat(detector.isAvailable()).isFalse();
+    assertThat(detector.phi(100_000)).isEqualTo(0);
+
+    detector.heartbeat(detector.getLastHeartbeat() + 1000);
+
+    assertThat(detector.isAvailable()).isTrue();
+  }
+
+  @Test
+  public void phiIsLowAtMeanIntervalAndIncreasesWithTime() {
+    PhiAccrualFailureDetector detector = detectorWithIntervals(1000, 1000, 1000, 1000);
+
+    double atMean = detector.phi(1000);
+    double later = detector.phi(1030);
+    double muchLater = detector.phi(1100);
+
+    assertThat(atMean).isCloseTo(0.3, within(0.01));
+    assertThat(later).isGreaterThan(atMean);
+    assertThat(muchLater).isGreaterThan(later).isGreaterThan(8);
+  }
+
+  @Test
+  public void irregularHeartbeatsAreGivenMoreTime() {
+    PhiAccrualFailureDetector regular = detectorWithIntervals(1000, 1000, 1000, 1000);
+    PhiAccrualFailureDetector irregular = detectorWithIntervals(500, 1500, 700, 1300);
+
+    assertThat(irregular.phi(1500)).isLessThan(regular.phi(1500));
+  }
+
+  @Test
+  public void oldIntervalsFallOutOfTheWindow() {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(3, 10, 0);
+    long time = 0;
+    detector.heartbeat(time);
+    for (long interval : new long[] {10_000, 10_000, 10_000, 1000, 1000, 1000}) {
+      time += interval;
+      detector.heartbeat(time);
+    }
+
+    assertThat(detector.phi(2000)).isGreaterThan(8);
+  }
+
+  @Test
+  public void acceptablePauseDelaysSuspicion() {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 10, 500);
+    for (long time = 0; time <= 4000; time += 1000) {
+      detector.heartbeat(time);
+    }
+
+    assertThat(detector.phi(1300)).isLessThan(1);
+  }
+
+  @Test
+  public void veryLateHeartbeatHasTheHighestPhi() {
+    PhiAccrualFailureDetector detector = detectorWithIntervals(1000, 1000, 1000);
+
+    assertThat(detector.phi(Long.MAX_VALUE / 2)).isEqualTo(Double.MAX_VALUE);
+  }
+
+  @Test
+  public void heartbeatsOutOfOrderAreNotIntervals() {
+    PhiAccrualFailureDetector detector = detectorWithIntervals(1000, 1000, 1000);
+    long last = detector.getLastHeartbeat();
+
+    detector.heartbeat(last - 500);
+
+    assertThat(detector.getLastHeartbeat()).isEqualTo(last);
+    assertThat(detector.phi(1000)).isCloseTo(0.3, within(0.01));
+  }
+
+  @Test
+  public void windowMustHoldEnoughSamples() {
+    assertThatThrownBy(() -> new PhiAccrualFailureDetector(2, 10, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -216,7 +216,15 @@ public class BufferDataOutputStream extends OutputStream implements VersionedDat
     if (amount < MIN_CHUNK_SIZE) {
       amount = MIN_CHUNK_SIZE;
     }
-    buffer = ByteBuffer.allocate(amount);
+    buffer = allocateBuffer(amount);
+  }
+
+  /**
+   * Allocates a buffer used to hold bytes written to this stream once the current buffer is full.
+   * Subclasses may override this to obtain buffers from a pool.
+   */
+  protected ByteBuffer allocateBuffer(int capacity) {
+    return ByteBuffer.allocate(capacity);
   }
 
   protected void checkIfWritable() {
@@ -307,7 +315,7 @@ public class BufferDataOutputStream extends OutputStream implements VersionedDat
     chunks.add(bufToAdd);
     int newPos = oldBuffer.limit();
     if ((oldBuffer.capacity() - newPos) <= 0) {
-      buffer = ByteBuffer.allocate(MIN_CHUNK_SIZE);
+      buffer = allocateBuffer(MIN_CHUNK_SIZE);
     } else {
       oldBuffer.limit(oldBuffer.capacity());
       oldBuffer.position(newPos);
@@ -75,6 +75,7 @@ public interface DataSerializableFixedID extends SerializationVersions, BasicSer
 
   short VIEW_ACK_MESSAGE = -151;
   short INSTALL_VIEW_MESSAGE = -150;
+  short INSTALL_VIEW_DELTA_MESSAGE = -149;
   short NETVIEW = -148;
   short GET_VIEW_REQ = -147;
   short GET_VIEW_RESP = -146;
@@ -690,6 +691,10 @@ public interface DataSerializableFixedID extends SerializationVersions, BasicSer
   short REDIS_MEMBER_INFO_ID = 2191;
   short REDIS_SORTED_SET_ID = 2192;
   short REDIS_SORTED_SET_OPTIONS_ID = 2193;
+  short CUMULATIVE_ACK_MESSAGE = 2194;
+  short REQUEST_IMAGE_DIGEST_MESSAGE = 2195;
+  short IMAGE_DIGEST_REPLY_MESSAGE = 2196;
+  short REQUEST_DIGESTED_IMAGE_MESSAGE = 2197;
   // NOTE, codes > 65535 will take 4 bytes to serialize
 
   /**
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan.misc;
+
+import static org.apache.geode.cache.Region.SEPARATOR;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.internal.cache.tier.sockets.AcceptorImpl;
+import org.apache.geode.internal.cache.wan.WANTestBase;
+import org.apache.geode.test.junit.categories.WanTest;
+
+/**
+ * Sends batches to a gateway receiver that applies the events of each batch in several lanes, and
+ * checks that every key ends up with the last value put on it.
+ */
+@Category({WanTest.class})
+public class GatewayReceiverParallelApplyDUnitTest extends WANTestBase {
+
+  private static final int KEYS = 50;
+
+  private static final int ROUNDS = 20;
+
+  @Test
+  public void batchesAppliedInLanesKeepTheLastValueOfEachKey() {
+    Integer lnPort = vm0.invoke(() -> WANTestBase.createFirstLocatorWithDSId(1));
+    Integer nyPort = vm1.invoke(() -> WANTestBase.createFirstRemoteLocator(2, lnPort));
+    String regionName = getTestMethodName() + "_RR";
+
+    vm2.invoke(() -> {
+      WANTestBase.createCache(nyPort);
+      System.setProperty(AcceptorImpl.GATEWAY_APPLY_THREADS_PROPERTY_NAME, "4");
+      try {
+        WANTestBase.createReceiver();
+      } finally {
+        System.clearProperty(AcceptorImpl.GATEWAY_APPLY_THREADS_PROPERTY_NAME);
+      }
+    });
+    vm2.invoke(() -> WANTestBase.createReplicatedRegion(regionName, null, isOffHeap()));
+
+    vm3.invoke(() -> WANTestBase.createCache(lnPort));
+    vm3.invoke(() -> WANTestBase.createSender("ln", 2, false, 100, 100, false, false, null, false));
+    vm3.invoke(() -> WANTestBase.createReplicatedRegion(regionName, "ln", isOffHeap()));
+    vm3.invoke(() -> WANTestBase.startSender("ln"));
+
+    vm3.invoke(() -> {
+      Region<String, String> region = cache.getRegion(SEPARATOR + regionName);
+      assertNotNull(region);
+      for (int round = 0; round < ROUNDS; round++) {
+        for (int key = 0; key < KEYS; key++) {
+          region.put("key-" + key, "Value_" + round);
+        }
+      }
+    });
+
+    Map<String, String> lastValues = new HashMap<>();
+    for (int key = 0; key < KEYS; key++) {
+      lastValues.put("key-" + key, "Value_" + (ROUNDS - 1));
+    }
+    vm2.invoke(() -> WANTestBase.validateRegionSize(regionName, KEYS));
+    vm2.invoke(() -> WANTestBase.validateRegionContents(regionName, lastValues));
+  }
+}
@@ -43,10 +43,13 @@ import org.apache.geode.internal.cache.tier.sockets.MessageTooLargeException;
 import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
 import org.apache.geode.internal.cache.wan.AbstractGatewaySenderEventProcessor;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompressor;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventDispatcher;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.internal.cache.wan.GatewaySenderException;
 import org.apache.geode.internal.cache.wan.GatewaySenderStats;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.internal.serialization.Versioning;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.pdx.PdxRegistryMismatchException;
 import org.apache.geode.security.GemFireSecurityException;
@@ -72,6 +75,12 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
 
   private ReentrantReadWriteLock connectionLifeCycleLock = new ReentrantReadWriteLock();
 
+  /**
+   * Compresses the values of the batches sent to receivers that support it, or null if batches are
+   * not compressed
+   */
+  private final GatewayBatchCompressor batchCompressor;
+
   protected static final String maxAttemptsReachedConnectingServerIdExceptionMessage =
       "Reached max attempts number trying to connect to desired server id";
 
@@ -98,6 +107,7 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
   public GatewaySenderEventRemoteDispatcher(AbstractGatewaySenderEventProcessor eventProcessor) {
     this.processor = eventProcessor;
     this.sender = eventProcessor.getSender();
+    this.batchCompressor = createBatchCompressor(this.sender);
     try {
       initializeConnection();
     } catch (GatewaySenderException e) {
@@ -110,6 +120,24 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
     this.processor = processor;
     this.sender = processor.getSender();
     this.connection = connection;
+    this.batchCompressor = createBatchCompressor(this.sender);
+  }
+
+  private static GatewayBatchCompressor createBatchCompressor(AbstractGatewaySender sender) {
+    return GatewayBatchCompressor.COMPRESS_BATCHES
+        ? new GatewayBatchCompressor(sender.getStatistics()) : null;
+  }
+
+  /**
+   * @return the compressor for the batches sent on the given connection, or null if they are not
+   *         compressed because the receiver does not support it
+   */
+  private GatewayBatchCompressor getBatchCompressor(Connection connection) {
+    if (batchCompressor == null || KnownVersion.GEODE_1_15_0
+        .compareTo(Versioning.getVersion(connection.getWanSiteVersion())) > 0) {
+      return null;
+    }
+    return batchCompressor;
   }
 
   protected GatewayAck readAcknowledgement() {
@@ -215,7 +243,7 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
       try {
         if (connection != null && !connection.isDestroyed()) {
           sp.dispatchBatch_NewWAN(connection, events, currentBatchId,
-              sender.isRemoveFromQueueOnException(), isRetry);
+              sender.isRemoveFromQueueOnException(), isRetry, getBatchCompressor(connection));
           if (logger.isDebugEnabled()) {
             logger.debug(
                 "{} : Dispatched batch (id={}) of {} events, queue size: {} on connection {}",
@@ -902,6 +930,9 @@ public class GatewaySenderEventRemoteDispatcher implements GatewaySenderEventDis
     stopAckReaderThread();
     if (this.processor.isStopped()) {
       destroyConnection();
+      if (batchCompressor != null) {
+        batchCompressor.close();
+      }
     }
   }
 
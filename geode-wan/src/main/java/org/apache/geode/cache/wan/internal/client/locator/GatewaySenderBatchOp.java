@@ -21,6 +21,7 @@ import java.util.List;
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.InternalGemFireError;
+import org.apache.geode.annotations.VisibleForTesting;
 import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.client.internal.AbstractOp;
 import org.apache.geode.cache.client.internal.Connection;
@@ -34,6 +35,7 @@ import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
 import org.apache.geode.internal.cache.tier.sockets.Message;
 import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompressor;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
@@ -55,9 +57,21 @@ public class GatewaySenderBatchOp {
    */
   public static void executeOn(Connection con, ExecutablePool pool, List events, int batchId,
       boolean removeFromQueueOnException, boolean isRetry) {
+    executeOn(con, pool, events, batchId, removeFromQueueOnException, isRetry, null);
+  }
+
+  /**
+   * Send a list of gateway events to a server, compressing their values with the given compressor
+   * unless it is null.
+   */
+  public static void executeOn(Connection con, ExecutablePool pool, List events, int batchId,
+      boolean removeFromQueueOnException, boolean isRetry, GatewayBatchCompressor compressor) {
     AbstractOp op = new GatewaySenderGFEBatchOpImpl(events, batchId, removeFromQueueOnException,
-        con.getDistributedSystemId(), isRetry);
+        con.getDistributedSystemId(), isRetry, compressor == null ? null : con, compressor);
     pool.executeOn(con, op, true/* timeoutFatal */);
+    if (compressor != null) {
+      compressor.batchSent(con);
+    }
   }
 
 
@@ -77,14 +91,27 @@ public class GatewaySenderBatchOp {
      */
     public GatewaySenderGFEBatchOpImpl(List events, int batchId, boolean removeFromQueueOnException,
         int dsId, boolean isRetry) {
-      super(MessageType.GATEWAY_RECEIVER_COMMAND, calcPartCount(events));
+      this(events, batchId, removeFromQueueOnException, dsId, isRetry, null, null);
+    }
+
+    GatewaySenderGFEBatchOpImpl(List events, int batchId, boolean removeFromQueueOnException,
+        int dsId, boolean isRetry, Connection con, GatewayBatchCompressor compressor) {
+      super(MessageType.GATEWAY_RECEIVER_COMMAND,
+          calcPartCount(events) + (compressor == null ? 0 : 1));
       if (isRetry) {
         getMessage().setIsRetry();
       }
       getMessage().addIntPart(events.size());
       getMessage().addIntPart(batchId);
       getMessage().addIntPart(dsId);
-      getMessage().addBytesPart(new byte[] {removeFromQueueOnException ? (byte) 1 : (byte) 0});
+      byte flags = removeFromQueueOnException ? (byte) 1 : (byte) 0;
+      if (compressor != null) {
+        flags |= GatewayBatchCompressor.VALUES_COMPRESSED;
+      }
+      getMessage().addBytesPart(new byte[] {flags});
+      if (compressor != null) {
+        getMessage().addBytesPart(compressor.startBatch(con));
+      }
       // Add each event
       for (Iterator i = events.iterator(); i.hasNext();) {
         GatewaySenderEventImpl event = (GatewaySenderEventImpl) i.next();
@@ -112,6 +139,9 @@ public class GatewaySenderBatchOp {
           getMessage().addStringOrObjPart(key);
           if (action < 2 /* it is 0 or 1 */) {
             byte[] value = event.getSerializedValue();
+            if (compressor != null) {
+              value = compressor.compress(value);
+            }
             byte valueIsObject = event.getValueIsObject();;
             // Add value (which is already a serialized byte[])
             getMessage().addRawPart(value, (valueIsObject == 0x01));
@@ -126,12 +156,21 @@ public class GatewaySenderBatchOp {
           getMessage().addLongPart(event.getVersionTimeStamp());
         }
       }
+      if (compressor != null) {
+        compressor.endBatch();
+      }
     }
 
     public GatewaySenderGFEBatchOpImpl() {
       super(MessageType.GATEWAY_RECEIVER_COMMAND, 0);
     }
 
+    @Override
+    @VisibleForTesting
+    protected Message getMessage() {
+      return super.getMessage();
+    }
+
     @Override
     public Object attempt(Connection cnx) throws Exception {
       if (getMessage().getNumberOfParts() == 0) {
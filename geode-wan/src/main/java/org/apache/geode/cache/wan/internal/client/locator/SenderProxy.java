@@ -19,6 +19,7 @@ import java.util.List;
 import org.apache.geode.cache.client.internal.Connection;
 import org.apache.geode.cache.client.internal.InternalPool;
 import org.apache.geode.cache.client.internal.ServerProxy;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompressor;
 
 
 /**
@@ -37,6 +38,12 @@ public class SenderProxy extends ServerProxy {
         isRetry);
   }
 
+  public void dispatchBatch_NewWAN(Connection con, List events, int batchId,
+      boolean removeFromQueueOnException, boolean isRetry, GatewayBatchCompressor compressor) {
+    GatewaySenderBatchOp.executeOn(con, this.pool, events, batchId, removeFromQueueOnException,
+        isRetry, compressor);
+  }
+
   public Object receiveAckFromReceiver(Connection con) {
     return GatewaySenderBatchOp.executeOn(con, this.pool);
   }
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.wan.internal.client.locator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.cache.client.internal.Connection;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.tier.Acceptor;
+import org.apache.geode.internal.cache.tier.CachedRegionHelper;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.command.GatewayReceiverCommand;
+import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompressor;
+import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.cache.wan.GatewaySenderStats;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.internal.serialization.KnownVersion;
+import org.apache.geode.pdx.PdxRegistryMismatchException;
+
+/**
+ * Sends batches built by {@link GatewaySenderBatchOp} through {@link GatewayReceiverCommand} on a
+ * receiver that applies the events of a batch in lanes.
+ */
+public class GatewayReceiverCommandParallelApplyTest {
+
+  private static final String REGION_NAME = "/region";
+
+  private static final int LANES = 4;
+
+  private static final int EVENTS = 64;
+
+  private final ServerConnection serverConnection = mock(ServerConnection.class);
+  private final LocalRegion region = mock(LocalRegion.class);
+  private final Message replyMessage = mock(Message.class);
+  private final Message errorMessage = mock(Message.class);
+  private final List<GatewayBatchCompressor.Decompressor> decompressors =
+      Collections.synchronizedList(new ArrayList<>());
+  private final Map<Object, List<Integer>> appliedValues = new ConcurrentHashMap<>();
+  private final Set<Thread> applyingThreads = ConcurrentHashMap.newKeySet();
+  private ExecutorService applyPool;
+
+  @Before
+  public void setUp() {
+    applyPool = Executors.newFixedThreadPool(LANES - 1);
+    CachedRegionHelper crHelper = mock(CachedRegionHelper.class);
+    InternalCache cache = mock(InternalCache.class);
+    Acceptor acceptor = mock(Acceptor.class);
+    InternalDistributedSystem system = mock(InternalDistributedSystem.class);
+    GatewayBatchCompressor.Decompressor decompressor = new GatewayBatchCompressor.Decompressor();
+    decompressors.add(decompressor);
+    when(serverConnection.getCachedRegionHelper()).thenReturn(crHelper);
+    when(serverConnection.getCacheServerStats()).thenReturn(mock(GatewayReceiverStats.class));
+    when(serverConnection.getGatewayBatchDecompressor()).thenReturn(decompressor);
+    when(serverConnection.getGatewayBatchDecompressor(anyInt())).thenAnswer(invocation -> {
+      GatewayBatchCompressor.Decompressor laneDecompressor =
+          new GatewayBatchCompressor.Decompressor();
+      laneDecompressor.useDictionaryOf(decompressor);
+      decompressors.add(laneDecompressor);
+      return laneDecompressor;
+    });
+    when(serverConnection.getAcceptor()).thenReturn(acceptor);
+    when(serverConnection.getLatestBatchIdReplied()).thenReturn(-1);
+    when(serverConnection.getResponseMessage()).thenReturn(replyMessage);
+    when(serverConnection.getErrorResponseMessage()).thenReturn(errorMessage);
+    when(serverConnection.getClientVersion()).thenReturn(KnownVersion.CURRENT);
+    when(acceptor.getGatewayApplyPool()).thenReturn(applyPool);
+    when(acceptor.getGatewayApplyThreads()).thenReturn(LANES);
+    when(crHelper.getCacheForGatewayCommand()).thenReturn(cache);
+    when(cache.getDistributedSystem()).thenReturn(system);
+    when(system.getDistributionManager()).thenReturn(mock(DistributionManager.class));
+    when(system.getDistributedMember()).thenReturn(mock(DistributedMember.class));
+    doReturn(region).when(cache).getRegion(REGION_NAME);
+    when(region.basicBridgeCreate(any(), any(), anyBoolean(), any(), any(), anyBoolean(), any(),
+        anyBoolean())).thenAnswer(invocation -> {
+          applyingThreads.add(Thread.currentThread());
+          String value = new String((byte[]) invocation.getArgument(1), StandardCharsets.UTF_8);
+          appliedValues.computeIfAbsent(invocation.getArgument(0),
+              key -> Collections.synchronizedList(new ArrayList<>()))
+              .add(Integer.valueOf(value.substring(value.indexOf('-') + 1)));
+          return true;
+        });
+  }
+
+  @After
+  public void tearDown() {
+    applyPool.shutdownNow();
+    for (GatewayBatchCompressor.Decompressor decompressor : decompressors) {
+      decompressor.close();
+    }
+  }
+
+  private static byte[] value(int i) {
+    return ("value-" + i).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static GatewaySenderEventImpl event(int i, String key) {
+    GatewaySenderEventImpl event = mock(GatewaySenderEventImpl.class);
+    when(event.getAction()).thenReturn(0);
+    when(event.getRegionPath()).thenReturn(REGION_NAME);
+    when(event.getEventId()).thenReturn(new EventID(new byte[] {1, 2, 3}, 1, i));
+    when(event.getKey()).thenReturn(key);
+    when(event.getSerializedValue()).thenReturn(value(i));
+    when(event.getValueIsObject()).thenReturn((byte) 0x01);
+    when(event.getNumberOfParts()).thenReturn(8);
+    return event;
+  }
+
+  private static List<GatewaySenderEventImpl> events(int numberOfKeys) {
+    List<GatewaySenderEventImpl> events = new ArrayList<>();
+    for (int i = 0; i < EVENTS; i++) {
+      events.add(event(i, "key-" + i % numberOfKeys));
+    }
+    return events;
+  }
+
+  private void sendBatch(List<GatewaySenderEventImpl> events, boolean removeOnException,
+      GatewayBatchCompressor compressor) throws Exception {
+    Connection connection = mock(Connection.class);
+    GatewaySenderBatchOp.GatewaySenderGFEBatchOpImpl op =
+        new GatewaySenderBatchOp.GatewaySenderGFEBatchOpImpl(events, 0, removeOnException, 1,
+            false, compressor == null ? null : connection, compressor);
+    GatewayReceiverCommand.getCommand().cmdExecute(op.getMessage(), serverConnection,
+        mock(SecurityService.class), 0);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<BatchException70> batchExceptions() throws Exception {
+    ArgumentCaptor<Object> exceptions = ArgumentCaptor.forClass(Object.class);
+    verify(errorMessage).addObjPart(exceptions.capture());
+    return (List<BatchException70>) exceptions.getValue();
+  }
+
+  @Test
+  public void eventsOnOneKeyAreAppliedInTheOrderTheyWereSent() throws Exception {
+    sendBatch(events(8), false, null);
+
+    assertThat(appliedValues).hasSize(8);
+    for (Map.Entry<Object, List<Integer>> entry : appliedValues.entrySet()) {
+      assertThat(entry.getValue()).as(entry.getKey().toString()).hasSize(EVENTS / 8).isSorted();
+    }
+  }
+
+  @Test
+  public void batchIsAcknowledgedOnceAllLanesAreApplied() throws Exception {
+    sendBatch(events(EVENTS), false, null);
+
+    assertThat(appliedValues).hasSize(EVENTS);
+    assertThat(applyingThreads).hasSizeGreaterThan(1);
+    verify(replyMessage).addIntPart(0);
+    verify(replyMessage).addIntPart(EVENTS);
+    verify(replyMessage).send(serverConnection);
+    verify(errorMessage, never()).send(serverConnection);
+    verify(serverConnection).setModificationInfo(true, REGION_NAME, "key-" + (EVENTS - 1));
+  }
+
+  @Test
+  public void compressedValuesAreDecompressedByEachLane() throws Exception {
+    GatewayBatchCompressor compressor = new GatewayBatchCompressor(mock(GatewaySenderStats.class));
+    try {
+      sendBatch(events(EVENTS), false, compressor);
+    } finally {
+      compressor.close();
+    }
+
+    assertThat(appliedValues).hasSize(EVENTS);
+    for (int i = 0; i < EVENTS; i++) {
+      assertThat(appliedValues.get("key-" + i)).containsExactly(i);
+    }
+  }
+
+  @Test
+  public void failedEventsOfAnyLaneAreReturnedToTheSenderInEventOrder() throws Exception {
+    when(region.basicBridgeCreate(any(), any(), anyBoolean(), any(), any(), anyBoolean(), any(),
+        anyBoolean())).thenAnswer(invocation -> {
+          Object key = invocation.getArgument(0);
+          if (key.equals("key-40") || key.equals("key-5")) {
+            throw new IllegalStateException("failed to apply " + key);
+          }
+          appliedValues.put(key, Collections.emptyList());
+          return true;
+        });
+
+    sendBatch(events(EVENTS), true, null);
+
+    assertThat(appliedValues).hasSize(EVENTS - 2);
+    assertThat(batchExceptions()).extracting(BatchException70::getIndex).containsExactly(5, 40);
+    verify(errorMessage).send(serverConnection);
+    verify(replyMessage, never()).send(serverConnection);
+  }
+
+  @Test
+  public void pdxRegistryMismatchStopsEveryLane() throws Exception {
+    AtomicInteger applied = new AtomicInteger();
+    when(region.basicBridgeCreate(any(), any(), anyBoolean(), any(), any(), anyBoolean(), any(),
+        anyBoolean())).thenAnswer(invocation -> {
+          if (applied.incrementAndGet() == 1) {
+            throw new IllegalStateException(new PdxRegistryMismatchException("mismatch"));
+          }
+          return true;
+        });
+
+    sendBatch(events(EVENTS), true, null);
+
+    // each of the other lanes may have started one more event before the first one failed
+    assertThat(applied.get()).isLessThanOrEqualTo(LANES);
+    ArgumentCaptor<Object> exception = ArgumentCaptor.forClass(Object.class);
+    verify(errorMessage).addObjPart(exception.capture());
+    assertThat(exception.getValue()).isInstanceOf(PdxRegistryMismatchException.class);
+    verify(replyMessage, never()).send(serverConnection);
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.wan.internal.client.locator;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.client.internal.Connection;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.tier.Acceptor;
+import org.apache.geode.internal.cache.tier.CachedRegionHelper;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.command.GatewayReceiverCommand;
+import org.apache.geode.internal.cache.wan.GatewayBatchCompressor;
+import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.cache.wan.GatewaySenderStats;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.internal.serialization.KnownVersion;
+
+/**
+ * Sends batches built by {@link GatewaySenderBatchOp} through {@link GatewayReceiverCommand}, with
+ * and without compressed values. A compressed batch carries an extra dictionary part after its
+ * flags, so the parts of every event are shifted by one.
+ */
+public class GatewaySenderBatchOpTest {
+
+  private static final String REGION_NAME = "/region";
+
+  private final Connection connection = mock(Connection.class);
+  private final GatewayBatchCompressor compressor =
+      new GatewayBatchCompressor(mock(GatewaySenderStats.class));
+  private final GatewayBatchCompressor.Decompressor decompressor =
+      new GatewayBatchCompressor.Decompressor();
+  private final ServerConnection serverConnection = mock(ServerConnection.class);
+  private final LocalRegion region = mock(LocalRegion.class);
+  private int batchId;
+
+  @Before
+  public void setUp() {
+    CachedRegionHelper crHelper = mock(CachedRegionHelper.class);
+    InternalCache cache = mock(InternalCache.class);
+    Acceptor acceptor = mock(Acceptor.class);
+    when(serverConnection.getCachedRegionHelper()).thenReturn(crHelper);
+    when(serverConnection.getCacheServerStats()).thenReturn(mock(GatewayReceiverStats.class));
+    when(serverConnection.getGatewayBatchDecompressor()).thenReturn(decompressor);
+    when(serverConnection.getAcceptor()).thenReturn(acceptor);
+    when(serverConnection.getLatestBatchIdReplied()).thenReturn(-1);
+    when(serverConnection.getResponseMessage()).thenReturn(mock(Message.class));
+    when(serverConnection.getClientVersion()).thenReturn(KnownVersion.CURRENT);
+    when(crHelper.getCacheForGatewayCommand()).thenReturn(cache);
+    doReturn(region).when(cache).getRegion(REGION_NAME);
+    when(region.basicBridgeCreate(any(), any(), anyBoolean(), any(), any(), anyBoolean(), any(),
+        anyBoolean())).thenReturn(true);
+  }
+
+  @After
+  public void tearDown() {
+    compressor.close();
+    decompressor.close();
+  }
+
+  private static byte[] value(int i) {
+    return ("{\"type\":\"org.example.Customer\",\"name\":\"customer-" + i
+        + "\",\"status\":\"ACTIVE\"}").getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static GatewaySenderEventImpl event(int i, Object callbackArg) {
+    GatewaySenderEventImpl event = mock(GatewaySenderEventImpl.class);
+    when(event.getAction()).thenReturn(0);
+    when(event.getRegionPath()).thenReturn(REGION_NAME);
+    when(event.getEventId()).thenReturn(new EventID(new byte[] {1, 2, 3}, 1, i));
+    when(event.getKey()).thenReturn("key-" + i);
+    when(event.getSerializedValue()).thenReturn(value(i));
+    when(event.getValueIsObject()).thenReturn((byte) 0x01);
+    when(event.getSenderCallbackArgument()).thenReturn(callbackArg);
+    when(event.getNumberOfParts()).thenReturn(callbackArg == null ? 8 : 9);
+    return event;
+  }
+
+  private void sendBatch(List<GatewaySenderEventImpl> events, GatewayBatchCompressor compressor)
+      throws Exception {
+    GatewaySenderBatchOp.GatewaySenderGFEBatchOpImpl op =
+        new GatewaySenderBatchOp.GatewaySenderGFEBatchOpImpl(events, batchId++, false, 1, false,
+            compressor == null ? null : connection, compressor);
+    if (compressor != null) {
+      compressor.batchSent(connection);
+    }
+    GatewayReceiverCommand.getCommand().cmdExecute(op.getMessage(), serverConnection,
+        mock(SecurityService.class), 0);
+  }
+
+  private void verifyCreated(int i, Object callbackArg) {
+    verify(region).basicBridgeCreate(eq("key-" + i), eq(value(i)), eq(true), eq(callbackArg),
+        any(), eq(false), any(), eq(false));
+  }
+
+  @Test
+  public void compressedValuesAndTheirCallbackArgumentsAreAppliedAsSent() throws Exception {
+    List<GatewaySenderEventImpl> events = new ArrayList<>();
+    events.add(event(0, null));
+    events.add(event(1, "callback"));
+    events.add(event(2, null));
+
+    sendBatch(events, compressor);
+
+    verifyCreated(0, null);
+    verifyCreated(1, "callback");
+    verifyCreated(2, null);
+  }
+
+  @Test
+  public void laterBatchWithoutDictionaryIsAppliedAsSent() throws Exception {
+    List<GatewaySenderEventImpl> first = new ArrayList<>();
+    first.add(event(0, null));
+    sendBatch(first, compressor);
+    List<GatewaySenderEventImpl> second = new ArrayList<>();
+    second.add(event(1, "callback"));
+    second.add(event(2, null));
+
+    sendBatch(second, compressor);
+
+    verifyCreated(1, "callback");
+    verifyCreated(2, null);
+  }
+
+  @Test
+  public void uncompressedValuesAreAppliedAsSent() throws Exception {
+    List<GatewaySenderEventImpl> events = new ArrayList<>();
+    events.add(event(0, "callback"));
+    events.add(event(1, null));
+
+    sendBatch(events, null);
+
+    verifyCreated(0, "callback");
+    verifyCreated(1, null);
+    verify(serverConnection, never()).getGatewayBatchDecompressor();
+    verify(region, never()).basicBridgePut(any(), any(), isNull(), anyBoolean(), any(), any(),
+        anyBoolean(), any());
+  }
+}